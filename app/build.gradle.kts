@@ -47,6 +47,15 @@ android {
         isCoreLibraryDesugaringEnabled = true
     }
 
+    testOptions {
+        // Log e outras chamadas do android.jar retornam valores padrão nos testes da JVM.
+        unitTests.isReturnDefaultValues = true
+        // Benchmarks (classes *Benchmark) só rodam com -Pbenchmarks; ver Benchmarks.exigirHabilitados().
+        unitTests.all {
+            it.systemProperty("benchmarks", project.hasProperty("benchmarks"))
+        }
+    }
+
     packaging {
         resources {
             excludes += setOf(
@@ -95,6 +104,8 @@ dependencies {
     // Networking
     implementation(libs.retrofit.core)
     implementation(libs.retrofit.converter.gson)
+    // Usado diretamente (IdeiaDiff); não depender da versão trazida pelo converter do Retrofit.
+    implementation(libs.gson)
 
     implementation(libs.androidx.navigation.fragment)
     implementation(libs.androidx.navigation.ui)
@@ -52,7 +52,7 @@ public class AddPostItDialogFragment extends DialogFragment {
         AddPostItDialogFragment f = new AddPostItDialogFragment();
         Bundle b = new Bundle();
         b.putString(ARG_ETAPA_CHAVE, etapaChave);
-        b.putSerializable(ARG_POSTIT_ANTIGO, postit);
+        b.putParcelable(ARG_POSTIT_ANTIGO, postit);
         f.setArguments(b);
         return f;
     }
@@ -65,7 +65,7 @@ public class AddPostItDialogFragment extends DialogFragment {
         Bundle args = getArguments();
         if (args != null) {
             etapaChave  = args.getString(ARG_ETAPA_CHAVE);
-            postitParaEditar = (PostIt) args.getSerializable(ARG_POSTIT_ANTIGO);
+            postitParaEditar = args.getParcelable(ARG_POSTIT_ANTIGO);
             isEditMode  = (postitParaEditar != null);
         }
         // Estilo para remover o título padrão do Dialog
@@ -190,18 +190,9 @@ public class IdeiaStatusFragment extends Fragment {
         });
 
         // Observa o carregamento da ANÁLISE DE IA
-        sharedViewModel.isIaLoading.observe(getViewLifecycleOwner(), isLoading -> {
-            if (binding == null || !isAdded()) return;
-            if (isLoading) {
-                binding.progressBarIa.setVisibility(View.VISIBLE);
-                binding.btnSolicitarAnaliseIa.setEnabled(false);
-                binding.btnSolicitarAnaliseIa.setText("Analisando...");
-            } else {
-                binding.progressBarIa.setVisibility(View.GONE);
-                binding.btnSolicitarAnaliseIa.setEnabled(true);
-                binding.btnSolicitarAnaliseIa.setText("Solicitar Pré-Análise com IA");
-            }
-        });
+        sharedViewModel.isIaLoading.observe(getViewLifecycleOwner(), isLoading -> atualizarAnaliseIa());
+        // Análise já corresponde ao canvas atual: o botão fica desabilitado até o canvas mudar.
+        sharedViewModel.analiseIAAtualizada.observe(getViewLifecycleOwner(), atualizada -> atualizarAnaliseIa());
 
         sharedViewModel.isVoting.observe(getViewLifecycleOwner(), isVoting -> {
             if (binding == null || !isAdded()) return;
@@ -211,6 +202,35 @@ public class IdeiaStatusFragment extends Fragment {
         });
     }
 
+    /**
+     * Texto e botão da análise de IA, a partir da ideia atual, do carregamento e de a análise
+     * já corresponder ao canvas.
+     */
+    private void atualizarAnaliseIa() {
+        if (binding == null || !isAdded() || currentIdeia == null) return;
+        boolean carregando = Boolean.TRUE.equals(sharedViewModel.isIaLoading.getValue());
+        boolean atualizada = Boolean.TRUE.equals(sharedViewModel.analiseIAAtualizada.getValue());
+        boolean hasIAAnalysis = currentIdeia.getAvaliacaoIA() != null;
+
+        if (atualizada) {
+            binding.textIaStatus.setText("Sua análise de IA está pronta e atualizada com o canvas.");
+        } else if (hasIAAnalysis) {
+            binding.textIaStatus.setText("O canvas mudou desde a última análise de IA.");
+        } else {
+            binding.textIaStatus.setText("Receba um feedback instantâneo sobre sua ideia.");
+        }
+
+        binding.progressBarIa.setVisibility(carregando ? View.VISIBLE : View.GONE);
+        binding.btnSolicitarAnaliseIa.setEnabled(!carregando && !atualizada);
+        if (carregando) {
+            binding.btnSolicitarAnaliseIa.setText("Analisando...");
+        } else if (atualizada) {
+            binding.btnSolicitarAnaliseIa.setText("Análise atualizada");
+        } else {
+            binding.btnSolicitarAnaliseIa.setText(hasIAAnalysis ? "Solicitar nova análise" : "Solicitar pré-análise com IA");
+        }
+    }
+
     private void updateUI(Ideia ideia) {
         if (binding == null || getContext() == null) return;
 
@@ -303,18 +323,9 @@ public class IdeiaStatusFragment extends Fragment {
         binding.cardIa.setStrokeColor(iaColor);
         binding.iconIa.setImageTintList(ColorStateList.valueOf(iaColor));
 
-        if (hasIAAnalysis) {
-            binding.textIaStatus.setText("Sua análise de IA está pronta.");
-            binding.btnVerAnaliseIa.setVisibility(View.VISIBLE);
-            // Mostra o botão de solicitar novamente, caso o usuário queira atualizar
-            binding.btnSolicitarAnaliseIa.setVisibility(isOwner ? View.VISIBLE : View.GONE);
-            binding.btnSolicitarAnaliseIa.setText("Solicitar nova análise");
-        } else {
-            binding.textIaStatus.setText("Receba um feedback instantâneo sobre sua ideia.");
-            binding.btnVerAnaliseIa.setVisibility(View.GONE);
-            binding.btnSolicitarAnaliseIa.setVisibility(isOwner ? View.VISIBLE : View.GONE);
-            binding.btnSolicitarAnaliseIa.setText("Solicitar pré-análise com IA");
-        }
+        binding.btnVerAnaliseIa.setVisibility(hasIAAnalysis ? View.VISIBLE : View.GONE);
+        binding.btnSolicitarAnaliseIa.setVisibility(isOwner ? View.VISIBLE : View.GONE);
+        atualizarAnaliseIa();
         // Oculta tudo se não for o dono
         binding.cardIa.setVisibility(isOwner ? View.VISIBLE : View.GONE);
 
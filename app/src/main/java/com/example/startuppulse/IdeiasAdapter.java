@@ -12,6 +12,7 @@ import androidx.recyclerview.widget.RecyclerView;
 
 // import com.airbnb.lottie.LottieAnimationView; // Não é mais necessário com View Binding
 import com.example.startuppulse.data.models.Ideia;
+import com.example.startuppulse.data.models.IdeiaSummary;
 // --- CORREÇÃO: Importar a classe de Binding ---
 import com.example.startuppulse.databinding.ItemIdeiaBinding;
 import com.google.firebase.auth.FirebaseAuth;
@@ -19,18 +20,34 @@ import com.google.firebase.auth.FirebaseUser;
 
 import java.util.Objects;
 
-public class IdeiasAdapter extends ListAdapter<Ideia, IdeiasAdapter.IdeiaViewHolder> {
+public class IdeiasAdapter extends ListAdapter<IdeiaSummary, IdeiasAdapter.IdeiaViewHolder> {
 
     public interface OnIdeiaClickListener {
-        void onIdeiaClick(Ideia ideia);
+        void onIdeiaClick(IdeiaSummary ideia);
+    }
+
+    /**
+     * Avisado quando um item a menos de {@code prefetchDistance} posições do fim é exibido,
+     * para que a próxima página seja carregada antes de o usuário chegar ao final.
+     */
+    public interface OnNearEndListener {
+        void onNearEnd();
     }
 
     private final OnIdeiaClickListener clickListener;
+    private OnNearEndListener nearEndListener;
+    private int prefetchDistance = 0;
+
     public IdeiasAdapter(@NonNull OnIdeiaClickListener clickListener) {
         super(DIFF_CALLBACK);
         this.clickListener = clickListener;
     }
 
+    public void setOnNearEndListener(int prefetchDistance, OnNearEndListener listener) {
+        this.prefetchDistance = prefetchDistance;
+        this.nearEndListener = listener;
+    }
+
     @NonNull
     @Override
     public IdeiaViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
@@ -45,11 +62,15 @@ public class IdeiasAdapter extends ListAdapter<Ideia, IdeiasAdapter.IdeiaViewHol
 
     @Override
     public void onBindViewHolder(@NonNull IdeiaViewHolder holder, int position) {
-        Ideia ideia = getItem(position);
+        IdeiaSummary ideia = getItem(position);
         holder.bind(ideia, clickListener);
+
+        if (nearEndListener != null && position >= getItemCount() - 1 - prefetchDistance) {
+            nearEndListener.onNearEnd();
+        }
     }
 
-    public Ideia getIdeiaAt(int position) {
+    public IdeiaSummary getIdeiaAt(int position) {
         return getItem(position);
     }
 
@@ -69,7 +90,7 @@ public class IdeiasAdapter extends ListAdapter<Ideia, IdeiasAdapter.IdeiaViewHol
         }
 
         @SuppressLint("SetTextI18n")
-        void bind(final Ideia ideia, final OnIdeiaClickListener listener) {
+        void bind(final IdeiaSummary ideia, final OnIdeiaClickListener listener) {
             if (ideia == null) return;
 
             // --- CORREÇÃO: Acessa as views através do binding ---
@@ -134,15 +155,18 @@ public class IdeiasAdapter extends ListAdapter<Ideia, IdeiasAdapter.IdeiaViewHol
         }
     }
 
-    private static final DiffUtil.ItemCallback<Ideia> DIFF_CALLBACK = new DiffUtil.ItemCallback<Ideia>() {
+    private static final DiffUtil.ItemCallback<IdeiaSummary> DIFF_CALLBACK = new DiffUtil.ItemCallback<IdeiaSummary>() {
         @Override
-        public boolean areItemsTheSame(@NonNull Ideia oldItem, @NonNull Ideia newItem) {
+        public boolean areItemsTheSame(@NonNull IdeiaSummary oldItem, @NonNull IdeiaSummary newItem) {
             return Objects.equals(oldItem.getId(), newItem.getId());
         }
 
         @SuppressLint("DiffUtilEquals")
         @Override
-        public boolean areContentsTheSame(@NonNull Ideia oldItem, @NonNull Ideia newItem) {
+        public boolean areContentsTheSame(@NonNull IdeiaSummary oldItem, @NonNull IdeiaSummary newItem) {
+            // O repositório reaproveita a mesma instância para documentos que não mudaram
+            // (IncrementalDocumentList), então a comparação por referência resolve a maioria dos itens.
+            if (oldItem == newItem) return true;
             // Compare todos os campos que afetam a UI
             return Objects.equals(oldItem.getNome(), newItem.getNome())
                     && Objects.equals(oldItem.getAutorNome(), newItem.getAutorNome())
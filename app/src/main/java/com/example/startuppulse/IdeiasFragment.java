@@ -2,6 +2,8 @@
 package com.example.startuppulse;
 
 import android.os.Bundle;
+import android.text.Editable;
+import android.text.TextWatcher;
 import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.View;
@@ -17,7 +19,8 @@ import androidx.recyclerview.widget.ItemTouchHelper;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 import com.example.startuppulse.common.Result;
-import com.example.startuppulse.data.models.Ideia;
+import com.example.startuppulse.data.models.IdeiaSummary;
+import com.example.startuppulse.data.repositories.IIdeiaRepository;
 import com.example.startuppulse.databinding.FragmentIdeiasBinding;
 import com.example.startuppulse.ui.ideias.IdeiasViewModel;
 import com.google.android.material.snackbar.Snackbar;
@@ -49,6 +52,8 @@ public class IdeiasFragment extends Fragment {
         setupRecyclerView();
         setupObservers();
         attachSwipeToDelete();
+        setupSearch();
+        setupModoFeed();
 
         binding.swipeRefreshLayout.setOnRefreshListener(() -> viewModel.refresh());
     }
@@ -62,16 +67,37 @@ public class IdeiasFragment extends Fragment {
     private void setupRecyclerView() {
         // A navegação agora é tratada pelo ViewModel, o adapter apenas reporta o clique
         ideiasAdapter = new IdeiasAdapter(ideia -> viewModel.onIdeiaClicked(ideia, requireContext()));
+        // Paginação: a próxima página é pedida quando a rolagem se aproxima do fim.
+        ideiasAdapter.setOnNearEndListener(IIdeiaRepository.FEED_PREFETCH_DISTANCE, () -> viewModel.loadNextPage());
         binding.recyclerViewIdeias.setLayoutManager(new LinearLayoutManager(requireContext()));
         binding.recyclerViewIdeias.setAdapter(ideiasAdapter);
     }
 
+    private void setupSearch() {
+        binding.searchEditTextIdeias.addTextChangedListener(new TextWatcher() {
+            @Override public void beforeTextChanged(CharSequence s, int start, int count, int after) {}
+            @Override public void onTextChanged(CharSequence s, int start, int before, int count) {}
+            @Override public void afterTextChanged(Editable s) {
+                viewModel.buscar(s.toString());
+            }
+        });
+    }
+
+    private void setupModoFeed() {
+        // A ordenação é refeita no ViewModel sobre as ideias já carregadas, sem nova leitura.
+        binding.chipGroupModoFeed.setOnCheckedStateChangeListener((group, checkedIds) -> {
+            boolean emAlta = checkedIds.contains(R.id.chip_modo_em_alta);
+            viewModel.setModoFeed(emAlta ? IdeiasViewModel.ModoFeed.EM_ALTA : IdeiasViewModel.ModoFeed.RECENTES);
+            binding.recyclerViewIdeias.scrollToPosition(0);
+        });
+    }
+
     private void setupObservers() {
         viewModel.publicIdeias.observe(getViewLifecycleOwner(), result -> {
             if (binding == null) return;
 
             if (result instanceof Result.Success) {
-                List<Ideia> ideias = ((Result.Success<List<Ideia>>) result).data;
+                List<IdeiaSummary> ideias = ((Result.Success<List<IdeiaSummary>>) result).data;
                 ideias = (ideias == null) ? new ArrayList<>() : ideias;
 
                 ideiasAdapter.submitList(ideias);
@@ -80,7 +106,7 @@ public class IdeiasFragment extends Fragment {
                 binding.errorState.setVisibility(View.GONE);
 
             } else if (result instanceof Result.Error) {
-                Log.e("IdeiasFragment", "Erro ao carregar ideias", ((Result.Error<List<Ideia>>) result).error);
+                Log.e("IdeiasFragment", "Erro ao carregar ideias", ((Result.Error<List<IdeiaSummary>>) result).error);
                 ideiasAdapter.submitList(new ArrayList<>());
                 binding.viewEmptyStateIdeias.setVisibility(View.GONE);
                 binding.recyclerViewIdeias.setVisibility(View.GONE);
@@ -141,7 +167,7 @@ public class IdeiasFragment extends Fragment {
                 int position = viewHolder.getAdapterPosition();
                 if (position == RecyclerView.NO_POSITION) return 0;
 
-                Ideia ideia = ideiasAdapter.getIdeiaAt(position);
+                IdeiaSummary ideia = ideiasAdapter.getIdeiaAt(position);
                 // A lógica de permissão agora está no ViewModel
                 return viewModel.canDeleteIdeia(ideia) ? super.getSwipeDirs(recyclerView, viewHolder) : 0;
             }
@@ -151,7 +177,7 @@ public class IdeiasFragment extends Fragment {
                 int position = viewHolder.getAdapterPosition();
                 if (position == RecyclerView.NO_POSITION) return;
 
-                final Ideia ideiaParaExcluir = ideiasAdapter.getIdeiaAt(position);
+                final IdeiaSummary ideiaParaExcluir = ideiasAdapter.getIdeiaAt(position);
 
                 // Mostra um Snackbar para confirmar a exclusão.
                 Snackbar.make(binding.getRoot(), "Ideia movida para a lixeira", Snackbar.LENGTH_LONG)
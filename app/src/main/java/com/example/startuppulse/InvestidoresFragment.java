@@ -16,7 +16,7 @@ import androidx.navigation.fragment.NavHostFragment;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView; // NOVO IMPORT
 
-import com.example.startuppulse.data.models.Ideia; // NOVO IMPORT
+import com.example.startuppulse.data.models.IdeiaSummary;
 import com.example.startuppulse.databinding.FragmentInvestidoresBinding;
 import com.example.startuppulse.ui.investor.InvestidoresViewModel;
 import com.example.startuppulse.ui.investor.InvestorAdapter;
@@ -35,7 +35,7 @@ public class InvestidoresFragment extends Fragment {
     private NavController navController;
 
     // Lista de ideias para o filtro
-    private List<Ideia> userIdeias;
+    private List<IdeiaSummary> userIdeias;
     // Texto padrão para "Todos"
     private static final String FILTRO_TODOS = "Todos os Investidores";
 
@@ -70,7 +70,7 @@ public class InvestidoresFragment extends Fragment {
                 viewModel.setFilter(null);
             } else {
                 // Posição 1 em diante é userIdeias.get(position - 1)
-                Ideia selectedIdeia = userIdeias.get(position - 1);
+                IdeiaSummary selectedIdeia = userIdeias.get(position - 1);
                 viewModel.setFilter(selectedIdeia);
             }
         });
@@ -130,7 +130,7 @@ public class InvestidoresFragment extends Fragment {
 
                 ArrayList<String> ideiaNomes = new ArrayList<>();
                 ideiaNomes.add(FILTRO_TODOS); // Opção padrão
-                for (Ideia ideia : ideias) {
+                for (IdeiaSummary ideia : ideias) {
                     ideiaNomes.add(ideia.getNome());
                 }
                 ArrayAdapter<String> adapter = new ArrayAdapter<>(requireContext(), android.R.layout.simple_dropdown_item_1line, ideiaNomes);
@@ -115,6 +115,11 @@ public class LimiteHelper {
     }
 
 
+    /**
+     * @deprecated a cota de publicação é verificada e consumida no mesmo commit da publicação
+     * por {@link com.example.startuppulse.data.repositories.IIdeiaRepository#publicarIdeia}.
+     */
+    @Deprecated
     public static void verificarPublicacaoIdeia(Context context, LimiteCallback callback) {
         FirebaseUser user = FirebaseAuth.getInstance().getCurrentUser();
         if (user == null) {
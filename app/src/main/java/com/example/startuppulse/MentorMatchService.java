@@ -8,26 +8,45 @@ import androidx.annotation.Nullable;
 
 import com.example.startuppulse.data.models.Mentor;
 import com.example.startuppulse.data.models.User;
+import com.example.startuppulse.util.AreaDictionary;
+import com.example.startuppulse.util.AreaMask;
+import com.example.startuppulse.util.GeoMath;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
-import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
 
 /**
  * Serviço utilitário para ranquear mentores de acordo com:
  * 1️⃣ Afinidade de áreas (maior primeiro)
- * 2️⃣ Proximidade geográfica (menor distância primeiro)
+ * 2️⃣ Carga: ideias EM_AVALIACAO já vinculadas (menor primeiro)
+ * 3️⃣ Proximidade geográfica (menor distância primeiro)
+ *
+ * A carga nunca supera um ponto de afinidade, mas entre mentores igualmente afins o menos ocupado
+ * vence o mais próximo: numa cidade com muitos mentores, as ideias se espalham em vez de irem
+ * todas para o mesmo. Mentores com {@link #CAPACIDADE_MENTOR} ideias em avaliação ficam fora do
+ * ranking até avaliarem alguma.
  *
  * Usa User (dados compartilháveis) que podem conter dados de mentor
  * via user.getMentorData().
  *
- * Log detalhado adicionado para rastrear cada etapa do processo.
+ * A afinidade e a distância de cada candidato são calculadas uma única vez (em arrays primitivos)
+ * e a ordenação compara só índices. A afinidade é o número de áreas em comum entre as máscaras do
+ * {@link AreaDictionary} (sinônimos e acentos já normalizados), um popcount sem alocação; as
+ * distâncias saem de uma única passada do {@link GeoMath} sobre as coordenadas.
+ * Empates mantêm a ordem de entrada (ex.: a ordem por proximidade da busca por raio).
  */
 public final class MentorMatchService {
 
     private static final String TAG = "MentorMatchService";
+    // Quantas posições do ranking vão para o log.
+    private static final int MAX_LOG_RANKING = 5;
+    /** Máximo de ideias EM_AVALIACAO por mentor para ele receber novas pelo match. */
+    public static final int CAPACIDADE_MENTOR = 5;
 
     private MentorMatchService() {
         // Classe utilitária, sem instância
@@ -39,7 +58,7 @@ public final class MentorMatchService {
      * @param users Lista de usuários (mentores potenciais).
      * @param areasDaIdeia Áreas associadas à ideia.
      * @param localizacaoUsuario Localização usada como referência (pode ser null).
-     * @return Lista ordenada de mentores.
+     * @return Lista ordenada de mentores, sem os que estão na capacidade máxima.
      */
     @NonNull
     public static List<User> ordenarPorAfinidadeEProximidade(
@@ -51,122 +70,191 @@ public final class MentorMatchService {
             Log.w(TAG, "Nenhum mentor recebido para ordenação.");
             return Collections.emptyList();
         }
+        return ordenar(pontuar(users, areasDaIdeia, latitude(localizacaoUsuario), longitude(localizacaoUsuario)));
+    }
 
-        Log.d(TAG, "Iniciando ordenação de " + users.size() + " mentores. Localização disponível? " + (localizacaoUsuario != null));
-        Log.d(TAG, "Áreas da ideia: " + areasDaIdeia);
-
-        List<User> copia = new ArrayList<>(users);
-
-        // Comparador composto: afinidade (desc) + distância (asc)
-        Comparator<User> comparador = (u1, u2) -> {
-            int afinidade1 = calcularPontosDeAfinidade(u1, areasDaIdeia);
-            int afinidade2 = calcularPontosDeAfinidade(u2, areasDaIdeia);
-            int cmpAfinidade = Integer.compare(afinidade2, afinidade1); // maior primeiro
-            if (cmpAfinidade != 0) return cmpAfinidade;
-
-            double distancia1 = calcularDistancia(u1, localizacaoUsuario);
-            double distancia2 = calcularDistancia(u2, localizacaoUsuario);
-            return Double.compare(distancia1, distancia2); // menor primeiro
-        };
-
-        Collections.sort(copia, comparador);
-
-        // Log detalhado dos resultados
-        for (int i = 0; i < copia.size(); i++) {
-            User u = copia.get(i);
-            int afinidade = calcularPontosDeAfinidade(u, areasDaIdeia);
-            double distancia = calcularDistancia(u, localizacaoUsuario);
-            Log.d(TAG, String.format(
-                    "Rank #%d → %s | Afinidade: %d | Distância: %.1fm",
-                    i + 1,
-                    u.getNome() != null ? u.getNome() : "(sem nome)",
-                    afinidade,
-                    (distancia == Double.MAX_VALUE ? -1 : distancia)
-            ));
+    /**
+     * Afinidade, carga e distância de cada candidato, calculadas uma vez para {@link #ordenar} ou
+     * {@link #melhores(Pontuacao, int)}. Sem referência, passe {@link Double#NaN} em latitude e
+     * longitude: a distância não entra no ranking.
+     */
+    @NonNull
+    public static Pontuacao pontuar(@NonNull List<User> users, @NonNull List<String> areasDaIdeia,
+                                    double latitude, double longitude) {
+        return new Pontuacao(users, areasDaIdeia, latitude, longitude);
+    }
+
+    /**
+     * Todos os candidatos pontuados, do melhor ao pior, sem os que estão na capacidade máxima.
+     */
+    @NonNull
+    public static List<User> ordenar(@NonNull Pontuacao p) {
+        List<User> users = p.users;
+        List<Integer> disponiveis = new ArrayList<>(users.size());
+        for (int i = 0; i < users.size(); i++) {
+            if (p.disponivel(i)) disponiveis.add(i);
         }
+        Integer[] ordem = disponiveis.toArray(new Integer[0]);
+        Arrays.sort(ordem, p.comparador()); // estável: empates ficam na ordem de entrada
 
-        Log.i(TAG, "Ordenação concluída. Retornando lista ranqueada.");
-        return copia;
+        List<User> ordenados = new ArrayList<>(ordem.length);
+        for (Integer i : ordem) ordenados.add(users.get(i));
+        logRanking(p, ordem, users.size());
+        return ordenados;
     }
 
-    // ------------------------------------------------------------------------
-    // 🔸 MÉTODOS AUXILIARES
-    // ------------------------------------------------------------------------
+    /**
+     * Os {@code k} melhores mentores, na mesma ordem de {@link #ordenarPorAfinidadeEProximidade},
+     * sem ordenar a lista inteira: um heap limitado a k guarda os melhores vistos (O(n log k)).
+     *
+     * @param k Quantidade desejada (ex.: 1 para o auto-match, 5 para sugestões).
+     */
+    @NonNull
+    public static List<User> melhores(
+            @NonNull List<User> users,
+            @NonNull List<String> areasDaIdeia,
+            @Nullable Location localizacaoUsuario,
+            int k
+    ) {
+        if (users.isEmpty() || k <= 0) return Collections.emptyList();
+        return melhores(pontuar(users, areasDaIdeia, latitude(localizacaoUsuario), longitude(localizacaoUsuario)), k);
+    }
 
     /**
-     * Retorna número de áreas em comum entre o mentor e a ideia.
+     * Os {@code k} melhores de candidatos já pontuados por {@link #pontuar}.
      */
-    private static int calcularPontosDeAfinidade(@NonNull User user, @NonNull List<String> areasDaIdeia) {
-        List<String> areasUser = user.getAreasDeInteresse();
-        if (areasUser == null || areasUser.isEmpty() || areasDaIdeia == null || areasDaIdeia.isEmpty()) {
-            return 0;
-        }
+    @NonNull
+    public static List<User> melhores(@NonNull Pontuacao p, int k) {
+        List<User> users = p.users;
+        if (users.isEmpty() || k <= 0) return Collections.emptyList();
 
-        HashSet<String> setUser = new HashSet<>();
-        for (String area : areasUser) {
-            if (area != null && !area.trim().isEmpty()) {
-                setUser.add(area.trim().toLowerCase());
+        Comparator<Integer> comparador = p.comparador();
+        // Heap com o pior dos k melhores no topo.
+        PriorityQueue<Integer> heap = new PriorityQueue<>(Math.min(k, users.size()) + 1, comparador.reversed());
+        for (int i = 0; i < users.size(); i++) {
+            if (!p.disponivel(i)) continue;
+            if (heap.size() < k) {
+                heap.add(i);
+            } else if (comparador.compare(i, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(i);
             }
         }
 
-        int count = 0;
-        for (String area : areasDaIdeia) {
-            if (area != null && setUser.contains(area.trim().toLowerCase())) {
-                count++;
-            }
-        }
-        return count;
+        Integer[] ordem = heap.toArray(new Integer[0]);
+        Arrays.sort(ordem, comparador);
+        List<User> melhores = new ArrayList<>(ordem.length);
+        for (Integer i : ordem) melhores.add(users.get(i));
+        logRanking(p, ordem, users.size());
+        return melhores;
+    }
+
+    // ------------------------------------------------------------------------
+    // 🔸 MÉTODOS AUXILIARES
+    // ------------------------------------------------------------------------
+
+    private static double latitude(@Nullable Location l) {
+        return l != null ? l.getLatitude() : Double.NaN;
+    }
+
+    private static double longitude(@Nullable Location l) {
+        return l != null ? l.getLongitude() : Double.NaN;
     }
 
     /**
-     * Retorna distância (em metros) entre o mentor e a localização do usuário.
-     * Retorna Double.MAX_VALUE se não houver dados de localização válidos.
+     * Afinidade, carga e distância de cada candidato, indexadas pela posição na lista de entrada.
      */
-    public static double calcularDistancia(@NonNull User mentor, @Nullable Location referencia) {
-        try {
-            if (mentor == null) {
-                Log.w(TAG, "Mentor nulo ao calcular distância.");
-                return -1;
-            }
+    public static final class Pontuacao {
+        final List<User> users;
+        final int[] afinidades;
+        final int[] cargas;
+        final double[] distancias; // Double.MAX_VALUE quando não há localização válida
 
-            Mentor mentorData = mentor.getMentorData();
-            if (mentorData == null) {
-                Log.w(TAG, "Mentor sem dados de localização.");
-                return -1;
-            }
+        Pontuacao(List<User> users, List<String> areasDaIdeia, double latRef, double lonRef) {
+            this.users = users;
+            int n = users.size();
+            afinidades = new int[n];
+            cargas = new int[n];
+            distancias = new double[n];
 
-            double latMentor = mentorData.getLatitude();
-            double lonMentor = mentorData.getLongitude();
+            AreaMask areasIdeia = AreaDictionary.mascara(areasDaIdeia);
+            double[] lats = new double[n];
+            double[] lons = new double[n];
 
-            // 🔹 Evita coordenadas zeradas (ou padrão sem GPS)
-            if (latMentor == 0.0 && lonMentor == 0.0) {
-                Log.w(TAG, "Mentor com coordenadas inválidas (0,0): " + mentor.getNome());
-                return -1;
+            for (int i = 0; i < n; i++) {
+                User user = users.get(i);
+                afinidades[i] = user != null ? areasIdeia.intersecao(user.getAreasMask()) : 0;
+                cargas[i] = carga(user);
+                Mentor mentorData = user != null ? user.getMentorData() : null;
+                lats[i] = latitudeMentor(mentorData);
+                lons[i] = mentorData != null ? mentorData.getLongitude() : Double.NaN;
             }
 
-            if (referencia == null) {
-                Log.w(TAG, "Localização de referência nula.");
-                return -1;
+            // Todas as distâncias de uma vez a partir da referência; NaN = sem localização válida.
+            if (Double.isNaN(latRef) || Double.isNaN(lonRef)) {
+                Arrays.fill(distancias, Double.MAX_VALUE);
+            } else {
+                new GeoMath.Origem(latRef, lonRef).distancias(lats, lons, n, distancias);
+                for (int i = 0; i < n; i++) {
+                    if (Double.isNaN(distancias[i])) distancias[i] = Double.MAX_VALUE;
+                }
             }
+        }
 
-            Location locMentor = new Location("mentor");
-            locMentor.setLatitude(latMentor);
-            locMentor.setLongitude(lonMentor);
-
-            double distancia = referencia.distanceTo(locMentor);
+        Comparator<Integer> comparador() {
+            return (a, b) -> {
+                int cmp = Integer.compare(afinidades[b], afinidades[a]); // maior primeiro
+                if (cmp != 0) return cmp;
+                cmp = Integer.compare(cargas[a], cargas[b]); // menos ocupado primeiro
+                if (cmp != 0) return cmp;
+                cmp = Double.compare(distancias[a], distancias[b]); // menor primeiro
+                return cmp != 0 ? cmp : Integer.compare(a, b);
+            };
+        }
 
-            if (Double.isNaN(distancia) || Double.isInfinite(distancia)) {
-                Log.w(TAG, "Distância inválida calculada para " + mentor.getNome());
-                return -1;
-            }
+        boolean disponivel(int i) {
+            return cargas[i] < CAPACIDADE_MENTOR;
+        }
 
-            return distancia;
+        // Contador mantido por increment(); valores negativos (ideias anteriores ao contador) contam como 0.
+        private static int carga(@Nullable User user) {
+            Mentor mentorData = user != null ? user.getMentorData() : null;
+            return mentorData != null ? Math.max(0, mentorData.getIdeiasEmAvaliacao()) : 0;
+        }
 
-        } catch (Exception e) {
-            Log.e(TAG, "Erro ao calcular distância: " + e.getMessage(), e);
-            return -1;
+        // Latitude do mentor, ou NaN se ele não tem localização (sem perfil ou 0,0).
+        private static double latitudeMentor(@Nullable Mentor mentorData) {
+            if (mentorData == null) return Double.NaN;
+            double lat = mentorData.getLatitude();
+            return lat == 0.0 && mentorData.getLongitude() == 0.0 ? Double.NaN : lat;
         }
     }
 
+    private static void logRanking(Pontuacao p, Integer[] ordem, int total) {
+        int n = Math.min(MAX_LOG_RANKING, ordem.length);
+        for (int r = 0; r < n; r++) {
+            int i = ordem[r];
+            User u = p.users.get(i);
+            Log.d(TAG, String.format(Locale.ROOT,
+                    "Rank #%d → %s | Afinidade: %d | Carga: %d | Distância: %.1fm",
+                    r + 1,
+                    u != null && u.getNome() != null ? u.getNome() : "(sem nome)",
+                    p.afinidades[i],
+                    p.cargas[i],
+                    (p.distancias[i] == Double.MAX_VALUE ? -1 : p.distancias[i])
+            ));
+        }
+        Log.i(TAG, "Ranking concluído: " + total + " mentores avaliados.");
+    }
 
+    /**
+     * Retorna distância (em metros) entre o mentor e a localização do usuário.
+     * Retorna -1 se não houver dados de localização válidos.
+     */
+    public static double calcularDistancia(@NonNull User mentor, @Nullable Location referencia) {
+        Mentor mentorData = mentor.getMentorData();
+        double lat = Pontuacao.latitudeMentor(mentorData);
+        if (referencia == null || Double.isNaN(lat)) return -1;
+        return GeoMath.distancia(referencia.getLatitude(), referencia.getLongitude(), lat, mentorData.getLongitude());
+    }
 }
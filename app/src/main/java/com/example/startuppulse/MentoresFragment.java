@@ -30,6 +30,8 @@ import com.example.startuppulse.data.models.Mentor;
 import com.example.startuppulse.data.models.User;
 import com.example.startuppulse.databinding.FragmentMentoresBinding;
 import com.example.startuppulse.ui.mentor.MentoresViewModel;
+import com.example.startuppulse.util.AreaDictionary;
+import com.example.startuppulse.util.AreaMask;
 import com.example.startuppulse.util.GeoCache;
 import com.google.android.material.snackbar.Snackbar;
 
@@ -41,13 +43,12 @@ import org.osmdroid.views.overlay.Marker;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
-import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import javax.inject.Inject;
 import dagger.hilt.android.AndroidEntryPoint;
 
 @AndroidEntryPoint
@@ -57,8 +58,9 @@ public class MentoresFragment extends Fragment {
     private MentoresViewModel viewModel;
     private MentoresAdapter mentoresAdapter;
     private final List<User> allUsers = new ArrayList<>(); // agora User
-    private String selectedArea = "Todas as áreas";
-    private GeoCache geoCache;
+    private String selectedArea = AreaDictionary.TODAS;
+    @Inject
+    GeoCache geoCache;
     private static String lastKnownCity = null;
 
     @Override
@@ -75,7 +77,6 @@ public class MentoresFragment extends Fragment {
                              @Nullable Bundle savedInstanceState) {
         binding = FragmentMentoresBinding.inflate(inflater, container, false);
         viewModel = new ViewModelProvider(this).get(MentoresViewModel.class);
-        geoCache = new GeoCache(requireContext());
 
         setupUI();
         observeViewModel();
@@ -170,7 +171,7 @@ public class MentoresFragment extends Fragment {
         binding.autoCompleteAreaFilter.setAdapter(dropAdapter);
 
         if (!opcoes.contains(selectedArea)) {
-            selectedArea = "Todas as áreas";
+            selectedArea = AreaDictionary.TODAS;
         }
         binding.autoCompleteAreaFilter.setText(selectedArea, false);
 
@@ -181,13 +182,14 @@ public class MentoresFragment extends Fragment {
         if (binding == null) return;
 
         List<User> visiveis;
-        if ("Todas as áreas".equals(selectedArea)) {
+        if (AreaDictionary.TODAS.equals(selectedArea)) {
             visiveis = new ArrayList<>(allUsers);
         } else {
+            // Teste de bit na máscara: "RH" e "People / RH" são a mesma área
+            int areaId = AreaDictionary.id(selectedArea);
             visiveis = new ArrayList<>();
             for (User u : allUsers) {
-                List<String> areas = u.getAreasDeInteresse();
-                if (areas != null && areas.contains(selectedArea)) {
+                if (u.getAreasMask().contem(areaId)) {
                     visiveis.add(u);
                 }
             }
@@ -203,20 +205,17 @@ public class MentoresFragment extends Fragment {
     }
 
     private List<String> construirOpcoesDeArea(List<User> users) {
-        Set<String> set = new HashSet<>();
+        // Uma opção por área canônica, mesmo que os mentores a escrevam de formas diferentes
+        AreaMask todas = AreaMask.VAZIA;
         for (User u : users) {
-            List<String> areas = u.getAreasDeInteresse();
-            if (areas != null) {
-                for (String area : areas) {
-                    if (area != null && !area.trim().isEmpty()) {
-                        set.add(area.trim());
-                    }
-                }
-            }
+            todas = todas.uniao(u.getAreasMask());
         }
         List<String> out = new ArrayList<>();
-        out.add("Todas as áreas");
-        List<String> sorted = new ArrayList<>(set);
+        out.add(AreaDictionary.TODAS);
+        List<String> sorted = new ArrayList<>();
+        for (int id : todas.ids()) {
+            sorted.add(AreaDictionary.nome(id));
+        }
         sorted.sort(String::compareToIgnoreCase);
         out.addAll(sorted);
         return out;
@@ -250,6 +249,8 @@ public class MentoresFragment extends Fragment {
 
         executor.execute(() -> {
             final Geocoder geocoder = Geocoder.isPresent() ? new Geocoder(requireContext(), Locale.getDefault()) : null;
+            // Consultas vêm da memória do GeoCache; as cidades geocodificadas agora são gravadas juntas no fim.
+            final GeoCache.Lote novas = new GeoCache.Lote();
 
             for (Map.Entry<String, List<User>> entry : usersPorCidade.entrySet()) {
                 if (!isAdded()) break;
@@ -270,7 +271,7 @@ public class MentoresFragment extends Fragment {
                         if (addresses != null && !addresses.isEmpty()) {
                             double lat = addresses.get(0).getLatitude();
                             double lon = addresses.get(0).getLongitude();
-                            geoCache.put(cidadeNome, estadoNome, lat, lon);
+                            novas.add(cidadeNome, estadoNome, lat, lon);
                             GeoPoint point = new GeoPoint(lat, lon);
                             handler.post(() -> addMarker(cidadeNome, grupo.size(), point));
                         }
@@ -279,6 +280,8 @@ public class MentoresFragment extends Fragment {
                 }
             }
 
+            geoCache.putAll(novas);
+
             // Invalidate na UI thread
             handler.post(() -> {
                 if (binding != null && binding.mapView != null) {
@@ -334,19 +337,12 @@ public class MentoresFragment extends Fragment {
         binding.statCountMentores.setText(String.valueOf(visiveis.size()));
 
         int totalAreas;
-        if ("Todas as áreas".equals(selectedArea)) {
-            HashSet<String> areasUnicas = new HashSet<>();
+        if (AreaDictionary.TODAS.equals(selectedArea)) {
+            AreaMask areasUnicas = AreaMask.VAZIA;
             for (User u : visiveis) {
-                List<String> areas = u.getAreasDeInteresse();
-                if (areas != null) {
-                    for (String area : areas) {
-                        if (area != null && !area.trim().isEmpty()) {
-                            areasUnicas.add(area.trim());
-                        }
-                    }
-                }
+                areasUnicas = areasUnicas.uniao(u.getAreasMask());
             }
-            totalAreas = areasUnicas.size();
+            totalAreas = areasUnicas.tamanho();
         } else {
             totalAreas = visiveis.isEmpty() ? 0 : 1;
         }
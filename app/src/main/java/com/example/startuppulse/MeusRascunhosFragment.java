@@ -19,7 +19,7 @@ import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.startuppulse.common.Result;
-import com.example.startuppulse.data.models.Ideia;
+import com.example.startuppulse.data.models.IdeiaSummary;
 import com.example.startuppulse.databinding.DialogConfirmDeleteBinding;
 import com.example.startuppulse.databinding.FragmentMeusRascunhosBinding;
 import com.example.startuppulse.ui.ideias.MeusRascunhosViewModel;
@@ -94,7 +94,7 @@ public class MeusRascunhosFragment extends Fragment {
 
             if (result instanceof Result.Success) {
                 // Se for sucesso, extrai a lista de forma segura
-                List<Ideia> rascunhos = ((Result.Success<List<Ideia>>) result).data;
+                List<IdeiaSummary> rascunhos = ((Result.Success<List<IdeiaSummary>>) result).data;
                 rascunhos = (rascunhos == null) ? new ArrayList<>() : rascunhos;
 
                 ideiasAdapter.submitList(rascunhos);
@@ -108,9 +108,9 @@ public class MeusRascunhosFragment extends Fragment {
             } else if (result instanceof Result.Error) {
                 // Se for erro, mostra a UI de erro
                 binding.errorState.setVisibility(View.VISIBLE);
-                String errorMsg = ((Result.Error<List<Ideia>>) result).error.getMessage();
+                String errorMsg = ((Result.Error<List<IdeiaSummary>>) result).error.getMessage();
                 binding.errorText.setText("Não foi possível carregar seus rascunhos: " + errorMsg);
-                Log.e("MeusRascunhosFragment", "Erro ao carregar rascunhos", ((Result.Error<List<Ideia>>) result).error);
+                Log.e("MeusRascunhosFragment", "Erro ao carregar rascunhos", ((Result.Error<List<IdeiaSummary>>) result).error);
             }
         });
 
@@ -134,7 +134,7 @@ public class MeusRascunhosFragment extends Fragment {
                 if (position == RecyclerView.NO_POSITION) return;
 
                 // Pega a ideia que foi arrastada
-                final Ideia ideiaParaExcluir = ideiasAdapter.getIdeiaAt(position);
+                final IdeiaSummary ideiaParaExcluir = ideiasAdapter.getIdeiaAt(position);
 
                 // --- LÓGICA DO SNACKBAR REMOVIDA ---
                 // Mostra o diálogo de confirmação
@@ -148,7 +148,7 @@ public class MeusRascunhosFragment extends Fragment {
      * @param ideia A ideia a ser excluída.
      * @param position A posição do item no adapter, para reverter a animação se o usuário cancelar.
      */
-    private void showConfirmDeleteDialog(final Ideia ideia, final int position) {
+    private void showConfirmDeleteDialog(final IdeiaSummary ideia, final int position) {
         if (getContext() == null) return;
 
         // Infla o layout customizado
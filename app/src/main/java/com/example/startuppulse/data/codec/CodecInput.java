@@ -0,0 +1,133 @@
+package com.example.startuppulse.data.codec;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.firebase.Timestamp;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Origem da decodificação binária dos modelos; espelho de {@link CodecOutput}.
+ *
+ * Dados corrompidos ou de outra versão resultam em {@link IllegalStateException}
+ * (ou {@link java.io.UncheckedIOException} na leitura de streams).
+ */
+public abstract class CodecInput {
+
+    /**
+     * Lê um item de uma lista.
+     */
+    public interface ItemReader<T> {
+        @NonNull
+        T read(@NonNull CodecInput in);
+    }
+
+    public abstract boolean readBoolean();
+
+    public abstract int readInt();
+
+    public abstract long readLong();
+
+    public abstract double readDouble();
+
+    @NonNull
+    protected abstract String readText();
+
+    @Nullable
+    public String readString() {
+        return readBoolean() ? readText() : null;
+    }
+
+    @Nullable
+    public Date readDate() {
+        return readBoolean() ? new Date(readLong()) : null;
+    }
+
+    @Nullable
+    public Timestamp readTimestamp() {
+        if (!readBoolean()) return null;
+        long seconds = readLong();
+        return new Timestamp(seconds, readInt());
+    }
+
+    @Nullable
+    public Double readNullableDouble() {
+        return readBoolean() ? readDouble() : null;
+    }
+
+    @Nullable
+    public Long readNullableLong() {
+        return readBoolean() ? readLong() : null;
+    }
+
+    @Nullable
+    public List<String> readStringList() {
+        int n = readTamanho();
+        if (n < 0) return null;
+        List<String> values = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) values.add(readString());
+        return values;
+    }
+
+    @Nullable
+    public <T> List<T> readList(@NonNull ItemReader<T> reader) {
+        int n = readTamanho();
+        if (n < 0) return null;
+        List<T> values = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) values.add(reader.read(this));
+        return values;
+    }
+
+    @Nullable
+    public Map<String, Object> readValueMap() {
+        int n = readTamanho();
+        if (n < 0) return null;
+        // LinkedHashMap: mantém a ordem gravada, então decodificar e codificar de novo dá os mesmos bytes.
+        Map<String, Object> values = new LinkedHashMap<>(Math.max(4, n * 2));
+        for (int i = 0; i < n; i++) {
+            String key = readText();
+            values.put(key, readValue());
+        }
+        return values;
+    }
+
+    @Nullable
+    public Object readValue() {
+        int tag = readInt();
+        switch (tag) {
+            case CodecOutput.TAG_NULL: return null;
+            case CodecOutput.TAG_STRING: return readText();
+            case CodecOutput.TAG_LONG: return readLong();
+            case CodecOutput.TAG_DOUBLE: return readDouble();
+            case CodecOutput.TAG_BOOLEAN: return readBoolean();
+            case CodecOutput.TAG_MAP: return readValueMap();
+            case CodecOutput.TAG_LIST: {
+                int n = readTamanho();
+                List<Object> list = new ArrayList<>(Math.max(0, n));
+                for (int i = 0; i < n; i++) list.add(readValue());
+                return list;
+            }
+            case CodecOutput.TAG_DATE: return new Date(readLong());
+            case CodecOutput.TAG_TIMESTAMP: {
+                long seconds = readLong();
+                return new Timestamp(seconds, readInt());
+            }
+            default:
+                throw new IllegalStateException("Tag de valor desconhecida: " + tag);
+        }
+    }
+
+    /**
+     * Tamanho de coleção (-1 = nula). Valores absurdos indicam dados corrompidos.
+     */
+    private int readTamanho() {
+        int n = readInt();
+        if (n < -1 || n > ModelCodec.MAX_ITENS) throw new IllegalStateException("Tamanho inválido: " + n);
+        return n;
+    }
+}
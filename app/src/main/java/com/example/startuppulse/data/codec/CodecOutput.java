@@ -0,0 +1,153 @@
+package com.example.startuppulse.data.codec;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.firebase.Timestamp;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Destino da codificação binária dos modelos. A mesma sequência de escritas de um modelo serve
+ * para o Parcel (argumentos/estado salvo) e para o disco ({@link StreamCodecOutput}); a leitura
+ * correspondente fica em {@link CodecInput} e precisa seguir exatamente a mesma ordem.
+ *
+ * Nulos: strings, datas, números opcionais e listas levam um marcador de presença.
+ */
+public abstract class CodecOutput {
+
+    // Tags dos valores genéricos (mapas vindos do Firestore, ex.: avaliacaoIA).
+    static final int TAG_NULL = 0;
+    static final int TAG_STRING = 1;
+    static final int TAG_LONG = 2;
+    static final int TAG_DOUBLE = 3;
+    static final int TAG_BOOLEAN = 4;
+    static final int TAG_MAP = 5;
+    static final int TAG_LIST = 6;
+    static final int TAG_DATE = 7;
+    static final int TAG_TIMESTAMP = 8;
+
+    /**
+     * Escreve um item de uma lista.
+     */
+    public interface ItemWriter<T> {
+        void write(@NonNull CodecOutput out, @NonNull T item);
+    }
+
+    public abstract void writeBoolean(boolean value);
+
+    public abstract void writeInt(int value);
+
+    public abstract void writeLong(long value);
+
+    public abstract void writeDouble(double value);
+
+    /** String não nula. */
+    protected abstract void writeText(@NonNull String value);
+
+    public void writeString(@Nullable String value) {
+        writeBoolean(value != null);
+        if (value != null) writeText(value);
+    }
+
+    public void writeDate(@Nullable Date value) {
+        writeBoolean(value != null);
+        if (value != null) writeLong(value.getTime());
+    }
+
+    public void writeTimestamp(@Nullable Timestamp value) {
+        writeBoolean(value != null);
+        if (value != null) {
+            writeLong(value.getSeconds());
+            writeInt(value.getNanoseconds());
+        }
+    }
+
+    public void writeNullableDouble(@Nullable Double value) {
+        writeBoolean(value != null);
+        if (value != null) writeDouble(value);
+    }
+
+    public void writeNullableLong(@Nullable Long value) {
+        writeBoolean(value != null);
+        if (value != null) writeLong(value);
+    }
+
+    /** Lista de strings; -1 no tamanho indica lista nula. */
+    public void writeStringList(@Nullable List<String> values) {
+        if (values == null) {
+            writeInt(-1);
+            return;
+        }
+        writeInt(values.size());
+        for (String value : values) writeString(value);
+    }
+
+    /** Lista de modelos; -1 no tamanho indica lista nula. Itens nulos são descartados. */
+    public <T> void writeList(@Nullable List<T> values, @NonNull ItemWriter<T> writer) {
+        if (values == null) {
+            writeInt(-1);
+            return;
+        }
+        int n = 0;
+        for (T value : values) if (value != null) n++;
+        writeInt(n);
+        for (T value : values) if (value != null) writer.write(this, value);
+    }
+
+    /** Mapa com valores genéricos (tipos aceitos pelo Firestore); -1 no tamanho indica mapa nulo. */
+    public void writeValueMap(@Nullable Map<String, ?> values) {
+        if (values == null) {
+            writeInt(-1);
+            return;
+        }
+        writeInt(values.size());
+        for (Map.Entry<String, ?> entry : values.entrySet()) {
+            writeText(entry.getKey());
+            writeValue(entry.getValue());
+        }
+    }
+
+    /**
+     * Valor genérico com tag de tipo. Inteiros viram long (como o Firestore os devolve).
+     *
+     * @throws IllegalArgumentException para tipos não suportados.
+     */
+    @SuppressWarnings("unchecked")
+    public void writeValue(@Nullable Object value) {
+        if (value == null) {
+            writeInt(TAG_NULL);
+        } else if (value instanceof String) {
+            writeInt(TAG_STRING);
+            writeText((String) value);
+        } else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            writeInt(TAG_LONG);
+            writeLong(((Number) value).longValue());
+        } else if (value instanceof Number) {
+            writeInt(TAG_DOUBLE);
+            writeDouble(((Number) value).doubleValue());
+        } else if (value instanceof Boolean) {
+            writeInt(TAG_BOOLEAN);
+            writeBoolean((Boolean) value);
+        } else if (value instanceof Map) {
+            writeInt(TAG_MAP);
+            writeValueMap((Map<String, ?>) value);
+        } else if (value instanceof List) {
+            List<?> list = (List<?>) value;
+            writeInt(TAG_LIST);
+            writeInt(list.size());
+            for (Object item : list) writeValue(item);
+        } else if (value instanceof Date) {
+            writeInt(TAG_DATE);
+            writeLong(((Date) value).getTime());
+        } else if (value instanceof Timestamp) {
+            writeInt(TAG_TIMESTAMP);
+            writeLong(((Timestamp) value).getSeconds());
+            writeInt(((Timestamp) value).getNanoseconds());
+        } else {
+            throw new IllegalArgumentException("Tipo não suportado pelo codec: " + value.getClass().getName());
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.startuppulse.data.codec;
+
+import androidx.annotation.NonNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Codificação binária versionada dos modelos (Ideia, IdeiaSummary, PostIt, Spark, User, Mentor, Investor).
+ *
+ * O layout de cada modelo é definido pelo próprio modelo (writeTo / readFrom) e é o mesmo usado no
+ * Parcelable. Os blobs gravados em disco começam com {@link #VERSAO}: qualquer mudança de layout
+ * (campo novo, removido ou reordenado) exige incrementá-la, e blobs de outra versão são rejeitados
+ * com IOException, para que os caches os descartem.
+ */
+public final class ModelCodec {
+
+    // 2: Mentor.geohash.
+    // 3: Mentor.ideiasEmAvaliacao.
+    // 4: Ideia.totalAvaliacoes.
+    public static final int VERSAO = 4;
+
+    // Limites de sanidade na leitura (dados corrompidos não devem causar alocações gigantes).
+    static final int MAX_ITENS = 100_000;
+    static final int MAX_BYTES_TEXTO = 1 << 20;
+
+    /**
+     * Escreve um modelo no codec.
+     */
+    public interface Writer<T> {
+        void write(@NonNull T model, @NonNull CodecOutput out);
+    }
+
+    /**
+     * Lê um modelo do codec.
+     */
+    public interface Reader<T> {
+        @NonNull
+        T read(@NonNull CodecInput in);
+    }
+
+    private ModelCodec() {}
+
+    @NonNull
+    public static <T> byte[] encode(@NonNull T model, @NonNull Writer<T> writer) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        StreamCodecOutput out = new StreamCodecOutput(new DataOutputStream(bytes));
+        out.writeInt(VERSAO);
+        writer.write(model, out);
+        return bytes.toByteArray();
+    }
+
+    @NonNull
+    public static <T> T decode(@NonNull byte[] data, @NonNull Reader<T> reader) throws IOException {
+        StreamCodecInput in = new StreamCodecInput(new DataInputStream(new ByteArrayInputStream(data)));
+        try {
+            int versao = in.readInt();
+            if (versao != VERSAO) throw new IOException("Versão do codec incompatível: " + versao);
+            return reader.read(in);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } catch (IllegalStateException | IllegalArgumentException e) {
+            throw new IOException("Dados inválidos para o codec.", e);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.startuppulse.data.codec;
+
+import android.os.Parcel;
+
+import androidx.annotation.NonNull;
+
+/**
+ * {@link CodecInput} sobre um {@link Parcel}, usado pelos CREATORs dos modelos.
+ */
+public class ParcelCodecInput extends CodecInput {
+
+    private final Parcel parcel;
+
+    public ParcelCodecInput(@NonNull Parcel parcel) {
+        this.parcel = parcel;
+    }
+
+    @Override
+    public boolean readBoolean() {
+        return parcel.readByte() != 0;
+    }
+
+    @Override
+    public int readInt() {
+        return parcel.readInt();
+    }
+
+    @Override
+    public long readLong() {
+        return parcel.readLong();
+    }
+
+    @Override
+    public double readDouble() {
+        return parcel.readDouble();
+    }
+
+    @NonNull
+    @Override
+    protected String readText() {
+        String value = parcel.readString();
+        if (value == null) throw new IllegalStateException("String ausente no Parcel.");
+        return value;
+    }
+}
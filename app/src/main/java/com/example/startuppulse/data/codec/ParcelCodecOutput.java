@@ -0,0 +1,42 @@
+package com.example.startuppulse.data.codec;
+
+import android.os.Parcel;
+
+import androidx.annotation.NonNull;
+
+/**
+ * {@link CodecOutput} sobre um {@link Parcel}, usado pelos writeToParcel dos modelos.
+ */
+public class ParcelCodecOutput extends CodecOutput {
+
+    private final Parcel parcel;
+
+    public ParcelCodecOutput(@NonNull Parcel parcel) {
+        this.parcel = parcel;
+    }
+
+    @Override
+    public void writeBoolean(boolean value) {
+        parcel.writeByte((byte) (value ? 1 : 0));
+    }
+
+    @Override
+    public void writeInt(int value) {
+        parcel.writeInt(value);
+    }
+
+    @Override
+    public void writeLong(long value) {
+        parcel.writeLong(value);
+    }
+
+    @Override
+    public void writeDouble(double value) {
+        parcel.writeDouble(value);
+    }
+
+    @Override
+    protected void writeText(@NonNull String value) {
+        parcel.writeString(value);
+    }
+}
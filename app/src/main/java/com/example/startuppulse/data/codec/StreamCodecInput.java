@@ -0,0 +1,78 @@
+package com.example.startuppulse.data.codec;
+
+import androidx.annotation.NonNull;
+
+import java.io.DataInput;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * {@link CodecInput} sobre um {@link DataInput}; espelho de {@link StreamCodecOutput}.
+ */
+public class StreamCodecInput extends CodecInput {
+
+    private final DataInput in;
+
+    public StreamCodecInput(@NonNull DataInput in) {
+        this.in = in;
+    }
+
+    @Override
+    public boolean readBoolean() {
+        try {
+            return in.readByte() != 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public int readInt() {
+        long raw = readVarLong();
+        return (int) ((raw >>> 1) ^ -(raw & 1));
+    }
+
+    @Override
+    public long readLong() {
+        long raw = readVarLong();
+        return (raw >>> 1) ^ -(raw & 1);
+    }
+
+    @Override
+    public double readDouble() {
+        try {
+            return in.readDouble();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @NonNull
+    @Override
+    protected String readText() {
+        long n = readVarLong();
+        if (n < 0 || n > ModelCodec.MAX_BYTES_TEXTO) throw new IllegalStateException("Tamanho de texto inválido: " + n);
+        byte[] bytes = new byte[(int) n];
+        try {
+            in.readFully(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private long readVarLong() {
+        try {
+            long result = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = in.readByte();
+                result |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) return result;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        throw new IllegalStateException("Varint malformado.");
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.startuppulse.data.codec;
+
+import androidx.annotation.NonNull;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * {@link CodecOutput} sobre um {@link DataOutput} (arquivo ou memória), no formato compacto:
+ * inteiros como varint zigzag (1 byte para valores pequenos), strings como tamanho + UTF-8.
+ * Erros de I/O são relançados como {@link UncheckedIOException}.
+ */
+public class StreamCodecOutput extends CodecOutput {
+
+    private final DataOutput out;
+
+    public StreamCodecOutput(@NonNull DataOutput out) {
+        this.out = out;
+    }
+
+    @Override
+    public void writeBoolean(boolean value) {
+        try {
+            out.writeByte(value ? 1 : 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void writeInt(int value) {
+        writeVarLong(((value << 1) ^ (value >> 31)) & 0xFFFFFFFFL);
+    }
+
+    @Override
+    public void writeLong(long value) {
+        writeVarLong((value << 1) ^ (value >> 63));
+    }
+
+    @Override
+    public void writeDouble(double value) {
+        try {
+            out.writeDouble(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    protected void writeText(@NonNull String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(bytes.length);
+        try {
+            out.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeVarLong(long value) {
+        try {
+            while ((value & ~0x7FL) != 0) {
+                out.writeByte((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            out.writeByte((int) value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
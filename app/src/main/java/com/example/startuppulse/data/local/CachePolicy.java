@@ -0,0 +1,33 @@
+package com.example.startuppulse.data.local;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Política de cache de uma coleção: por quanto tempo os dados salvos ainda podem ser exibidos
+ * (TTL, contado a partir da última sincronização) e quantas linhas no máximo ficam em disco.
+ */
+public final class CachePolicy {
+
+    /** Primeira página do feed público de ideias. */
+    public static final CachePolicy FEED_IDEIAS = new CachePolicy("feed_ideias", TimeUnit.DAYS.toMillis(1), 50);
+
+    /** Lista de mentores (usuários com isMentor = true, já com mentorData). */
+    public static final CachePolicy MENTORES = new CachePolicy("mentores", TimeUnit.DAYS.toMillis(3), 500);
+
+    /** Primeira página (sem filtro) da lista de investidores. */
+    public static final CachePolicy INVESTIDORES = new CachePolicy("investidores", TimeUnit.DAYS.toMillis(3), 50);
+
+    private final String colecao;
+    private final long ttlMillis;
+    private final int maxEntries;
+
+    private CachePolicy(String colecao, long ttlMillis, int maxEntries) {
+        this.colecao = colecao;
+        this.ttlMillis = ttlMillis;
+        this.maxEntries = maxEntries;
+    }
+
+    public String getColecao() { return colecao; }
+    public long getTtlMillis() { return ttlMillis; }
+    public int getMaxEntries() { return maxEntries; }
+}
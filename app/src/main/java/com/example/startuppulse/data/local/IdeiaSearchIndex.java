@@ -0,0 +1,631 @@
+package com.example.startuppulse.data.local;
+
+import android.content.Context;
+import android.os.Process;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.startuppulse.data.codec.ModelCodec;
+import com.example.startuppulse.data.models.IdeiaSummary;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import dagger.hilt.android.qualifiers.ApplicationContext;
+
+/**
+ * Índice invertido local das ideias públicas, para a busca do feed.
+ *
+ * - Indexa nome (peso 3), áreas (peso 2) e textoBusca do resumo — descrição e post-its — (peso 1),
+ *   normalizados pelo {@link PortugueseAnalyzer}.
+ * - Ranking BM25 (k1 = 1.2, b = 0.75); documentos que contêm mais termos da consulta vêm primeiro.
+ *   O último termo da consulta é tratado como prefixo ("inov" encontra "inovacao").
+ * - Atualizado de forma incremental: cada alteração remove o documento antigo (tombstone) e indexa
+ *   o novo, sem reconstruir o resto. Os tombstones são compactados quando passam dos documentos vivos.
+ * - Persistência: um snapshot binário mais um journal onde cada alteração é anexada; o journal é
+ *   consolidado num novo snapshot quando cresce demais. Os resumos usam o {@link ModelCodec}.
+ *
+ * Não é thread-safe: deve ser usado sempre na thread de {@link #executor()}, própria do índice, para
+ * que a indexação de milhares de resumos (e o I/O de disco) não atrase o mapeamento das outras
+ * listas no DataExecutor.
+ */
+@Singleton
+public class IdeiaSearchIndex {
+
+    private static final String TAG = "IdeiaSearchIndex";
+
+    private static final String ARQUIVO_SNAPSHOT = "busca_ideias.idx";
+    private static final String ARQUIVO_JOURNAL = "busca_ideias.journal";
+    private static final int MAGIC = 0x49445831; // "IDX1"
+    private static final int MAGIC_JOURNAL = 0x494A4E31; // "IJN1"
+    // Versão 2: resumos no codec binário (ModelCodec) em vez de JSON.
+    // Versão 3: data da última remoção sincronizada.
+    private static final int VERSAO = 3;
+
+    private static final byte OP_PUT = 1;
+    private static final byte OP_REMOVER = 2;
+    private static final byte OP_SINCRONIZACAO = 3;
+    private static final byte OP_REMOCAO = 4;
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final int PESO_NOME = 3;
+    private static final int PESO_AREA = 2;
+    private static final int PESO_TEXTO = 1;
+    private static final float FATOR_PREFIXO = 0.8f;
+    private static final int MIN_PREFIXO = 2;
+    private static final int MAX_EXPANSOES_PREFIXO = 64;
+    private static final int MAX_TERMOS_CONSULTA = 8;
+    private static final int MIN_REGISTROS_JOURNAL = 2000;
+    private static final int MIN_TOMBSTONES_COMPACTACAO = 1000;
+    private static final int MAX_BYTES_RESUMO = 64 * 1024;
+
+    /** Lista de documentos de um termo. Pode conter ordinais removidos (ignorados na consulta). */
+    private static final class Postings {
+        int[] docs = new int[4];
+        int[] tfs = new int[4];
+        int size = 0;
+        int df = 0; // documentos vivos
+
+        void add(int doc, int tf) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                tfs = Arrays.copyOf(tfs, size * 2);
+            }
+            docs[size] = doc;
+            tfs[size] = tf;
+            size++;
+            df++;
+        }
+    }
+
+    private static final class Documento {
+        final IdeiaSummary resumo;
+        final int[] termIds;
+        final int[] tfs;
+        final int comprimento;
+        final long assinatura;
+
+        Documento(IdeiaSummary resumo, int[] termIds, int[] tfs, int comprimento, long assinatura) {
+            this.resumo = resumo;
+            this.termIds = termIds;
+            this.tfs = tfs;
+            this.comprimento = comprimento;
+            this.assinatura = assinatura;
+        }
+    }
+
+    private final File arquivoSnapshot;
+    private final File arquivoJournal;
+    private ExecutorService executor;
+
+    // Dicionário ordenado: permite expandir prefixos com subMap.
+    private TreeMap<String, Integer> termoIds = new TreeMap<>();
+    private List<String> termos = new ArrayList<>();
+    private List<Postings> postings = new ArrayList<>();
+
+    // Documentos por ordinal; null = removido.
+    private List<Documento> documentos = new ArrayList<>();
+    private final Map<String, Integer> ordinais = new HashMap<>();
+    private int vivos = 0;
+    private long somaComprimentos = 0;
+    private long ultimaSincronizacao = 0;
+    private long ultimaRemocao = 0;
+    private int registrosJournal = 0;
+    private boolean carregado = false;
+
+    // Buffers reaproveitados entre consultas.
+    private float[] scores = new float[0];
+    private int[] acertos = new int[0];
+    private int[] marcas = new int[0];
+    private int[] tocados = new int[0];
+    private int sequencia = 0;
+
+    @Inject
+    public IdeiaSearchIndex(@ApplicationContext Context context) {
+        this(context.getFilesDir());
+    }
+
+    // Diretório explícito: usado pelos testes.
+    IdeiaSearchIndex(@NonNull File diretorio) {
+        this.arquivoSnapshot = new File(diretorio, ARQUIVO_SNAPSHOT);
+        this.arquivoJournal = new File(diretorio, ARQUIVO_JOURNAL);
+    }
+
+    /**
+     * Thread única do índice: consultas, atualizações e callbacks da sincronização rodam nela.
+     */
+    @NonNull
+    public synchronized Executor executor() {
+        if (executor == null) {
+            executor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(() -> {
+                    Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                    runnable.run();
+                }, "busca-ideias");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return executor;
+    }
+
+    // ============================================================
+    // CONSULTA
+    // ============================================================
+
+    /**
+     * Busca as ideias que contêm os termos da consulta, das mais relevantes para as menos.
+     */
+    @NonNull
+    public List<IdeiaSummary> buscar(@NonNull String consulta, int limite) {
+        garantirCarregado();
+        List<String> tokens = PortugueseAnalyzer.tokenizarConsulta(consulta);
+        if (tokens.isEmpty() || vivos == 0 || limite <= 0) return Collections.emptyList();
+        if (tokens.size() > MAX_TERMOS_CONSULTA) tokens = tokens.subList(0, MAX_TERMOS_CONSULTA);
+
+        garantirBuffers();
+        float mediaComprimento = Math.max(1f, (float) somaComprimentos / vivos);
+        int nTocados = 0;
+
+        for (int t = 0; t < tokens.size(); t++) {
+            String token = tokens.get(t);
+            int marca = ++sequencia;
+            boolean ultimo = t == tokens.size() - 1;
+
+            Collection<Integer> ids;
+            if (ultimo && token.length() >= MIN_PREFIXO) {
+                ids = termoIds.subMap(token, true, token + Character.MAX_VALUE, true).values();
+            } else {
+                Integer id = termoIds.get(token);
+                ids = id != null ? Collections.singletonList(id) : Collections.emptyList();
+            }
+
+            int expansoes = 0;
+            for (Integer termId : ids) {
+                if (expansoes++ >= MAX_EXPANSOES_PREFIXO) break;
+                Postings p = postings.get(termId);
+                if (p.df == 0) continue;
+                float idf = (float) Math.log(1 + (vivos - p.df + 0.5) / (p.df + 0.5));
+                float fator = termos.get(termId).equals(token) ? 1f : FATOR_PREFIXO;
+
+                for (int i = 0; i < p.size; i++) {
+                    int doc = p.docs[i];
+                    Documento d = documentos.get(doc);
+                    if (d == null) continue;
+                    float tf = p.tfs[i];
+                    float norma = K1 * (1 - B + B * d.comprimento / mediaComprimento);
+                    if (acertos[doc] == 0) tocados[nTocados++] = doc;
+                    scores[doc] += fator * idf * tf * (K1 + 1) / (tf + norma);
+                    if (marcas[doc] != marca) {
+                        marcas[doc] = marca;
+                        acertos[doc]++;
+                    }
+                }
+            }
+        }
+
+        // Top-K com heap mínimo: mais termos encontrados primeiro, depois maior score.
+        PriorityQueue<Integer> heap = new PriorityQueue<>(limite + 1, (a, b) -> {
+            int cmp = Integer.compare(acertos[a], acertos[b]);
+            return cmp != 0 ? cmp : Float.compare(scores[a], scores[b]);
+        });
+        for (int i = 0; i < nTocados; i++) {
+            heap.offer(tocados[i]);
+            if (heap.size() > limite) heap.poll();
+        }
+        IdeiaSummary[] ordenados = new IdeiaSummary[heap.size()];
+        for (int i = ordenados.length - 1; i >= 0; i--) {
+            ordenados[i] = documentos.get(heap.poll()).resumo;
+        }
+
+        for (int i = 0; i < nTocados; i++) {
+            scores[tocados[i]] = 0f;
+            acertos[tocados[i]] = 0;
+        }
+        return Arrays.asList(ordenados);
+    }
+
+    public int size() {
+        garantirCarregado();
+        return vivos;
+    }
+
+    // ============================================================
+    // ATUALIZAÇÃO
+    // ============================================================
+
+    /**
+     * Aplica as alterações vindas da rede (resumos novos/alterados e IDs removidos)
+     * e as anexa ao journal. Resumos iguais aos já indexados são ignorados.
+     */
+    public void atualizar(@NonNull List<IdeiaSummary> resumos, @NonNull List<String> removidos) {
+        garantirCarregado();
+        try (DataOutputStream journal = abrirJournal()) {
+            for (IdeiaSummary resumo : resumos) {
+                if (resumo == null || resumo.getId() == null) continue;
+                long assinatura = hash64(ModelCodec.encode(resumo, IdeiaSummary::writeTo));
+                Integer ordinal = ordinais.get(resumo.getId());
+                if (ordinal != null && documentos.get(ordinal).assinatura == assinatura) continue;
+
+                int[] comprimento = new int[1];
+                Map<String, Integer> frequencias = frequencias(resumo, comprimento);
+                IdeiaSummary semTexto = resumo.semTextoBusca();
+                indexar(semTexto, frequencias, comprimento[0], assinatura);
+
+                journal.writeByte(OP_PUT);
+                journal.writeUTF(resumo.getId());
+                escreverResumo(journal, semTexto);
+                journal.writeLong(assinatura);
+                journal.writeInt(comprimento[0]);
+                journal.writeInt(frequencias.size());
+                for (Map.Entry<String, Integer> e : frequencias.entrySet()) {
+                    journal.writeUTF(e.getKey());
+                    journal.writeInt(e.getValue());
+                }
+                registrosJournal++;
+            }
+            for (String id : removidos) {
+                if (!ordinais.containsKey(id)) continue;
+                remover(id);
+                journal.writeByte(OP_REMOVER);
+                journal.writeUTF(id);
+                registrosJournal++;
+            }
+        } catch (IOException e) {
+            Log.e(TAG, "Falha ao gravar o journal do índice; o snapshot será regravado.", e);
+            registrosJournal = Integer.MAX_VALUE;
+        }
+        consolidarSeNecessario();
+    }
+
+    /**
+     * Última data (epoch millis) de resumo recebida pela sincronização incremental.
+     */
+    public long getUltimaSincronizacao() {
+        garantirCarregado();
+        return ultimaSincronizacao;
+    }
+
+    public void setUltimaSincronizacao(long ultimaSincronizacao) {
+        garantirCarregado();
+        this.ultimaSincronizacao = ultimaSincronizacao;
+        gravarData(OP_SINCRONIZACAO, ultimaSincronizacao);
+    }
+
+    /**
+     * Data (epoch millis, relógio do servidor) da remoção mais recente já aplicada ao índice.
+     */
+    public long getUltimaRemocao() {
+        garantirCarregado();
+        return ultimaRemocao;
+    }
+
+    public void setUltimaRemocao(long ultimaRemocao) {
+        garantirCarregado();
+        this.ultimaRemocao = ultimaRemocao;
+        gravarData(OP_REMOCAO, ultimaRemocao);
+    }
+
+    /**
+     * Descarta o índice inteiro (memória e disco); a próxima sincronização recomeça do zero.
+     */
+    public void reiniciar() {
+        garantirCarregado();
+        limpar();
+    }
+
+    private void gravarData(byte op, long data) {
+        try (DataOutputStream journal = abrirJournal()) {
+            journal.writeByte(op);
+            journal.writeLong(data);
+            registrosJournal++;
+        } catch (IOException e) {
+            Log.e(TAG, "Falha ao gravar a data de sincronização.", e);
+        }
+    }
+
+    // ============================================================
+    // ESTRUTURAS EM MEMÓRIA
+    // ============================================================
+
+    private void indexar(IdeiaSummary resumo, Map<String, Integer> frequencias, int comprimento, long assinatura) {
+        if (ordinais.containsKey(resumo.getId())) remover(resumo.getId());
+
+        int ordinal = documentos.size();
+        int[] termIds = new int[frequencias.size()];
+        int[] tfs = new int[frequencias.size()];
+        int i = 0;
+        for (Map.Entry<String, Integer> e : frequencias.entrySet()) {
+            int termId = termoId(e.getKey());
+            termIds[i] = termId;
+            tfs[i] = e.getValue();
+            postings.get(termId).add(ordinal, e.getValue());
+            i++;
+        }
+        documentos.add(new Documento(resumo, termIds, tfs, comprimento, assinatura));
+        ordinais.put(resumo.getId(), ordinal);
+        vivos++;
+        somaComprimentos += comprimento;
+    }
+
+    private void remover(String id) {
+        Integer ordinal = ordinais.remove(id);
+        if (ordinal == null) return;
+        Documento d = documentos.get(ordinal);
+        documentos.set(ordinal, null);
+        for (int termId : d.termIds) postings.get(termId).df--;
+        vivos--;
+        somaComprimentos -= d.comprimento;
+    }
+
+    private int termoId(String termo) {
+        Integer id = termoIds.get(termo);
+        if (id != null) return id;
+        int novo = termos.size();
+        termoIds.put(termo, novo);
+        termos.add(termo);
+        postings.add(new Postings());
+        return novo;
+    }
+
+    /**
+     * Reconstrói dicionário e postings só com os documentos vivos (descarta os tombstones).
+     */
+    private void compactar() {
+        List<Documento> antigos = documentos;
+        List<String> termosAntigos = termos;
+        termoIds = new TreeMap<>();
+        termos = new ArrayList<>();
+        postings = new ArrayList<>();
+        documentos = new ArrayList<>(vivos);
+        ordinais.clear();
+        vivos = 0;
+        somaComprimentos = 0;
+
+        for (Documento d : antigos) {
+            if (d == null) continue;
+            Map<String, Integer> frequencias = new LinkedHashMap<>();
+            for (int i = 0; i < d.termIds.length; i++) frequencias.put(termosAntigos.get(d.termIds[i]), d.tfs[i]);
+            indexar(d.resumo, frequencias, d.comprimento, d.assinatura);
+        }
+    }
+
+    private void garantirBuffers() {
+        int n = documentos.size();
+        if (scores.length >= n) return;
+        int capacidade = Math.max(n, scores.length * 2);
+        scores = Arrays.copyOf(scores, capacidade);
+        acertos = Arrays.copyOf(acertos, capacidade);
+        marcas = Arrays.copyOf(marcas, capacidade);
+        tocados = new int[capacidade];
+    }
+
+    /**
+     * Frequência ponderada de cada termo do resumo; comprimento[0] recebe o total de tokens.
+     */
+    private static Map<String, Integer> frequencias(IdeiaSummary resumo, int[] comprimento) {
+        Map<String, Integer> frequencias = new LinkedHashMap<>();
+        comprimento[0] += somar(frequencias, resumo.getNome(), PESO_NOME);
+        if (resumo.getAreasNecessarias() != null) {
+            for (String area : resumo.getAreasNecessarias()) comprimento[0] += somar(frequencias, area, PESO_AREA);
+        }
+        comprimento[0] += somar(frequencias, resumo.getTextoBusca(), PESO_TEXTO);
+        return frequencias;
+    }
+
+    private static int somar(Map<String, Integer> frequencias, @Nullable String texto, int peso) {
+        List<String> tokens = PortugueseAnalyzer.tokenizar(texto);
+        for (String token : tokens) {
+            Integer atual = frequencias.get(token);
+            frequencias.put(token, (atual != null ? atual : 0) + peso);
+        }
+        return tokens.size();
+    }
+
+    // ============================================================
+    // PERSISTÊNCIA
+    // ============================================================
+
+    private void garantirCarregado() {
+        if (carregado) return;
+        carregado = true;
+        long inicio = System.currentTimeMillis();
+        try {
+            lerSnapshot();
+            reproduzirJournal();
+            Log.d(TAG, "Índice carregado: " + vivos + " ideias, " + termos.size() + " termos em "
+                    + (System.currentTimeMillis() - inicio) + " ms");
+        } catch (IOException | RuntimeException e) {
+            Log.e(TAG, "Índice de busca corrompido; recomeçando do zero.", e);
+            limpar();
+        }
+    }
+
+    private void lerSnapshot() throws IOException {
+        if (!arquivoSnapshot.exists()) return;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(arquivoSnapshot)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSAO) throw new IOException("Versão do índice incompatível.");
+            ultimaSincronizacao = in.readLong();
+            ultimaRemocao = in.readLong();
+            int nTermos = in.readInt();
+            String[] termosLidos = new String[nTermos];
+            for (int i = 0; i < nTermos; i++) termosLidos[i] = in.readUTF();
+
+            int nDocs = in.readInt();
+            for (int d = 0; d < nDocs; d++) {
+                IdeiaSummary resumo = lerResumo(in);
+                long assinatura = in.readLong();
+                int comprimento = in.readInt();
+                int n = in.readInt();
+                Map<String, Integer> frequencias = new LinkedHashMap<>();
+                for (int i = 0; i < n; i++) frequencias.put(termosLidos[in.readInt()], in.readInt());
+                indexar(resumo, frequencias, comprimento, assinatura);
+            }
+        }
+    }
+
+    private void reproduzirJournal() throws IOException {
+        if (!arquivoJournal.exists()) return;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(arquivoJournal)))) {
+            try {
+                if (in.readInt() != MAGIC_JOURNAL || in.readInt() != VERSAO) throw new IOException("Versão do journal incompatível.");
+            } catch (EOFException vazio) {
+                return;
+            }
+            while (true) {
+                byte op;
+                try {
+                    op = in.readByte();
+                } catch (EOFException fim) {
+                    break;
+                }
+                try {
+                    if (op == OP_PUT) {
+                        in.readUTF(); // id (já contido no resumo)
+                        IdeiaSummary resumo = lerResumo(in);
+                        long assinatura = in.readLong();
+                        int comprimento = in.readInt();
+                        int n = in.readInt();
+                        Map<String, Integer> frequencias = new LinkedHashMap<>();
+                        for (int i = 0; i < n; i++) frequencias.put(in.readUTF(), in.readInt());
+                        indexar(resumo, frequencias, comprimento, assinatura);
+                    } else if (op == OP_REMOVER) {
+                        remover(in.readUTF());
+                    } else if (op == OP_SINCRONIZACAO) {
+                        ultimaSincronizacao = in.readLong();
+                    } else if (op == OP_REMOCAO) {
+                        ultimaRemocao = in.readLong();
+                    } else {
+                        throw new IOException("Registro desconhecido no journal: " + op);
+                    }
+                    registrosJournal++;
+                } catch (EOFException registroIncompleto) {
+                    // O app foi encerrado no meio de uma gravação: descarta só o último registro.
+                    Log.w(TAG, "Último registro do journal incompleto; ignorado.");
+                    break;
+                }
+            }
+        }
+    }
+
+    private DataOutputStream abrirJournal() throws IOException {
+        boolean novo = arquivoJournal.length() == 0;
+        DataOutputStream journal = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(arquivoJournal, true)));
+        if (novo) {
+            journal.writeInt(MAGIC_JOURNAL);
+            journal.writeInt(VERSAO);
+        }
+        return journal;
+    }
+
+    private static void escreverResumo(DataOutputStream out, IdeiaSummary resumo) throws IOException {
+        byte[] bytes = ModelCodec.encode(resumo, IdeiaSummary::writeTo);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static IdeiaSummary lerResumo(DataInputStream in) throws IOException {
+        int n = in.readInt();
+        if (n < 0 || n > MAX_BYTES_RESUMO) throw new IOException("Tamanho de resumo inválido: " + n);
+        byte[] bytes = new byte[n];
+        in.readFully(bytes);
+        return ModelCodec.decode(bytes, IdeiaSummary::readFrom);
+    }
+
+    private void consolidarSeNecessario() {
+        int tombstones = documentos.size() - vivos;
+        if (tombstones > vivos && tombstones > MIN_TOMBSTONES_COMPACTACAO) compactar();
+        if (registrosJournal > Math.max(MIN_REGISTROS_JOURNAL, vivos / 2)) escreverSnapshot();
+    }
+
+    /**
+     * Grava o estado atual num novo snapshot (arquivo temporário + rename) e zera o journal.
+     */
+    private void escreverSnapshot() {
+        if (documentos.size() > vivos) compactar();
+        File tmp = new File(arquivoSnapshot.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSAO);
+            out.writeLong(ultimaSincronizacao);
+            out.writeLong(ultimaRemocao);
+            out.writeInt(termos.size());
+            for (String termo : termos) out.writeUTF(termo);
+            out.writeInt(vivos);
+            for (Documento d : documentos) {
+                escreverResumo(out, d.resumo);
+                out.writeLong(d.assinatura);
+                out.writeInt(d.comprimento);
+                out.writeInt(d.termIds.length);
+                for (int i = 0; i < d.termIds.length; i++) {
+                    out.writeInt(d.termIds[i]);
+                    out.writeInt(d.tfs[i]);
+                }
+            }
+        } catch (IOException e) {
+            Log.e(TAG, "Falha ao gravar o snapshot do índice.", e);
+            tmp.delete();
+            return;
+        }
+        if (tmp.renameTo(arquivoSnapshot)) {
+            arquivoJournal.delete();
+            registrosJournal = 0;
+        } else {
+            Log.e(TAG, "Falha ao substituir o snapshot do índice.");
+            tmp.delete();
+        }
+    }
+
+    private void limpar() {
+        termoIds = new TreeMap<>();
+        termos = new ArrayList<>();
+        postings = new ArrayList<>();
+        documentos = new ArrayList<>();
+        ordinais.clear();
+        vivos = 0;
+        somaComprimentos = 0;
+        ultimaSincronizacao = 0;
+        ultimaRemocao = 0;
+        registrosJournal = 0;
+        arquivoSnapshot.delete();
+        arquivoJournal.delete();
+    }
+
+    /**
+     * FNV-1a de 64 bits do resumo codificado: detecta se ele mudou desde a última indexação.
+     */
+    private static long hash64(byte[] bytes) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : bytes) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+}
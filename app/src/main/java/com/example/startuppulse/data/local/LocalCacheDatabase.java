@@ -0,0 +1,76 @@
+package com.example.startuppulse.data.local;
+
+import android.content.Context;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import dagger.hilt.android.qualifiers.ApplicationContext;
+
+/**
+ * Banco SQLite local usado como cache persistente das listas (feed de ideias, mentores, investidores).
+ *
+ * Tabelas:
+ *  - cache_entries  → uma linha por documento, com a posição na lista e o payload (blob do ModelCodec)
+ *  - cache_colecoes → horário da última sincronização de cada coleção (base do TTL)
+ */
+@Singleton
+public class LocalCacheDatabase extends SQLiteOpenHelper {
+
+    private static final String DATABASE_NAME = "startuppulse_cache.db";
+    // 2: payload passou de JSON (TEXT) para blob do ModelCodec (BLOB).
+    private static final int DATABASE_VERSION = 2;
+
+    static final String TABLE_ENTRIES = "cache_entries";
+    static final String TABLE_COLECOES = "cache_colecoes";
+
+    static final String COL_COLECAO = "colecao";
+    static final String COL_DOC_ID = "doc_id";
+    static final String COL_POSICAO = "posicao";
+    static final String COL_PAYLOAD = "payload";
+    static final String COL_HASH = "payload_hash";
+    static final String COL_SINCRONIZADO_EM = "sincronizado_em";
+
+    @Inject
+    public LocalCacheDatabase(@ApplicationContext Context context) {
+        super(context, DATABASE_NAME, null, DATABASE_VERSION);
+    }
+
+    @Override
+    public void onConfigure(SQLiteDatabase db) {
+        super.onConfigure(db);
+        // WAL permite leituras enquanto uma escrita de sincronização está em andamento.
+        db.enableWriteAheadLogging();
+    }
+
+    @Override
+    public void onCreate(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE " + TABLE_ENTRIES + " ("
+                + COL_COLECAO + " TEXT NOT NULL, "
+                + COL_DOC_ID + " TEXT NOT NULL, "
+                + COL_POSICAO + " INTEGER NOT NULL, "
+                + COL_PAYLOAD + " BLOB NOT NULL, "
+                + COL_HASH + " INTEGER NOT NULL, "
+                + "PRIMARY KEY (" + COL_COLECAO + ", " + COL_DOC_ID + "))");
+        db.execSQL("CREATE INDEX idx_entries_posicao ON " + TABLE_ENTRIES
+                + " (" + COL_COLECAO + ", " + COL_POSICAO + ")");
+        db.execSQL("CREATE TABLE " + TABLE_COLECOES + " ("
+                + COL_COLECAO + " TEXT PRIMARY KEY, "
+                + COL_SINCRONIZADO_EM + " INTEGER NOT NULL)");
+    }
+
+    @Override
+    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        // É só cache: ao mudar o esquema, descarta tudo e recomeça.
+        db.execSQL("DROP TABLE IF EXISTS " + TABLE_ENTRIES);
+        db.execSQL("DROP TABLE IF EXISTS " + TABLE_COLECOES);
+        onCreate(db);
+    }
+
+    @Override
+    public void onDowngrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        onUpgrade(db, oldVersion, newVersion);
+    }
+}
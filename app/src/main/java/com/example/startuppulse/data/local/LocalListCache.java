@@ -0,0 +1,232 @@
+package com.example.startuppulse.data.local;
+
+import android.content.ContentValues;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.startuppulse.data.codec.ModelCodec;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+/**
+ * Cache persistente de listas, usado para o padrão stale-while-revalidate:
+ * a tela é desenhada primeiro com o que está em disco e depois atualizada com a rede.
+ *
+ * - {@link #read} devolve a lista salva, na ordem original, se ainda estiver dentro do TTL.
+ * - {@link #write} grava a lista vinda da rede reescrevendo apenas as linhas que mudaram
+ *   (comparando um hash do payload e a posição) e removendo as que saíram da lista.
+ * - Cada coleção guarda no máximo {@link CachePolicy#getMaxEntries()} linhas; o excedente do fim da lista é descartado.
+ * - Os payloads são blobs do {@link ModelCodec}. Uma linha de outra versão do codec (ou corrompida)
+ *   faz a coleção inteira contar como cache miss: ela é apagada e a rede a reescreve.
+ *
+ * Faz I/O de disco: deve ser chamado sempre fora da main thread (no DataExecutor).
+ */
+@Singleton
+public class LocalListCache {
+
+    private static final String TAG = "LocalListCache";
+
+    /**
+     * Extrai o ID do documento de um item da lista.
+     */
+    public interface IdExtractor<T> {
+        @Nullable
+        String idOf(@NonNull T item);
+    }
+
+    private final LocalCacheDatabase database;
+
+    @Inject
+    public LocalListCache(LocalCacheDatabase database) {
+        this.database = database;
+    }
+
+    /**
+     * Lê a lista salva para a coleção.
+     *
+     * @return os itens na ordem em que foram gravados, ou null se não houver cache ou se ele expirou.
+     */
+    @Nullable
+    public <T> List<T> read(@NonNull CachePolicy policy, @NonNull ModelCodec.Reader<T> reader) {
+        try {
+            SQLiteDatabase db = database.getReadableDatabase();
+            Long sincronizadoEm = lastSync(db, policy.getColecao());
+            if (sincronizadoEm == null) return null;
+
+            if (System.currentTimeMillis() - sincronizadoEm > policy.getTtlMillis()) {
+                clear(policy);
+                return null;
+            }
+
+            List<T> items = new ArrayList<>();
+            try (Cursor cursor = db.query(LocalCacheDatabase.TABLE_ENTRIES,
+                    new String[]{LocalCacheDatabase.COL_PAYLOAD},
+                    LocalCacheDatabase.COL_COLECAO + " = ?", new String[]{policy.getColecao()},
+                    null, null, LocalCacheDatabase.COL_POSICAO + " ASC",
+                    String.valueOf(policy.getMaxEntries()))) {
+                while (cursor.moveToNext()) {
+                    items.add(ModelCodec.decode(cursor.getBlob(0), reader));
+                }
+            } catch (IOException e) {
+                // Gravado por outra versão do codec: uma lista parcial estaria fora de ordem, então é miss.
+                Log.w(TAG, "Cache de " + policy.getColecao() + " em formato incompatível; descartado.", e);
+                clear(policy);
+                return null;
+            }
+            return items;
+        } catch (RuntimeException e) {
+            Log.e(TAG, "Falha ao ler o cache de " + policy.getColecao(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Grava a lista vinda da rede, reescrevendo só as linhas novas ou alteradas.
+     */
+    public <T> void write(@NonNull CachePolicy policy, @NonNull List<T> items, @NonNull IdExtractor<T> idExtractor,
+                          @NonNull ModelCodec.Writer<T> writer) {
+        String colecao = policy.getColecao();
+        try {
+            SQLiteDatabase db = database.getWritableDatabase();
+            Map<String, long[]> existentes = loadIndex(db, colecao); // id -> {hash, posicao}
+            Set<String> vistos = new HashSet<>();
+            int inseridos = 0, alterados = 0;
+
+            db.beginTransaction();
+            try {
+                int posicao = 0;
+                for (T item : items) {
+                    if (posicao >= policy.getMaxEntries()) break;
+                    String id = idExtractor.idOf(item);
+                    if (id == null || !vistos.add(id)) continue;
+
+                    byte[] payload = ModelCodec.encode(item, writer);
+                    long hash = hash64(payload);
+                    long[] atual = existentes.get(id);
+
+                    if (atual == null) {
+                        ContentValues values = new ContentValues();
+                        values.put(LocalCacheDatabase.COL_COLECAO, colecao);
+                        values.put(LocalCacheDatabase.COL_DOC_ID, id);
+                        values.put(LocalCacheDatabase.COL_POSICAO, posicao);
+                        values.put(LocalCacheDatabase.COL_PAYLOAD, payload);
+                        values.put(LocalCacheDatabase.COL_HASH, hash);
+                        db.insertWithOnConflict(LocalCacheDatabase.TABLE_ENTRIES, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+                        inseridos++;
+                    } else if (atual[0] != hash || atual[1] != posicao) {
+                        ContentValues values = new ContentValues();
+                        values.put(LocalCacheDatabase.COL_POSICAO, posicao);
+                        if (atual[0] != hash) {
+                            values.put(LocalCacheDatabase.COL_PAYLOAD, payload);
+                            values.put(LocalCacheDatabase.COL_HASH, hash);
+                        }
+                        db.update(LocalCacheDatabase.TABLE_ENTRIES, values,
+                                LocalCacheDatabase.COL_COLECAO + " = ? AND " + LocalCacheDatabase.COL_DOC_ID + " = ?",
+                                new String[]{colecao, id});
+                        alterados++;
+                    }
+                    posicao++;
+                }
+
+                // Remove o que saiu da lista (ou passou do limite de linhas).
+                int removidos = 0;
+                for (String id : existentes.keySet()) {
+                    if (!vistos.contains(id)) {
+                        removidos += db.delete(LocalCacheDatabase.TABLE_ENTRIES,
+                                LocalCacheDatabase.COL_COLECAO + " = ? AND " + LocalCacheDatabase.COL_DOC_ID + " = ?",
+                                new String[]{colecao, id});
+                    }
+                }
+
+                ContentValues sync = new ContentValues();
+                sync.put(LocalCacheDatabase.COL_COLECAO, colecao);
+                sync.put(LocalCacheDatabase.COL_SINCRONIZADO_EM, System.currentTimeMillis());
+                db.insertWithOnConflict(LocalCacheDatabase.TABLE_COLECOES, null, sync, SQLiteDatabase.CONFLICT_REPLACE);
+
+                db.setTransactionSuccessful();
+                Log.d(TAG, colecao + ": " + inseridos + " inseridos, " + alterados + " alterados, " + removidos + " removidos");
+            } finally {
+                db.endTransaction();
+            }
+        } catch (RuntimeException e) {
+            // Falha no cache nunca deve impedir a entrega dos dados da rede.
+            Log.e(TAG, "Falha ao gravar o cache de " + colecao, e);
+        }
+    }
+
+    /**
+     * Apaga todas as linhas de uma coleção (ex.: no logout ou quando o TTL expira).
+     */
+    public void clear(@NonNull CachePolicy policy) {
+        try {
+            SQLiteDatabase db = database.getWritableDatabase();
+            String[] args = {policy.getColecao()};
+            db.delete(LocalCacheDatabase.TABLE_ENTRIES, LocalCacheDatabase.COL_COLECAO + " = ?", args);
+            db.delete(LocalCacheDatabase.TABLE_COLECOES, LocalCacheDatabase.COL_COLECAO + " = ?", args);
+        } catch (RuntimeException e) {
+            Log.e(TAG, "Falha ao limpar o cache de " + policy.getColecao(), e);
+        }
+    }
+
+    /**
+     * Apaga o cache de todas as coleções. Chamado no logout, para o próximo usuário do aparelho
+     * não ver as listas do anterior.
+     */
+    public void clearAll() {
+        try {
+            SQLiteDatabase db = database.getWritableDatabase();
+            db.delete(LocalCacheDatabase.TABLE_ENTRIES, null, null);
+            db.delete(LocalCacheDatabase.TABLE_COLECOES, null, null);
+        } catch (RuntimeException e) {
+            Log.e(TAG, "Falha ao limpar o cache local.", e);
+        }
+    }
+
+    @Nullable
+    private Long lastSync(SQLiteDatabase db, String colecao) {
+        try (Cursor cursor = db.query(LocalCacheDatabase.TABLE_COLECOES,
+                new String[]{LocalCacheDatabase.COL_SINCRONIZADO_EM},
+                LocalCacheDatabase.COL_COLECAO + " = ?", new String[]{colecao},
+                null, null, null)) {
+            return cursor.moveToFirst() ? cursor.getLong(0) : null;
+        }
+    }
+
+    private Map<String, long[]> loadIndex(SQLiteDatabase db, String colecao) {
+        Map<String, long[]> index = new HashMap<>();
+        try (Cursor cursor = db.query(LocalCacheDatabase.TABLE_ENTRIES,
+                new String[]{LocalCacheDatabase.COL_DOC_ID, LocalCacheDatabase.COL_HASH, LocalCacheDatabase.COL_POSICAO},
+                LocalCacheDatabase.COL_COLECAO + " = ?", new String[]{colecao},
+                null, null, null)) {
+            while (cursor.moveToNext()) {
+                index.put(cursor.getString(0), new long[]{cursor.getLong(1), cursor.getLong(2)});
+            }
+        }
+        return index;
+    }
+
+    /**
+     * FNV-1a de 64 bits: suficiente para detectar se o payload mudou sem reler o blob salvo.
+     */
+    private static long hash64(byte[] bytes) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : bytes) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+}
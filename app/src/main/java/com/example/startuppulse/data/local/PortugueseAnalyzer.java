@@ -0,0 +1,87 @@
+package com.example.startuppulse.data.local;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Normalização e tokenização de texto em português para o índice de busca:
+ * minúsculas, remoção de acentos ("inovação" → "inovacao", "ç" → "c"), quebra em letras/dígitos
+ * e descarte de stop words. Consulta e documentos passam pelo mesmo processo.
+ */
+public final class PortugueseAnalyzer {
+
+    /** Tokens maiores que isso são truncados (URLs, hashes etc. não ajudam na busca). */
+    static final int MAX_TOKEN = 32;
+
+    // Já na forma normalizada (sem acento).
+    private static final Set<String> STOP_WORDS = new HashSet<>(Arrays.asList(
+            "a", "o", "as", "os", "um", "uma", "uns", "umas", "ao", "aos",
+            "de", "do", "da", "dos", "das", "em", "no", "na", "nos", "nas", "num", "numa",
+            "por", "pelo", "pela", "pelos", "pelas", "para", "pra", "com", "sem", "sob", "sobre", "entre", "ate",
+            "e", "ou", "mas", "nem", "que", "se", "como", "quando", "onde", "porque",
+            "eu", "voce", "ele", "ela", "nos", "eles", "elas", "me", "te", "lhe", "seu", "sua", "seus", "suas",
+            "meu", "minha", "nosso", "nossa", "este", "esta", "esse", "essa", "isso", "isto", "aquele", "aquela",
+            "ser", "sao", "era", "foi", "tem", "ter", "ha", "ja", "nao", "mais", "muito", "tambem", "so"
+    ));
+
+    private PortugueseAnalyzer() {}
+
+    /**
+     * Minúsculas e sem acentos.
+     */
+    @NonNull
+    public static String normalizar(@Nullable String texto) {
+        if (texto == null || texto.isEmpty()) return "";
+        String semAcento = Normalizer.normalize(texto.toLowerCase(Locale.ROOT), Normalizer.Form.NFD);
+        StringBuilder sb = new StringBuilder(semAcento.length());
+        for (int i = 0; i < semAcento.length(); i++) {
+            char c = semAcento.charAt(i);
+            if (Character.getType(c) != Character.NON_SPACING_MARK) sb.append(c);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Tokens indexáveis do texto, na ordem em que aparecem (com repetições).
+     */
+    @NonNull
+    public static List<String> tokenizar(@Nullable String texto) {
+        return tokenizar(texto, false);
+    }
+
+    /**
+     * Tokens de uma consulta. O último termo é mantido mesmo que seja stop word, pois o usuário
+     * pode estar no meio da digitação ("pa" → "para..."/"pagamentos").
+     */
+    @NonNull
+    public static List<String> tokenizarConsulta(@Nullable String consulta) {
+        return tokenizar(consulta, true);
+    }
+
+    private static List<String> tokenizar(@Nullable String texto, boolean manterUltimo) {
+        List<String> tokens = new ArrayList<>();
+        String normalizado = normalizar(texto);
+        int n = normalizado.length();
+        int inicio = -1;
+        for (int i = 0; i <= n; i++) {
+            boolean palavra = i < n && Character.isLetterOrDigit(normalizado.charAt(i));
+            if (palavra && inicio < 0) {
+                inicio = i;
+            } else if (!palavra && inicio >= 0) {
+                String token = normalizado.substring(inicio, Math.min(i, inicio + MAX_TOKEN));
+                boolean ultimo = manterUltimo && i == n;
+                if (ultimo || !STOP_WORDS.contains(token)) tokens.add(token);
+                inicio = -1;
+            }
+        }
+        return tokens;
+    }
+}
@@ -1,5 +1,9 @@
 package com.example.startuppulse.data.models;
 
+import androidx.annotation.NonNull;
+
+import com.example.startuppulse.data.codec.CodecInput;
+import com.example.startuppulse.data.codec.CodecOutput;
 import com.google.firebase.firestore.PropertyName;
 import java.io.Serializable;
 
@@ -32,4 +36,21 @@ public class Avaliacao implements Serializable {
 
     public String getFeedback() { return feedback; }
     public void setFeedback(String feedback) { this.feedback = feedback; }
+
+    // --- Codec binário (layout versionado em ModelCodec) ---
+
+    public void writeTo(@NonNull CodecOutput out) {
+        out.writeString(criterio);
+        out.writeDouble(nota);
+        out.writeString(feedback);
+    }
+
+    @NonNull
+    public static Avaliacao readFrom(@NonNull CodecInput in) {
+        Avaliacao avaliacao = new Avaliacao();
+        avaliacao.criterio = in.readString();
+        avaliacao.nota = in.readDouble();
+        avaliacao.feedback = in.readString();
+        return avaliacao;
+    }
 }
@@ -0,0 +1,47 @@
+package com.example.startuppulse.data.models;
+
+import androidx.annotation.Nullable;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Situação do usuário em relação ao limite de publicação de ideias:
+ * contas premium (premium/{uid}.data_fim no futuro) publicam sem limite;
+ * as demais podem publicar uma ideia a cada {@link #INTERVALO_MILLIS} (limites/{uid}.data_ultima_publicacao).
+ */
+public class CotaPublicacao {
+
+    public static final long INTERVALO_MILLIS = TimeUnit.DAYS.toMillis(7);
+
+    @Nullable private final Date premiumAte;
+    @Nullable private final Date ultimaPublicacao;
+    private final long carregadaEm;
+
+    public CotaPublicacao(@Nullable Date premiumAte, @Nullable Date ultimaPublicacao) {
+        this.premiumAte = premiumAte;
+        this.ultimaPublicacao = ultimaPublicacao;
+        this.carregadaEm = System.currentTimeMillis();
+    }
+
+    public boolean isPremium(Date agora) {
+        return premiumAte != null && premiumAte.after(agora);
+    }
+
+    public boolean podePublicar(Date agora) {
+        return isPremium(agora)
+                || ultimaPublicacao == null
+                || agora.getTime() - ultimaPublicacao.getTime() >= INTERVALO_MILLIS;
+    }
+
+    /**
+     * Data a partir da qual uma nova publicação será permitida (null se já é permitida).
+     */
+    @Nullable
+    public Date getProximaPublicacao(Date agora) {
+        if (podePublicar(agora)) return null;
+        return new Date(ultimaPublicacao.getTime() + INTERVALO_MILLIS);
+    }
+
+    public long getCarregadaEm() { return carregadaEm; }
+}
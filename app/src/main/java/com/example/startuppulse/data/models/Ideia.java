@@ -1,15 +1,25 @@
 package com.example.startuppulse.data.models;
 
+import android.os.Parcel;
+import android.os.Parcelable;
+
+import androidx.annotation.NonNull;
+
+import com.example.startuppulse.data.codec.CodecInput;
+import com.example.startuppulse.data.codec.CodecOutput;
+import com.example.startuppulse.data.codec.ParcelCodecInput;
+import com.example.startuppulse.data.codec.ParcelCodecOutput;
+import com.example.startuppulse.util.AreaMask;
 import com.google.firebase.firestore.Exclude;
 import com.google.firebase.firestore.ServerTimestamp;
-import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-public class Ideia implements Serializable {
+public class Ideia implements Parcelable {
 
     /**
      * Enum para representar os diferentes estágios do ciclo de vida de uma ideia.
@@ -31,7 +41,11 @@ public class Ideia implements Serializable {
     private String mentorId;
     private String avaliacaoStatus;
     private List<Avaliacao> avaliacoes; // << ALTERAÇÃO CRÍTICA APLICADA AQUI
+    // Quantidade de avaliações, gravada junto com 'avaliacoes' para que o perfil possa somá-la no servidor (sum()).
+    private int totalAvaliacoes;
     private List<String> areasNecessarias;
+    // Máscara das áreas (AreaDictionary), recalculada quando a lista muda; não é persistida.
+    private final transient AreaMask.Cache areasMaskCache = new AreaMask.Cache();
     private String matchmakingLog;
     private Status status;
     private Double latitude;
@@ -40,7 +54,12 @@ public class Ideia implements Serializable {
 
     @ServerTimestamp
     private Date timestamp;
+    // Última alteração do conteúdo. O timestamp (ordem do feed) só muda na criação e na publicação.
+    private Date ultimaEdicao;
+    // Formato legado: listas por etapa. Só é lido para exibir/migrar ideias antigas (ver IdeiaRepository).
     private Map<String, List<PostIt>> postIts;
+    // Formato atual: etapa -> (id do post-it -> post-it). Cada edição escreve só "postItsPorId.<etapa>.<id>".
+    private Map<String, Map<String, PostIt>> postItsPorId;
     private List<MembroEquipe> equipe;
     private List<Metrica> metricas;
     private String pitchDeckUrl;
@@ -49,11 +68,18 @@ public class Ideia implements Serializable {
 
     private double mediaPonderadaVotosComunidade = 0.0;
     private int totalVotosComunidade = 0;
+    // true quando os votos antigos já foram consolidados nos shards (feito pela Cloud Function no primeiro voto).
+    private boolean votosShardsInicializados = false;
+    // Agregado lido diretamente dos shards; não é gravado no documento.
+    private transient VotosComunidade votosComunidade;
 
     private Map<String, Object> avaliacaoIA;
+    // Impressão digital do canvas analisado (CanvasFingerprint), gravada pela função junto com avaliacaoIA.
+    private String avaliacaoIAFingerprint;
 
     public Ideia() {
         this.postIts = new HashMap<>();
+        this.postItsPorId = new HashMap<>();
         this.avaliacoes = new ArrayList<>();
         this.areasNecessarias = new ArrayList<>();
         this.equipe = new ArrayList<>();
@@ -97,12 +123,21 @@ public class Ideia implements Serializable {
     public void setAvaliacaoStatus(String avaliacaoStatus) { this.avaliacaoStatus = avaliacaoStatus; }
     public List<Avaliacao> getAvaliacoes() { return avaliacoes; } // << ALTERAÇÃO CRÍTICA APLICADA AQUI
     public void setAvaliacoes(List<Avaliacao> avaliacoes) { this.avaliacoes = avaliacoes; } // << ALTERAÇÃO CRÍTICA APLICADA AQUI
+
+    public int getTotalAvaliacoes() { return totalAvaliacoes; }
+    public void setTotalAvaliacoes(int totalAvaliacoes) { this.totalAvaliacoes = totalAvaliacoes; }
     public Date getTimestamp() { return timestamp; }
     public void setTimestamp(Date timestamp) { this.timestamp = timestamp; }
+    public Date getUltimaEdicao() { return ultimaEdicao; }
+    public void setUltimaEdicao(Date ultimaEdicao) { this.ultimaEdicao = ultimaEdicao; }
     public Map<String, List<PostIt>> getPostIts() { return postIts; }
     public void setPostIts(Map<String, List<PostIt>> postIts) { this.postIts = postIts; }
+    public Map<String, Map<String, PostIt>> getPostItsPorId() { return postItsPorId; }
+    public void setPostItsPorId(Map<String, Map<String, PostIt>> postItsPorId) { this.postItsPorId = postItsPorId; }
     public List<String> getAreasNecessarias() { return areasNecessarias; }
     public void setAreasNecessarias(List<String> areasNecessarias) { this.areasNecessarias = areasNecessarias; }
+    @Exclude
+    public AreaMask getAreasNecessariasMask() { return areasMaskCache.get(areasNecessarias); }
     public List<MembroEquipe> getEquipe() { return equipe; }
     public void setEquipe(List<MembroEquipe> equipe) { this.equipe = equipe; }
     public List<Metrica> getMetricas() { return metricas; }
@@ -122,23 +157,71 @@ public class Ideia implements Serializable {
     public void setProntaParaInvestidores(boolean prontaParaInvestidores) {
         this.prontaParaInvestidores = prontaParaInvestidores;
     }
+    /**
+     * Post-its de uma etapa, juntando o formato atual (por id) com o legado ainda não migrado,
+     * em ordem de criação.
+     */
     public List<PostIt> getPostItsPorChave(String etapaChave) {
-        if (postIts == null) {
-            return new ArrayList<>();
+        List<PostIt> result = new ArrayList<>();
+        if (postItsPorId != null && postItsPorId.get(etapaChave) != null) {
+            result.addAll(postItsPorId.get(etapaChave).values());
+            result.sort(ORDEM_CRIACAO);
         }
-        List<PostIt> result = postIts.get(etapaChave);
-        return result != null ? result : new ArrayList<>();
+        if (postIts != null && postIts.get(etapaChave) != null) {
+            result.addAll(postIts.get(etapaChave));
+        }
+        return result;
     }
 
+    /**
+     * Todas as etapas com seus post-its (formato atual + legado), para quem precisa do canvas inteiro.
+     */
+    @Exclude
+    public Map<String, List<PostIt>> getTodosPostIts() {
+        Map<String, List<PostIt>> canvas = new HashMap<>();
+        if (postItsPorId != null) {
+            for (String etapa : postItsPorId.keySet()) canvas.put(etapa, getPostItsPorChave(etapa));
+        }
+        if (postIts != null) {
+            for (String etapa : postIts.keySet()) canvas.put(etapa, getPostItsPorChave(etapa));
+        }
+        return canvas;
+    }
+
+    /**
+     * Indica se a ideia ainda tem post-its no formato legado (listas), pendentes de migração.
+     */
+    public boolean temPostItsLegados() {
+        if (postIts == null) return false;
+        for (List<PostIt> lista : postIts.values()) {
+            if (lista != null && !lista.isEmpty()) return true;
+        }
+        return false;
+    }
+
+    private static final Comparator<PostIt> ORDEM_CRIACAO = (a, b) -> {
+        if (a.getTimestamp() == null) return b.getTimestamp() == null ? 0 : 1;
+        if (b.getTimestamp() == null) return -1;
+        return a.getTimestamp().compareTo(b.getTimestamp());
+    };
+
     public Map<String, Object> getAvaliacaoIA() { return avaliacaoIA; }
     public void setAvaliacaoIA(Map<String, Object> avaliacaoIA) {
         this.avaliacaoIA = avaliacaoIA;
     }
 
+    public String getAvaliacaoIAFingerprint() { return avaliacaoIAFingerprint; }
+    public void setAvaliacaoIAFingerprint(String avaliacaoIAFingerprint) { this.avaliacaoIAFingerprint = avaliacaoIAFingerprint; }
+
     public String getMatchmakingLog() { return matchmakingLog; }
     public void setMatchmakingLog(String matchmakingLog) { this.matchmakingLog = matchmakingLog; }
 
+    /**
+     * Média ponderada dos votos: a dos shards quando disponível (tempo real),
+     * senão a cópia consolidada pela Cloud Function no documento.
+     */
     public double getMediaPonderadaVotosComunidade() {
+        if (votosShardsInicializados && votosComunidade != null) return votosComunidade.getMedia();
         return mediaPonderadaVotosComunidade;
     }
 
@@ -147,6 +230,7 @@ public class Ideia implements Serializable {
     }
 
     public int getTotalVotosComunidade() {
+        if (votosShardsInicializados && votosComunidade != null) return votosComunidade.getTotal();
         return totalVotosComunidade;
     }
 
@@ -154,6 +238,14 @@ public class Ideia implements Serializable {
         this.totalVotosComunidade = totalVotosComunidade;
     }
 
+    public boolean isVotosShardsInicializados() { return votosShardsInicializados; }
+    public void setVotosShardsInicializados(boolean votosShardsInicializados) { this.votosShardsInicializados = votosShardsInicializados; }
+
+    @Exclude
+    public VotosComunidade getVotosComunidade() { return votosComunidade; }
+    @Exclude
+    public void setVotosComunidade(VotosComunidade votosComunidade) { this.votosComunidade = votosComunidade; }
+
     // --- Helper para converter latitude/longitude em objeto Location ---
     @Exclude // se quiser evitar salvar isso no Firestore
     public android.location.Location getLocalizacao() {
@@ -164,4 +256,147 @@ public class Ideia implements Serializable {
         return loc;
     }
 
+    // --- Codec binário (Parcelable e caches em disco; layout versionado em ModelCodec) ---
+    // votosComunidade é transitório (vem do listener dos shards) e não é codificado.
+
+    public void writeTo(@NonNull CodecOutput out) {
+        out.writeString(id);
+        out.writeString(nome);
+        out.writeString(descricao);
+        out.writeString(ownerId);
+        out.writeString(autorNome);
+        out.writeBoolean(autorIsPremium);
+        out.writeString(mentorId);
+        out.writeString(avaliacaoStatus);
+        out.writeList(avaliacoes, (o, avaliacao) -> avaliacao.writeTo(o));
+        out.writeInt(totalAvaliacoes);
+        out.writeStringList(areasNecessarias);
+        out.writeString(matchmakingLog);
+        out.writeString(status != null ? status.name() : null);
+        out.writeNullableDouble(latitude);
+        out.writeNullableDouble(longitude);
+        out.writeString(localizacaoTexto);
+        out.writeDate(timestamp);
+        out.writeDate(ultimaEdicao);
+
+        // Post-its legados: etapa -> lista.
+        if (postIts == null) {
+            out.writeInt(-1);
+        } else {
+            out.writeInt(postIts.size());
+            for (Map.Entry<String, List<PostIt>> etapa : postIts.entrySet()) {
+                out.writeString(etapa.getKey());
+                out.writeList(etapa.getValue(), (o, postIt) -> postIt.writeTo(o));
+            }
+        }
+        // Post-its atuais: etapa -> (id -> post-it).
+        if (postItsPorId == null) {
+            out.writeInt(-1);
+        } else {
+            out.writeInt(postItsPorId.size());
+            for (Map.Entry<String, Map<String, PostIt>> etapa : postItsPorId.entrySet()) {
+                out.writeString(etapa.getKey());
+                Map<String, PostIt> porId = etapa.getValue();
+                out.writeInt(porId != null ? porId.size() : -1);
+                if (porId == null) continue;
+                for (Map.Entry<String, PostIt> postIt : porId.entrySet()) {
+                    out.writeString(postIt.getKey());
+                    out.writeBoolean(postIt.getValue() != null);
+                    if (postIt.getValue() != null) postIt.getValue().writeTo(out);
+                }
+            }
+        }
+
+        out.writeList(equipe, (o, membro) -> membro.writeTo(o));
+        out.writeList(metricas, (o, metrica) -> metrica.writeTo(o));
+        out.writeString(pitchDeckUrl);
+        out.writeBoolean(prontaParaInvestidores);
+        out.writeDate(ultimaBuscaMentorTimestamp);
+        out.writeDouble(mediaPonderadaVotosComunidade);
+        out.writeInt(totalVotosComunidade);
+        out.writeBoolean(votosShardsInicializados);
+        out.writeValueMap(avaliacaoIA);
+        out.writeString(avaliacaoIAFingerprint);
+    }
+
+    @NonNull
+    public static Ideia readFrom(@NonNull CodecInput in) {
+        Ideia ideia = new Ideia();
+        ideia.id = in.readString();
+        ideia.nome = in.readString();
+        ideia.descricao = in.readString();
+        ideia.ownerId = in.readString();
+        ideia.autorNome = in.readString();
+        ideia.autorIsPremium = in.readBoolean();
+        ideia.mentorId = in.readString();
+        ideia.avaliacaoStatus = in.readString();
+        ideia.avaliacoes = in.readList(Avaliacao::readFrom);
+        ideia.totalAvaliacoes = in.readInt();
+        ideia.areasNecessarias = in.readStringList();
+        ideia.matchmakingLog = in.readString();
+        String status = in.readString();
+        ideia.status = status != null ? Status.valueOf(status) : null;
+        ideia.latitude = in.readNullableDouble();
+        ideia.longitude = in.readNullableDouble();
+        ideia.localizacaoTexto = in.readString();
+        ideia.timestamp = in.readDate();
+        ideia.ultimaEdicao = in.readDate();
+
+        int etapasLegadas = in.readInt();
+        ideia.postIts = etapasLegadas < 0 ? null : new HashMap<>();
+        for (int i = 0; i < etapasLegadas; i++) {
+            String etapa = in.readString();
+            ideia.postIts.put(etapa, in.readList(PostIt::readFrom));
+        }
+        int etapas = in.readInt();
+        ideia.postItsPorId = etapas < 0 ? null : new HashMap<>();
+        for (int i = 0; i < etapas; i++) {
+            String etapa = in.readString();
+            int n = in.readInt();
+            if (n < 0) {
+                ideia.postItsPorId.put(etapa, null);
+                continue;
+            }
+            Map<String, PostIt> porId = new HashMap<>();
+            for (int j = 0; j < n; j++) {
+                String postItId = in.readString();
+                porId.put(postItId, in.readBoolean() ? PostIt.readFrom(in) : null);
+            }
+            ideia.postItsPorId.put(etapa, porId);
+        }
+
+        ideia.equipe = in.readList(MembroEquipe::readFrom);
+        ideia.metricas = in.readList(Metrica::readFrom);
+        ideia.pitchDeckUrl = in.readString();
+        ideia.prontaParaInvestidores = in.readBoolean();
+        ideia.ultimaBuscaMentorTimestamp = in.readDate();
+        ideia.mediaPonderadaVotosComunidade = in.readDouble();
+        ideia.totalVotosComunidade = in.readInt();
+        ideia.votosShardsInicializados = in.readBoolean();
+        ideia.avaliacaoIA = in.readValueMap();
+        ideia.avaliacaoIAFingerprint = in.readString();
+        return ideia;
+    }
+
+    @Override
+    public int describeContents() {
+        return 0;
+    }
+
+    @Override
+    public void writeToParcel(@NonNull Parcel dest, int flags) {
+        writeTo(new ParcelCodecOutput(dest));
+    }
+
+    public static final Creator<Ideia> CREATOR = new Creator<Ideia>() {
+        @Override
+        public Ideia createFromParcel(Parcel in) {
+            return readFrom(new ParcelCodecInput(in));
+        }
+
+        @Override
+        public Ideia[] newArray(int size) {
+            return new Ideia[size];
+        }
+    };
 }
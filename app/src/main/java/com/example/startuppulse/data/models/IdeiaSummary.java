@@ -0,0 +1,168 @@
+package com.example.startuppulse.data.models;
+
+import androidx.annotation.NonNull;
+
+import com.example.startuppulse.data.codec.CodecInput;
+import com.example.startuppulse.data.codec.CodecOutput;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Projeção leve de uma {@link Ideia} usada pelas telas de lista (feed, rascunhos, filtros).
+ * Fica na coleção "ideias_resumo", com o mesmo ID da ideia, e é mantida em sincronia pelo
+ * IdeiaRepository a cada escrita (ideias anteriores à projeção recebem o resumo por um backfill; ver
+ * MigracaoResumos). Não carrega postIts, avaliações, equipe, métricas nem avaliacaoIA;
+ * a ideia completa só é buscada quando o canvas é aberto.
+ *
+ * O campo textoBusca (descrição + textos dos post-its, limitado a {@link #MAX_TEXTO_BUSCA} caracteres)
+ * existe só para alimentar o índice de busca local.
+ */
+public class IdeiaSummary {
+
+    public static final int MAX_TEXTO_BUSCA = 1500;
+
+    private String id;
+    private String nome;
+    private String ownerId;
+    private String autorNome;
+    private String mentorId;
+    private Ideia.Status status;
+    private Date timestamp;
+    private Date ultimaEdicao;
+    private List<String> areasNecessarias;
+    private boolean prontaParaInvestidores;
+    private double mediaPonderadaVotosComunidade;
+    private int totalVotosComunidade;
+    private String textoBusca;
+
+    public IdeiaSummary() {
+        // Construtor vazio necessário para a desserialização do Firestore.
+        this.areasNecessarias = new ArrayList<>();
+        this.status = Ideia.Status.RASCUNHO;
+    }
+
+    /**
+     * Monta o resumo a partir da ideia completa.
+     */
+    public static IdeiaSummary from(Ideia ideia) {
+        IdeiaSummary summary = new IdeiaSummary();
+        summary.id = ideia.getId();
+        summary.nome = ideia.getNome();
+        summary.ownerId = ideia.getOwnerId();
+        summary.autorNome = ideia.getAutorNome();
+        summary.mentorId = ideia.getMentorId();
+        summary.status = ideia.getStatus();
+        summary.timestamp = ideia.getTimestamp();
+        summary.ultimaEdicao = ideia.getUltimaEdicao();
+        summary.areasNecessarias = ideia.getAreasNecessarias() != null ? new ArrayList<>(ideia.getAreasNecessarias()) : new ArrayList<>();
+        summary.prontaParaInvestidores = ideia.isProntaParaInvestidores();
+        summary.mediaPonderadaVotosComunidade = ideia.getMediaPonderadaVotosComunidade();
+        summary.totalVotosComunidade = ideia.getTotalVotosComunidade();
+        summary.textoBusca = textoBuscaDe(ideia);
+        return summary;
+    }
+
+    /**
+     * Descrição e textos dos post-its da ideia, em uma única string limitada a {@link #MAX_TEXTO_BUSCA}.
+     */
+    public static String textoBuscaDe(Ideia ideia) {
+        StringBuilder sb = new StringBuilder();
+        if (ideia.getDescricao() != null) sb.append(ideia.getDescricao());
+        for (List<PostIt> postIts : ideia.getTodosPostIts().values()) {
+            for (PostIt postIt : postIts) {
+                if (sb.length() >= MAX_TEXTO_BUSCA) break;
+                if (postIt != null && postIt.getTexto() != null) sb.append('\n').append(postIt.getTexto());
+            }
+        }
+        return sb.length() > MAX_TEXTO_BUSCA ? sb.substring(0, MAX_TEXTO_BUSCA) : sb.toString();
+    }
+
+    /**
+     * Cópia sem o textoBusca, para guardar em memória sem duplicar o texto já indexado.
+     */
+    public IdeiaSummary semTextoBusca() {
+        IdeiaSummary copia = new IdeiaSummary();
+        copia.id = id;
+        copia.nome = nome;
+        copia.ownerId = ownerId;
+        copia.autorNome = autorNome;
+        copia.mentorId = mentorId;
+        copia.status = status;
+        copia.timestamp = timestamp;
+        copia.ultimaEdicao = ultimaEdicao;
+        copia.areasNecessarias = areasNecessarias;
+        copia.prontaParaInvestidores = prontaParaInvestidores;
+        copia.mediaPonderadaVotosComunidade = mediaPonderadaVotosComunidade;
+        copia.totalVotosComunidade = totalVotosComunidade;
+        return copia;
+    }
+
+    // --- Getters e Setters ---
+
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+    public String getNome() { return nome; }
+    public void setNome(String nome) { this.nome = nome; }
+    public String getOwnerId() { return ownerId; }
+    public void setOwnerId(String ownerId) { this.ownerId = ownerId; }
+    public String getAutorNome() { return autorNome; }
+    public void setAutorNome(String autorNome) { this.autorNome = autorNome; }
+    public String getMentorId() { return mentorId; }
+    public void setMentorId(String mentorId) { this.mentorId = mentorId; }
+    public Ideia.Status getStatus() { return status; }
+    public void setStatus(Ideia.Status status) { this.status = status; }
+    public Date getTimestamp() { return timestamp; }
+    public void setTimestamp(Date timestamp) { this.timestamp = timestamp; }
+    public Date getUltimaEdicao() { return ultimaEdicao; }
+    public void setUltimaEdicao(Date ultimaEdicao) { this.ultimaEdicao = ultimaEdicao; }
+    public List<String> getAreasNecessarias() { return areasNecessarias; }
+    public void setAreasNecessarias(List<String> areasNecessarias) { this.areasNecessarias = areasNecessarias; }
+    public boolean isProntaParaInvestidores() { return prontaParaInvestidores; }
+    public void setProntaParaInvestidores(boolean prontaParaInvestidores) { this.prontaParaInvestidores = prontaParaInvestidores; }
+    public double getMediaPonderadaVotosComunidade() { return mediaPonderadaVotosComunidade; }
+    public void setMediaPonderadaVotosComunidade(double mediaPonderadaVotosComunidade) { this.mediaPonderadaVotosComunidade = mediaPonderadaVotosComunidade; }
+    public int getTotalVotosComunidade() { return totalVotosComunidade; }
+    public void setTotalVotosComunidade(int totalVotosComunidade) { this.totalVotosComunidade = totalVotosComunidade; }
+    public String getTextoBusca() { return textoBusca; }
+    public void setTextoBusca(String textoBusca) { this.textoBusca = textoBusca; }
+
+    // --- Codec binário (índice de busca em disco; layout versionado em ModelCodec) ---
+
+    public void writeTo(@NonNull CodecOutput out) {
+        out.writeString(id);
+        out.writeString(nome);
+        out.writeString(ownerId);
+        out.writeString(autorNome);
+        out.writeString(mentorId);
+        out.writeString(status != null ? status.name() : null);
+        out.writeDate(timestamp);
+        out.writeDate(ultimaEdicao);
+        out.writeStringList(areasNecessarias);
+        out.writeBoolean(prontaParaInvestidores);
+        out.writeDouble(mediaPonderadaVotosComunidade);
+        out.writeInt(totalVotosComunidade);
+        out.writeString(textoBusca);
+    }
+
+    @NonNull
+    public static IdeiaSummary readFrom(@NonNull CodecInput in) {
+        IdeiaSummary summary = new IdeiaSummary();
+        summary.id = in.readString();
+        summary.nome = in.readString();
+        summary.ownerId = in.readString();
+        summary.autorNome = in.readString();
+        summary.mentorId = in.readString();
+        String status = in.readString();
+        summary.status = status != null ? Ideia.Status.valueOf(status) : null;
+        summary.timestamp = in.readDate();
+        summary.ultimaEdicao = in.readDate();
+        summary.areasNecessarias = in.readStringList();
+        summary.prontaParaInvestidores = in.readBoolean();
+        summary.mediaPonderadaVotosComunidade = in.readDouble();
+        summary.totalVotosComunidade = in.readInt();
+        summary.textoBusca = in.readString();
+        return summary;
+    }
+}
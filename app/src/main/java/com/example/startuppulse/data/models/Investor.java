@@ -1,12 +1,23 @@
 package com.example.startuppulse.data.models;
 
-import java.io.Serializable;
+import android.os.Parcel;
+import android.os.Parcelable;
+
+import androidx.annotation.NonNull;
+
+import com.example.startuppulse.data.codec.CodecInput;
+import com.example.startuppulse.data.codec.CodecOutput;
+import com.example.startuppulse.data.codec.ParcelCodecInput;
+import com.example.startuppulse.data.codec.ParcelCodecOutput;
+import com.example.startuppulse.util.AreaMask;
+import com.google.firebase.firestore.Exclude;
+
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 
-public class Investor implements Serializable { // Serializable para passar entre activities
+public class Investor implements Parcelable { // Parcelable para passar entre telas
     // --- Identificação ---
     private String id;              // ID do Documento no Firestore
     private String investorType;    // NOVO: "INDIVIDUAL" ou "FIRM" (Pessoa Física ou Jurídica)
@@ -24,6 +35,7 @@ public class Investor implements Serializable { // Serializable para passar entr
     private String tese;            //
     private List<String> estagios;  // Ex: "Anjo", "Pré-Seed"
     private List<String> areas;     // Ex: "Fintech", "SaaS"
+    private final transient AreaMask.Cache areasMaskCache = new AreaMask.Cache(); // Máscara das áreas (não persistida)
     private String ticketMedio;     // NOVO: (Ex: "R$ 50k - R$ 250k")
 
     // --- Dados de Verificação (Sensíveis) ---
@@ -48,6 +60,8 @@ public class Investor implements Serializable { // Serializable para passar entr
     public String getTese() { return tese; }
     public List<String> getEstagios() { return estagios; }
     public List<String> getAreas() { return areas; }
+    @Exclude
+    public AreaMask getAreasMask() { return areasMaskCache.get(areas); }
     public String getLinkedinUrl() { return linkedinUrl; }
     public String getTicketMedio() { return ticketMedio; }
     public void setTicketMedio(String ticketMedio) { this.ticketMedio = ticketMedio; }
@@ -98,4 +112,75 @@ public class Investor implements Serializable { // Serializable para passar entr
         return Objects.hash(id, investorType, nome, fotoUrl, status, emailContato,
                 linkedinUrl, siteUrl, bio, tese, ticketMedio, companyName);
     }
-}
\ No newline at end of file
+
+    // --- Codec binário (Parcelable e caches em disco; layout versionado em ModelCodec) ---
+
+    public void writeTo(@NonNull CodecOutput out) {
+        out.writeString(id);
+        out.writeString(investorType);
+        out.writeString(nome);
+        out.writeString(fotoUrl);
+        out.writeString(status);
+        out.writeString(emailContato);
+        out.writeString(linkedinUrl);
+        out.writeString(siteUrl);
+        out.writeString(bio);
+        out.writeString(tese);
+        out.writeStringList(estagios);
+        out.writeStringList(areas);
+        out.writeString(ticketMedio);
+        out.writeString(cpf);
+        out.writeString(cnpj);
+        out.writeString(companyName);
+        out.writeValueMap(apiVerificationData);
+        out.writeDate(createdAt);
+        out.writeString(rejectionReason);
+    }
+
+    @NonNull
+    public static Investor readFrom(@NonNull CodecInput in) {
+        Investor investor = new Investor();
+        investor.id = in.readString();
+        investor.investorType = in.readString();
+        investor.nome = in.readString();
+        investor.fotoUrl = in.readString();
+        investor.status = in.readString();
+        investor.emailContato = in.readString();
+        investor.linkedinUrl = in.readString();
+        investor.siteUrl = in.readString();
+        investor.bio = in.readString();
+        investor.tese = in.readString();
+        investor.estagios = in.readStringList();
+        investor.areas = in.readStringList();
+        investor.ticketMedio = in.readString();
+        investor.cpf = in.readString();
+        investor.cnpj = in.readString();
+        investor.companyName = in.readString();
+        investor.apiVerificationData = in.readValueMap();
+        investor.createdAt = in.readDate();
+        investor.rejectionReason = in.readString();
+        return investor;
+    }
+
+    @Override
+    public int describeContents() {
+        return 0;
+    }
+
+    @Override
+    public void writeToParcel(@NonNull Parcel dest, int flags) {
+        writeTo(new ParcelCodecOutput(dest));
+    }
+
+    public static final Creator<Investor> CREATOR = new Creator<Investor>() {
+        @Override
+        public Investor createFromParcel(Parcel in) {
+            return readFrom(new ParcelCodecInput(in));
+        }
+
+        @Override
+        public Investor[] newArray(int size) {
+            return new Investor[size];
+        }
+    };
+}
@@ -1,5 +1,10 @@
 package com.example.startuppulse.data.models;
 
+import androidx.annotation.NonNull;
+
+import com.example.startuppulse.data.codec.CodecInput;
+import com.example.startuppulse.data.codec.CodecOutput;
+
 import java.io.Serializable;
 import java.util.Objects;
 import java.util.UUID;
@@ -74,4 +79,27 @@ public class MembroEquipe implements Serializable {
     public int hashCode() {
         return Objects.hash(id, nome, funcao, linkedinUrl, fotoUrl, userId);
     }
+
+    // --- Codec binário (layout versionado em ModelCodec) ---
+
+    public void writeTo(@NonNull CodecOutput out) {
+        out.writeString(id);
+        out.writeString(nome);
+        out.writeString(funcao);
+        out.writeString(linkedinUrl);
+        out.writeString(fotoUrl);
+        out.writeString(userId);
+    }
+
+    @NonNull
+    public static MembroEquipe readFrom(@NonNull CodecInput in) {
+        MembroEquipe membro = new MembroEquipe();
+        membro.id = in.readString();
+        membro.nome = in.readString();
+        membro.funcao = in.readString();
+        membro.linkedinUrl = in.readString();
+        membro.fotoUrl = in.readString();
+        membro.userId = in.readString();
+        return membro;
+    }
 }
@@ -1,8 +1,16 @@
 package com.example.startuppulse.data.models;
 
+import android.os.Parcel;
+import android.os.Parcelable;
+
+import androidx.annotation.NonNull;
+
+import com.example.startuppulse.data.codec.CodecInput;
+import com.example.startuppulse.data.codec.CodecOutput;
+import com.example.startuppulse.data.codec.ParcelCodecInput;
+import com.example.startuppulse.data.codec.ParcelCodecOutput;
 import com.google.firebase.firestore.Exclude;
 import com.google.firebase.firestore.PropertyName;
-import java.io.Serializable;
 import java.util.List;
 
 /**
@@ -10,7 +18,7 @@ import java.util.List;
  * Contém apenas informações específicas do perfil de mentor.
  * Informações compartilhadas (nome, foto, linkedin, etc.) são lidas do modelo User.java.
  */
-public class Mentor implements Serializable {
+public class Mentor implements Parcelable {
     @Exclude
     private String id;
     private String bio;
@@ -21,6 +29,8 @@ public class Mentor implements Serializable {
     private double longitude;
     private boolean activePublic; // Disponibilidade do mentor
     private String bannerUrl;
+    private String geohash; // Célula de latitude/longitude, usada na busca por raio
+    private int ideiasEmAvaliacao; // Ideias EM_AVALIACAO vinculadas (mantido pelo IdeiaRepository)
 
     public Mentor() {
         // Construtor vazio necessário para o Firestore
@@ -67,5 +77,69 @@ public class Mentor implements Serializable {
     public boolean isActivePublic() { return activePublic; }
     @PropertyName("ativoPublico")
     public void setActivePublic(boolean activePublic) { this.activePublic = activePublic; }
+    @PropertyName("geohash")
+    public String getGeohash() { return geohash; }
+    @PropertyName("geohash")
+    public void setGeohash(String geohash) { this.geohash = geohash; }
+    // Só leitura para o Firestore: o contador muda com increment() junto com o status da ideia, e o
+    // save do perfil (set com merge) não pode sobrescrevê-lo com um valor antigo.
+    @Exclude
+    public int getIdeiasEmAvaliacao() { return ideiasEmAvaliacao; }
+    @PropertyName("ideiasEmAvaliacao")
+    public void setIdeiasEmAvaliacao(int ideiasEmAvaliacao) { this.ideiasEmAvaliacao = ideiasEmAvaliacao; }
+
+    // --- Codec binário (Parcelable e caches em disco; layout versionado em ModelCodec) ---
+
+    public void writeTo(@NonNull CodecOutput out) {
+        out.writeString(id);
+        out.writeString(bio);
+        out.writeString(city);
+        out.writeString(state);
+        out.writeBoolean(verified);
+        out.writeDouble(latitude);
+        out.writeDouble(longitude);
+        out.writeBoolean(activePublic);
+        out.writeString(bannerUrl);
+        out.writeString(geohash);
+        out.writeInt(ideiasEmAvaliacao);
+    }
+
+    @NonNull
+    public static Mentor readFrom(@NonNull CodecInput in) {
+        Mentor mentor = new Mentor();
+        mentor.id = in.readString();
+        mentor.bio = in.readString();
+        mentor.city = in.readString();
+        mentor.state = in.readString();
+        mentor.verified = in.readBoolean();
+        mentor.latitude = in.readDouble();
+        mentor.longitude = in.readDouble();
+        mentor.activePublic = in.readBoolean();
+        mentor.bannerUrl = in.readString();
+        mentor.geohash = in.readString();
+        mentor.ideiasEmAvaliacao = in.readInt();
+        return mentor;
+    }
+
+    @Override
+    public int describeContents() {
+        return 0;
+    }
+
+    @Override
+    public void writeToParcel(@NonNull Parcel dest, int flags) {
+        writeTo(new ParcelCodecOutput(dest));
+    }
+
+    public static final Creator<Mentor> CREATOR = new Creator<Mentor>() {
+        @Override
+        public Mentor createFromParcel(Parcel in) {
+            return readFrom(new ParcelCodecInput(in));
+        }
 
-}
\ No newline at end of file
+        @Override
+        public Mentor[] newArray(int size) {
+            return new Mentor[size];
+        }
+    };
+}
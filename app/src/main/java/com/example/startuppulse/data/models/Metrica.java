@@ -1,5 +1,10 @@
 package com.example.startuppulse.data.models;
 
+import androidx.annotation.NonNull;
+
+import com.example.startuppulse.data.codec.CodecInput;
+import com.example.startuppulse.data.codec.CodecOutput;
+
 import java.io.Serializable;
 import java.util.Date;
 
@@ -33,4 +38,23 @@ public class Metrica implements Serializable {
 
     public Date getDataRegistro() { return dataRegistro; }
     public void setDataRegistro(Date dataRegistro) { this.dataRegistro = dataRegistro; }
-}
\ No newline at end of file
+
+    // --- Codec binário (layout versionado em ModelCodec) ---
+
+    public void writeTo(@NonNull CodecOutput out) {
+        out.writeString(nome);
+        out.writeDouble(valor);
+        out.writeString(unidade);
+        out.writeDate(dataRegistro);
+    }
+
+    @NonNull
+    public static Metrica readFrom(@NonNull CodecInput in) {
+        Metrica metrica = new Metrica();
+        metrica.nome = in.readString();
+        metrica.valor = in.readDouble();
+        metrica.unidade = in.readString();
+        metrica.dataRegistro = in.readDate();
+        return metrica;
+    }
+}
@@ -1,9 +1,18 @@
 package com.example.startuppulse.data.models;
 
-import java.io.Serializable;
+import android.os.Parcel;
+import android.os.Parcelable;
+
+import androidx.annotation.NonNull;
+
+import com.example.startuppulse.data.codec.CodecInput;
+import com.example.startuppulse.data.codec.CodecOutput;
+import com.example.startuppulse.data.codec.ParcelCodecInput;
+import com.example.startuppulse.data.codec.ParcelCodecOutput;
+
 import java.util.Date;
 
-public class PostIt implements Serializable {
+public class PostIt implements Parcelable {
     private String id;
     private String texto;
     private String cor;
@@ -69,4 +78,47 @@ public class PostIt implements Serializable {
     public void setLastModified(Date lastModified) {
         this.lastModified = lastModified;
     }
-}
\ No newline at end of file
+
+    // --- Codec binário (Parcelable e caches em disco; layout versionado em ModelCodec) ---
+
+    public void writeTo(@NonNull CodecOutput out) {
+        out.writeString(id);
+        out.writeString(texto);
+        out.writeString(cor);
+        out.writeDate(timestamp);
+        out.writeDate(lastModified);
+    }
+
+    @NonNull
+    public static PostIt readFrom(@NonNull CodecInput in) {
+        PostIt postIt = new PostIt();
+        postIt.id = in.readString();
+        postIt.texto = in.readString();
+        postIt.cor = in.readString();
+        postIt.timestamp = in.readDate();
+        postIt.lastModified = in.readDate();
+        return postIt;
+    }
+
+    @Override
+    public int describeContents() {
+        return 0;
+    }
+
+    @Override
+    public void writeToParcel(@NonNull Parcel dest, int flags) {
+        writeTo(new ParcelCodecOutput(dest));
+    }
+
+    public static final Creator<PostIt> CREATOR = new Creator<PostIt>() {
+        @Override
+        public PostIt createFromParcel(Parcel in) {
+            return readFrom(new ParcelCodecInput(in));
+        }
+
+        @Override
+        public PostIt[] newArray(int size) {
+            return new PostIt[size];
+        }
+    };
+}
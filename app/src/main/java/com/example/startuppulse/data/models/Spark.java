@@ -1,12 +1,20 @@
 package com.example.startuppulse.data.models;
 
-import java.io.Serializable;
+import android.os.Parcel;
+import android.os.Parcelable;
+
+import androidx.annotation.NonNull;
+
+import com.example.startuppulse.data.codec.CodecInput;
+import com.example.startuppulse.data.codec.CodecOutput;
+import com.example.startuppulse.data.codec.ParcelCodecInput;
+import com.example.startuppulse.data.codec.ParcelCodecOutput;
 
 /**
  * POJO para representar uma "Faísca" (Spark) vinda do Vórtex.
  * Esta é uma classe leve, contendo apenas dados públicos.
  */
-public class Spark implements Serializable {
+public class Spark implements Parcelable {
 
     private String id;
     private String text;
@@ -31,4 +39,47 @@ public class Spark implements Serializable {
     public void setLat(double lat) { this.lat = lat; }
     public void setLng(double lng) { this.lng = lng; }
     public void setVotos(int votos) { this.votos = votos; }
-}
\ No newline at end of file
+
+    // --- Codec binário (Parcelable e caches em disco; layout versionado em ModelCodec) ---
+
+    public void writeTo(@NonNull CodecOutput out) {
+        out.writeString(id);
+        out.writeString(text);
+        out.writeDouble(lat);
+        out.writeDouble(lng);
+        out.writeInt(votos);
+    }
+
+    @NonNull
+    public static Spark readFrom(@NonNull CodecInput in) {
+        Spark spark = new Spark();
+        spark.id = in.readString();
+        spark.text = in.readString();
+        spark.lat = in.readDouble();
+        spark.lng = in.readDouble();
+        spark.votos = in.readInt();
+        return spark;
+    }
+
+    @Override
+    public int describeContents() {
+        return 0;
+    }
+
+    @Override
+    public void writeToParcel(@NonNull Parcel dest, int flags) {
+        writeTo(new ParcelCodecOutput(dest));
+    }
+
+    public static final Creator<Spark> CREATOR = new Creator<Spark>() {
+        @Override
+        public Spark createFromParcel(Parcel in) {
+            return readFrom(new ParcelCodecInput(in));
+        }
+
+        @Override
+        public Spark[] newArray(int size) {
+            return new Spark[size];
+        }
+    };
+}
@@ -1,5 +1,15 @@
 package com.example.startuppulse.data.models;
 
+import android.os.Parcel;
+import android.os.Parcelable;
+
+import androidx.annotation.NonNull;
+
+import com.example.startuppulse.data.codec.CodecInput;
+import com.example.startuppulse.data.codec.CodecOutput;
+import com.example.startuppulse.data.codec.ParcelCodecInput;
+import com.example.startuppulse.data.codec.ParcelCodecOutput;
+import com.example.startuppulse.util.AreaMask;
 import com.google.firebase.Timestamp;
 import com.google.firebase.firestore.Exclude;
 import com.google.firebase.firestore.PropertyName;
@@ -14,7 +24,7 @@ import java.util.List;
  * Contém todas as informações compartilhadas e de usuário.
  * A flag "isMentor" indica se existe um documento correspondente na coleção /mentores.
  */
-public class User {
+public class User implements Parcelable {
     @Exclude
     private String id;
     private String nome;
@@ -39,6 +49,8 @@ public class User {
     private String linkedinUrl;
     @PropertyName("areas")
     private List<String> areasAtuacao;
+    // Máscara das áreas (AreaDictionary), recalculada quando a lista muda; não é persistida.
+    private final transient AreaMask.Cache areasMaskCache = new AreaMask.Cache();
     private String status = "ativo";
     private boolean profilePublic = true;
     @PropertyName("fcmToken")
@@ -173,6 +185,11 @@ public class User {
         this.areasAtuacao = areasDeInteresse;
     }
 
+    @Exclude
+    public AreaMask getAreasMask() {
+        return areasMaskCache.get(areasAtuacao);
+    }
+
     public Timestamp getUltimoAcesso() {
         return ultimoAcesso;
     }
@@ -210,4 +227,86 @@ public class User {
     public void setMentor(boolean mentor) {
         isMentor = mentor;
     }
-}
\ No newline at end of file
+
+    // --- Codec binário (Parcelable e caches em disco; layout versionado em ModelCodec) ---
+
+    public void writeTo(@NonNull CodecOutput out) {
+        out.writeString(id);
+        out.writeString(nome);
+        out.writeString(email);
+        out.writeString(bio);
+        out.writeString(fotoUrl);
+        out.writeBoolean(isPremium);
+        out.writeString(validadePlano);
+        out.writeInt(publicadasCount);
+        out.writeInt(seguindoCount);
+        out.writeLong(diasDeConta);
+        out.writeString(plano);
+        out.writeDate(dataExpiracaoPlano);
+        out.writeString(purchaseToken);
+        out.writeDate(dataCriacao);
+        out.writeTimestamp(ultimoAcesso);
+        out.writeNullableLong(diasAcessoTotal);
+        out.writeString(profissao);
+        out.writeString(linkedinUrl);
+        out.writeStringList(areasAtuacao);
+        out.writeString(status);
+        out.writeBoolean(profilePublic);
+        out.writeString(fcmToken);
+        out.writeBoolean(isMentor);
+        out.writeBoolean(mentorData != null);
+        if (mentorData != null) mentorData.writeTo(out);
+    }
+
+    @NonNull
+    public static User readFrom(@NonNull CodecInput in) {
+        User user = new User();
+        user.id = in.readString();
+        user.nome = in.readString();
+        user.email = in.readString();
+        user.bio = in.readString();
+        user.fotoUrl = in.readString();
+        user.isPremium = in.readBoolean();
+        user.validadePlano = in.readString();
+        user.publicadasCount = in.readInt();
+        user.seguindoCount = in.readInt();
+        user.diasDeConta = in.readLong();
+        user.plano = in.readString();
+        user.dataExpiracaoPlano = in.readDate();
+        user.purchaseToken = in.readString();
+        user.dataCriacao = in.readDate();
+        user.ultimoAcesso = in.readTimestamp();
+        user.diasAcessoTotal = in.readNullableLong();
+        user.profissao = in.readString();
+        user.linkedinUrl = in.readString();
+        user.areasAtuacao = in.readStringList();
+        user.status = in.readString();
+        user.profilePublic = in.readBoolean();
+        user.fcmToken = in.readString();
+        user.isMentor = in.readBoolean();
+        user.mentorData = in.readBoolean() ? Mentor.readFrom(in) : null;
+        return user;
+    }
+
+    @Override
+    public int describeContents() {
+        return 0;
+    }
+
+    @Override
+    public void writeToParcel(@NonNull Parcel dest, int flags) {
+        writeTo(new ParcelCodecOutput(dest));
+    }
+
+    public static final Creator<User> CREATOR = new Creator<User>() {
+        @Override
+        public User createFromParcel(Parcel in) {
+            return readFrom(new ParcelCodecInput(in));
+        }
+
+        @Override
+        public User[] newArray(int size) {
+            return new User[size];
+        }
+    };
+}
@@ -0,0 +1,30 @@
+package com.example.startuppulse.data.models;
+
+/**
+ * Agregado dos votos da comunidade de uma ideia, somado a partir dos shards
+ * ideias/{id}/votosShards/{n} (cada shard guarda somaPonderada, somaPesos e total).
+ */
+public class VotosComunidade {
+
+    private final double somaPonderada;
+    private final double somaPesos;
+    private final int total;
+
+    public VotosComunidade(double somaPonderada, double somaPesos, int total) {
+        this.somaPonderada = somaPonderada;
+        this.somaPesos = somaPesos;
+        this.total = total;
+    }
+
+    public double getSomaPonderada() { return somaPonderada; }
+    public double getSomaPesos() { return somaPesos; }
+    public int getTotal() { return total; }
+
+    /**
+     * Média ponderada arredondada para 2 casas, como a calculada pela Cloud Function.
+     */
+    public double getMedia() {
+        if (somaPesos <= 0) return 0.0;
+        return Math.round(somaPonderada / somaPesos * 100.0) / 100.0;
+    }
+}
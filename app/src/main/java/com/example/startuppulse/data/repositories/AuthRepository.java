@@ -7,7 +7,9 @@ import androidx.annotation.Nullable;
 
 import com.example.startuppulse.common.Result;
 import com.example.startuppulse.common.ResultCallback;
+import com.example.startuppulse.data.local.LocalListCache;
 import com.example.startuppulse.data.models.User;
+import com.example.startuppulse.util.DataExecutor;
 import com.google.android.gms.auth.api.signin.GoogleSignInAccount;
 import com.google.firebase.Timestamp;
 import com.google.firebase.auth.AuthCredential;
@@ -35,12 +37,16 @@ public class AuthRepository implements IAuthRepository{
     private static final String TAG = "AuthRepository";
     private final FirebaseFirestore firestore;
     private final FirebaseAuth firebaseAuth;
+    private final LocalListCache localCache;
+    private final DataExecutor dataExecutor;
     private User cachedUser;
 
     @Inject
-    public AuthRepository(FirebaseFirestore firestore, FirebaseAuth firebaseAuth) {
+    public AuthRepository(FirebaseFirestore firestore, FirebaseAuth firebaseAuth, LocalListCache localCache, DataExecutor dataExecutor) {
         this.firestore = firestore;
         this.firebaseAuth = firebaseAuth;
+        this.localCache = localCache;
+        this.dataExecutor = dataExecutor;
     }
 
     // --- MÉTODOS DE SESSÃO ---
@@ -84,6 +90,9 @@ public class AuthRepository implements IAuthRepository{
     @Override
     public void logout() {
         firebaseAuth.signOut();
+        cachedUser = null;
+        // As listas em disco são do usuário que saiu (rascunhos, feed etc.).
+        dataExecutor.execute(localCache::clearAll);
     }
 
     // --- MÉTODOS DE AUTENTICAÇÃO ---
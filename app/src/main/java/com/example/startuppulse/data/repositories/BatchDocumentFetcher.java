@@ -0,0 +1,190 @@
+package com.example.startuppulse.data.repositories;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.startuppulse.common.Result;
+import com.example.startuppulse.common.ResultCallback;
+import com.example.startuppulse.util.DataExecutor;
+import com.google.android.gms.tasks.Task;
+import com.google.firebase.firestore.CollectionReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.QuerySnapshot;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+/**
+ * Busca vários documentos de uma coleção pelo ID em poucas consultas, em vez de um get() por documento.
+ *
+ * Os IDs são deduplicados e divididos em blocos de {@link #MAX_IDS_POR_CONSULTA} (limite do whereIn
+ * por documentId); no máximo {@link #MAX_CONSULTAS_PARALELAS} blocos ficam em voo ao mesmo tempo.
+ * Enriquecer 500 mentores custa 50 consultas.
+ *
+ * Falha de um bloco não descarta os outros: o {@link Lote} diz quais IDs vieram, quais não existem e
+ * quais ficaram sem resposta. O callback recebe Result.Error só quando todos os blocos falham.
+ *
+ * O mapeamento e o callback rodam na thread do DataExecutor (quem chama entrega o resultado final
+ * na main thread com {@link DataExecutor#deliver}).
+ */
+@Singleton
+public class BatchDocumentFetcher {
+
+    private static final String TAG = "BatchDocumentFetcher";
+    public static final int MAX_IDS_POR_CONSULTA = 10;
+    public static final int MAX_CONSULTAS_PARALELAS = 4;
+
+    /**
+     * Resultado de uma busca em lote.
+     */
+    public static final class Lote<T> {
+        /** ID -> objeto mapeado, na ordem em que os IDs foram pedidos. */
+        public final Map<String, T> encontrados;
+        /** IDs consultados com sucesso mas sem documento (ou cujo mapeamento falhou). */
+        public final Set<String> ausentes;
+        /** IDs cujos blocos falharam: o estado deles é desconhecido. */
+        public final Set<String> falhos;
+        /** Primeiro erro entre os blocos que falharam (null se nenhum falhou). */
+        @Nullable
+        public final Exception erro;
+
+        Lote(Map<String, T> encontrados, Set<String> ausentes, Set<String> falhos, @Nullable Exception erro) {
+            this.encontrados = encontrados;
+            this.ausentes = ausentes;
+            this.falhos = falhos;
+            this.erro = erro;
+        }
+
+        public boolean isCompleto() {
+            return falhos.isEmpty();
+        }
+    }
+
+    private final DataExecutor dataExecutor;
+
+    @Inject
+    public BatchDocumentFetcher(DataExecutor dataExecutor) {
+        this.dataExecutor = dataExecutor;
+    }
+
+    /**
+     * Busca os documentos de {@code ids} em {@code colecao}. IDs nulos, vazios ou repetidos são ignorados.
+     */
+    public <T> void buscar(@NonNull CollectionReference colecao, @NonNull Collection<String> ids,
+                           @NonNull IncrementalDocumentList.Mapper<T> mapper,
+                           @NonNull ResultCallback<Lote<T>> callback) {
+        Set<String> unicos = new LinkedHashSet<>();
+        for (String id : ids) {
+            if (id != null && !id.isEmpty()) unicos.add(id);
+        }
+        if (unicos.isEmpty()) {
+            callback.onResult(new Result.Success<>(new Lote<>(
+                    Collections.emptyMap(), Collections.emptySet(), Collections.emptySet(), null)));
+            return;
+        }
+
+        List<String> ordem = new ArrayList<>(unicos);
+        List<List<String>> blocos = new ArrayList<>();
+        for (int i = 0; i < ordem.size(); i += MAX_IDS_POR_CONSULTA) {
+            blocos.add(ordem.subList(i, Math.min(i + MAX_IDS_POR_CONSULTA, ordem.size())));
+        }
+        new Execucao<>(colecao, ordem, blocos, mapper, callback).iniciar();
+    }
+
+    /**
+     * Estado de uma busca: dispara um novo bloco sempre que outro termina, até acabarem.
+     */
+    private final class Execucao<T> {
+        private final CollectionReference colecao;
+        private final List<String> ordem;
+        private final List<List<String>> blocos;
+        private final IncrementalDocumentList.Mapper<T> mapper;
+        private final ResultCallback<Lote<T>> callback;
+
+        private final Map<String, T> mapeados = new HashMap<>();
+        private final Set<String> falhos = new LinkedHashSet<>();
+        private Exception erro;
+        private int proximo;
+        private int emVoo;
+        private int blocosFalhos;
+
+        Execucao(CollectionReference colecao, List<String> ordem, List<List<String>> blocos,
+                 IncrementalDocumentList.Mapper<T> mapper, ResultCallback<Lote<T>> callback) {
+            this.colecao = colecao;
+            this.ordem = ordem;
+            this.blocos = blocos;
+            this.mapper = mapper;
+            this.callback = callback;
+        }
+
+        synchronized void iniciar() {
+            while (emVoo < MAX_CONSULTAS_PARALELAS && proximo < blocos.size()) {
+                disparar(blocos.get(proximo++));
+            }
+        }
+
+        private void disparar(List<String> bloco) {
+            emVoo++;
+            colecao.whereIn(FieldPath.documentId(), bloco).get()
+                    .addOnCompleteListener(dataExecutor, task -> concluir(bloco, task));
+        }
+
+        private void concluir(List<String> bloco, Task<QuerySnapshot> task) {
+            Lote<T> lote;
+            synchronized (this) {
+                emVoo--;
+                if (task.isSuccessful() && task.getResult() != null) {
+                    for (DocumentSnapshot doc : task.getResult().getDocuments()) {
+                        T item = mapper.map(doc);
+                        if (item != null) mapeados.put(doc.getId(), item);
+                    }
+                } else {
+                    falhos.addAll(bloco);
+                    blocosFalhos++;
+                    if (erro == null) erro = task.getException() != null ? task.getException() : new Exception("Falha ao buscar documentos em lote.");
+                }
+
+                if (proximo < blocos.size()) {
+                    disparar(blocos.get(proximo++));
+                    return;
+                }
+                if (emVoo > 0) return;
+                lote = montarLote();
+            }
+
+            if (blocosFalhos == blocos.size()) {
+                callback.onResult(new Result.Error<>(erro));
+                return;
+            }
+            if (!lote.isCompleto()) {
+                Log.w(TAG, colecao.getPath() + ": " + blocosFalhos + " de " + blocos.size()
+                        + " consultas falharam (" + lote.falhos.size() + " ids sem resposta).", erro);
+            }
+            callback.onResult(new Result.Success<>(lote));
+        }
+
+        private Lote<T> montarLote() {
+            Map<String, T> encontrados = new LinkedHashMap<>();
+            Set<String> ausentes = new LinkedHashSet<>();
+            for (String id : ordem) {
+                T item = mapeados.get(id);
+                if (item != null) encontrados.put(id, item);
+                else if (!falhos.contains(id)) ausentes.add(id);
+            }
+            return new Lote<>(encontrados, ausentes, falhos, erro);
+        }
+    }
+}
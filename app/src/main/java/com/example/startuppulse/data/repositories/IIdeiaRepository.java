@@ -8,6 +8,9 @@ import androidx.annotation.Nullable;
 import com.example.startuppulse.data.models.PostIt;
 import com.example.startuppulse.common.ResultCallback;
 import com.example.startuppulse.data.models.Ideia;
+import com.example.startuppulse.data.models.VotosComunidade;
+import com.example.startuppulse.data.models.IdeiaSummary;
+import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.ListenerRegistration;
 
 import java.util.List;
@@ -20,6 +23,16 @@ import java.util.Map;
  */
 public interface IIdeiaRepository {
 
+    /**
+     * Tamanho padrão de cada página do feed público.
+     */
+    int FEED_PAGE_SIZE = 20;
+
+    /**
+     * Quantos itens antes do fim da lista a próxima página deve começar a ser carregada.
+     */
+    int FEED_PREFETCH_DISTANCE = 5;
+
     // ------------------------------
     // Métodos utilitários
     // ------------------------------
@@ -47,7 +60,8 @@ public interface IIdeiaRepository {
     //void createIdeia(@NonNull Ideia ideia, @NonNull ResultCallback<Void> callback);
 
     /**
-     * Salva (sobrescreve) a ideia fornecida.
+     * Salva a ideia fornecida. Se a versão do servidor é conhecida (ideia lida nesta sessão),
+     * grava só os campos alterados; senão, grava o documento inteiro.
      * Mantido por compatibilidade com código existente que chama saveIdeia.
      */
     void saveIdeia(@NonNull Ideia ideia, @NonNull ResultCallback<Void> callback);
@@ -72,6 +86,11 @@ public interface IIdeiaRepository {
      */
     void getIdeiasForOwner(@NonNull String ownerId, @NonNull ResultCallback<List<Ideia>> callback);
 
+    /**
+     * Busca apenas os resumos das ideias de um usuário (one-shot), para listas e filtros.
+     */
+    void getIdeiaSummariesForOwner(@NonNull String ownerId, @NonNull ResultCallback<List<IdeiaSummary>> callback);
+
     // ------------------------------
     // Leitura e escuta de dados
     // ------------------------------
@@ -83,18 +102,43 @@ public interface IIdeiaRepository {
     ListenerRegistration listenToIdeia(@NonNull String ideiaId, @NonNull ResultCallback<Ideia> callback);
 
     /**
-     * Observa em tempo real as ideias públicas (em avaliação ou avaliadas).
+     * Observa em tempo real apenas a primeira página do feed público (em avaliação ou avaliadas),
+     * ordenada da mais recente para a mais antiga. Lê somente os resumos ({@link IdeiaSummary}). Páginas seguintes são carregadas sob demanda
+     * com {@link #getPublicIdeiasPage}.
      */
     @NonNull
-    ListenerRegistration listenToPublicIdeias(@NonNull ResultCallback<List<Ideia>> callback);
+    ListenerRegistration listenToPublicIdeiasFirstPage(int pageSize, @NonNull ResultCallback<IdeiaPagingResult> callback);
+
+    /**
+     * Busca (one-shot) a página do feed público que começa logo após o cursor informado.
+     */
+    void getPublicIdeiasPage(int pageSize, @NonNull DocumentSnapshot startAfter, @NonNull ResultCallback<IdeiaPagingResult> callback);
 
     /**
-     * Observa em tempo real os rascunhos do usuário autenticado.
+     * Busca no índice local (sem rede) as ideias públicas que contêm os termos da consulta,
+     * ignorando acentos e maiúsculas, das mais relevantes para as menos.
+     */
+    void buscarIdeias(@NonNull String consulta, int limite, @NonNull ResultCallback<List<IdeiaSummary>> callback);
+
+    /**
+     * Atualiza o índice de busca local com os resumos públicos alterados desde a última sincronização.
+     */
+    void sincronizarIndiceBusca();
+
+    /**
+     * Observa em tempo real os resumos dos rascunhos do usuário autenticado.
      */
     @Nullable
-    ListenerRegistration listenToDraftIdeias(@NonNull ResultCallback<List<Ideia>> callback);
+    ListenerRegistration listenToDraftIdeias(@NonNull ResultCallback<List<IdeiaSummary>> callback);
 
+    /**
+     * Conta as ideias públicas do usuário com uma agregação count() no servidor.
+     */
     void getPublicIdeasCountByUser(String userId, ResultCallback<Integer> callback);
+
+    /**
+     * Soma as avaliações recebidas pelas ideias do usuário com uma agregação sum() no servidor.
+     */
     void getAvaliacoesRecebidasCount(String userId, ResultCallback<Integer> callback);
 
     // ------------------------------
@@ -102,9 +146,22 @@ public interface IIdeiaRepository {
     // ------------------------------
 
     /**
-     * Publica a ideia, definindo status e timestamps; opcionalmente vincula um mentor.
+     * Publica um rascunho num único commit: grava a ideia com as alterações locais pendentes,
+     * muda o status para EM_AVALIACAO, vincula o mentor (opcional) e consome a cota de publicação.
+     * Falha com IllegalStateException se o limite semanal de publicação tiver sido atingido.
      */
-    void publicarIdeia(@NonNull String ideiaId, @Nullable String mentorId, @NonNull ResultCallback<Void> callback);
+    void publicarIdeia(@NonNull Ideia ideia, @Nullable String mentorId, @NonNull ResultCallback<Void> callback);
+
+    /**
+     * Troca (ou remove) o mentor de uma ideia já publicada, sem consumir a cota de publicação.
+     */
+    void vincularMentorIdeiaPublicada(@NonNull String ideiaId, @Nullable String mentorId, @NonNull ResultCallback<Void> callback);
+
+    /**
+     * Inicia em segundo plano a leitura da cota de publicação (plano premium e última publicação),
+     * para que {@link #publicarIdeia} não precise esperar por ela.
+     */
+    void precarregarCotaPublicacao();
 
     /**
      * Reverte a publicação da ideia (volta a rascunho).
@@ -131,12 +188,13 @@ public interface IIdeiaRepository {
     // ------------------------------
 
     /**
-     * Adiciona um novo post-it a uma etapa específica.
+     * Adiciona um novo post-it a uma etapa específica (gera o id se ele vier nulo).
+     * Post-its ficam em "postItsPorId.<etapa>.<id>": adicionar, editar e remover são uma única escrita de campo.
      */
     void addPostitToIdeia(@NonNull String ideiaId, @NonNull String etapaChave, @NonNull PostIt novoPostIt, @NonNull ResultCallback<Void> callback);
 
     /**
-     * Atualiza um post-it existente.
+     * Atualiza um post-it existente, identificado pelo id do post-it antigo.
      */
     void updatePostitInIdeia(@NonNull String ideiaId, @NonNull String etapaChave, @NonNull PostIt postitAntigo, @NonNull PostIt postitNovo, @NonNull ResultCallback<Void> callback);
 
@@ -145,8 +203,25 @@ public interface IIdeiaRepository {
      */
     void deletePostitFromIdeia(@NonNull String ideiaId, @NonNull String etapaChave, @NonNull PostIt postitParaApagar, @NonNull ResultCallback<Void> callback);
 
-    void solicitarAnaliseIA(@NonNull String ideiaId, @NonNull ResultCallback<String> callback);
+    /**
+     * Grava num único WriteBatch um lote de edições do canvas (caminhos com ponto -> valores,
+     * aceitando FieldValue.delete()), atualizando também o resumo quando nome/áreas mudarem.
+     * Usado pela fila de escrita do canvas, que agrupa várias edições em um só commit.
+     *
+     * @param textoBusca texto de busca atualizado do resumo (descrição + post-its); null mantém o atual.
+     */
+    void salvarAlteracoesCanvas(@NonNull String ideiaId, @NonNull Map<String, Object> campos, @Nullable String textoBusca, @NonNull ResultCallback<Void> callback);
+
+    /**
+     * Solicita a pré-análise da IA para a ideia. Não chama a função quando a impressão digital
+     * do canvas é igual à da última análise (ou quando há análise recente em cache para ela).
+     */
+    void solicitarAnaliseIA(@NonNull Ideia ideia, @NonNull ResultCallback<String> callback);
 
+    /**
+     * Grava o voto do usuário e aplica a diferença para o voto anterior (se houver) num shard
+     * de contadores, na mesma transação. Custo constante por voto.
+     */
     void salvarVotoComunidade(
             @NonNull String ideiaId,
             @NonNull String userId,
@@ -154,4 +229,24 @@ public interface IIdeiaRepository {
             int peso, // 1 a 3
             @NonNull ResultCallback<Void> callback
     );
+
+    /**
+     * Inicia (uma vez por usuário/sessão) o listener do índice usuarios/{uid}/meusVotos,
+     * mantido em memória por ideiaId. Na primeira vez de cada usuário, copia para o índice
+     * os votos feitos antes de ele existir.
+     */
+    void observarMeusVotos();
+
+    /**
+     * Voto do usuário atual na ideia (0 se não votou), lido do índice em memória, sem rede.
+     * Se o índice ainda está carregando (ou migrando os votos anteriores a ele), a resposta
+     * espera por ele. O callback é chamado uma única vez.
+     */
+    void getMeuVoto(@NonNull String ideiaId, @NonNull ResultCallback<Float> callback);
+
+    /**
+     * Observa em tempo real o agregado dos votos da comunidade (soma dos shards).
+     */
+    @NonNull
+    ListenerRegistration listenToVotosComunidade(@NonNull String ideiaId, @NonNull ResultCallback<VotosComunidade> callback);
 }
@@ -27,6 +27,8 @@ public interface IInvestorRepository {
 
     /**
      * Busca uma lista paginada de investidores, ordenada pelo nome.
+     * Na primeira página sem filtro, se houver cópia em disco (dentro do TTL), o callback é chamado
+     * primeiro com ela ({@link InvestorPagingResult#isFromCache()}) e depois com a página da rede.
      *
      * @param pageSize    O número de documentos a serem buscados.
      * @param lastVisible O DocumentSnapshot do último item da página anterior (null para a primeira página).
@@ -0,0 +1,36 @@
+package com.example.startuppulse.data.repositories;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.startuppulse.common.ResultCallback;
+import com.example.startuppulse.data.models.User;
+
+import java.util.List;
+
+/**
+ * Leituras do diretório de mentores usadas pelo match.
+ *
+ * Implementado por {@link MentorDirectory}; os callbacks são chamados na main thread.
+ */
+public interface IMentorDirectory {
+
+    /**
+     * Todos os mentores (usuários com mentorData), com disponibilidade atualizada.
+     */
+    void getMentores(@NonNull ResultCallback<List<User>> callback);
+
+    /**
+     * Mentores ativos com pelo menos uma área em comum com {@code areas}, exceto {@code excludeId}.
+     */
+    void getMentoresPorAreas(@NonNull List<String> areas, @Nullable String excludeId,
+                             @NonNull ResultCallback<List<User>> callback);
+
+    /**
+     * Mentores ativos do anel mais interno com alguém dentro, do mais próximo ao mais distante.
+     *
+     * @param raiosMetros Raios crescentes, em metros.
+     */
+    void getMentoresProximos(double latitude, double longitude, @NonNull double[] raiosMetros,
+                             @Nullable String excludeId, @NonNull ResultCallback<List<User>> callback);
+}
@@ -7,7 +7,6 @@ import androidx.annotation.Nullable;
 
 import com.example.startuppulse.common.ResultCallback;
 import com.example.startuppulse.data.models.Mentor;
-import com.example.startuppulse.data.models.User;
 
 import java.util.List;
 import java.util.Map;
@@ -37,15 +36,6 @@ public interface IMentorRepository {
      */
     void getMentorById(@NonNull String mentorId, @NonNull ResultCallback<Mentor> callback);
 
-    /**
-     * Retorna todos os mentores, com opção de excluir um ID específico.
-     * Usado em contextos administrativos ou para comparações.
-     *
-     * @param excludeUserId ID a ser excluído da consulta (pode ser null).
-     * @param callback      Callback com o resultado da lista.
-     */
-    void findAllMentores(@Nullable String excludeUserId, @NonNull ResultCallback<List<Mentor>> callback);
-
     /**
      * Busca mentores que tenham pelo menos uma das áreas especificadas.
      *
@@ -73,6 +63,21 @@ public interface IMentorRepository {
      */
     void findMentoresByState(@NonNull String estado, @Nullable String ownerId, @NonNull ResultCallback<List<Mentor>> callback);
 
+    /**
+     * Busca mentores ativos perto de um ponto, em anéis crescentes: consulta as células de geohash
+     * do primeiro raio e só amplia para o próximo se nenhum mentor estiver dentro dele. Lê apenas
+     * os documentos das células próximas, nunca a coleção inteira.
+     *
+     * @param latitude    Latitude do centro da busca.
+     * @param longitude   Longitude do centro da busca.
+     * @param raiosMetros Raios em ordem crescente (ex.: 50 km e 200 km).
+     * @param ownerId     ID a ser excluído da busca (opcional).
+     * @param callback    Mentores do primeiro anel não vazio, do mais próximo ao mais distante
+     *                    (lista vazia se nenhum estiver dentro do maior raio).
+     */
+    void findMentoresProximos(double latitude, double longitude, @NonNull double[] raiosMetros,
+                              @Nullable String ownerId, @NonNull ResultCallback<List<Mentor>> callback);
+
     // -----------------------------------------------------
     // CRIAÇÃO / ATUALIZAÇÃO
     // -----------------------------------------------------
@@ -122,6 +127,4 @@ public interface IMentorRepository {
     void updateMentorFieldsByOwnerId(@NonNull String ownerId,
                                      @NonNull Map<String, Object> updates,
                                      @NonNull ResultCallback<Void> callback);
-
-    void getAllMentores(@NonNull ResultCallback<List<User>> callback);
 }
\ No newline at end of file
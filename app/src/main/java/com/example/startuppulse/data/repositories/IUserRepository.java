@@ -4,6 +4,7 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
 import com.example.startuppulse.common.ResultCallback;
+import com.example.startuppulse.data.models.Mentor;
 import com.example.startuppulse.data.models.User;
 
 import java.util.List;
@@ -84,8 +85,18 @@ public interface IUserRepository {
      * Busca todos os usuários marcados como mentores (isMentor = true).
      * O repositório deve preencher os dados complementares de mentor (mentorData)
      * sempre que possível.
+     * Leitura direta da rede: telas e match leem pelo {@link MentorDirectory}, que mantém o snapshot.
      *
      * @param callback Callback para retornar a lista de mentores.
      */
     void getMentores(@NonNull ResultCallback<List<User>> callback);
+
+    /**
+     * Carrega os usuários (isMentor = true) de perfis de mentor já obtidos, por exemplo numa busca
+     * por proximidade, mantendo a ordem recebida e preenchendo mentorData com o próprio perfil.
+     *
+     * @param mentores Perfis da coleção /mentores (o ID é o mesmo do usuário).
+     * @param callback Callback com os usuários encontrados.
+     */
+    void getMentoresFromProfiles(@NonNull List<Mentor> mentores, @NonNull ResultCallback<List<User>> callback);
 }
@@ -0,0 +1,222 @@
+package com.example.startuppulse.data.repositories;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.startuppulse.data.models.Ideia;
+import com.google.firebase.firestore.FieldValue;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonDeserializer;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.JsonSerializer;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Diferença campo a campo entre a última versão conhecida de uma ideia no servidor e a ideia local,
+ * para que salvar um rascunho grave só o que mudou (update) em vez do documento inteiro (set).
+ *
+ * - {@link Estado} guarda a versão do servidor como árvores JSON (cópia imutável: as mutações feitas
+ *   depois sobre o objeto Ideia não a afetam). A comparação de JSON não depende da ordem dos mapas.
+ * - Só entram no diff os campos editáveis pelo dono no canvas; os mantidos por outros escritores
+ *   (votos, avaliações do mentor e o seu total, log do matchmaking, análise da IA) nunca são
+ *   regravados e, assim, não são sobrescritos por um save concorrente.
+ * - Nos mapas de post-its o diff desce até o post-it ("postItsPorId.ETAPA.id"); chaves que sumiram
+ *   viram FieldValue.delete(). Os ids de etapa e de post-it não contêm ".", então os caminhos com
+ *   ponto são seguros (mesmo formato usado pela fila de escrita do canvas).
+ */
+final class IdeiaDiff {
+
+    interface Leitor {
+        @Nullable
+        Object ler(@NonNull Ideia ideia);
+    }
+
+    // Datas em epoch millis: o formato padrão do Gson depende do locale e perde os milissegundos.
+    private static final Gson GSON = new GsonBuilder()
+            .registerTypeAdapter(Date.class, (JsonSerializer<Date>) (src, type, ctx) -> new JsonPrimitive(src.getTime()))
+            .registerTypeAdapter(Date.class, (JsonDeserializer<Date>) (json, type, ctx) -> new Date(json.getAsLong()))
+            .create();
+
+    // Campos persistidos que o app edita, na ordem do modelo.
+    private static final Map<String, Leitor> CAMPOS = new LinkedHashMap<>();
+    // Quantos níveis de mapa o diff atravessa em cada campo (ausente = compara o campo inteiro).
+    private static final Map<String, Integer> PROFUNDIDADE = new HashMap<>();
+
+    static {
+        CAMPOS.put("nome", Ideia::getNome);
+        CAMPOS.put("descricao", Ideia::getDescricao);
+        CAMPOS.put("ownerId", Ideia::getOwnerId);
+        CAMPOS.put("autorNome", Ideia::getAutorNome);
+        CAMPOS.put("autorIsPremium", Ideia::isAutorIsPremium);
+        CAMPOS.put("mentorId", Ideia::getMentorId);
+        CAMPOS.put("avaliacaoStatus", Ideia::getAvaliacaoStatus);
+        CAMPOS.put("areasNecessarias", Ideia::getAreasNecessarias);
+        CAMPOS.put("status", ideia -> ideia.getStatus() != null ? ideia.getStatus().name() : null);
+        CAMPOS.put("latitude", Ideia::getLatitude);
+        CAMPOS.put("longitude", Ideia::getLongitude);
+        CAMPOS.put("localizacaoTexto", Ideia::getLocalizacaoTexto);
+        CAMPOS.put("postIts", Ideia::getPostIts);
+        CAMPOS.put("postItsPorId", Ideia::getPostItsPorId);
+        CAMPOS.put("equipe", Ideia::getEquipe);
+        CAMPOS.put("metricas", Ideia::getMetricas);
+        CAMPOS.put("pitchDeckUrl", Ideia::getPitchDeckUrl);
+        CAMPOS.put("prontaParaInvestidores", Ideia::isProntaParaInvestidores);
+        CAMPOS.put("ultimaBuscaMentorTimestamp", Ideia::getUltimaBuscaMentorTimestamp);
+
+        PROFUNDIDADE.put("postIts", 1);
+        PROFUNDIDADE.put("postItsPorId", 2);
+    }
+
+    // Campos de primeiro nível espelhados no IdeiaSummary.
+    static final Set<String> CAMPOS_RESUMO = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            "nome", "ownerId", "autorNome", "mentorId", "status", "areasNecessarias", "prontaParaInvestidores")));
+    // Campos que compõem o textoBusca do resumo.
+    static final Set<String> CAMPOS_TEXTO_BUSCA = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            "descricao", "postIts", "postItsPorId")));
+
+    /**
+     * Versão de uma ideia tal como está (ou ficou) no servidor.
+     */
+    static final class Estado {
+        private final Map<String, JsonElement> campos;
+
+        private Estado(Map<String, JsonElement> campos) {
+            this.campos = campos;
+        }
+    }
+
+    private IdeiaDiff() {}
+
+    @NonNull
+    static Estado capturar(@NonNull Ideia ideia) {
+        Map<String, JsonElement> campos = new HashMap<>();
+        for (Map.Entry<String, Leitor> campo : CAMPOS.entrySet()) {
+            campos.put(campo.getKey(), GSON.toJsonTree(campo.getValue().ler(ideia)));
+        }
+        return new Estado(campos);
+    }
+
+    /**
+     * Caminhos alterados (com ponto) -> novos valores, prontos para DocumentReference.update().
+     * Vazio se a ideia local é igual à do servidor.
+     */
+    @NonNull
+    static Map<String, Object> diferencas(@NonNull Estado servidor, @NonNull Ideia local) {
+        Map<String, Object> alteracoes = new LinkedHashMap<>();
+        for (Map.Entry<String, Leitor> campo : CAMPOS.entrySet()) {
+            String nome = campo.getKey();
+            Object valor = campo.getValue().ler(local);
+            JsonElement antes = servidor.campos.get(nome);
+            JsonElement depois = GSON.toJsonTree(valor);
+            if (depois.equals(antes)) continue;
+
+            Integer profundidade = PROFUNDIDADE.get(nome);
+            if (profundidade != null && valor instanceof Map && antes != null && antes.isJsonObject()) {
+                compararMapa(nome, (Map<?, ?>) valor, antes.getAsJsonObject(), depois.getAsJsonObject(), profundidade, alteracoes);
+            } else {
+                alteracoes.put(nome, valor);
+            }
+        }
+        return alteracoes;
+    }
+
+    /**
+     * Nova versão do servidor depois de um update() bem-sucedido com os caminhos dados (mesmo formato
+     * de {@link #diferencas}). O estado base não é alterado; caminhos fora dos campos editáveis são
+     * ignorados e FieldValue (ex.: delete()) remove a chave.
+     */
+    @NonNull
+    static Estado comAlteracoes(@NonNull Estado base, @NonNull Map<String, Object> alteracoes) {
+        Map<String, JsonElement> campos = new HashMap<>();
+        for (Map.Entry<String, JsonElement> campo : base.campos.entrySet()) {
+            campos.put(campo.getKey(), campo.getValue() != null ? campo.getValue().deepCopy() : null);
+        }
+        for (Map.Entry<String, Object> alteracao : alteracoes.entrySet()) {
+            String[] partes = alteracao.getKey().split("\\.");
+            if (!CAMPOS.containsKey(partes[0])) continue;
+            Object valor = alteracao.getValue();
+            if (partes.length == 1) {
+                campos.put(partes[0], valor instanceof FieldValue ? JsonNull.INSTANCE : GSON.toJsonTree(valor));
+                continue;
+            }
+            JsonElement raiz = campos.get(partes[0]);
+            if (raiz == null || !raiz.isJsonObject()) {
+                raiz = new JsonObject();
+                campos.put(partes[0], raiz);
+            }
+            JsonObject pai = raiz.getAsJsonObject();
+            for (int i = 1; i < partes.length - 1; i++) {
+                JsonElement filho = pai.get(partes[i]);
+                if (filho == null || !filho.isJsonObject()) {
+                    filho = new JsonObject();
+                    pai.add(partes[i], filho);
+                }
+                pai = filho.getAsJsonObject();
+            }
+            String chave = partes[partes.length - 1];
+            if (valor instanceof FieldValue) pai.remove(chave);
+            else pai.add(chave, GSON.toJsonTree(valor));
+        }
+        return new Estado(campos);
+    }
+
+    /**
+     * Todos os campos editáveis (primeiro nível) -> valores, para gravar a ideia com update()/merge
+     * sem tocar nos campos mantidos pelo servidor.
+     */
+    @NonNull
+    static Map<String, Object> campos(@NonNull Ideia ideia) {
+        Map<String, Object> valores = new LinkedHashMap<>();
+        for (Map.Entry<String, Leitor> campo : CAMPOS.entrySet()) {
+            valores.put(campo.getKey(), campo.getValue().ler(ideia));
+        }
+        return valores;
+    }
+
+    /**
+     * Primeiro nível de cada caminho alterado (ex.: "postItsPorId.CANAIS.x" -> "postItsPorId").
+     */
+    @NonNull
+    static Set<String> camposRaiz(@NonNull Map<String, Object> alteracoes) {
+        Set<String> raizes = new HashSet<>();
+        for (String caminho : alteracoes.keySet()) {
+            int ponto = caminho.indexOf('.');
+            raizes.add(ponto < 0 ? caminho : caminho.substring(0, ponto));
+        }
+        return raizes;
+    }
+
+    private static void compararMapa(String caminho, Map<?, ?> valores, JsonObject antes, JsonObject depois,
+                                     int profundidade, Map<String, Object> alteracoes) {
+        for (Map.Entry<?, ?> entrada : valores.entrySet()) {
+            String chave = String.valueOf(entrada.getKey());
+            JsonElement a = antes.get(chave);
+            JsonElement d = depois.get(chave);
+            if (d == null) d = JsonNull.INSTANCE;
+            if (d.equals(a)) continue;
+
+            Object valor = entrada.getValue();
+            String subcaminho = caminho + "." + chave;
+            if (profundidade > 1 && valor instanceof Map && a != null && a.isJsonObject() && d.isJsonObject()) {
+                compararMapa(subcaminho, (Map<?, ?>) valor, a.getAsJsonObject(), d.getAsJsonObject(), profundidade - 1, alteracoes);
+            } else {
+                alteracoes.put(subcaminho, valor);
+            }
+        }
+        for (String chave : antes.keySet()) {
+            if (!depois.has(chave)) alteracoes.put(caminho + "." + chave, FieldValue.delete());
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.startuppulse.data.repositories;
+
+import androidx.annotation.Nullable;
+import com.example.startuppulse.data.models.IdeiaSummary;
+import com.google.firebase.firestore.DocumentSnapshot;
+import java.util.List;
+
+/**
+ * Classe wrapper para encapsular uma página do feed de ideias públicas (apenas resumos).
+ */
+public class IdeiaPagingResult {
+    private final List<IdeiaSummary> ideias;
+    private final DocumentSnapshot lastVisible;
+    private final boolean hasMore;
+
+    public IdeiaPagingResult(List<IdeiaSummary> ideias, @Nullable DocumentSnapshot lastVisible, boolean hasMore) {
+        this.ideias = ideias;
+        this.lastVisible = lastVisible;
+        this.hasMore = hasMore;
+    }
+
+    public List<IdeiaSummary> getIdeias() {
+        return ideias;
+    }
+
+    /**
+     * Cursor para a próxima página (usado em startAfter). Nulo se a página veio vazia.
+     */
+    @Nullable
+    public DocumentSnapshot getLastVisible() {
+        return lastVisible;
+    }
+
+    /**
+     * Indica se a página veio cheia, ou seja, se ainda pode haver ideias mais antigas.
+     */
+    public boolean hasMore() {
+        return hasMore;
+    }
+}
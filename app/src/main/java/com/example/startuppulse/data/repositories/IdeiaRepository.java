@@ -2,22 +2,41 @@ package com.example.startuppulse.data.repositories;
 
 import android.net.Uri;
 import android.util.Log;
+import android.util.LruCache;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
 import com.example.startuppulse.common.Result;
+import com.example.startuppulse.data.local.CachePolicy;
+import com.example.startuppulse.data.local.IdeiaSearchIndex;
+import com.example.startuppulse.data.local.LocalListCache;
+import com.example.startuppulse.data.models.CotaPublicacao;
 import com.example.startuppulse.data.models.PostIt;
+import com.example.startuppulse.data.models.VotosComunidade;
 import com.example.startuppulse.common.ResultCallback;
 import com.example.startuppulse.data.models.Ideia;
+import com.example.startuppulse.data.models.IdeiaSummary;
+import com.example.startuppulse.util.CanvasFingerprint;
+import com.example.startuppulse.util.DataExecutor;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.AggregateField;
+import com.google.firebase.firestore.AggregateSource;
+import com.google.firebase.firestore.CollectionReference;
+import com.google.firebase.firestore.DocumentChange;
 import com.google.firebase.firestore.DocumentReference;
 import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
 import com.google.firebase.firestore.FieldValue;
 import com.google.firebase.firestore.FirebaseFirestore;
 import com.google.firebase.firestore.ListenerRegistration;
 import com.google.firebase.firestore.Query;
 import com.google.firebase.firestore.QueryDocumentSnapshot;
+import com.google.firebase.firestore.QuerySnapshot;
 import com.google.firebase.firestore.SetOptions;
+import com.google.firebase.firestore.Transaction;
 import com.google.firebase.firestore.WriteBatch;
 import com.google.firebase.functions.FirebaseFunctions;
 import com.google.firebase.functions.HttpsCallableResult;
@@ -25,13 +44,23 @@ import com.google.firebase.storage.FirebaseStorage;
 import com.google.firebase.storage.StorageReference;
 import com.google.firebase.storage.UploadTask;
 
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -47,17 +76,75 @@ public class IdeiaRepository implements IIdeiaRepository {
     private final IAuthRepository authRepository;
     private final IStorageRepository storageRepository;
     private final FirebaseFunctions functions;
+    private final DataExecutor dataExecutor;
+    private final LocalListCache localCache;
+    // Índice de busca local das ideias públicas; só é acessado na thread do próprio índice (searchIndex.executor()).
+    private final IdeiaSearchIndex searchIndex;
+    private final MigracaoResumos migracaoResumos;
+    private final AtomicBoolean sincronizandoBusca = new AtomicBoolean(false);
+    // Ideias com migração de post-its em andamento (evita disparar uma transação por evento do listener).
+    private final Set<String> migracoesEmAndamento = ConcurrentHashMap.newKeySet();
+    // Análises de IA recentes por (ideia, impressão digital do canvas). LruCache é thread-safe.
+    private final LruCache<String, Map<String, Object>> analisesRecentes = new LruCache<>(MAX_ANALISES_RECENTES);
+    // Última versão conhecida no servidor das ideias abertas recentemente, base do save por diferença.
+    private final LruCache<String, IdeiaDiff.Estado> estadosServidor = new LruCache<>(MAX_ESTADOS_SERVIDOR);
+    // Cota de publicação carregada (ou em carregamento) para o usuário atual.
+    private Task<CotaPublicacao> cotaTask;
+    private String cotaUid;
+    // Índice dos votos do usuário atual (usuarios/{uid}/meusVotos), carregado uma vez por sessão por um listener.
+    private final Map<String, Float> meusVotos = new ConcurrentHashMap<>();
+    private ListenerRegistration meusVotosListener;
+    private volatile String meusVotosUid;
+    private boolean meusVotosCarregados = false;
+    // Migração única dos votos anteriores ao índice resolvida (concluída ou falhou) nesta sessão.
+    private boolean meusVotosMigracaoResolvida = false;
+    // Pedidos de getMeuVoto feitos antes de o índice ficar pronto; respondidos uma única vez.
+    private final List<Runnable> meusVotosPendentes = new ArrayList<>();
 
     private static final String IDEIAS_COLLECTION = "ideias";
+    private static final String RESUMOS_COLLECTION = "ideias_resumo";
     private static final String PITCH_DECKS_FOLDER = "pitch_decks";
     private static final String TAG = "IdeiaRepository";
+    private static final String MENSAGEM_ANALISE_ATUALIZADA = "A análise da IA já está atualizada para este canvas.";
+    private static final int MAX_ANALISES_RECENTES = 16;
+    private static final int MAX_ESTADOS_SERVIDOR = 8;
+    private static final String LIMITES_COLLECTION = "limites";
+    private static final String VOTOS_SHARDS_COLLECTION = "votosShards";
+    // Deve ser igual a VOTOS_SHARDS em functions/main.py.
+    private static final int VOTOS_SHARDS = 10;
+    private static final String USUARIOS_COLLECTION = "usuarios";
+    private static final String MEUS_VOTOS_COLLECTION = "meusVotos";
+    // Flag no documento do usuário: votos anteriores ao índice já copiados para meusVotos.
+    private static final String CAMPO_MEUS_VOTOS_MIGRADOS = "meusVotosMigrados";
+    private static final int MAX_ESCRITAS_BATCH = 500;
+    private static final String MENTORES_COLLECTION = "mentores";
+    // Ideias EM_AVALIACAO vinculadas ao mentor (carga usada no balanceamento do match).
+    private static final String CAMPO_IDEIAS_EM_AVALIACAO = "ideiasEmAvaliacao";
+    private static final long COTA_VALIDADE_MS = TimeUnit.MINUTES.toMillis(5);
+    private static final int PAGINA_SINCRONIZACAO_BUSCA = 500;
+    // Tombstones das ideias que deixaram de ser públicas (gravados por functions/main.py).
+    private static final String REMOCOES_BUSCA_COLLECTION = "ideias_resumo_removidas";
+    // Deve ser igual a RETENCAO_REMOCOES_DIAS em functions/main.py.
+    private static final long RETENCAO_REMOCOES_BUSCA_MS = TimeUnit.DAYS.toMillis(30);
+    // Campos do resumo gravados na publicação; médias e totais de votos ficam com o gatilho do servidor.
+    private static final String[] CAMPOS_RESUMO_PUBLICACAO = {
+            "nome", "ownerId", "autorNome", "mentorId", "status", "timestamp", "ultimaEdicao",
+            "areasNecessarias", "prontaParaInvestidores", "textoBusca"};
+    // Campos do resumo regravados ao salvar uma ideia existente sem versão conhecida (sem timestamp e votos).
+    private static final String[] CAMPOS_RESUMO_EDICAO = {
+            "nome", "ownerId", "autorNome", "mentorId", "status", "ultimaEdicao",
+            "areasNecessarias", "prontaParaInvestidores", "textoBusca"};
 
     @Inject
-    public IdeiaRepository(FirebaseFirestore firestore, IAuthRepository authRepository, IStorageRepository storageRepository,FirebaseFunctions functions) {
+    public IdeiaRepository(FirebaseFirestore firestore, IAuthRepository authRepository, IStorageRepository storageRepository, FirebaseFunctions functions, DataExecutor dataExecutor, LocalListCache localCache, IdeiaSearchIndex searchIndex, MigracaoResumos migracaoResumos) {
         this.firestore = firestore;
         this.authRepository = authRepository;
         this.storageRepository = storageRepository;
         this.functions = functions;
+        this.dataExecutor = dataExecutor;
+        this.localCache = localCache;
+        this.searchIndex = searchIndex;
+        this.migracaoResumos = migracaoResumos;
     }
 
     // ============================================================
@@ -97,13 +184,92 @@ public class IdeiaRepository implements IIdeiaRepository {
         }
 
         ideia.setOwnerId(userId);
-        ideia.setTimestamp(new Date());
 
-        firestore.collection(IDEIAS_COLLECTION).document(ideia.getId()).set(ideia)
-                .addOnSuccessListener(aVoid -> callback.onResult(new Result.Success<>(null)))
+        IdeiaDiff.Estado servidor = estadosServidor.get(ideia.getId());
+        if (servidor != null) {
+            salvarDiferencas(ideia, servidor, callback);
+            return;
+        }
+
+        // Sem versão conhecida do servidor (ideia nova, ou base descartada do cache): a transação lê o
+        // documento. Se ele não existe, grava a ideia inteira; se existe, só os campos editáveis, para
+        // não sobrescrever os mantidos pelo servidor (votos, avaliações, log do matchmaking). O timestamp
+        // (ordem do feed) só é definido na criação; edições mudam só ultimaEdicao.
+        Date agora = new Date();
+        if (ideia.getTimestamp() == null) ideia.setTimestamp(agora);
+        ideia.setUltimaEdicao(agora);
+        IdeiaDiff.Estado enviado = IdeiaDiff.capturar(ideia);
+        Map<String, Object> editaveis = IdeiaDiff.campos(ideia);
+        editaveis.put("ultimaEdicao", agora);
+        IdeiaSummary resumo = IdeiaSummary.from(ideia);
+        DocumentReference ideiaRef = firestore.collection(IDEIAS_COLLECTION).document(ideia.getId());
+        // A ideia e o seu resumo são gravados juntos para nunca divergirem.
+        firestore.runTransaction(transaction -> {
+                    DocumentSnapshot atual = transaction.get(ideiaRef);
+                    if (atual.exists()) {
+                        transaction.update(ideiaRef, editaveis);
+                        transaction.set(summaryRef(ideia.getId()), resumo, SetOptions.mergeFields(CAMPOS_RESUMO_EDICAO));
+                    } else {
+                        transaction.set(ideiaRef, ideia);
+                        transaction.set(summaryRef(ideia.getId()), resumo);
+                    }
+                    return null;
+                })
+                .addOnSuccessListener(aVoid -> {
+                    estadosServidor.put(ideia.getId(), enviado);
+                    callback.onResult(new Result.Success<>(null));
+                })
+                .addOnFailureListener(e -> callback.onResult(new Result.Error<>(e)));
+    }
+
+    /**
+     * Grava só os caminhos que mudaram desde a última versão conhecida do servidor (update),
+     * mais os campos correspondentes do resumo. Nada a gravar = sucesso sem ida à rede.
+     */
+    private void salvarDiferencas(@NonNull Ideia ideia, @NonNull IdeiaDiff.Estado servidor, @NonNull ResultCallback<Void> callback) {
+        Map<String, Object> alteracoes = IdeiaDiff.diferencas(servidor, ideia);
+        if (alteracoes.isEmpty()) {
+            callback.onResult(new Result.Success<>(null));
+            return;
+        }
+
+        Date agora = new Date();
+        ideia.setUltimaEdicao(agora);
+        IdeiaDiff.Estado enviado = IdeiaDiff.capturar(ideia);
+        Set<String> raizes = IdeiaDiff.camposRaiz(alteracoes);
+        Map<String, Object> updates = new HashMap<>(alteracoes);
+        updates.put("ultimaEdicao", agora);
+
+        Map<String, Object> resumoUpdates = new HashMap<>();
+        resumoUpdates.put("ultimaEdicao", agora);
+        for (String campo : raizes) {
+            if (IdeiaDiff.CAMPOS_RESUMO.contains(campo)) resumoUpdates.put(campo, alteracoes.get(campo));
+        }
+        if (!Collections.disjoint(raizes, IdeiaDiff.CAMPOS_TEXTO_BUSCA)) {
+            resumoUpdates.put("textoBusca", IdeiaSummary.textoBuscaDe(ideia));
+        }
+
+        WriteBatch batch = firestore.batch();
+        batch.update(firestore.collection(IDEIAS_COLLECTION).document(ideia.getId()), updates);
+        batch.set(summaryRef(ideia.getId()), resumoUpdates, SetOptions.merge());
+        Log.d(TAG, "saveIdeia: gravando " + alteracoes.size() + " caminhos alterados de " + ideia.getId());
+        batch.commit()
+                .addOnSuccessListener(aVoid -> {
+                    estadosServidor.put(ideia.getId(), enviado);
+                    callback.onResult(new Result.Success<>(null));
+                })
                 .addOnFailureListener(e -> callback.onResult(new Result.Error<>(e)));
     }
 
+    /**
+     * Guarda a versão lida do servidor como base do próximo save por diferença. Snapshots com
+     * escritas pendentes refletem o estado local, não o do servidor, e são ignorados.
+     */
+    private void lembrarEstadoServidor(@NonNull Ideia ideia, @NonNull DocumentSnapshot snapshot) {
+        if (snapshot.getMetadata().hasPendingWrites()) return;
+        estadosServidor.put(ideia.getId(), IdeiaDiff.capturar(ideia));
+    }
+
     @Override
     public void updateIdeia(@NonNull Ideia ideia, @NonNull ResultCallback<Void> callback) {
         if (ideia.getId() == null || ideia.getId().isEmpty()) {
@@ -115,8 +281,19 @@ public class IdeiaRepository implements IIdeiaRepository {
 
     @Override
     public void deleteIdeia(@NonNull String ideiaId, @NonNull ResultCallback<Void> callback) {
-        firestore.collection(IDEIAS_COLLECTION).document(ideiaId).delete()
-                .addOnSuccessListener(aVoid -> callback.onResult(new Result.Success<>(null)))
+        DocumentReference ideiaRef = firestore.collection(IDEIAS_COLLECTION).document(ideiaId);
+        firestore.runTransaction(transaction -> {
+                    DocumentSnapshot antes = transaction.get(ideiaRef);
+                    transaction.delete(ideiaRef);
+                    transaction.delete(summaryRef(ideiaId));
+                    ajustarCargaMentores(transaction, antes, null, null);
+                    return null;
+                })
+                .addOnSuccessListener(aVoid -> {
+                    estadosServidor.remove(ideiaId);
+                    removerDoIndiceBusca(ideiaId);
+                    callback.onResult(new Result.Success<>(null));
+                })
                 .addOnFailureListener(e -> callback.onResult(new Result.Error<>(e)));
     }
 
@@ -125,52 +302,38 @@ public class IdeiaRepository implements IIdeiaRepository {
     // ============================================================
     @Override
     public void getPublicIdeasCountByUser(String userId, ResultCallback<Integer> callback) {
-        firestore.collection("ideias")
+        // Agregação no servidor: apenas o número volta pela rede, não os documentos.
+        firestore.collection(IDEIAS_COLLECTION)
                 .whereEqualTo("ownerId", userId)
                 .whereIn("status", Arrays.asList(
                         Ideia.Status.EM_AVALIACAO.name(),
                         Ideia.Status.AVALIADA_APROVADA.name(),
                         Ideia.Status.AVALIADA_REPROVADA.name()
                 ))
-                .get()
-                .addOnSuccessListener(querySnapshot -> {
-                    if (querySnapshot != null) {
-                        callback.onResult(new Result.Success<>(querySnapshot.size()));
-                    } else {
-                        callback.onResult(new Result.Success<>(0));
-                    }
-                })
+                .count()
+                .get(AggregateSource.SERVER)
+                .addOnSuccessListener(snapshot -> callback.onResult(new Result.Success<>((int) snapshot.getCount())))
                 .addOnFailureListener(e ->
                         callback.onResult(new Result.Error<>(e)));
     }
 
     @Override
     public void getAvaliacoesRecebidasCount(String userId, ResultCallback<Integer> callback) {
-        Log.d(TAG, "getAvaliacoesRecebidasCount: Buscando ideias do userId: " + userId + " para contar avaliações.");
+        Log.d(TAG, "getAvaliacoesRecebidasCount: somando avaliações das ideias do userId: " + userId);
+        // Soma no servidor o campo numérico 'totalAvaliacoes' (gravado por salvarAvaliacao; ideias antigas via backfill_total_avaliacoes).
+        AggregateField somaAvaliacoes = AggregateField.sum("totalAvaliacoes");
         firestore.collection(IDEIAS_COLLECTION)
-                .whereEqualTo("ownerId", userId) // Busca ideias do usuário
-                // Não precisa filtrar por status aqui, a menos que só queira contar avaliações de ideias públicas
-                .get()
-                .addOnSuccessListener(querySnapshot -> {
-                    int totalAvaliacoes = 0;
-                    if (querySnapshot != null && !querySnapshot.isEmpty()) {
-                        Log.d(TAG, "getAvaliacoesRecebidasCount: Encontradas " + querySnapshot.size() + " ideias do usuário.");
-                        // Itera sobre cada documento de ideia encontrado
-                        for (Ideia ideia : querySnapshot.toObjects(Ideia.class)) {
-                            // Assumindo que Ideia.java tem getAvaliacoes() que retorna uma List
-                            if (ideia.getAvaliacoes() != null) {
-                                totalAvaliacoes += ideia.getAvaliacoes().size();
-                            }
-                        }
-                        Log.d(TAG, "getAvaliacoesRecebidasCount SUCCESS: Total de avaliações contadas: " + totalAvaliacoes);
-                        callback.onResult(new Result.Success<>(totalAvaliacoes));
-                    } else {
-                        Log.d(TAG, "getAvaliacoesRecebidasCount: Nenhuma ideia encontrada para o usuário.");
-                        callback.onResult(new Result.Success<>(0)); // Retorna 0 se não encontrou ideias
-                    }
+                .whereEqualTo("ownerId", userId)
+                .aggregate(somaAvaliacoes)
+                .get(AggregateSource.SERVER)
+                .addOnSuccessListener(snapshot -> {
+                    Long total = snapshot.getLong(somaAvaliacoes);
+                    int totalAvaliacoes = (total != null) ? total.intValue() : 0;
+                    Log.d(TAG, "getAvaliacoesRecebidasCount SUCCESS: Total de avaliações: " + totalAvaliacoes);
+                    callback.onResult(new Result.Success<>(totalAvaliacoes));
                 })
                 .addOnFailureListener(e -> {
-                    Log.e(TAG, "getAvaliacoesRecebidasCount ERROR ao buscar ideias: ", e);
+                    Log.e(TAG, "getAvaliacoesRecebidasCount ERROR na agregação: ", e);
                     callback.onResult(new Result.Error<>(e));
                 });
     }
@@ -180,7 +343,7 @@ public class IdeiaRepository implements IIdeiaRepository {
         firestore.collection(IDEIAS_COLLECTION)
                 .whereEqualTo("ownerId", ownerId)
                 .get()
-                .addOnSuccessListener(querySnapshot -> {
+                .addOnSuccessListener(dataExecutor, querySnapshot -> {
                     List<Ideia> ideias = new ArrayList<>();
                     for (DocumentSnapshot document : querySnapshot.getDocuments()) {
                         Ideia ideia = document.toObject(Ideia.class);
@@ -189,26 +352,44 @@ public class IdeiaRepository implements IIdeiaRepository {
                             ideias.add(ideia);
                         }
                     }
-                    callback.onResult(new Result.Success<>(ideias));
+                    dataExecutor.deliver(callback, new Result.Success<>(ideias));
                 })
                 .addOnFailureListener(e -> callback.onResult(new Result.Error<>(e)));
     }
 
 
+    @Override
+    public void getIdeiaSummariesForOwner(@NonNull String ownerId, @NonNull ResultCallback<List<IdeiaSummary>> callback) {
+        colecaoResumos()
+                .whereEqualTo("ownerId", ownerId)
+                .get()
+                .addOnSuccessListener(dataExecutor, querySnapshot -> {
+                    List<IdeiaSummary> resumos = new ArrayList<>();
+                    for (DocumentSnapshot document : querySnapshot.getDocuments()) {
+                        IdeiaSummary resumo = mapSummary(document);
+                        if (resumo != null) resumos.add(resumo);
+                    }
+                    dataExecutor.deliver(callback, new Result.Success<>(resumos));
+                })
+                .addOnFailureListener(e -> callback.onResult(new Result.Error<>(e)));
+    }
+
     @Override
     public void getIdeiaById(@NonNull String ideiaId, @NonNull ResultCallback<Ideia> callback) {
         firestore.collection(IDEIAS_COLLECTION).document(ideiaId).get()
-                .addOnSuccessListener(documentSnapshot -> {
+                .addOnSuccessListener(dataExecutor, documentSnapshot -> {
                     if (documentSnapshot != null && documentSnapshot.exists()) {
                         Ideia ideia = documentSnapshot.toObject(Ideia.class);
                         if (ideia != null) {
                             ideia.setId(documentSnapshot.getId());
-                            callback.onResult(new Result.Success<>(ideia));
+                            lembrarAnaliseIA(ideia);
+                            lembrarEstadoServidor(ideia, documentSnapshot);
+                            dataExecutor.deliver(callback, new Result.Success<>(ideia));
                         } else {
-                            callback.onResult(new Result.Error<>(new Exception("Falha ao mapear dados da ideia.")));
+                            dataExecutor.deliver(callback, new Result.Error<>(new Exception("Falha ao mapear dados da ideia.")));
                         }
                     } else {
-                        callback.onResult(new Result.Error<>(new Exception("Ideia não encontrada.")));
+                        dataExecutor.deliver(callback, new Result.Error<>(new Exception("Ideia não encontrada.")));
                     }
                 })
                 .addOnFailureListener(e -> callback.onResult(new Result.Error<>(e)));
@@ -218,84 +399,352 @@ public class IdeiaRepository implements IIdeiaRepository {
     @Override
     public ListenerRegistration listenToIdeia(@NonNull String ideiaId, @NonNull ResultCallback<Ideia> callback) {
         return firestore.collection(IDEIAS_COLLECTION).document(ideiaId)
-                .addSnapshotListener((snapshot, e) -> {
+                .addSnapshotListener(dataExecutor, (snapshot, e) -> {
                     if (e != null) {
-                        callback.onResult(new Result.Error<>(e));
+                        dataExecutor.deliver(callback, new Result.Error<>(e));
                         return;
                     }
                     if (snapshot != null && snapshot.exists()) {
                         Ideia ideia = snapshot.toObject(Ideia.class);
                         if (ideia != null) {
                             ideia.setId(snapshot.getId());
-                            callback.onResult(new Result.Success<>(ideia));
+                            lembrarAnaliseIA(ideia);
+                            lembrarEstadoServidor(ideia, snapshot);
+                            dataExecutor.deliver(callback, new Result.Success<>(ideia));
+                            // Só o dono migra (é quem pode escrever); o próximo evento já vem no formato novo.
+                            if (ideia.temPostItsLegados() && !snapshot.getMetadata().hasPendingWrites()
+                                    && ideia.getOwnerId() != null && ideia.getOwnerId().equals(getCurrentUserId())) {
+                                migrarPostItsLegados(ideia.getId());
+                            }
                         } else {
-                            callback.onResult(new Result.Error<>(new Exception("Falha ao mapear dados da ideia.")));
+                            dataExecutor.deliver(callback, new Result.Error<>(new Exception("Falha ao mapear dados da ideia.")));
                         }
                     } else {
-                        callback.onResult(new Result.Error<>(new Exception("Ideia não encontrada.")));
+                        dataExecutor.deliver(callback, new Result.Error<>(new Exception("Ideia não encontrada.")));
                     }
                 });
     }
 
     @NonNull
     @Override
-    public ListenerRegistration listenToPublicIdeias(@NonNull ResultCallback<List<Ideia>> callback) {
+    public ListenerRegistration listenToPublicIdeiasFirstPage(int pageSize, @NonNull ResultCallback<IdeiaPagingResult> callback) {
+        // Cada listener mantém sua própria lista incremental: só os documentos alterados são desserializados.
+        IncrementalDocumentList<IdeiaSummary> feed = new IncrementalDocumentList<>(IdeiaRepository::mapSummary);
+        boolean[] firstEvent = {true};
+
+        // Stale-while-revalidate: entrega primeiro o feed salvo em disco (sem cursor, pois não há
+        // DocumentSnapshot), e o listener abaixo o substitui assim que chega o primeiro evento.
+        // O executor tem uma única thread, então esta leitura sempre roda antes do primeiro evento.
+        dataExecutor.execute(() -> {
+            List<IdeiaSummary> cached = localCache.read(CachePolicy.FEED_IDEIAS, IdeiaSummary::readFrom);
+            if (firstEvent[0] && cached != null && !cached.isEmpty()) {
+                dataExecutor.deliver(callback, new Result.Success<>(new IdeiaPagingResult(cached, null, false)));
+            }
+        });
+
+        return publicIdeiasQuery()
+                .limit(pageSize)
+                .addSnapshotListener(dataExecutor, (snapshots, e) -> {
+                    if (e != null) {
+                        dataExecutor.deliver(callback, new Result.Error<>(e));
+                        return;
+                    }
+                    List<IncrementalDocumentList.Change> changes = feed.apply(snapshots);
+                    indexarAlteracoes(feed, changes);
+                    // Só o que veio do servidor vai para o disco (não o cache interno do Firestore).
+                    boolean fromServer = snapshots != null && !snapshots.getMetadata().isFromCache();
+                    if (changes.isEmpty() && !firstEvent[0]) {
+                        // Evento só de metadados; se confirmou os dados no servidor, atualiza o disco.
+                        if (fromServer) localCache.write(CachePolicy.FEED_IDEIAS, feed.snapshot(), IdeiaSummary::getId, IdeiaSummary::writeTo);
+                        return;
+                    }
+                    firstEvent[0] = false;
+
+                    DocumentSnapshot lastVisible = null;
+                    if (snapshots != null && !snapshots.isEmpty()) {
+                        lastVisible = snapshots.getDocuments().get(snapshots.size() - 1);
+                    }
+                    List<IdeiaSummary> ideias = feed.snapshot();
+                    dataExecutor.deliver(callback, new Result.Success<>(new IdeiaPagingResult(ideias, lastVisible, feed.size() >= pageSize)));
+
+                    if (fromServer) {
+                        localCache.write(CachePolicy.FEED_IDEIAS, ideias, IdeiaSummary::getId, IdeiaSummary::writeTo);
+                    }
+                });
+    }
+
+    @Override
+    public void getPublicIdeiasPage(int pageSize, @NonNull DocumentSnapshot startAfter, @NonNull ResultCallback<IdeiaPagingResult> callback) {
+        publicIdeiasQuery()
+                .startAfter(startAfter)
+                .limit(pageSize)
+                .get()
+                .addOnSuccessListener(dataExecutor, snapshots -> {
+                    IdeiaPagingResult pagina = toPagingResult(snapshots, pageSize);
+                    searchIndex.executor().execute(() -> searchIndex.atualizar(pagina.getIdeias(), Collections.emptyList()));
+                    dataExecutor.deliver(callback, new Result.Success<>(pagina));
+                })
+                .addOnFailureListener(e -> callback.onResult(new Result.Error<>(e)));
+    }
+
+    /**
+     * Query base do feed público: resumos de ideias em avaliação ou avaliadas, da mais recente para a mais antiga.
+     */
+    private Query publicIdeiasQuery() {
+        return publicIdeiasQuery("timestamp");
+    }
+
+    private Query publicIdeiasQuery(@NonNull String campoOrdem) {
         List<String> statusPublicos = Arrays.asList(
                 Ideia.Status.EM_AVALIACAO.name(),
                 Ideia.Status.AVALIADA_APROVADA.name(),
                 Ideia.Status.AVALIADA_REPROVADA.name()
         );
 
-        return firestore.collection(IDEIAS_COLLECTION)
+        return colecaoResumos()
                 .whereIn("status", statusPublicos)
-                .orderBy("timestamp", Query.Direction.DESCENDING)
-                .addSnapshotListener((snapshots, e) -> {
-                    if (e != null) {
-                        callback.onResult(new Result.Error<>(e));
-                        return;
-                    }
+                .orderBy(campoOrdem, Query.Direction.DESCENDING);
+    }
 
-                    List<Ideia> ideias = new ArrayList<>();
-                    if (snapshots != null) {
-                        for (QueryDocumentSnapshot doc : snapshots) {
-                            Ideia ideia = doc.toObject(Ideia.class);
-                            ideia.setId(doc.getId());
-                            ideias.add(ideia);
-                        }
-                    }
-                    callback.onResult(new Result.Success<>(ideias));
-                });
+    private IdeiaPagingResult toPagingResult(@Nullable QuerySnapshot snapshots, int pageSize) {
+        List<IdeiaSummary> ideias = new ArrayList<>();
+        DocumentSnapshot lastVisible = null;
+        if (snapshots != null && !snapshots.isEmpty()) {
+            for (QueryDocumentSnapshot doc : snapshots) {
+                IdeiaSummary resumo = mapSummary(doc);
+                if (resumo != null) ideias.add(resumo);
+            }
+            lastVisible = snapshots.getDocuments().get(snapshots.size() - 1);
+        }
+        return new IdeiaPagingResult(ideias, lastVisible, ideias.size() >= pageSize);
     }
 
     @Override
-    public ListenerRegistration listenToDraftIdeias(@NonNull ResultCallback<List<Ideia>> callback) {
+    public ListenerRegistration listenToDraftIdeias(@NonNull ResultCallback<List<IdeiaSummary>> callback) {
         String userId = authRepository.getCurrentUserId();
         if (userId == null) {
             callback.onResult(new Result.Success<>(new ArrayList<>()));
             return null;
         }
 
-        return firestore.collection(IDEIAS_COLLECTION)
+        IncrementalDocumentList<IdeiaSummary> rascunhos = new IncrementalDocumentList<>(IdeiaRepository::mapSummary);
+        boolean[] firstEvent = {true};
+
+        return colecaoResumos()
                 .whereEqualTo("ownerId", userId)
                 .whereEqualTo("status", Ideia.Status.RASCUNHO.name())
                 .orderBy("timestamp", Query.Direction.DESCENDING)
-                .addSnapshotListener((snapshots, e) -> {
+                .addSnapshotListener(dataExecutor, (snapshots, e) -> {
                     if (e != null) {
-                        callback.onResult(new Result.Error<>(e));
+                        dataExecutor.deliver(callback, new Result.Error<>(e));
                         return;
                     }
-                    List<Ideia> rascunhos = new ArrayList<>();
-                    if (snapshots != null) {
-                        for (QueryDocumentSnapshot doc : snapshots) {
-                            Ideia ideia = doc.toObject(Ideia.class);
-                            ideia.setId(doc.getId());
-                            rascunhos.add(ideia);
-                        }
-                    }
-                    callback.onResult(new Result.Success<>(rascunhos));
+                    List<IncrementalDocumentList.Change> changes = rascunhos.apply(snapshots);
+                    if (changes.isEmpty() && !firstEvent[0]) return;
+                    firstEvent[0] = false;
+                    dataExecutor.deliver(callback, new Result.Success<>(rascunhos.snapshot()));
                 });
     }
 
+    // ============================================================
+    // BUSCA LOCAL
+    // ============================================================
+
+    @Override
+    public void buscarIdeias(@NonNull String consulta, int limite, @NonNull ResultCallback<List<IdeiaSummary>> callback) {
+        searchIndex.executor().execute(() -> {
+            try {
+                dataExecutor.deliver(callback, new Result.Success<>(searchIndex.buscar(consulta, limite)));
+            } catch (RuntimeException e) {
+                Log.e(TAG, "Falha na busca local de ideias.", e);
+                dataExecutor.deliver(callback, new Result.Error<>(e));
+            }
+        });
+    }
+
+    @Override
+    public void sincronizarIndiceBusca() {
+        if (!sincronizandoBusca.compareAndSet(false, true)) return;
+        searchIndex.executor().execute(() -> {
+            long desde = searchIndex.getUltimaSincronizacao();
+            if (desde > 0 && System.currentTimeMillis() - desde > RETENCAO_REMOCOES_BUSCA_MS) {
+                // Os tombstones mais antigos que a retenção já foram apagados: remoções podem ter se perdido.
+                Log.i(TAG, "Índice de busca sem sincronizar há mais que a retenção de remoções; recomeçando.");
+                searchIndex.reiniciar();
+                desde = 0;
+            }
+            if (desde > 0) {
+                sincronizarPaginaBusca(desde, null, 0, 0L);
+            } else {
+                sincronizarBuscaCompleta();
+            }
+        });
+    }
+
+    /**
+     * Primeira sincronização (ou depois de {@link IdeiaSearchIndex#reiniciar()}): todas as ideias
+     * públicas. A data da remoção mais recente é lida antes, para que só as remoções feitas a partir
+     * daqui sejam aplicadas nas sincronizações seguintes.
+     */
+    private void sincronizarBuscaCompleta() {
+        firestore.collection(REMOCOES_BUSCA_COLLECTION)
+                .orderBy("removidaEm", Query.Direction.DESCENDING)
+                .limit(1)
+                .get()
+                .addOnSuccessListener(searchIndex.executor(), snapshots -> {
+                    Date ultima = snapshots.isEmpty() ? null : snapshots.getDocuments().get(0).getDate("removidaEm");
+                    searchIndex.setUltimaRemocao(ultima != null ? ultima.getTime() : 0L);
+                    sincronizarPaginaBusca(0L, null, 0, 0L);
+                })
+                .addOnFailureListener(this::falharSincronizacaoBusca);
+    }
+
+    /**
+     * Lê (da mais recente para a mais antiga) os resumos públicos alterados desde a última
+     * sincronização e os envia ao índice, página a página, até o fim. A data só avança quando
+     * todas as páginas foram lidas; se falhar no meio, a próxima sincronização repete o intervalo
+     * (resumos já indexados e iguais são ignorados pelo índice). A primeira sincronização segue a
+     * ordem do feed; as seguintes usam ultimaEdicao, que muda também nas edições de ideias já
+     * publicadas, e depois aplicam as remoções ({@link #sincronizarRemocoesBusca}).
+     */
+    private void sincronizarPaginaBusca(long desde, @Nullable DocumentSnapshot cursor, int lidos, long maisRecente) {
+        Query query = desde > 0
+                ? publicIdeiasQuery("ultimaEdicao").whereGreaterThan("ultimaEdicao", new Date(desde))
+                : publicIdeiasQuery();
+        if (cursor != null) query = query.startAfter(cursor);
+
+        query.limit(PAGINA_SINCRONIZACAO_BUSCA)
+                .get()
+                .addOnSuccessListener(searchIndex.executor(), snapshots -> {
+                    IdeiaPagingResult pagina = toPagingResult(snapshots, PAGINA_SINCRONIZACAO_BUSCA);
+                    searchIndex.atualizar(pagina.getIdeias(), Collections.emptyList());
+
+                    long recente = maisRecente;
+                    for (IdeiaSummary resumo : pagina.getIdeias()) {
+                        Date alteracao = resumo.getUltimaEdicao() != null ? resumo.getUltimaEdicao() : resumo.getTimestamp();
+                        if (alteracao != null) recente = Math.max(recente, alteracao.getTime());
+                    }
+                    int total = lidos + pagina.getIdeias().size();
+                    if (pagina.hasMore()) {
+                        sincronizarPaginaBusca(desde, pagina.getLastVisible(), total, recente);
+                        return;
+                    }
+
+                    if (recente > desde) searchIndex.setUltimaSincronizacao(recente);
+                    Log.d(TAG, "Índice de busca: " + total + " resumos novos/alterados.");
+                    if (desde > 0) {
+                        sincronizarRemocoesBusca(searchIndex.getUltimaRemocao(), null, 0, 0L);
+                    } else {
+                        concluirSincronizacaoBusca();
+                    }
+                })
+                .addOnFailureListener(this::falharSincronizacaoBusca);
+    }
+
+    /**
+     * Remove do índice as ideias que deixaram de ser públicas (despublicadas ou excluídas, inclusive
+     * por outros usuários) desde a última remoção aplicada, a partir dos tombstones em
+     * {@code ideias_resumo_removidas}.
+     */
+    private void sincronizarRemocoesBusca(long desde, @Nullable DocumentSnapshot cursor, int removidas, long maisRecente) {
+        Query query = firestore.collection(REMOCOES_BUSCA_COLLECTION)
+                .whereGreaterThan("removidaEm", new Date(desde))
+                .orderBy("removidaEm");
+        if (cursor != null) query = query.startAfter(cursor);
+
+        query.limit(PAGINA_SINCRONIZACAO_BUSCA)
+                .get()
+                .addOnSuccessListener(searchIndex.executor(), snapshots -> {
+                    List<String> ids = new ArrayList<>(snapshots.size());
+                    long recente = maisRecente;
+                    for (DocumentSnapshot doc : snapshots.getDocuments()) {
+                        ids.add(doc.getId());
+                        Date removidaEm = doc.getDate("removidaEm");
+                        if (removidaEm != null) recente = Math.max(recente, removidaEm.getTime());
+                    }
+                    searchIndex.atualizar(Collections.emptyList(), ids);
+
+                    int total = removidas + ids.size();
+                    if (ids.size() == PAGINA_SINCRONIZACAO_BUSCA) {
+                        sincronizarRemocoesBusca(desde, snapshots.getDocuments().get(ids.size() - 1), total, recente);
+                        return;
+                    }
+
+                    if (recente > desde) searchIndex.setUltimaRemocao(recente);
+                    Log.d(TAG, "Índice de busca: " + total + " remoções aplicadas.");
+                    concluirSincronizacaoBusca();
+                })
+                .addOnFailureListener(this::falharSincronizacaoBusca);
+    }
+
+    private void concluirSincronizacaoBusca() {
+        sincronizandoBusca.set(false);
+        Log.d(TAG, "Índice de busca sincronizado: " + searchIndex.size() + " ideias no índice.");
+    }
+
+    private void falharSincronizacaoBusca(@NonNull Exception e) {
+        Log.w(TAG, "Falha ao sincronizar o índice de busca.", e);
+        sincronizandoBusca.set(false);
+    }
+
+    /**
+     * Envia ao índice os resumos adicionados/alterados na primeira página do feed. Resumos que saem
+     * da página (REMOVED) não são removidos do índice: na maioria das vezes só foram empurrados para
+     * a página seguinte por ideias mais novas. As despublicações chegam pelos tombstones.
+     */
+    private void indexarAlteracoes(@NonNull IncrementalDocumentList<IdeiaSummary> feed, @NonNull List<IncrementalDocumentList.Change> changes) {
+        if (changes.isEmpty()) return;
+        List<IdeiaSummary> alterados = new ArrayList<>();
+        for (IncrementalDocumentList.Change change : changes) {
+            if (change.type == IncrementalDocumentList.Change.Type.REMOVED) continue;
+            IdeiaSummary resumo = feed.get(change.id);
+            if (resumo != null) alterados.add(resumo);
+        }
+        if (!alterados.isEmpty()) searchIndex.executor().execute(() -> searchIndex.atualizar(alterados, Collections.emptyList()));
+    }
+
+    private void removerDoIndiceBusca(@NonNull String ideiaId) {
+        searchIndex.executor().execute(() -> searchIndex.atualizar(Collections.emptyList(), Collections.singletonList(ideiaId)));
+    }
+
+    @Nullable
+    private static Ideia mapIdeia(@NonNull DocumentSnapshot doc) {
+        Ideia ideia = doc.toObject(Ideia.class);
+        if (ideia != null) {
+            ideia.setId(doc.getId());
+        }
+        return ideia;
+    }
+
+    /**
+     * Coleção lida pelas listas: os resumos, ou as ideias completas enquanto o backfill de
+     * "ideias_resumo" não terminou (ideias antigas ainda não têm resumo).
+     */
+    private CollectionReference colecaoResumos() {
+        return firestore.collection(migracaoResumos.isConcluida() ? RESUMOS_COLLECTION : IDEIAS_COLLECTION);
+    }
+
+    /**
+     * Resumo a partir de um documento de "ideias_resumo" ou, no fallback de {@link #colecaoResumos()},
+     * de "ideias".
+     */
+    @Nullable
+    private static IdeiaSummary mapSummary(@NonNull DocumentSnapshot doc) {
+        if (IDEIAS_COLLECTION.equals(doc.getReference().getParent().getId())) {
+            Ideia ideia = mapIdeia(doc);
+            return ideia != null ? IdeiaSummary.from(ideia) : null;
+        }
+        IdeiaSummary resumo = doc.toObject(IdeiaSummary.class);
+        if (resumo != null) {
+            resumo.setId(doc.getId());
+        }
+        return resumo;
+    }
+
+    private DocumentReference summaryRef(@NonNull String ideiaId) {
+        return firestore.collection(RESUMOS_COLLECTION).document(ideiaId);
+    }
+
     // ============================================================
     // UPLOAD DE ARQUIVOS
     // ============================================================
@@ -337,64 +786,167 @@ public class IdeiaRepository implements IIdeiaRepository {
     // ============================================================
 
     @Override
-    public void publicarIdeia(@NonNull String ideiaId, @Nullable String mentorId, @NonNull ResultCallback<Void> callback) {
-        final String TAG = "IdeiaRepository";
+    public void publicarIdeia(@NonNull Ideia ideia, @Nullable String mentorId, @NonNull ResultCallback<Void> callback) {
         String userId = getCurrentUserId();
-
         if (userId == null) {
             Log.e(TAG, "publicarIdeia: usuário não autenticado.");
             callback.onResult(new Result.Error<>(new SecurityException("Usuário não autenticado.")));
             return;
         }
-
-        Log.d(TAG, "publicarIdeia: iniciando publicação -> ideiaId=" + ideiaId + ", mentorId=" + mentorId);
-
-        DocumentReference ref = firestore.collection("ideias").document(ideiaId);
-
-        // Atualiza campos permitidos (sem sobrescrever outros)
-        Map<String, Object> updates = new HashMap<>();
-        updates.put("status", Ideia.Status.EM_AVALIACAO.name());
-        updates.put("updatedAt", System.currentTimeMillis());
-
-        if (mentorId != null && !mentorId.isEmpty()) {
-            updates.put("mentorId", mentorId);
-            Log.d(TAG, "publicarIdeia: vinculando mentor " + mentorId);
-        } else {
-            updates.put("mentorId", null);
-            Log.d(TAG, "publicarIdeia: publicando sem mentor (mentorId=null).");
+        if (ideia.getId() == null || ideia.getId().isEmpty()) {
+            callback.onResult(new Result.Error<>(new IllegalArgumentException("ID da ideia é inválido.")));
+            return;
+        }
+        // A ideia já foi carregada pelo listener: a checagem de dono é local (as regras do Firestore garantem no servidor).
+        if (ideia.getOwnerId() != null && !ideia.getOwnerId().equals(userId)) {
+            Log.w(TAG, "publicarIdeia: tentativa de publicação por usuário não dono (uid=" + userId + ")");
+            callback.onResult(new Result.Error<>(new SecurityException("Permissão negada: não é o dono da ideia.")));
+            return;
         }
 
-        // Apenas o dono pode publicar ou re-publicar
-        ref.get().addOnSuccessListener(snapshot -> {
-            if (!snapshot.exists()) {
-                Log.e(TAG, "publicarIdeia: documento não existe no Firestore.");
-                callback.onResult(new Result.Error<>(new IllegalStateException("Ideia não encontrada.")));
+        // Normalmente a cota já foi carregada por precarregarCotaPublicacao() durante o match de mentor.
+        carregarCotaPublicacao(userId).addOnCompleteListener(cotaTask -> {
+            if (!cotaTask.isSuccessful()) {
+                Log.e(TAG, "publicarIdeia: falha ao verificar limite de publicação.", cotaTask.getException());
+                callback.onResult(new Result.Error<>(cotaTask.getException()));
                 return;
             }
 
-            String ownerId = snapshot.getString("ownerId");
-            if (ownerId == null || !ownerId.equals(userId)) {
-                Log.w(TAG, "publicarIdeia: tentativa de atualização por usuário não dono (uid=" + userId + ")");
-                callback.onResult(new Result.Error<>(new SecurityException("Permissão negada: não é o dono da ideia.")));
+            Date agora = new Date();
+            CotaPublicacao cota = cotaTask.getResult();
+            if (!cota.podePublicar(agora)) {
+                String proxima = new SimpleDateFormat("dd/MM/yyyy", Locale.getDefault()).format(cota.getProximaPublicacao(agora));
+                callback.onResult(new Result.Error<>(new IllegalStateException(
+                        "Limite semanal de publicação atingido. Você poderá publicar novamente em " + proxima + ".")));
                 return;
             }
 
-            Log.d(TAG, "publicarIdeia: usuário autorizado. Atualizando campos: " + updates.keySet());
-            ref.set(updates, SetOptions.merge())
+            String mentorFinal = mentorId != null && !mentorId.isEmpty() ? mentorId : null;
+
+            // Só os campos alterados: as pendências do canvas (ou todos os campos editáveis, se a versão
+            // do servidor não é conhecida) mais os da publicação. Campos mantidos pelo servidor
+            // (votos, shards, análise da IA) não são regravados.
+            Map<String, Object> publicacao = new HashMap<>();
+            publicacao.put("ownerId", userId);
+            publicacao.put("status", Ideia.Status.EM_AVALIACAO.name());
+            publicacao.put("mentorId", mentorFinal);
+            publicacao.put("timestamp", agora);
+            publicacao.put("ultimaEdicao", agora);
+            IdeiaDiff.Estado servidor = estadosServidor.get(ideia.getId());
+            Map<String, Object> alteracoes = servidor != null ? IdeiaDiff.diferencas(servidor, ideia) : IdeiaDiff.campos(ideia);
+            alteracoes.putAll(publicacao);
+            Map<String, Object> documentoNovo = IdeiaDiff.campos(ideia);
+            documentoNovo.putAll(publicacao);
+
+            IdeiaSummary resumo = IdeiaSummary.from(ideia);
+            resumo.setOwnerId(userId);
+            resumo.setStatus(Ideia.Status.EM_AVALIACAO);
+            resumo.setMentorId(mentorFinal);
+            resumo.setTimestamp(agora);
+            resumo.setUltimaEdicao(agora);
+
+            // Ideia, resumo, consumo da cota e carga do mentor num único commit. É uma transação (e
+            // não um WriteBatch) porque a carga do mentor depende de a ideia já contar para algum
+            // mentor, o que exige ler a ideia no mesmo commit.
+            DocumentReference ideiaRef = firestore.collection(IDEIAS_COLLECTION).document(ideia.getId());
+            Log.d(TAG, "publicarIdeia: publicando ideia " + ideia.getId() + " (mentorId=" + mentorFinal + ")");
+            firestore.runTransaction(transaction -> {
+                        DocumentSnapshot antes = transaction.get(ideiaRef);
+                        if (antes.exists()) {
+                            transaction.update(ideiaRef, alteracoes);
+                        } else {
+                            transaction.set(ideiaRef, documentoNovo);
+                        }
+                        transaction.set(summaryRef(ideia.getId()), resumo, SetOptions.mergeFields(CAMPOS_RESUMO_PUBLICACAO));
+                        transaction.set(firestore.collection(LIMITES_COLLECTION).document(userId),
+                                Collections.singletonMap("data_ultima_publicacao", FieldValue.serverTimestamp()), SetOptions.merge());
+                        ajustarCargaMentores(transaction, antes, Ideia.Status.EM_AVALIACAO.name(), mentorFinal);
+                        return null;
+                    })
                     .addOnSuccessListener(aVoid -> {
-                        Log.i(TAG, "publicarIdeia: sucesso ao atualizar ideia " + ideiaId);
+                        // O modelo local só muda depois do commit: uma falha não o deixa como publicado.
+                        ideia.setOwnerId(userId);
+                        ideia.setStatus(Ideia.Status.EM_AVALIACAO);
+                        ideia.setMentorId(mentorFinal);
+                        ideia.setTimestamp(agora);
+                        ideia.setUltimaEdicao(agora);
+                        estadosServidor.put(ideia.getId(), IdeiaDiff.capturar(ideia));
+                        invalidarCotaPublicacao();
+                        Log.i(TAG, "publicarIdeia: ideia " + ideia.getId() + " publicada.");
                         callback.onResult(new Result.Success<>(null));
                     })
                     .addOnFailureListener(e -> {
-                        Log.e(TAG, "publicarIdeia: erro ao salvar -> " + e.getMessage(), e);
+                        Log.e(TAG, "publicarIdeia: erro ao publicar -> " + e.getMessage(), e);
                         callback.onResult(new Result.Error<>(e));
                     });
-        }).addOnFailureListener(e -> {
-            Log.e(TAG, "publicarIdeia: falha ao ler documento -> " + e.getMessage(), e);
-            callback.onResult(new Result.Error<>(e));
         });
     }
 
+    @Override
+    public void vincularMentorIdeiaPublicada(@NonNull String ideiaId, @Nullable String mentorId, @NonNull ResultCallback<Void> callback) {
+        if (getCurrentUserId() == null) {
+            Log.e(TAG, "vincularMentorIdeiaPublicada: usuário não autenticado.");
+            callback.onResult(new Result.Error<>(new SecurityException("Usuário não autenticado.")));
+            return;
+        }
+
+        Map<String, Object> updates = new HashMap<>();
+        updates.put("status", Ideia.Status.EM_AVALIACAO.name());
+        updates.put("mentorId", mentorId != null && !mentorId.isEmpty() ? mentorId : null);
+        updates.put("ultimaEdicao", new Date());
+
+        // update() falha com NOT_FOUND se a ideia não existir; a permissão de dono fica com as regras do Firestore.
+        // No re-match, a ideia sai da carga do mentor anterior e entra na do novo.
+        DocumentReference ideiaRef = firestore.collection(IDEIAS_COLLECTION).document(ideiaId);
+        firestore.runTransaction(transaction -> {
+                    DocumentSnapshot antes = transaction.get(ideiaRef);
+                    transaction.update(ideiaRef, updates);
+                    transaction.set(summaryRef(ideiaId), updates, SetOptions.merge());
+                    ajustarCargaMentores(transaction, antes, Ideia.Status.EM_AVALIACAO.name(), (String) updates.get("mentorId"));
+                    return null;
+                })
+                .addOnSuccessListener(aVoid -> callback.onResult(new Result.Success<>(null)))
+                .addOnFailureListener(e -> {
+                    Log.e(TAG, "vincularMentorIdeiaPublicada: erro ao salvar -> " + e.getMessage(), e);
+                    callback.onResult(new Result.Error<>(e));
+                });
+    }
+
+    @Override
+    public void precarregarCotaPublicacao() {
+        String userId = getCurrentUserId();
+        if (userId != null) carregarCotaPublicacao(userId);
+    }
+
+    /**
+     * Lê em paralelo o plano premium e o limite do usuário. O resultado é reaproveitado por
+     * {@link #COTA_VALIDADE_MS} para que a publicação em si custe só o commit.
+     */
+    private synchronized Task<CotaPublicacao> carregarCotaPublicacao(@NonNull String userId) {
+        boolean reaproveitavel = cotaTask != null && userId.equals(cotaUid)
+                && (!cotaTask.isComplete()
+                    || (cotaTask.isSuccessful() && System.currentTimeMillis() - cotaTask.getResult().getCarregadaEm() < COTA_VALIDADE_MS));
+        if (reaproveitavel) return cotaTask;
+
+        Task<DocumentSnapshot> premium = firestore.collection("premium").document(userId).get();
+        Task<DocumentSnapshot> limites = firestore.collection(LIMITES_COLLECTION).document(userId).get();
+        cotaUid = userId;
+        cotaTask = Tasks.whenAllSuccess(premium, limites).continueWith(task -> {
+            if (!task.isSuccessful()) throw task.getException();
+            DocumentSnapshot premiumDoc = premium.getResult();
+            DocumentSnapshot limitesDoc = limites.getResult();
+            Timestamp dataFim = premiumDoc.exists() ? premiumDoc.getTimestamp("data_fim") : null;
+            Timestamp ultima = limitesDoc.exists() ? limitesDoc.getTimestamp("data_ultima_publicacao") : null;
+            return new CotaPublicacao(dataFim != null ? dataFim.toDate() : null, ultima != null ? ultima.toDate() : null);
+        });
+        return cotaTask;
+    }
+
+    private synchronized void invalidarCotaPublicacao() {
+        cotaTask = null;
+        cotaUid = null;
+    }
+
 
     @Override
     public void unpublishIdeia(@NonNull String ideiaId, @NonNull ResultCallback<Void> callback) {
@@ -402,8 +954,18 @@ public class IdeiaRepository implements IIdeiaRepository {
         updates.put("status", Ideia.Status.RASCUNHO.name());
         updates.put("mentorId", FieldValue.delete());
 
-        firestore.collection(IDEIAS_COLLECTION).document(ideiaId).update(updates)
-                .addOnSuccessListener(aVoid -> callback.onResult(new Result.Success<>(null)))
+        DocumentReference ideiaRef = firestore.collection(IDEIAS_COLLECTION).document(ideiaId);
+        firestore.runTransaction(transaction -> {
+                    DocumentSnapshot antes = transaction.get(ideiaRef);
+                    transaction.update(ideiaRef, updates);
+                    transaction.set(summaryRef(ideiaId), updates, SetOptions.merge());
+                    ajustarCargaMentores(transaction, antes, Ideia.Status.RASCUNHO.name(), null);
+                    return null;
+                })
+                .addOnSuccessListener(aVoid -> {
+                    removerDoIndiceBusca(ideiaId);
+                    callback.onResult(new Result.Success<>(null));
+                })
                 .addOnFailureListener(e -> callback.onResult(new Result.Error<>(e)));
     }
 
@@ -411,52 +973,220 @@ public class IdeiaRepository implements IIdeiaRepository {
     public void salvarAvaliacao(@NonNull String ideiaId, @NonNull List<Map<String, Object>> avaliacoes, @NonNull Ideia.Status novoStatus, @NonNull ResultCallback<Void> callback) {
         Map<String, Object> updates = new HashMap<>();
         updates.put("avaliacoes", avaliacoes);
+        updates.put("totalAvaliacoes", avaliacoes.size());
         updates.put("avaliacaoStatus", "Avaliada");
         updates.put("status", novoStatus.name());
 
-        firestore.collection(IDEIAS_COLLECTION).document(ideiaId).update(updates)
+        updates.put("ultimaEdicao", new Date());
+
+        Map<String, Object> resumoUpdates = new HashMap<>();
+        resumoUpdates.put("status", novoStatus.name());
+        resumoUpdates.put("ultimaEdicao", updates.get("ultimaEdicao"));
+
+        // A avaliação tira a ideia da carga do mentor (só uma vez: a ideia lida diz se ainda estava EM_AVALIACAO).
+        DocumentReference ideiaRef = firestore.collection(IDEIAS_COLLECTION).document(ideiaId);
+        firestore.runTransaction(transaction -> {
+                    DocumentSnapshot antes = transaction.get(ideiaRef);
+                    transaction.update(ideiaRef, updates);
+                    transaction.set(summaryRef(ideiaId), resumoUpdates, SetOptions.merge());
+                    ajustarCargaMentores(transaction, antes, novoStatus.name(), antes.getString("mentorId"));
+                    return null;
+                })
                 .addOnSuccessListener(aVoid -> callback.onResult(new Result.Success<>(null)))
                 .addOnFailureListener(e -> callback.onResult(new Result.Error<>(e)));
     }
 
+    /**
+     * Mantém mentores/{id}.ideiasEmAvaliacao na mesma transação que muda status ou mentor da ideia:
+     * a ideia conta para o mentor enquanto estiver EM_AVALIACAO com ele. {@code antes} é a ideia lida
+     * na transação. Só increment(): o documento do mentor não é lido, então publicações simultâneas
+     * para o mesmo mentor não conflitam.
+     */
+    private void ajustarCargaMentores(@NonNull Transaction transaction, @NonNull DocumentSnapshot antes,
+                                      @Nullable String novoStatus, @Nullable String novoMentorId) {
+        String mentorAntes = Ideia.Status.EM_AVALIACAO.name().equals(antes.getString("status"))
+                ? vazioParaNull(antes.getString("mentorId")) : null;
+        String mentorDepois = Ideia.Status.EM_AVALIACAO.name().equals(novoStatus) ? vazioParaNull(novoMentorId) : null;
+        if (Objects.equals(mentorAntes, mentorDepois)) return;
+
+        if (mentorAntes != null) {
+            transaction.set(firestore.collection(MENTORES_COLLECTION).document(mentorAntes),
+                    Collections.singletonMap(CAMPO_IDEIAS_EM_AVALIACAO, FieldValue.increment(-1)), SetOptions.merge());
+        }
+        if (mentorDepois != null) {
+            transaction.set(firestore.collection(MENTORES_COLLECTION).document(mentorDepois),
+                    Collections.singletonMap(CAMPO_IDEIAS_EM_AVALIACAO, FieldValue.increment(1)), SetOptions.merge());
+        }
+    }
+
+    @Nullable
+    private static String vazioParaNull(@Nullable String s) {
+        return s == null || s.isEmpty() ? null : s;
+    }
+
     @Override
     public void addPostitToIdeia(@NonNull String ideiaId, @NonNull String etapaChave, @NonNull PostIt novoPostIt, @NonNull ResultCallback<Void> callback) {
-        String key = "postIts." + etapaChave;
+        if (novoPostIt.getId() == null) {
+            novoPostIt.setId(UUID.randomUUID().toString());
+        }
         firestore.collection(IDEIAS_COLLECTION).document(ideiaId)
-                .update(key, FieldValue.arrayUnion(novoPostIt))
+                .update(postItPath(etapaChave, novoPostIt.getId()), novoPostIt)
                 .addOnSuccessListener(aVoid -> callback.onResult(new Result.Success<>(null)))
                 .addOnFailureListener(e -> callback.onResult(new Result.Error<>(e)));
     }
 
     @Override
     public void updatePostitInIdeia(@NonNull String ideiaId, @NonNull String etapaChave, @NonNull PostIt postitAntigo, @NonNull PostIt postitNovo, @NonNull ResultCallback<Void> callback) {
-        WriteBatch batch = firestore.batch();
-        batch.update(firestore.collection(IDEIAS_COLLECTION).document(ideiaId), "postIts." + etapaChave, FieldValue.arrayRemove(postitAntigo));
-        batch.update(firestore.collection(IDEIAS_COLLECTION).document(ideiaId), "postIts." + etapaChave, FieldValue.arrayUnion(postitNovo));
-        batch.commit()
+        DocumentReference ref = firestore.collection(IDEIAS_COLLECTION).document(ideiaId);
+        if (postitAntigo.getId() == null) {
+            // Post-it legado ainda não migrado: sai da lista antiga e entra no mapa já com id.
+            postitNovo.setId(UUID.randomUUID().toString());
+            WriteBatch batch = firestore.batch();
+            batch.update(ref, FieldPath.of("postIts", etapaChave), FieldValue.arrayRemove(postitAntigo));
+            batch.update(ref, postItPath(etapaChave, postitNovo.getId()), postitNovo);
+            batch.commit()
+                    .addOnSuccessListener(aVoid -> callback.onResult(new Result.Success<>(null)))
+                    .addOnFailureListener(e -> callback.onResult(new Result.Error<>(e)));
+            return;
+        }
+        postitNovo.setId(postitAntigo.getId());
+        ref.update(postItPath(etapaChave, postitNovo.getId()), postitNovo)
                 .addOnSuccessListener(aVoid -> callback.onResult(new Result.Success<>(null)))
                 .addOnFailureListener(e -> callback.onResult(new Result.Error<>(e)));
     }
 
     @Override
     public void deletePostitFromIdeia(@NonNull String ideiaId, @NonNull String etapaChave, @NonNull PostIt postitParaApagar, @NonNull ResultCallback<Void> callback) {
-        String key = "postIts." + etapaChave;
-        firestore.collection(IDEIAS_COLLECTION).document(ideiaId)
-                .update(key, FieldValue.arrayRemove(postitParaApagar))
-                .addOnSuccessListener(aVoid -> callback.onResult(new Result.Success<>(null)))
+        DocumentReference ref = firestore.collection(IDEIAS_COLLECTION).document(ideiaId);
+        Task<Void> task = (postitParaApagar.getId() == null)
+                ? ref.update(FieldPath.of("postIts", etapaChave), FieldValue.arrayRemove(postitParaApagar)) // legado
+                : ref.update(postItPath(etapaChave, postitParaApagar.getId()), FieldValue.delete());
+        task.addOnSuccessListener(aVoid -> callback.onResult(new Result.Success<>(null)))
                 .addOnFailureListener(e -> callback.onResult(new Result.Error<>(e)));
     }
 
+    @Override
+    public void salvarAlteracoesCanvas(@NonNull String ideiaId, @NonNull Map<String, Object> campos, @Nullable String textoBusca, @NonNull ResultCallback<Void> callback) {
+        if (campos.isEmpty()) {
+            callback.onResult(new Result.Success<>(null));
+            return;
+        }
+        // Edição não muda o timestamp (ordem do feed), só ultimaEdicao.
+        Date agora = new Date();
+        Map<String, Object> updates = new HashMap<>(campos);
+        updates.put("ultimaEdicao", agora);
+
+        // Campos espelhados no resumo (apenas os de primeiro nível).
+        Map<String, Object> resumoUpdates = new HashMap<>();
+        resumoUpdates.put("ultimaEdicao", agora);
+        for (String campo : Arrays.asList("nome", "areasNecessarias")) {
+            if (campos.containsKey(campo)) resumoUpdates.put(campo, campos.get(campo));
+        }
+        if (textoBusca != null) resumoUpdates.put("textoBusca", textoBusca);
+
+        WriteBatch batch = firestore.batch();
+        batch.update(firestore.collection(IDEIAS_COLLECTION).document(ideiaId), updates);
+        batch.set(summaryRef(ideiaId), resumoUpdates, SetOptions.merge());
+        batch.commit()
+                .addOnSuccessListener(aVoid -> {
+                    // Mantém a base do diff em dia: senão o próximo saveIdeia reenviaria estes campos.
+                    IdeiaDiff.Estado base = estadosServidor.get(ideiaId);
+                    if (base != null) estadosServidor.put(ideiaId, IdeiaDiff.comAlteracoes(base, campos));
+                    callback.onResult(new Result.Success<>(null));
+                })
+                .addOnFailureListener(e -> callback.onResult(new Result.Error<>(e)));
+    }
+
+    /**
+     * Caminho do post-it no mapa atual. FieldPath.of evita que o id seja interpretado como caminho.
+     */
+    private static FieldPath postItPath(@NonNull String etapaChave, @NonNull String postItId) {
+        return FieldPath.of("postItsPorId", etapaChave, postItId);
+    }
+
+    /**
+     * Migra os post-its do formato legado (listas em "postIts") para o mapa "postItsPorId".
+     * Roda numa transação, é idempotente e não sobrescreve entradas que já existam no mapa
+     * (ex.: um post-it legado editado antes da migração). Ids dos post-its antigos sem id são
+     * derivados do conteúdo, então duas execuções concorrentes geram as mesmas chaves.
+     */
+    private void migrarPostItsLegados(@NonNull String ideiaId) {
+        if (!migracoesEmAndamento.add(ideiaId)) return;
+        DocumentReference ref = firestore.collection(IDEIAS_COLLECTION).document(ideiaId);
+        firestore.runTransaction(transaction -> {
+            DocumentSnapshot snapshot = transaction.get(ref);
+            Ideia atual = snapshot.toObject(Ideia.class);
+            if (atual == null || !atual.temPostItsLegados()) return null;
+
+            Map<String, Map<String, PostIt>> existentes = atual.getPostItsPorId() != null ? atual.getPostItsPorId() : new HashMap<>();
+            Map<String, Object> updates = new HashMap<>();
+            for (Map.Entry<String, List<PostIt>> etapa : atual.getPostIts().entrySet()) {
+                List<PostIt> lista = etapa.getValue();
+                if (lista == null) continue;
+                for (int i = 0; i < lista.size(); i++) {
+                    PostIt postIt = lista.get(i);
+                    String id = postIt.getId() != null ? postIt.getId() : idLegado(etapa.getKey(), i, postIt);
+                    Map<String, PostIt> daEtapa = existentes.get(etapa.getKey());
+                    if (daEtapa != null && daEtapa.containsKey(id)) continue;
+                    postIt.setId(id);
+                    updates.put("postItsPorId." + etapa.getKey() + "." + id, postIt);
+                }
+            }
+            updates.put("postIts", FieldValue.delete());
+            transaction.update(ref, updates);
+            return null;
+        }).addOnCompleteListener(task -> {
+            migracoesEmAndamento.remove(ideiaId);
+            if (!task.isSuccessful()) Log.w(TAG, "Falha ao migrar post-its da ideia " + ideiaId, task.getException());
+        });
+    }
+
+    private static String idLegado(String etapaChave, int indice, PostIt postIt) {
+        String base = etapaChave + "|" + indice + "|" + postIt.getTexto() + "|"
+                + (postIt.getTimestamp() != null ? postIt.getTimestamp().getTime() : 0);
+        return UUID.nameUUIDFromBytes(base.getBytes(StandardCharsets.UTF_8)).toString();
+    }
+
     // ============================================================
     // FUNÇÕES DE IA
     // ============================================================
 
     /**
      * Chama a Cloud Function 'gerar_pre_analise_ia' para uma ideia específica.
+     * Antes, compara a impressão digital do canvas (CanvasFingerprint) com a da última análise:
+     * se for igual, a análise já está atualizada; se houver uma análise recente para o mesmo
+     * conteúdo no LRU local, ela é restaurada no documento sem chamar a IA.
      * Retorna um Result com a mensagem de sucesso ou erro.
      */
     @Override
-    public void solicitarAnaliseIA(@NonNull String ideiaId, @NonNull ResultCallback<String> callback) {
+    public void solicitarAnaliseIA(@NonNull Ideia ideia, @NonNull ResultCallback<String> callback) {
+        String ideiaId = ideia.getId();
+        String fingerprint = CanvasFingerprint.of(ideia);
+
+        if (ideia.getAvaliacaoIA() != null && fingerprint.equals(ideia.getAvaliacaoIAFingerprint())) {
+            callback.onResult(new Result.Success<>(MENSAGEM_ANALISE_ATUALIZADA));
+            return;
+        }
+
+        Map<String, Object> analiseAnterior = analisesRecentes.get(chaveAnalise(ideiaId, fingerprint));
+        if (analiseAnterior != null) {
+            Map<String, Object> updates = new HashMap<>();
+            updates.put("avaliacaoIA", analiseAnterior);
+            updates.put("avaliacaoIAFingerprint", fingerprint);
+            firestore.collection(IDEIAS_COLLECTION).document(ideiaId)
+                    .update(updates)
+                    .addOnSuccessListener(aVoid -> callback.onResult(new Result.Success<>("Análise da IA restaurada para esta versão do canvas.")))
+                    .addOnFailureListener(e -> {
+                        Log.w(TAG, "solicitarAnaliseIA: falha ao restaurar análise do cache; chamando a função.", e);
+                        chamarFuncaoAnaliseIA(ideiaId, callback);
+                    });
+            return;
+        }
+
+        chamarFuncaoAnaliseIA(ideiaId, callback);
+    }
+
+    private void chamarFuncaoAnaliseIA(@NonNull String ideiaId, @NonNull ResultCallback<String> callback) {
         // 1. Preparar os dados para enviar
         Map<String, Object> data = new HashMap<>();
         data.put("ideiaId", ideiaId);
@@ -490,6 +1220,19 @@ public class IdeiaRepository implements IIdeiaRepository {
                 });
     }
 
+    /**
+     * Guarda no LRU a análise recebida junto com a impressão digital do canvas analisado.
+     */
+    private void lembrarAnaliseIA(@NonNull Ideia ideia) {
+        if (ideia.getAvaliacaoIA() != null && ideia.getAvaliacaoIAFingerprint() != null) {
+            analisesRecentes.put(chaveAnalise(ideia.getId(), ideia.getAvaliacaoIAFingerprint()), ideia.getAvaliacaoIA());
+        }
+    }
+
+    private static String chaveAnalise(String ideiaId, String fingerprint) {
+        return ideiaId + "|" + fingerprint;
+    }
+
     /**
      * Salva ou atualiza o voto de um usuário na subcoleção de votos da comunidade.
      */
@@ -511,31 +1254,218 @@ public class IdeiaRepository implements IIdeiaRepository {
             return;
         }
 
-        // Define o caminho para o documento do voto do usuário específico
-        DocumentReference votoRef = firestore.collection(IDEIAS_COLLECTION)
-                .document(ideiaId)
-                .collection("votosComunidade") // Nome da subcoleção
-                .document(userId); // Usa o userId como ID do documento do voto
+        DocumentReference ideiaRef = firestore.collection(IDEIAS_COLLECTION).document(ideiaId);
+        DocumentReference votoRef = ideiaRef.collection("votosComunidade").document(userId);
+        // Shard aleatório: votos simultâneos na mesma ideia se espalham por VOTOS_SHARDS documentos.
+        DocumentReference shardRef = ideiaRef.collection(VOTOS_SHARDS_COLLECTION)
+                .document(String.valueOf(ThreadLocalRandom.current().nextInt(VOTOS_SHARDS)));
+        DocumentReference meuVotoRef = meusVotosRef(userId).document(ideiaId);
 
-        // Cria o mapa de dados para o voto
-        Map<String, Object> votoData = new HashMap<>();
-        votoData.put("userId", userId); // Armazena o userId também no documento
-        votoData.put("voto", voto);
-        votoData.put("peso", peso);
-        votoData.put("timestamp", FieldValue.serverTimestamp()); // Usa o timestamp do servidor
+        firestore.runTransaction(transaction -> {
+            // Só o voto anterior do próprio usuário é lido: o custo é constante e não há disputa entre usuários.
+            DocumentSnapshot anterior = transaction.get(votoRef);
+            double somaDelta = (double) voto * peso;
+            double pesoDelta = peso;
+            long totalDelta = 1;
+            if (anterior.exists()) {
+                Double votoAnterior = anterior.getDouble("voto");
+                Double pesoAnterior = anterior.getDouble("peso");
+                double v = votoAnterior != null ? votoAnterior : 0.0;
+                double p = pesoAnterior != null ? pesoAnterior : 1.0;
+                somaDelta -= v * p;
+                pesoDelta -= p;
+                totalDelta = 0;
+            }
 
-        // Usa set com merge:
-        // - Se o documento (voto do usuário) não existe, ele será criado.
-        // - Se já existe, os campos serão atualizados (ou criados se não existirem).
-        votoRef.set(votoData, SetOptions.merge())
-                .addOnSuccessListener(aVoid -> {
-                    Log.d(TAG, "Voto da comunidade salvo com sucesso para userId: " + userId + " na ideia: " + ideiaId);
-                    callback.onResult(new Result.Success<>(null));
-                    // A Cloud Function será acionada automaticamente para recalcular a média.
-                })
-                .addOnFailureListener(e -> {
-                    Log.e(TAG, "Erro ao salvar voto da comunidade para userId: " + userId + " na ideia: " + ideiaId, e);
-                    callback.onResult(new Result.Error<>(e));
+            Map<String, Object> votoData = new HashMap<>();
+            votoData.put("userId", userId);
+            votoData.put("voto", voto);
+            votoData.put("peso", peso);
+            votoData.put("timestamp", FieldValue.serverTimestamp());
+            transaction.set(votoRef, votoData, SetOptions.merge());
+            // Espelho no índice do usuário, para que o voto apareça sem leitura ao abrir a ideia.
+            transaction.set(meuVotoRef, votoIndice(voto, peso));
+
+            // Deltas aplicados com increment(): o shard não é lido, então não entra em conflito.
+            Map<String, Object> shardDelta = new HashMap<>();
+            shardDelta.put("somaPonderada", FieldValue.increment(somaDelta));
+            shardDelta.put("somaPesos", FieldValue.increment(pesoDelta));
+            shardDelta.put("total", FieldValue.increment(totalDelta));
+            transaction.set(shardRef, shardDelta, SetOptions.merge());
+            return null;
+        }).addOnSuccessListener(aVoid -> {
+            if (userId.equals(meusVotosUid)) meusVotos.put(ideiaId, voto);
+            Log.d(TAG, "Voto da comunidade salvo com sucesso para userId: " + userId + " na ideia: " + ideiaId);
+            callback.onResult(new Result.Success<>(null));
+            // A Cloud Function consolida a média no documento da ideia (para o feed).
+        }).addOnFailureListener(e -> {
+            Log.e(TAG, "Erro ao salvar voto da comunidade para userId: " + userId + " na ideia: " + ideiaId, e);
+            callback.onResult(new Result.Error<>(e));
+        });
+    }
+
+    @Override
+    public synchronized void observarMeusVotos() {
+        String userId = getCurrentUserId();
+        if (userId == null) return;
+        if (userId.equals(meusVotosUid) && meusVotosListener != null) return;
+
+        if (meusVotosListener != null) meusVotosListener.remove();
+        // Pedidos do usuário anterior ainda sem resposta são respondidos antes da troca.
+        for (Runnable pendente : meusVotosPendentes) pendente.run();
+        meusVotosPendentes.clear();
+        meusVotos.clear();
+        meusVotosCarregados = false;
+        meusVotosMigracaoResolvida = false;
+        meusVotosUid = userId;
+
+        meusVotosListener = meusVotosRef(userId).addSnapshotListener(dataExecutor, (snapshots, e) -> {
+            if (!userId.equals(meusVotosUid)) return;
+            if (e != null) {
+                // Sem índice, os pedidos pendentes são respondidos com o que houver (0 se nada).
+                Log.w(TAG, "observarMeusVotos: erro no listener do índice de votos.", e);
+                marcarMeusVotos(userId, true, false);
+                return;
+            }
+            if (snapshots == null) return;
+            // Só as mudanças: depois da carga inicial, cada voto novo custa um documento.
+            for (DocumentChange change : snapshots.getDocumentChanges()) {
+                String ideiaId = change.getDocument().getId();
+                Double voto = change.getDocument().getDouble("voto");
+                if (change.getType() == DocumentChange.Type.REMOVED || voto == null) {
+                    meusVotos.remove(ideiaId);
+                } else {
+                    meusVotos.put(ideiaId, voto.floatValue());
+                }
+            }
+            marcarMeusVotos(userId, true, false);
+        });
+        migrarVotosAnteriores(userId);
+    }
+
+    /**
+     * Copia para o índice, uma única vez por usuário, os votos feitos antes de o índice existir.
+     * Depois da flag no documento do usuário, "fora do índice" passa a significar "sem voto".
+     */
+    private void migrarVotosAnteriores(@NonNull String userId) {
+        DocumentReference usuarioRef = firestore.collection(USUARIOS_COLLECTION).document(userId);
+        usuarioRef.get().continueWithTask(dataExecutor, task -> {
+            DocumentSnapshot usuario = task.getResult();
+            if (usuario != null && Boolean.TRUE.equals(usuario.getBoolean(CAMPO_MEUS_VOTOS_MIGRADOS))) {
+                return Tasks.<Void>forResult(null);
+            }
+            // Consulta de grupo por userId (índice de campo único com escopo de grupo de coleções).
+            return firestore.collectionGroup("votosComunidade").whereEqualTo("userId", userId).get()
+                    .continueWithTask(dataExecutor, votosTask -> {
+                        List<Task<Void>> commits = new ArrayList<>();
+                        WriteBatch batch = firestore.batch();
+                        int escritas = 0;
+                        for (QueryDocumentSnapshot voto : votosTask.getResult()) {
+                            DocumentReference ideiaRef = voto.getReference().getParent().getParent();
+                            Double valor = voto.getDouble("voto");
+                            if (ideiaRef == null || valor == null) continue;
+                            Long peso = voto.getLong("peso");
+                            meusVotos.putIfAbsent(ideiaRef.getId(), valor.floatValue());
+                            batch.set(meusVotosRef(userId).document(ideiaRef.getId()),
+                                    votoIndice(valor.floatValue(), peso != null ? peso.intValue() : 1));
+                            if (++escritas == MAX_ESCRITAS_BATCH) {
+                                commits.add(batch.commit());
+                                batch = firestore.batch();
+                                escritas = 0;
+                            }
+                        }
+                        if (escritas > 0) commits.add(batch.commit());
+                        Log.d(TAG, "migrarVotosAnteriores: " + votosTask.getResult().size() + " votos copiados para o índice.");
+                        // A flag só é gravada depois de todas as cópias: uma falha faz a migração rodar de novo.
+                        return Tasks.whenAll(commits).onSuccessTask(dataExecutor, aVoid -> usuarioRef.set(
+                                Collections.singletonMap(CAMPO_MEUS_VOTOS_MIGRADOS, true), SetOptions.merge()));
+                    });
+        }).addOnCompleteListener(dataExecutor, task -> {
+            if (!task.isSuccessful()) {
+                Log.w(TAG, "migrarVotosAnteriores: falha; será tentada de novo na próxima sessão.", task.getException());
+            }
+            marcarMeusVotos(userId, false, true);
+        });
+    }
+
+    /**
+     * Registra o progresso da carga do índice e, quando ele fica pronto, responde os pedidos pendentes.
+     */
+    private void marcarMeusVotos(@NonNull String userId, boolean carregados, boolean migracaoResolvida) {
+        List<Runnable> pendentes;
+        synchronized (this) {
+            if (!userId.equals(meusVotosUid)) return;
+            meusVotosCarregados |= carregados;
+            meusVotosMigracaoResolvida |= migracaoResolvida;
+            if (!meusVotosCarregados || !meusVotosMigracaoResolvida || meusVotosPendentes.isEmpty()) return;
+            pendentes = new ArrayList<>(meusVotosPendentes);
+            meusVotosPendentes.clear();
+        }
+        for (Runnable pendente : pendentes) pendente.run();
+    }
+
+    @Override
+    public void getMeuVoto(@NonNull String ideiaId, @NonNull ResultCallback<Float> callback) {
+        String userId = getCurrentUserId();
+        if (userId == null) {
+            callback.onResult(new Result.Success<>(0f));
+            return;
+        }
+        observarMeusVotos();
+
+        synchronized (this) {
+            if (!meusVotosCarregados || !meusVotosMigracaoResolvida) {
+                // Responde uma única vez, quando o índice (já com os votos migrados) estiver pronto.
+                meusVotosPendentes.add(() -> dataExecutor.deliver(callback, new Result.Success<>(meuVotoNoIndice(ideiaId))));
+                return;
+            }
+        }
+        callback.onResult(new Result.Success<>(meuVotoNoIndice(ideiaId)));
+    }
+
+    private float meuVotoNoIndice(@NonNull String ideiaId) {
+        Float voto = meusVotos.get(ideiaId);
+        return voto != null ? voto : 0f;
+    }
+
+    private CollectionReference meusVotosRef(@NonNull String userId) {
+        return firestore.collection(USUARIOS_COLLECTION).document(userId).collection(MEUS_VOTOS_COLLECTION);
+    }
+
+    private static Map<String, Object> votoIndice(float voto, int peso) {
+        Map<String, Object> dados = new HashMap<>();
+        dados.put("voto", voto);
+        dados.put("peso", peso);
+        dados.put("timestamp", FieldValue.serverTimestamp());
+        return dados;
+    }
+
+    /**
+     * Observa os shards de votos da ideia e entrega a soma deles (no máximo VOTOS_SHARDS documentos).
+     */
+    @NonNull
+    @Override
+    public ListenerRegistration listenToVotosComunidade(@NonNull String ideiaId, @NonNull ResultCallback<VotosComunidade> callback) {
+        return firestore.collection(IDEIAS_COLLECTION).document(ideiaId)
+                .collection(VOTOS_SHARDS_COLLECTION)
+                .addSnapshotListener(dataExecutor, (snapshots, e) -> {
+                    if (e != null) {
+                        dataExecutor.deliver(callback, new Result.Error<>(e));
+                        return;
+                    }
+                    double somaPonderada = 0.0, somaPesos = 0.0;
+                    long total = 0;
+                    if (snapshots != null) {
+                        for (DocumentSnapshot shard : snapshots.getDocuments()) {
+                            Double soma = shard.getDouble("somaPonderada");
+                            Double pesos = shard.getDouble("somaPesos");
+                            Long qtd = shard.getLong("total");
+                            if (soma != null) somaPonderada += soma;
+                            if (pesos != null) somaPesos += pesos;
+                            if (qtd != null) total += qtd;
+                        }
+                    }
+                    dataExecutor.deliver(callback, new Result.Success<>(new VotosComunidade(somaPonderada, somaPesos, (int) total)));
                 });
     }
 }
\ No newline at end of file
@@ -0,0 +1,155 @@
+package com.example.startuppulse.data.repositories;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.firebase.firestore.DocumentChange;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.QuerySnapshot;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lista em memória mantida a partir dos deltas ({@link DocumentChange}) de um snapshot listener.
+ * Em vez de desserializar todos os documentos a cada evento, apenas os documentos adicionados
+ * ou modificados passam pelo mapper; os demais objetos são reaproveitados (mesma referência),
+ * o que permite ao DiffUtil do adapter religar só as linhas que mudaram.
+ *
+ * Não é thread-safe: deve ser usada sempre a partir da thread que recebe os snapshots.
+ *
+ * @param <T> o tipo do modelo mapeado a partir de cada documento.
+ */
+public class IncrementalDocumentList<T> {
+
+    /**
+     * Converte um documento no modelo; pode retornar null se o mapeamento falhar.
+     */
+    public interface Mapper<T> {
+        @Nullable
+        T map(@NonNull DocumentSnapshot document);
+    }
+
+    /**
+     * Uma alteração aplicada à lista, com as posições antes/depois do evento.
+     */
+    public static final class Change {
+        public enum Type { ADDED, MODIFIED, REMOVED, MOVED }
+
+        public final Type type;
+        public final String id;
+        public final int oldIndex;
+        public final int newIndex;
+
+        Change(Type type, String id, int oldIndex, int newIndex) {
+            this.type = type;
+            this.id = id;
+            this.oldIndex = oldIndex;
+            this.newIndex = newIndex;
+        }
+    }
+
+    private final Mapper<T> mapper;
+    private final List<T> items = new ArrayList<>();
+    private final List<String> ids = new ArrayList<>();
+    private final Map<String, T> byId = new HashMap<>();
+
+    public IncrementalDocumentList(@NonNull Mapper<T> mapper) {
+        this.mapper = mapper;
+    }
+
+    /**
+     * Aplica os deltas do snapshot, na ordem em que o Firestore os entrega
+     * (oldIndex/newIndex já consideram as mudanças anteriores do mesmo evento).
+     *
+     * @return as alterações efetivamente aplicadas; vazia se o evento não mudou nenhum documento.
+     */
+    @NonNull
+    public List<Change> apply(@Nullable QuerySnapshot snapshot) {
+        if (snapshot == null) return Collections.emptyList();
+
+        List<Change> changes = new ArrayList<>();
+        for (DocumentChange dc : snapshot.getDocumentChanges()) {
+            DocumentSnapshot doc = dc.getDocument();
+            String id = doc.getId();
+            int oldIndex = dc.getOldIndex();
+            int newIndex = dc.getNewIndex();
+
+            switch (dc.getType()) {
+                case ADDED: {
+                    T item = mapper.map(doc);
+                    if (item == null) break;
+                    insert(newIndex, id, item);
+                    changes.add(new Change(Change.Type.ADDED, id, -1, newIndex));
+                    break;
+                }
+                case MODIFIED: {
+                    T item = mapper.map(doc);
+                    if (item == null) break;
+                    if (oldIndex == newIndex && oldIndex >= 0 && oldIndex < items.size()) {
+                        items.set(oldIndex, item);
+                        byId.put(id, item);
+                        changes.add(new Change(Change.Type.MODIFIED, id, oldIndex, newIndex));
+                    } else {
+                        removeAt(oldIndex, id);
+                        insert(newIndex, id, item);
+                        changes.add(new Change(Change.Type.MOVED, id, oldIndex, newIndex));
+                    }
+                    break;
+                }
+                case REMOVED: {
+                    removeAt(oldIndex, id);
+                    changes.add(new Change(Change.Type.REMOVED, id, oldIndex, -1));
+                    break;
+                }
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * Retorna uma cópia da lista atual, para ser publicada em LiveData/ListAdapter.
+     * Só as referências são copiadas; os objetos não alterados são os mesmos do evento anterior.
+     */
+    @NonNull
+    public List<T> snapshot() {
+        return new ArrayList<>(items);
+    }
+
+    @Nullable
+    public T get(@NonNull String id) {
+        return byId.get(id);
+    }
+
+    public int size() {
+        return items.size();
+    }
+
+    public void clear() {
+        items.clear();
+        ids.clear();
+        byId.clear();
+    }
+
+    private void insert(int index, String id, T item) {
+        // Se o mapper falhou antes para algum documento, os índices do Firestore podem
+        // ficar além do tamanho local; nesse caso, adiciona ao final.
+        int safeIndex = (index < 0 || index > items.size()) ? items.size() : index;
+        items.add(safeIndex, item);
+        ids.add(safeIndex, id);
+        byId.put(id, item);
+    }
+
+    private void removeAt(int index, String id) {
+        // Confere o id na posição informada; se divergir (documento não mapeado antes), procura pelo id.
+        int realIndex = (index >= 0 && index < ids.size() && id.equals(ids.get(index))) ? index : ids.indexOf(id);
+        if (realIndex >= 0) {
+            items.remove(realIndex);
+            ids.remove(realIndex);
+        }
+        byId.remove(id);
+    }
+}
@@ -11,10 +11,16 @@ import java.util.List;
 public class InvestorPagingResult {
     private final List<Investor> investors;
     private final DocumentSnapshot lastVisible;
+    private final boolean fromCache;
 
     public InvestorPagingResult(List<Investor> investors, @Nullable DocumentSnapshot lastVisible) {
+        this(investors, lastVisible, false);
+    }
+
+    public InvestorPagingResult(List<Investor> investors, @Nullable DocumentSnapshot lastVisible, boolean fromCache) {
         this.investors = investors;
         this.lastVisible = lastVisible;
+        this.fromCache = fromCache;
     }
 
     public List<Investor> getInvestors() {
@@ -25,4 +31,11 @@ public class InvestorPagingResult {
     public DocumentSnapshot getLastVisible() {
         return lastVisible;
     }
-}
\ No newline at end of file
+
+    /**
+     * Indica que a página veio do cache em disco (sem cursor); a versão da rede chega em seguida.
+     */
+    public boolean isFromCache() {
+        return fromCache;
+    }
+}
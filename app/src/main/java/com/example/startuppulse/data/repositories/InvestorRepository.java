@@ -2,8 +2,12 @@ package com.example.startuppulse.data.repositories;
 
 import androidx.annotation.Nullable;
 import com.example.startuppulse.common.Result;
+import com.example.startuppulse.data.local.CachePolicy;
+import com.example.startuppulse.data.local.LocalListCache;
 import com.example.startuppulse.data.models.Investor;
 import com.example.startuppulse.common.ResultCallback;
+import com.example.startuppulse.util.AreaDictionary;
+import com.example.startuppulse.util.DataExecutor;
 import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.EventListener;
 import com.google.firebase.firestore.ListenerRegistration;
@@ -23,11 +27,17 @@ import javax.inject.Singleton;
 public class InvestorRepository extends BaseRepository implements IInvestorRepository {
 
     private static final String INVESTORS_COLLECTION = "investors";
+    // Limite de valores de um filtro array-contains-any.
+    private static final int MAX_VALORES_ARRAY_CONTAINS_ANY = 30;
     private final Map<String, ListenerRegistration> activeListeners = new HashMap<>();
+    private final DataExecutor dataExecutor;
+    private final LocalListCache localCache;
 
     @Inject
-    public InvestorRepository() {
+    public InvestorRepository(DataExecutor dataExecutor, LocalListCache localCache) {
         super();
+        this.dataExecutor = dataExecutor;
+        this.localCache = localCache;
     }
 
     /**
@@ -37,12 +47,12 @@ public class InvestorRepository extends BaseRepository implements IInvestorRepos
     public void getInvestorDetails(String investorId, ResultCallback<Investor> callback) {
         db.collection(INVESTORS_COLLECTION).document(investorId)
                 .get()
-                .addOnSuccessListener(documentSnapshot -> {
+                .addOnSuccessListener(dataExecutor, documentSnapshot -> {
                     if (documentSnapshot.exists()) {
                         Investor investor = documentSnapshot.toObject(Investor.class);
-                        callback.onResult(new Result.Success<>(investor));
+                        dataExecutor.deliver(callback, new Result.Success<>(investor));
                     } else {
-                        callback.onResult(new Result.Error<>(new Exception("Investidor não encontrado.")));
+                        dataExecutor.deliver(callback, new Result.Error<>(new Exception("Investidor não encontrado.")));
                     }
                 })
                 .addOnFailureListener(e -> callback.onResult(new Result.Error<>(e)));
@@ -55,12 +65,12 @@ public class InvestorRepository extends BaseRepository implements IInvestorRepos
     public void getInvestidores(ResultCallback<List<Investor>> callback) {
         db.collection(INVESTORS_COLLECTION)
                 .get()
-                .addOnSuccessListener(querySnapshot -> {
+                .addOnSuccessListener(dataExecutor, querySnapshot -> {
                     try {
                         List<Investor> investidores = querySnapshot.toObjects(Investor.class);
-                        callback.onResult(new Result.Success<>(investidores));
+                        dataExecutor.deliver(callback, new Result.Success<>(investidores));
                     } catch (Exception e) {
-                        callback.onResult(new Result.Error<>(e));
+                        dataExecutor.deliver(callback, new Result.Error<>(e));
                     }
                 })
                 .addOnFailureListener(e -> callback.onResult(new Result.Error<>(e)));
@@ -79,8 +89,9 @@ public class InvestorRepository extends BaseRepository implements IInvestorRepos
 
         if (filterAreas != null && !filterAreas.isEmpty()) {
             // "whereArrayContainsAny" encontra investidores que tenham
-            // PELO MENOS UMA das áreas da ideia.
-            query = query.whereArrayContainsAny("areas", filterAreas);
+            // PELO MENOS UMA das áreas da ideia. Como compara texto exato, envia o rótulo
+            // canônico de cada área (AreaDictionary) além do texto original.
+            query = query.whereArrayContainsAny("areas", AreaDictionary.valoresConsulta(filterAreas, MAX_VALORES_ARRAY_CONTAINS_ANY));
         }
 
         // Adiciona o cursor "startAfter" se não for a primeira página
@@ -88,11 +99,28 @@ public class InvestorRepository extends BaseRepository implements IInvestorRepos
             query = query.startAfter(lastVisible);
         }
 
+        // Só a primeira página sem filtro é cacheada em disco: é a que abre a tela.
+        final boolean cacheavel = lastVisible == null && (filterAreas == null || filterAreas.isEmpty());
+        if (cacheavel) {
+            dataExecutor.execute(() -> {
+                List<Investor> cached = localCache.read(CachePolicy.INVESTIDORES, Investor::readFrom);
+                if (cached != null && !cached.isEmpty()) {
+                    dataExecutor.deliver(callback, new Result.Success<>(new InvestorPagingResult(cached, null, true)));
+                }
+            });
+        }
+
         // Executa a query
-        query.get().addOnSuccessListener(querySnapshot -> {
+        query.get().addOnSuccessListener(dataExecutor, querySnapshot -> {
             try {
                 // Converte os documentos para a lista de investidores
                 List<Investor> investidores = querySnapshot.toObjects(Investor.class);
+                // Garante o ID (chave das linhas do cache) mesmo em documentos sem o campo "id".
+                for (int i = 0; i < investidores.size(); i++) {
+                    if (investidores.get(i).getId() == null) {
+                        investidores.get(i).setId(querySnapshot.getDocuments().get(i).getId());
+                    }
+                }
 
                 // Pega o snapshot do último documento da lista para ser o próximo cursor
                 DocumentSnapshot newLastVisible = null;
@@ -102,10 +130,14 @@ public class InvestorRepository extends BaseRepository implements IInvestorRepos
 
                 // Retorna o objeto de resultado da paginação
                 InvestorPagingResult result = new InvestorPagingResult(investidores, newLastVisible);
-                callback.onResult(new Result.Success<>(result));
+                dataExecutor.deliver(callback, new Result.Success<>(result));
+
+                if (cacheavel) {
+                    localCache.write(CachePolicy.INVESTIDORES, investidores, Investor::getId, Investor::writeTo);
+                }
 
             } catch (Exception e) {
-                callback.onResult(new Result.Error<>(e));
+                dataExecutor.deliver(callback, new Result.Error<>(e));
             }
         }).addOnFailureListener(e -> callback.onResult(new Result.Error<>(e)));
     }
@@ -0,0 +1,442 @@
+package com.example.startuppulse.data.repositories;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.startuppulse.common.Result;
+import com.example.startuppulse.common.ResultCallback;
+import com.example.startuppulse.data.local.CachePolicy;
+import com.example.startuppulse.data.local.LocalListCache;
+import com.example.startuppulse.data.models.Mentor;
+import com.example.startuppulse.data.models.User;
+import com.example.startuppulse.util.AreaDictionary;
+import com.example.startuppulse.util.AreaMask;
+import com.example.startuppulse.util.DataExecutor;
+import com.example.startuppulse.util.GeoMath;
+import com.google.firebase.firestore.DocumentChange;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.ListenerRegistration;
+import com.google.firebase.firestore.QuerySnapshot;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+/**
+ * Diretório único de mentores (usuários com isMentor = true e perfil de mentor público, já com
+ * mentorData), compartilhado pela tela de mentores e pelos fluxos de match.
+ *
+ * - Em memória: o último snapshot, mantido por um único par de snapshot listeners
+ *   (/usuarios com isMentor = true e /mentores com ativoPublico = true). Depois da carga inicial,
+ *   cada mudança custa só os documentos alterados; voltar à aba de mentores sem mudanças não lê nada.
+ * - Uso: os listeners só ficam ativos enquanto alguém observa o diretório (ou espera a primeira
+ *   sincronização). Sem ninguém, são removidos depois de {@link #CARENCIA_OCIOSO_MS}, para que
+ *   sair e voltar à aba logo em seguida não refaça a carga inicial.
+ * - Em disco: o mesmo snapshot no {@link LocalListCache} ({@link CachePolicy#MENTORES}), usado
+ *   para desenhar a lista antes do listener sincronizar num processo novo.
+ * - TTL: com os listeners ativos o snapshot está sempre atualizado; se eles caírem (erro, logout),
+ *   o snapshot em memória ainda vale por {@link #TTL_MEMORIA_MS} antes de exigir nova sincronização.
+ *
+ * O estado é confinado à thread do DataExecutor (os listeners já entregam lá); os callbacks
+ * são chamados na main thread.
+ */
+@Singleton
+public class MentorDirectory implements IMentorDirectory {
+
+    private static final String TAG = "MentorDirectory";
+    private static final String USERS_COLLECTION = "usuarios";
+    private static final String MENTORES_COLLECTION = "mentores";
+    private static final long TTL_MEMORIA_MS = TimeUnit.MINUTES.toMillis(10);
+    private static final long CARENCIA_OCIOSO_MS = TimeUnit.MINUTES.toMillis(1);
+
+    private final FirebaseFirestore firestore;
+    private final DataExecutor dataExecutor;
+    private final LocalListCache localCache;
+    private final IMentorRepository mentorRepository;
+    private final IUserRepository userRepository;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+
+    // --- Estado (só na thread do DataExecutor) ---
+    // Ordenado por ID, como a consulta do Firestore; o documento fica guardado para remapear o
+    // usuário quando só o perfil de mentor muda (nova referência, então o DiffUtil religa a linha).
+    private final Map<String, User> usuarios = new TreeMap<>();
+    private final Map<String, DocumentSnapshot> documentosUsuarios = new HashMap<>();
+    private final Map<String, Mentor> perfis = new HashMap<>();
+    private final List<ResultCallback<List<User>>> aguardando = new ArrayList<>();
+    private ListenerRegistration usuariosListener;
+    private ListenerRegistration perfisListener;
+    private boolean usuariosSincronizados;
+    private boolean perfisSincronizados;
+    private List<User> snapshot;     // imutável; o que os consumidores recebem
+    private long snapshotEm;         // quando o snapshot foi montado a partir da rede (0 = veio do disco)
+    private int observando;          // observadores registrados por observarMentores
+    private long geracaoUso;         // muda a cada novo uso; invalida paradas agendadas antes dele
+
+    private final List<ResultCallback<List<User>>> observadores = new CopyOnWriteArrayList<>();
+
+    // --- Métricas ---
+    private final AtomicLong acertos = new AtomicLong();
+    private final AtomicLong acertosDisco = new AtomicLong();
+    private final AtomicLong faltas = new AtomicLong();
+
+    @Inject
+    public MentorDirectory(FirebaseFirestore firestore, DataExecutor dataExecutor, LocalListCache localCache,
+                           IMentorRepository mentorRepository, IUserRepository userRepository) {
+        this.firestore = firestore;
+        this.dataExecutor = dataExecutor;
+        this.localCache = localCache;
+        this.mentorRepository = mentorRepository;
+        this.userRepository = userRepository;
+    }
+
+    // -----------------------------------------------------
+    // LEITURAS
+    // -----------------------------------------------------
+
+    /**
+     * Todos os mentores, entregues uma única vez: do snapshot em memória se ele for válido, senão
+     * depois que os listeners sincronizarem (o disco não é usado aqui, pois o match precisa de
+     * disponibilidade atualizada).
+     */
+    @Override
+    public void getMentores(@NonNull ResultCallback<List<User>> callback) {
+        dataExecutor.execute(() -> {
+            if (snapshotValido()) {
+                acertos.incrementAndGet();
+                dataExecutor.deliver(callback, new Result.Success<>(snapshot));
+                return;
+            }
+            faltas.incrementAndGet();
+            aguardando.add(callback);
+            geracaoUso++;
+            iniciarListeners();
+        });
+    }
+
+    /**
+     * Recebe o snapshot atual (da memória ou, num processo novo, do disco) e depois cada nova
+     * versão publicada pelos listeners, até {@link ListenerRegistration#remove()}.
+     */
+    @NonNull
+    public ListenerRegistration observarMentores(@NonNull ResultCallback<List<User>> callback) {
+        observadores.add(callback);
+        dataExecutor.execute(() -> {
+            observando++;
+            geracaoUso++;
+            if (snapshotValido()) {
+                acertos.incrementAndGet();
+                dataExecutor.deliver(callback, new Result.Success<>(snapshot));
+                return;
+            }
+            if (snapshot == null) {
+                List<User> emDisco = localCache.read(CachePolicy.MENTORES, User::readFrom);
+                if (emDisco != null && !emDisco.isEmpty()) {
+                    snapshot = Collections.unmodifiableList(emDisco);
+                    snapshotEm = 0;
+                }
+            }
+            if (snapshot != null) {
+                // Lista possivelmente desatualizada: desenha com ela enquanto os listeners sincronizam.
+                acertosDisco.incrementAndGet();
+                dataExecutor.deliver(callback, new Result.Success<>(snapshot));
+            } else {
+                faltas.incrementAndGet();
+            }
+            iniciarListeners();
+        });
+        return () -> {
+            // Idempotente: só a primeira chamada libera o uso.
+            if (!observadores.remove(callback)) return;
+            dataExecutor.execute(() -> {
+                observando--;
+                agendarParadaSeOcioso();
+            });
+        };
+    }
+
+    /**
+     * Mentores ativos com pelo menos uma área em comum com {@code areas}, exceto {@code excludeId}.
+     * Com o snapshot válido, filtra em memória pela máscara; senão, faz a consulta limitada por
+     * {@code array-contains-any} em vez de carregar o diretório inteiro.
+     */
+    @Override
+    public void getMentoresPorAreas(@NonNull List<String> areas, @Nullable String excludeId,
+                                    @NonNull ResultCallback<List<User>> callback) {
+        dataExecutor.execute(() -> {
+            if (snapshotValido()) {
+                acertos.incrementAndGet();
+                AreaMask mascara = AreaDictionary.mascara(areas);
+                List<User> compativeis = new ArrayList<>();
+                for (User u : snapshot) {
+                    if (!ativo(u, excludeId)) continue;
+                    if (mascara.interseca(u.getAreasMask())) compativeis.add(u);
+                }
+                dataExecutor.deliver(callback, new Result.Success<>(compativeis));
+                return;
+            }
+            faltas.incrementAndGet();
+            mentorRepository.findMentoresByAreas(areas, excludeId, result -> {
+                if (result instanceof Result.Success) {
+                    userRepository.getMentoresFromProfiles(((Result.Success<List<Mentor>>) result).data, callback);
+                } else {
+                    callback.onResult(new Result.Error<>(((Result.Error<List<Mentor>>) result).error));
+                }
+            });
+        });
+    }
+
+    /**
+     * Mentores ativos do anel mais interno com alguém dentro, do mais próximo ao mais distante
+     * (mesmo contrato de {@link IMentorRepository#findMentoresProximos}). Com o snapshot válido,
+     * filtra em memória sem nenhuma leitura; senão, faz a busca por geohash (que lê só as células
+     * próximas) sem carregar o diretório inteiro.
+     */
+    @Override
+    public void getMentoresProximos(double latitude, double longitude, @NonNull double[] raiosMetros,
+                                    @Nullable String excludeId, @NonNull ResultCallback<List<User>> callback) {
+        dataExecutor.execute(() -> {
+            if (snapshotValido()) {
+                acertos.incrementAndGet();
+                dataExecutor.deliver(callback, new Result.Success<>(
+                        filtrarProximos(snapshot, latitude, longitude, raiosMetros, excludeId)));
+                return;
+            }
+            faltas.incrementAndGet();
+            mentorRepository.findMentoresProximos(latitude, longitude, raiosMetros, excludeId, result -> {
+                if (result instanceof Result.Success) {
+                    userRepository.getMentoresFromProfiles(((Result.Success<List<Mentor>>) result).data, callback);
+                } else {
+                    callback.onResult(new Result.Error<>(((Result.Error<List<Mentor>>) result).error));
+                }
+            });
+        });
+    }
+
+    // --- Métricas ---
+
+    /** Leituras atendidas pelo snapshot em memória, sem nenhuma leitura no Firestore. */
+    public long getAcertos() {
+        return acertos.get();
+    }
+
+    /** Leituras atendidas (provisoriamente) pelo snapshot salvo em disco. */
+    public long getAcertosDisco() {
+        return acertosDisco.get();
+    }
+
+    /** Leituras que precisaram ir à rede. */
+    public long getFaltas() {
+        return faltas.get();
+    }
+
+    // -----------------------------------------------------
+    // LISTENERS
+    // -----------------------------------------------------
+
+    private boolean snapshotValido() {
+        if (snapshot == null || snapshotEm == 0) return false;
+        if (usuariosListener != null && usuariosSincronizados && perfisSincronizados) return true;
+        return System.currentTimeMillis() - snapshotEm < TTL_MEMORIA_MS;
+    }
+
+    private void iniciarListeners() {
+        if (usuariosListener != null) return;
+        usuariosSincronizados = false;
+        perfisSincronizados = false;
+        usuarios.clear();
+        documentosUsuarios.clear();
+        perfis.clear();
+
+        usuariosListener = firestore.collection(USERS_COLLECTION)
+                .whereEqualTo("isMentor", true)
+                .addSnapshotListener(dataExecutor, (snapshots, e) -> {
+                    if (e != null) {
+                        falhar(e);
+                        return;
+                    }
+                    if (snapshots == null || usuariosListener == null) return;
+                    aplicarUsuarios(snapshots);
+                    usuariosSincronizados = true;
+                    publicar();
+                });
+        perfisListener = firestore.collection(MENTORES_COLLECTION)
+                .whereEqualTo("ativoPublico", true)
+                .addSnapshotListener(dataExecutor, (snapshots, e) -> {
+                    if (e != null) {
+                        falhar(e);
+                        return;
+                    }
+                    if (snapshots == null || perfisListener == null) return;
+                    aplicarPerfis(snapshots);
+                    perfisSincronizados = true;
+                    publicar();
+                });
+    }
+
+    private void aplicarUsuarios(@NonNull QuerySnapshot snapshots) {
+        for (DocumentChange change : snapshots.getDocumentChanges()) {
+            DocumentSnapshot doc = change.getDocument();
+            String id = doc.getId();
+            if (change.getType() == DocumentChange.Type.REMOVED) {
+                usuarios.remove(id);
+                documentosUsuarios.remove(id);
+                continue;
+            }
+            documentosUsuarios.put(id, doc);
+            mapearUsuario(doc);
+        }
+    }
+
+    private void aplicarPerfis(@NonNull QuerySnapshot snapshots) {
+        for (DocumentChange change : snapshots.getDocumentChanges()) {
+            DocumentSnapshot doc = change.getDocument();
+            String id = doc.getId();
+            Mentor perfil = change.getType() == DocumentChange.Type.REMOVED ? null : doc.toObject(Mentor.class);
+            if (perfil != null) {
+                perfil.setId(id);
+                perfis.put(id, perfil);
+            } else {
+                perfis.remove(id);
+            }
+            DocumentSnapshot docUsuario = documentosUsuarios.get(id);
+            if (docUsuario != null) mapearUsuario(docUsuario);
+        }
+    }
+
+    private void mapearUsuario(@NonNull DocumentSnapshot doc) {
+        User user = doc.toObject(User.class);
+        if (user == null) {
+            usuarios.remove(doc.getId());
+            return;
+        }
+        Mentor perfil = perfis.get(doc.getId());
+        if (perfil == null) {
+            // Sem perfil público (inativo ou ainda não criado): fora do diretório até ele aparecer.
+            usuarios.remove(doc.getId());
+            return;
+        }
+        user.setId(doc.getId());
+        user.setMentorData(perfil);
+        usuarios.put(doc.getId(), user);
+    }
+
+    private void publicar() {
+        if (!usuariosSincronizados || !perfisSincronizados) return;
+
+        List<User> atual = Collections.unmodifiableList(new ArrayList<>(usuarios.values()));
+        snapshot = atual;
+        snapshotEm = System.currentTimeMillis();
+        localCache.write(CachePolicy.MENTORES, atual, User::getId, User::writeTo);
+        Log.d(TAG, "Snapshot publicado: " + atual.size() + " mentores (acertos=" + acertos.get()
+                + ", disco=" + acertosDisco.get() + ", faltas=" + faltas.get() + ")");
+
+        entregarAguardando(new Result.Success<>(atual));
+        for (ResultCallback<List<User>> observador : observadores) {
+            dataExecutor.deliver(observador, new Result.Success<>(atual));
+        }
+        agendarParadaSeOcioso();
+    }
+
+    private void falhar(@NonNull Exception e) {
+        Log.w(TAG, "Listener do diretório de mentores falhou.", e);
+        pararListeners();
+        // Sem listener, o snapshot em memória segue valendo até o TTL.
+        if (snapshotValido()) {
+            entregarAguardando(new Result.Success<>(snapshot));
+        } else {
+            entregarAguardando(new Result.Error<>(e));
+            for (ResultCallback<List<User>> observador : observadores) {
+                dataExecutor.deliver(observador, new Result.Error<>(e));
+            }
+        }
+    }
+
+    private void pararListeners() {
+        if (usuariosListener != null) usuariosListener.remove();
+        if (perfisListener != null) perfisListener.remove();
+        usuariosListener = null;
+        perfisListener = null;
+        usuariosSincronizados = false;
+        perfisSincronizados = false;
+    }
+
+    /**
+     * Sem observadores nem chamadas esperando, remove os listeners depois da carência, a menos que
+     * um novo uso apareça antes disso. O snapshot em memória continua valendo até o TTL.
+     */
+    private void agendarParadaSeOcioso() {
+        if (usuariosListener == null || observando > 0 || !aguardando.isEmpty()) return;
+        long geracao = geracaoUso;
+        handler.postDelayed(() -> dataExecutor.execute(() -> {
+            if (geracao != geracaoUso || observando > 0 || !aguardando.isEmpty()) return;
+            Log.d(TAG, "Diretório ocioso: removendo listeners.");
+            pararListeners();
+        }), CARENCIA_OCIOSO_MS);
+    }
+
+    private void entregarAguardando(@NonNull Result<List<User>> result) {
+        for (ResultCallback<List<User>> callback : aguardando) {
+            dataExecutor.deliver(callback, result);
+        }
+        aguardando.clear();
+    }
+
+    // -----------------------------------------------------
+    // HELPERS
+    // -----------------------------------------------------
+
+    private static boolean ativo(@Nullable User u, @Nullable String excludeId) {
+        if (u == null || u.getMentorData() == null || !u.getMentorData().isActivePublic()) return false;
+        return excludeId == null || !excludeId.equals(u.getId());
+    }
+
+    @NonNull
+    private static List<User> filtrarProximos(@NonNull List<User> mentores, double latitude, double longitude,
+                                              @NonNull double[] raios, @Nullable String excludeId) {
+        if (raios.length == 0) return new ArrayList<>();
+        double raioMaximo = raios[raios.length - 1];
+
+        // Coordenadas em arrays primitivos (NaN = fora da busca) e uma passada do GeoMath no raio maior.
+        int n = mentores.size();
+        double[] lats = new double[n];
+        double[] lons = new double[n];
+        for (int i = 0; i < n; i++) {
+            User u = mentores.get(i);
+            Mentor m = ativo(u, excludeId) ? u.getMentorData() : null;
+            boolean semLocalizacao = m == null || (m.getLatitude() == 0 && m.getLongitude() == 0);
+            lats[i] = semLocalizacao ? Double.NaN : m.getLatitude();
+            lons[i] = semLocalizacao ? Double.NaN : m.getLongitude();
+        }
+        int[] indices = new int[n];
+        double[] distancias = new double[n];
+        int total = new GeoMath.Origem(latitude, longitude).dentroDoRaio(lats, lons, n, raioMaximo, indices, distancias);
+
+        // Anel mais interno com alguém dentro, como na busca por geohash.
+        for (double raio : raios) {
+            List<Integer> dentro = new ArrayList<>();
+            for (int k = 0; k < total; k++) {
+                if (distancias[k] <= raio) dentro.add(k);
+            }
+            if (dentro.isEmpty()) continue;
+            Collections.sort(dentro, (a, b) -> Double.compare(distancias[a], distancias[b]));
+            List<User> proximos = new ArrayList<>(dentro.size());
+            for (int k : dentro) proximos.add(mentores.get(indices[k]));
+            return proximos;
+        }
+        return new ArrayList<>();
+    }
+}
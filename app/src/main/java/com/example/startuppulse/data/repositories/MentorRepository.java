@@ -1,7 +1,6 @@
 package com.example.startuppulse.data.repositories;
 
 import android.net.Uri;
-import android.util.Log;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -9,13 +8,17 @@ import androidx.annotation.Nullable;
 import com.example.startuppulse.common.Result;
 import com.example.startuppulse.common.ResultCallback;
 import com.example.startuppulse.data.models.Mentor;
-import com.example.startuppulse.data.models.User;
+import com.example.startuppulse.util.AreaDictionary;
+import com.example.startuppulse.util.DataExecutor;
+import com.example.startuppulse.util.GeoHash;
+import com.example.startuppulse.util.GeoMath;
 import com.google.android.gms.tasks.Task;
 import com.google.android.gms.tasks.Tasks;
 import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.FieldPath;
 import com.google.firebase.firestore.Query;
 import com.google.firebase.firestore.QueryDocumentSnapshot;
+import com.google.firebase.firestore.QuerySnapshot;
 import com.google.firebase.firestore.SetOptions;
 import com.google.firebase.firestore.WriteBatch;
 import com.google.firebase.storage.FirebaseStorage;
@@ -23,10 +26,11 @@ import com.google.firebase.storage.StorageReference;
 import com.google.firebase.storage.UploadTask;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -45,12 +49,21 @@ import javax.inject.Singleton;
 public class MentorRepository extends BaseRepository implements IMentorRepository {
 
     private static final String MENTORES_COLLECTION = "mentores";
+    private static final String CAMPO_GEOHASH = "geohash";
+    // Maior que qualquer caractere base32: fecha o intervalo de um prefixo de geohash.
+    private static final String FIM_PREFIXO = "~";
+    // Limite de valores de um filtro array-contains-any.
+    private static final int MAX_VALORES_ARRAY_CONTAINS_ANY = 30;
+    // Teto de candidatos lidos por uma busca por áreas fora do snapshot do diretório.
+    private static final int LIMITE_BUSCA_POR_AREAS = 100;
     private final FirebaseStorage storage;
+    private final DataExecutor dataExecutor;
 
     @Inject
-    public MentorRepository(FirebaseStorage storage) {
+    public MentorRepository(FirebaseStorage storage, DataExecutor dataExecutor) {
         super();
         this.storage = storage;
+        this.dataExecutor = dataExecutor;
     }
 
     // -----------------------------------------------------
@@ -63,103 +76,22 @@ public class MentorRepository extends BaseRepository implements IMentorRepositor
     @Override
     public void getMentorById(@NonNull String mentorId, @NonNull ResultCallback<Mentor> callback) {
         db.collection(MENTORES_COLLECTION).document(mentorId).get()
-                .addOnSuccessListener(snap -> {
+                .addOnSuccessListener(dataExecutor, snap -> {
                     if (snap.exists()) {
                         Mentor mentor = snap.toObject(Mentor.class);
                         if (mentor != null) {
                             mentor.setId(snap.getId());
-                            callback.onResult(new Result.Success<>(mentor));
+                            dataExecutor.deliver(callback, new Result.Success<>(mentor));
                         } else {
-                            callback.onResult(new Result.Error<>(new Exception("Falha ao mapear dados do mentor.")));
+                            dataExecutor.deliver(callback, new Result.Error<>(new Exception("Falha ao mapear dados do mentor.")));
                         }
                     } else {
-                        callback.onResult(new Result.Error<>(new Exception("Mentor não encontrado.")));
+                        dataExecutor.deliver(callback, new Result.Error<>(new Exception("Mentor não encontrado.")));
                     }
                 })
                 .addOnFailureListener(e -> callback.onResult(new Result.Error<>(e)));
     }
 
-    /**
-     * Retorna todos os mentores públicos (exceto o usuário atual).
-     */
-    @Override
-    public void getAllMentores(@NonNull ResultCallback<List<User>> callback) {
-        db.collection("usuarios")
-                .whereEqualTo("isMentor", true)
-                .get()
-                .addOnSuccessListener(querySnapshot -> {
-                    List<User> mentores = new ArrayList<>();
-
-                    for (DocumentSnapshot document : querySnapshot.getDocuments()) {
-                        User user = document.toObject(User.class);
-                        if (user != null) {
-                            user.setId(document.getId());
-                            mentores.add(user);
-                        }
-                    }
-
-                    // 🔹 Carrega os dados complementares de mentor (latitude, cidade, verificado, etc.)
-                    enrichWithMentorData(mentores, callback);
-                })
-                .addOnFailureListener(e -> callback.onResult(new Result.Error<>(e)));
-    }
-
-    /**
-     * Associa os dados complementares do perfil de mentor (coleção "mentores") aos respectivos usuários.
-     */
-    private void enrichWithMentorData(@NonNull List<User> users, @NonNull ResultCallback<List<User>> callback) {
-        if (users.isEmpty()) {
-            callback.onResult(new Result.Success<>(users));
-            return;
-        }
-
-        AtomicInteger remaining = new AtomicInteger(users.size());
-
-        for (User user : users) {
-            db.collection("mentores").document(user.getId())
-                    .get()
-                    .addOnSuccessListener(snapshot -> {
-                        if (snapshot.exists()) {
-                            Mentor mentorData = snapshot.toObject(Mentor.class);
-                            if (mentorData != null) {
-                                mentorData.setId(snapshot.getId());
-                                user.setMentorData(mentorData);
-                            }
-                        }
-
-                        if (remaining.decrementAndGet() == 0) {
-                            callback.onResult(new Result.Success<>(users));
-                        }
-                    })
-                    .addOnFailureListener(e -> {
-                        Log.w("MentorRepository", "Falha ao obter mentorData: " + e.getMessage());
-                        if (remaining.decrementAndGet() == 0) {
-                            callback.onResult(new Result.Success<>(users));
-                        }
-                    });
-        }
-    }
-
-
-    @Override
-    public void findAllMentores(@Nullable String excludeUserId, @NonNull ResultCallback<List<Mentor>> callback) {
-        Query query = db.collection(MENTORES_COLLECTION);
-        if (excludeUserId != null && !excludeUserId.isEmpty()) {
-            query = query.whereNotEqualTo(FieldPath.documentId(), excludeUserId);
-        }
-
-        query.get().addOnSuccessListener(qs -> {
-            List<Mentor> mentores = new ArrayList<>();
-            for (QueryDocumentSnapshot doc : qs) {
-                Mentor mentor = doc.toObject(Mentor.class);
-                mentor.setId(doc.getId());
-                mentores.add(mentor);
-            }
-            callback.onResult(new Result.Success<>(mentores));
-        }).addOnFailureListener(e -> callback.onResult(new Result.Error<>(e)));
-    }
-
-
     /**
      * Busca mentores por cidade.
      */
@@ -171,14 +103,14 @@ public class MentorRepository extends BaseRepository implements IMentorRepositor
         }
 
         query.get()
-                .addOnSuccessListener(q -> {
+                .addOnSuccessListener(dataExecutor, q -> {
                     List<Mentor> mentores = new ArrayList<>();
                     for (QueryDocumentSnapshot doc : q) {
                         Mentor m = doc.toObject(Mentor.class);
                         m.setId(doc.getId());
                         mentores.add(m);
                     }
-                    callback.onResult(new Result.Success<>(mentores));
+                    dataExecutor.deliver(callback, new Result.Success<>(mentores));
                 })
                 .addOnFailureListener(e -> callback.onResult(new Result.Error<>(e)));
     }
@@ -194,18 +126,128 @@ public class MentorRepository extends BaseRepository implements IMentorRepositor
         }
 
         query.get()
-                .addOnSuccessListener(q -> {
+                .addOnSuccessListener(dataExecutor, q -> {
                     List<Mentor> mentores = new ArrayList<>();
                     for (QueryDocumentSnapshot doc : q) {
                         Mentor m = doc.toObject(Mentor.class);
                         m.setId(doc.getId());
                         mentores.add(m);
                     }
-                    callback.onResult(new Result.Success<>(mentores));
+                    dataExecutor.deliver(callback, new Result.Success<>(mentores));
                 })
                 .addOnFailureListener(e -> callback.onResult(new Result.Error<>(e)));
     }
 
+    /**
+     * Busca mentores próximos por anéis de geohash (ver {@link IMentorRepository#findMentoresProximos}).
+     */
+    @Override
+    public void findMentoresProximos(double latitude, double longitude, @NonNull double[] raiosMetros,
+                                     @Nullable String excludeId, @NonNull ResultCallback<List<Mentor>> callback) {
+        if (raiosMetros.length == 0) {
+            callback.onResult(new Result.Success<>(new ArrayList<>()));
+            return;
+        }
+        buscarAnel(latitude, longitude, raiosMetros, 0, excludeId, new ArrayList<>(), new HashMap<>(), callback);
+    }
+
+    /**
+     * Consulta um anel da busca por raio e decide se amplia para o próximo.
+     *
+     * {@code prefixosLidos} são as células já consultadas nos anéis anteriores: a célula (maior) de um
+     * anel externo só é lida nos intervalos entre elas, então nenhum documento é lido duas vezes.
+     * {@code lidos} acumula todos os mentores lidos até aqui com a distância exata ao centro.
+     */
+    private void buscarAnel(double latitude, double longitude, @NonNull double[] raios, int anel,
+                            @Nullable String excludeId, @NonNull List<String> prefixosLidos,
+                            @NonNull Map<String, MentorDistancia> lidos,
+                            @NonNull ResultCallback<List<Mentor>> callback) {
+        List<Task<QuerySnapshot>> consultas = new ArrayList<>();
+        List<String> novas = new ArrayList<>();
+        for (String celula : GeoHash.celulasDoRaio(latitude, longitude, raios[anel])) {
+            if (cobertaPor(celula, prefixosLidos)) continue;
+            consultarCelula(celula, prefixosLidos, consultas);
+            novas.add(celula);
+        }
+        prefixosLidos.addAll(novas);
+
+        Tasks.whenAllSuccess(consultas)
+                .addOnSuccessListener(dataExecutor, resultados -> {
+                    GeoMath.Origem origem = new GeoMath.Origem(latitude, longitude);
+                    for (Object resultado : resultados) {
+                        for (DocumentSnapshot doc : ((QuerySnapshot) resultado).getDocuments()) {
+                            Mentor m = doc.toObject(Mentor.class);
+                            if (m == null || (m.getLatitude() == 0 && m.getLongitude() == 0)) continue;
+                            m.setId(doc.getId());
+                            lidos.put(doc.getId(), new MentorDistancia(m, origem.distancia(m.getLatitude(), m.getLongitude())));
+                        }
+                    }
+
+                    List<MentorDistancia> dentro = new ArrayList<>();
+                    for (MentorDistancia md : lidos.values()) {
+                        if (md.distancia > raios[anel] || !md.mentor.isActivePublic()) continue;
+                        if (excludeId != null && excludeId.equals(md.mentor.getId())) continue;
+                        dentro.add(md);
+                    }
+
+                    if (dentro.isEmpty() && anel + 1 < raios.length) {
+                        buscarAnel(latitude, longitude, raios, anel + 1, excludeId, prefixosLidos, lidos, callback);
+                        return;
+                    }
+
+                    Collections.sort(dentro, Comparator.comparingDouble(md -> md.distancia));
+                    List<Mentor> mentores = new ArrayList<>(dentro.size());
+                    for (MentorDistancia md : dentro) mentores.add(md.mentor);
+                    dataExecutor.deliver(callback, new Result.Success<>(mentores));
+                })
+                .addOnFailureListener(e -> callback.onResult(new Result.Error<>(e)));
+    }
+
+    /**
+     * Adiciona as consultas de intervalo da célula, pulando os sub-prefixos já lidos.
+     */
+    private void consultarCelula(@NonNull String celula, @NonNull List<String> prefixosLidos,
+                                 @NonNull List<Task<QuerySnapshot>> consultas) {
+        List<String> internas = new ArrayList<>();
+        for (String p : prefixosLidos) {
+            if (p.startsWith(celula)) internas.add(p);
+        }
+        Collections.sort(internas);
+
+        Query base = db.collection(MENTORES_COLLECTION).orderBy(CAMPO_GEOHASH);
+        String inicio = celula;
+        boolean inclusivo = true;
+        String anterior = null;
+        for (String interna : internas) {
+            // Em ordem lexicográfica um prefixo vem antes das suas extensões, já cobertas por ele.
+            if (anterior != null && interna.startsWith(anterior)) continue;
+            Query cursor = inclusivo ? base.startAt(inicio) : base.startAfter(inicio);
+            consultas.add(cursor.endBefore(interna).get());
+            inicio = interna + FIM_PREFIXO;
+            inclusivo = false;
+            anterior = interna;
+        }
+        Query cursor = inclusivo ? base.startAt(inicio) : base.startAfter(inicio);
+        consultas.add(cursor.endAt(celula + FIM_PREFIXO).get());
+    }
+
+    private static boolean cobertaPor(@NonNull String celula, @NonNull List<String> prefixos) {
+        for (String p : prefixos) {
+            if (celula.startsWith(p)) return true;
+        }
+        return false;
+    }
+
+    private static final class MentorDistancia {
+        final Mentor mentor;
+        final double distancia;
+
+        MentorDistancia(Mentor mentor, double distancia) {
+            this.mentor = mentor;
+            this.distancia = distancia;
+        }
+    }
+
     /**
      * Busca mentores que tenham áreas de atuação compatíveis.
      */
@@ -221,10 +263,11 @@ public class MentorRepository extends BaseRepository implements IMentorRepositor
         }
 
         db.collection(MENTORES_COLLECTION)
-                .whereArrayContainsAny("areas", areas)
+                .whereArrayContainsAny("areas", AreaDictionary.valoresConsulta(areas, MAX_VALORES_ARRAY_CONTAINS_ANY))
                 .whereEqualTo("ativoPublico", true)
+                .limit(LIMITE_BUSCA_POR_AREAS)
                 .get()
-                .addOnSuccessListener(q -> {
+                .addOnSuccessListener(dataExecutor, q -> {
                     List<Mentor> mentores = new ArrayList<>();
                     for (QueryDocumentSnapshot doc : q) {
                         Mentor m = doc.toObject(Mentor.class);
@@ -235,7 +278,7 @@ public class MentorRepository extends BaseRepository implements IMentorRepositor
 
                         mentores.add(m);
                     }
-                    callback.onResult(new Result.Success<>(mentores));
+                    dataExecutor.deliver(callback, new Result.Success<>(mentores));
                 })
                 .addOnFailureListener(e -> callback.onResult(new Result.Error<>(e)));
     }
@@ -308,6 +351,7 @@ public class MentorRepository extends BaseRepository implements IMentorRepositor
         }
 
         mentor.setId(userId);
+        preencherGeohash(mentor);
         db.collection(MENTORES_COLLECTION).document(userId)
                 .set(mentor, SetOptions.merge())
                 .addOnSuccessListener(aVoid -> callback.onResult(new Result.Success<>(userId)))
@@ -332,6 +376,7 @@ public class MentorRepository extends BaseRepository implements IMentorRepositor
             return;
         }
 
+        preencherGeohash(mentor);
         Task<Void> chain = Tasks.forResult(null);
 
         // Apenas banner
@@ -358,6 +403,14 @@ public class MentorRepository extends BaseRepository implements IMentorRepositor
     // HELPERS
     // -----------------------------------------------------
 
+    /**
+     * Mantém o geohash coerente com latitude/longitude (sem coordenadas, o mentor fica fora da busca por raio).
+     */
+    private static void preencherGeohash(@NonNull Mentor mentor) {
+        boolean semCoordenadas = mentor.getLatitude() == 0 && mentor.getLongitude() == 0;
+        mentor.setGeohash(semCoordenadas ? null : GeoHash.codificar(mentor.getLatitude(), mentor.getLongitude()));
+    }
+
     /**
      * Faz upload de uma imagem para o Firebase Storage e retorna a URL pública.
      */
@@ -0,0 +1,57 @@
+package com.example.startuppulse.data.repositories;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import com.google.firebase.firestore.FirebaseFirestore;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import dagger.hilt.android.qualifiers.ApplicationContext;
+
+/**
+ * Diz se a coleção "ideias_resumo" já cobre todas as ideias.
+ *
+ * Ideias criadas antes da projeção só ganham resumo quando o backfill (backfill_ideias_resumo, em
+ * functions/main.py) passa por elas; ao terminar, ele grava config/migracoes.ideiasResumo = true.
+ * Até lá as listas leem a coleção completa "ideias".
+ *
+ * O valor é fixo durante a sessão (os cursores de paginação são de uma coleção só): a confirmação
+ * do servidor fica salva e passa a valer a partir da próxima abertura do app.
+ */
+@Singleton
+public class MigracaoResumos {
+
+    private static final String TAG = "MigracaoResumos";
+    private static final String PREFS = "migracoes";
+    private static final String CHAVE_RESUMOS = "ideiasResumo";
+    private static final String CONFIG_COLLECTION = "config";
+    private static final String MIGRACOES_DOC = "migracoes";
+
+    private final boolean concluida;
+
+    @Inject
+    public MigracaoResumos(@ApplicationContext Context context, FirebaseFirestore firestore) {
+        SharedPreferences prefs = context.getSharedPreferences(PREFS, Context.MODE_PRIVATE);
+        this.concluida = prefs.getBoolean(CHAVE_RESUMOS, false);
+        if (concluida) return;
+
+        // Uma leitura por abertura do app, só até o backfill terminar.
+        firestore.collection(CONFIG_COLLECTION).document(MIGRACOES_DOC).get()
+                .addOnSuccessListener(doc -> {
+                    if (Boolean.TRUE.equals(doc.getBoolean(CHAVE_RESUMOS))) {
+                        prefs.edit().putBoolean(CHAVE_RESUMOS, true).apply();
+                    }
+                })
+                .addOnFailureListener(e -> Log.w(TAG, "Não foi possível verificar o backfill dos resumos.", e));
+    }
+
+    /**
+     * true se as listas podem ler só "ideias_resumo"; false se precisam da coleção completa.
+     */
+    public boolean isConcluida() {
+        return concluida;
+    }
+}
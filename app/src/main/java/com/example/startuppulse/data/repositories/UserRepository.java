@@ -9,13 +9,10 @@ import com.example.startuppulse.common.Result;
 import com.example.startuppulse.common.ResultCallback;
 import com.example.startuppulse.data.models.Mentor;
 import com.example.startuppulse.data.models.User;
-import com.google.android.gms.tasks.Task;
-import com.google.android.gms.tasks.Tasks;
+import com.example.startuppulse.util.DataExecutor;
 import com.google.firebase.firestore.DocumentSnapshot;
-import com.google.firebase.firestore.FieldPath;
 import com.google.firebase.firestore.FieldValue;
 import com.google.firebase.firestore.FirebaseFirestore;
-import com.google.firebase.firestore.QuerySnapshot;
 import com.google.firebase.firestore.SetOptions;
 
 import java.util.ArrayList;
@@ -41,14 +38,19 @@ import javax.inject.Singleton;
 @Singleton
 public class UserRepository implements IUserRepository {
 
+    private static final String TAG = "UserRepository";
     private static final String USERS_COLLECTION = "usuarios";
     private static final String MENTORES_COLLECTION = "mentores";
 
     private final FirebaseFirestore firestore;
+    private final DataExecutor dataExecutor;
+    private final BatchDocumentFetcher batchFetcher;
 
     @Inject
-    public UserRepository(FirebaseFirestore firestore) {
+    public UserRepository(FirebaseFirestore firestore, DataExecutor dataExecutor, BatchDocumentFetcher batchFetcher) {
         this.firestore = firestore;
+        this.dataExecutor = dataExecutor;
+        this.batchFetcher = batchFetcher;
     }
 
     // -----------------------------------------------------
@@ -57,7 +59,7 @@ public class UserRepository implements IUserRepository {
     @Override
     public void getUserProfile(@NonNull String userId, @NonNull ResultCallback<User> callback) {
         firestore.collection(USERS_COLLECTION).document(userId).get()
-                .addOnSuccessListener(documentSnapshot -> {
+                .addOnSuccessListener(dataExecutor, documentSnapshot -> {
                     if (documentSnapshot != null && documentSnapshot.exists()) {
                         User user = documentSnapshot.toObject(User.class);
                         if (user == null) user = new User();
@@ -84,9 +86,9 @@ public class UserRepository implements IUserRepository {
                         // Garante que o ID do documento esteja preenchido no objeto User
                         user.setId(documentSnapshot.getId());
 
-                        callback.onResult(new Result.Success<>(user));
+                        dataExecutor.deliver(callback, new Result.Success<>(user));
                     } else {
-                        callback.onResult(new Result.Error<>(new Exception("Usuário não encontrado no Firestore.")));
+                        dataExecutor.deliver(callback, new Result.Error<>(new Exception("Usuário não encontrado no Firestore.")));
                     }
                 })
                 .addOnFailureListener(e -> callback.onResult(new Result.Error<>(e)));
@@ -171,150 +173,98 @@ public class UserRepository implements IUserRepository {
     // MENTORES
     // -----------------------------------------------------
     /**
-     * Retorna todos os usuários com flag isMentor = true.
-     * Caso deseje incluir dados de mentor, use loadMentorData() em sequência.
+     * Retorna todos os usuários com flag isMentor = true, já com os dados de mentor (mentorData).
      */
     @Override
     public void getMentores(@NonNull ResultCallback<List<User>> callback) {
+        fetchMentores(callback);
+    }
+
+    @Override
+    public void getMentoresFromProfiles(@NonNull List<Mentor> mentores, @NonNull ResultCallback<List<User>> callback) {
+        if (mentores.isEmpty()) {
+            callback.onResult(new Result.Success<>(new ArrayList<>()));
+            return;
+        }
+
+        List<String> ids = new ArrayList<>(mentores.size());
+        for (Mentor m : mentores) ids.add(m.getId());
+
+        batchFetcher.buscar(firestore.collection(USERS_COLLECTION), ids, UserRepository::mapearUsuario, result -> {
+            if (result instanceof Result.Error) {
+                dataExecutor.deliver(callback, new Result.Error<>(((Result.Error<BatchDocumentFetcher.Lote<User>>) result).error));
+                return;
+            }
+            // Com falha parcial, segue com os usuários que vieram (o match só perde alguns candidatos).
+            Map<String, User> porId = ((Result.Success<BatchDocumentFetcher.Lote<User>>) result).data.encontrados;
+            List<User> users = new ArrayList<>(mentores.size());
+            for (Mentor m : mentores) {
+                User u = porId.get(m.getId());
+                if (u == null || !u.isMentor()) continue;
+                u.setMentorData(m);
+                users.add(u);
+            }
+            dataExecutor.deliver(callback, new Result.Success<>(users));
+        });
+    }
+
+    private void fetchMentores(@NonNull ResultCallback<List<User>> callback) {
         firestore.collection(USERS_COLLECTION)
                 .whereEqualTo("isMentor", true)
                 .get()
-                .addOnSuccessListener(querySnapshot -> {
+                .addOnSuccessListener(dataExecutor, querySnapshot -> {
                     List<User> mentores = new ArrayList<>();
-                    List<String> mentorIds = new ArrayList<>();
-
                     for (DocumentSnapshot document : querySnapshot.getDocuments()) {
-                        User user = document.toObject(User.class);
-                        if (user != null) {
-                            user.setId(document.getId());
-                            mentores.add(user);
-                            mentorIds.add(document.getId());
-                        }
+                        User user = mapearUsuario(document);
+                        if (user != null) mentores.add(user);
                     }
 
                     if (mentores.isEmpty()) {
                         // Retorna a lista vazia imediatamente
-                        callback.onResult(new Result.Success<>(mentores));
+                        dataExecutor.deliver(callback, new Result.Success<>(mentores));
                         return;
                     }
 
                     // Enriquecer com dados da coleção /mentores (se existir)
-                    enrichWithMentorData(mentores, mentorIds, callback);
+                    enrichWithMentorData(mentores, callback);
                 })
                 .addOnFailureListener(e -> callback.onResult(new Result.Error<>(e)));
     }
 
     /**
-     * Enriquecer a lista de Users (mentores) com os dados complementares da coleção /mentores.
-     * Faz consultas em batches (whereIn de até 10 ids por query).
+     * Enriquecer a lista de Users (mentores) com os dados complementares da coleção /mentores,
+     * em lotes (ver {@link BatchDocumentFetcher}).
      */
-    private void enrichWithMentorData(List<User> users, List<String> mentorIds, ResultCallback<List<User>> callback) {
-        if (mentorIds == null || mentorIds.isEmpty()) {
-            callback.onResult(new Result.Success<>(users));
-            return;
-        }
-
-        // Particiona os ids em batches de 10 (limite do whereIn)
-        final List<Task<QuerySnapshot>> tasks = new ArrayList<>();
-        final int batchSize = 10;
-        for (int i = 0; i < mentorIds.size(); i += batchSize) {
-            int end = Math.min(i + batchSize, mentorIds.size());
-            List<String> sub = mentorIds.subList(i, end);
-            Task<QuerySnapshot> t = firestore.collection("mentores")
-                    .whereIn(FieldPath.documentId(), sub)
-                    .get();
-            tasks.add(t);
-        }
-
-        // Executa todas as tasks em paralelo e processa os resultados
-        Tasks.whenAllSuccess(tasks)
-                .addOnSuccessListener(results -> {
-                    // Mapeia id -> Mentor document
-                    Map<String, Mentor> mentorMap = new HashMap<>();
-                    for (Object res : results) {
-                        QuerySnapshot qs = (QuerySnapshot) res;
-                        for (DocumentSnapshot d : qs.getDocuments()) {
-                            Mentor m = d.toObject(Mentor.class);
-                            if (m != null) {
-                                m.setId(d.getId());
-                                mentorMap.put(d.getId(), m);
-                            }
-                        }
-                    }
-
-                    // Associa mentorData aos users
-                    for (User u : users) {
-                        if (u == null) continue;
-                        Mentor m = mentorMap.get(u.getId());
-                        if (m != null) {
-                            u.setMentorData(m); // garanta que User tem esse setter
-                        }
-                    }
-
-                    callback.onResult(new Result.Success<>(users));
-                })
-                .addOnFailureListener(e -> {
-                    // Falha em obter dados de mentores — ainda retornamos os users (sem mentorData) ou falhamos conforme preferir
-                    // Aqui optamos por retornar com sucesso parcial (users sem mentorData)
-                    callback.onResult(new Result.Success<>(users));
-                });
+    private void enrichWithMentorData(@NonNull List<User> users, @NonNull ResultCallback<List<User>> callback) {
+        List<String> ids = new ArrayList<>(users.size());
+        for (User u : users) ids.add(u.getId());
+
+        batchFetcher.buscar(firestore.collection(MENTORES_COLLECTION), ids, UserRepository::mapearMentor, result -> {
+            // Falha em obter dados de mentores — retornamos com sucesso parcial (users sem mentorData)
+            if (result instanceof Result.Success) {
+                Map<String, Mentor> mentorMap = ((Result.Success<BatchDocumentFetcher.Lote<Mentor>>) result).data.encontrados;
+                for (User u : users) {
+                    Mentor m = mentorMap.get(u.getId());
+                    if (m != null) u.setMentorData(m);
+                }
+            } else {
+                Log.w(TAG, "enrichWithMentorData: dados de mentor indisponíveis.", ((Result.Error<?>) result).error);
+            }
+            dataExecutor.deliver(callback, new Result.Success<>(users));
+        });
     }
 
-
-    /**
-     * Carrega o documento de mentor correspondente e vincula ao User.
-     */
-    private void loadMentorData(@NonNull User user, @NonNull ResultCallback<User> callback) {
-        firestore.collection(MENTORES_COLLECTION)
-                .document(user.getId())
-                .get()
-                .addOnSuccessListener(doc -> {
-                    if (doc != null && doc.exists()) {
-                        Mentor mentor = doc.toObject(Mentor.class);
-                        if (mentor != null) {
-                            mentor.setId(doc.getId());
-                            user.setMentorData(mentor);
-                        }
-                    }
-                    callback.onResult(new Result.Success<>(user));
-                })
-                .addOnFailureListener(e -> callback.onResult(new Result.Error<>(e)));
+    @Nullable
+    private static User mapearUsuario(@NonNull DocumentSnapshot doc) {
+        User user = doc.toObject(User.class);
+        if (user != null) user.setId(doc.getId());
+        return user;
     }
 
-    /**
-     * Enriquecer lista de usuários mentores com dados específicos da coleção /mentores.
-     */
-    private void enrichWithMentorData(@NonNull List<User> mentores, @NonNull ResultCallback<List<User>> callback) {
-        if (mentores.isEmpty()) {
-            callback.onResult(new Result.Success<>(mentores));
-            return;
-        }
-
-        List<User> enriched = new ArrayList<>();
-        final int[] processed = {0};
-
-        for (User user : mentores) {
-            firestore.collection(MENTORES_COLLECTION)
-                    .document(user.getId())
-                    .get()
-                    .addOnSuccessListener(doc -> {
-                        if (doc.exists()) {
-                            Mentor mentor = doc.toObject(Mentor.class);
-                            if (mentor != null) {
-                                mentor.setId(doc.getId());
-                                user.setMentorData(mentor);
-                            }
-                        }
-                        enriched.add(user);
-                        if (++processed[0] == mentores.size()) {
-                            callback.onResult(new Result.Success<>(enriched));
-                        }
-                    })
-                    .addOnFailureListener(e -> {
-                        if (++processed[0] == mentores.size()) {
-                            callback.onResult(new Result.Success<>(enriched));
-                        }
-                    });
-        }
+    @Nullable
+    private static Mentor mapearMentor(@NonNull DocumentSnapshot doc) {
+        Mentor mentor = doc.toObject(Mentor.class);
+        if (mentor != null) mentor.setId(doc.getId());
+        return mentor;
     }
-}
\ No newline at end of file
+}
@@ -1,5 +1,6 @@
 package com.example.startuppulse.di;
 
+import com.example.startuppulse.util.DataExecutor;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.firestore.FirebaseFirestore;
 import com.google.firebase.functions.FirebaseFunctions;
@@ -37,4 +38,13 @@ public class FirebaseModule {
     public FirebaseFunctions provideFirebaseFunctions() {
         return FirebaseFunctions.getInstance("southamerica-east1");
     }
+
+    /**
+     * Executor compartilhado onde os repositórios mapeiam os documentos do Firestore (fora da main thread).
+     */
+    @Provides
+    @Singleton
+    public DataExecutor provideDataExecutor() {
+        return new DataExecutor();
+    }
 }
\ No newline at end of file
@@ -41,4 +41,8 @@ public abstract class RepositoryModule {
     @Binds
     @Singleton
     public abstract ISparkRepository bindSparkRepository(SparkRepository impl);
+
+    @Binds
+    @Singleton
+    public abstract IMentorDirectory bindMentorDirectory(MentorDirectory impl);
 }
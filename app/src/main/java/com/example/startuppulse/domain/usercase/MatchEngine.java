@@ -0,0 +1,354 @@
+package com.example.startuppulse.domain.usercase;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.startuppulse.MentorMatchService;
+import com.example.startuppulse.common.Result;
+import com.example.startuppulse.common.ResultCallback;
+import com.example.startuppulse.data.models.Mentor;
+import com.example.startuppulse.data.models.User;
+import com.example.startuppulse.data.repositories.IMentorDirectory;
+import com.example.startuppulse.util.DataExecutor;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+/**
+ * Escolhe o mentor de uma ideia num pipeline explícito:
+ * buscar candidatos → filtrar → pontuar → ranquear → escolher.
+ *
+ * - A busca é feita em camadas ({@link Camada}): com referência, os mentores num raio de até
+ *   100 km; sem ela, todos os mentores; se a camada não render ninguém (ou falhar), os mentores com
+ *   áreas em comum. Se nenhuma camada render, a decisão é publicar sem mentor.
+ * - Cada etapa tem prazo ({@link #PRAZO_BUSCA_MS} para a busca, {@link #PRAZO_CALCULO_MS} para as
+ *   demais). Etapa que estoura o prazo conta como falha da camada; a resposta atrasada é descartada.
+ * - Filtrar, pontuar e ranquear rodam no executor de trabalho. O progresso, o resultado e todo o
+ *   estado de uma {@link Execucao} ficam na thread de entrega (a main thread, no app).
+ * - {@link Execucao#cancelar()} interrompe a execução entre etapas; depois dele o {@link Ouvinte}
+ *   não é mais chamado.
+ *
+ * Depende só de {@link IMentorDirectory} e de executores: na JVM, roda com um diretório falso e
+ * executores síncronos.
+ */
+@Singleton
+public class MatchEngine {
+
+    private static final String TAG = "MatchEngine";
+
+    // Anéis da busca por proximidade, em metros: 50 km e, sem ninguém, até 100 km.
+    private static final double[] RAIOS_METROS = {50_000, 100_000};
+    public static final long PRAZO_BUSCA_MS = TimeUnit.SECONDS.toMillis(10);
+    public static final long PRAZO_CALCULO_MS = TimeUnit.SECONDS.toMillis(2);
+
+    /** Etapas do pipeline, na ordem em que rodam. */
+    public enum Etapa { BUSCAR, FILTRAR, PONTUAR, RANQUEAR, ESCOLHER }
+
+    /** De onde vêm os candidatos, da camada mais específica para a mais ampla. */
+    public enum Camada {
+        PROXIMIDADE("Buscando mentores próximos...", "Mentor encontrado por proximidade."),
+        TODOS("Buscando mentores disponíveis...", "Mentor encontrado por afinidade."),
+        AREAS("Buscando mentores por áreas de interesse...", "Mentor encontrado por área.");
+
+        final String progresso;
+        public final String descricao;
+
+        Camada(String progresso, String descricao) {
+            this.progresso = progresso;
+            this.descricao = descricao;
+        }
+    }
+
+    /**
+     * O que o match precisa da ideia: áreas, dono (nunca é candidato) e a referência geográfica.
+     */
+    public static final class Pedido {
+        final List<String> areas;
+        @Nullable final String ownerId;
+        @Nullable final Double latitude;
+        @Nullable final Double longitude;
+
+        public Pedido(@Nullable List<String> areas, @Nullable String ownerId,
+                      @Nullable Double latitude, @Nullable Double longitude) {
+            this.areas = areas != null ? areas : Collections.emptyList();
+            this.ownerId = ownerId;
+            this.latitude = latitude;
+            this.longitude = longitude;
+        }
+
+        boolean temReferencia() {
+            return latitude != null && longitude != null;
+        }
+    }
+
+    /**
+     * Resultado do match. {@link #mentor} null significa publicar sem mentor.
+     */
+    public static final class Decisao {
+        @Nullable public final User mentor;
+        /** Camada que rendeu o mentor (null quando não há mentor). */
+        @Nullable public final Camada camada;
+
+        Decisao(@Nullable User mentor, @Nullable Camada camada) {
+            this.mentor = mentor;
+            this.camada = camada;
+        }
+    }
+
+    /**
+     * Recebe o progresso de cada etapa e, no fim, a decisão. Result.Error só quando todas as
+     * camadas falharam (nenhuma chegou a responder).
+     */
+    public interface Ouvinte extends ResultCallback<Decisao> {
+        void onProgresso(@NonNull Etapa etapa, @NonNull String mensagem);
+    }
+
+    // Um único timer para os prazos de todas as execuções; só agenda, não roda trabalho.
+    private static final ScheduledExecutorService PRAZOS = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "match-prazos");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final IMentorDirectory mentorDirectory;
+    private final Executor trabalho;
+    private final Executor entrega;
+    private final ScheduledExecutorService prazos;
+
+    @Inject
+    public MatchEngine(IMentorDirectory mentorDirectory, DataExecutor dataExecutor) {
+        this(mentorDirectory, dataExecutor, dataExecutor.mainThread(), PRAZOS);
+    }
+
+    public MatchEngine(@NonNull IMentorDirectory mentorDirectory, @NonNull Executor trabalho,
+                       @NonNull Executor entrega, @NonNull ScheduledExecutorService prazos) {
+        this.mentorDirectory = mentorDirectory;
+        this.trabalho = trabalho;
+        this.entrega = entrega;
+        this.prazos = prazos;
+    }
+
+    /**
+     * Inicia um match. Deve ser chamado na thread de entrega.
+     */
+    @NonNull
+    public Execucao iniciar(@NonNull Pedido pedido, @NonNull Ouvinte ouvinte) {
+        Execucao execucao = new Execucao(pedido, ouvinte);
+        execucao.proximaCamada();
+        return execucao;
+    }
+
+    // Trabalho assíncrono de uma etapa: entrega o resultado no callback, em qualquer thread.
+    private interface Acao<T> {
+        void executar(@NonNull ResultCallback<T> callback);
+    }
+
+    /**
+     * Uma execução do pipeline. O estado só é tocado na thread de entrega; {@link #cancelar()}
+     * pode ser chamado de qualquer thread.
+     */
+    public final class Execucao {
+        private final Pedido pedido;
+        private final Ouvinte ouvinte;
+        private final Deque<Camada> camadas = new ArrayDeque<>();
+        private volatile boolean cancelada;
+        private volatile ScheduledFuture<?> prazoAtual;
+        // Identifica a etapa em curso: respostas de etapas já encerradas (por prazo) são ignoradas.
+        private int etapaAtual;
+        // Camadas que terminaram sem falha (mesmo sem ninguém); zero no fim = todas falharam.
+        private int camadasConcluidas;
+        private Exception ultimoErro;
+
+        Execucao(Pedido pedido, Ouvinte ouvinte) {
+            this.pedido = pedido;
+            this.ouvinte = ouvinte;
+            camadas.add(pedido.temReferencia() ? Camada.PROXIMIDADE : Camada.TODOS);
+            if (!pedido.areas.isEmpty()) camadas.add(Camada.AREAS);
+        }
+
+        public void cancelar() {
+            cancelada = true;
+            ScheduledFuture<?> prazo = prazoAtual;
+            if (prazo != null) prazo.cancel(false);
+        }
+
+        public boolean isCancelada() {
+            return cancelada;
+        }
+
+        // --- Pipeline ---
+
+        private void proximaCamada() {
+            Camada camada = camadas.poll();
+            if (camada == null) {
+                concluirSemMentor();
+                return;
+            }
+            this.<List<User>>etapa(Etapa.BUSCAR, camada.progresso, PRAZO_BUSCA_MS, cb -> buscar(camada, cb), result -> {
+                if (!(result instanceof Result.Success)) {
+                    falhaNaCamada(camada, ((Result.Error<List<User>>) result).error);
+                    return;
+                }
+                filtrar(camada, ((Result.Success<List<User>>) result).data);
+            });
+        }
+
+        private void buscar(Camada camada, ResultCallback<List<User>> callback) {
+            switch (camada) {
+                case PROXIMIDADE:
+                    mentorDirectory.getMentoresProximos(pedido.latitude, pedido.longitude, RAIOS_METROS, pedido.ownerId, callback);
+                    break;
+                case AREAS:
+                    mentorDirectory.getMentoresPorAreas(pedido.areas, pedido.ownerId, callback);
+                    break;
+                default:
+                    mentorDirectory.getMentores(callback);
+            }
+        }
+
+        private void filtrar(Camada camada, List<User> brutos) {
+            etapa(Etapa.FILTRAR, "Filtrando mentores disponíveis...", PRAZO_CALCULO_MS,
+                    emSegundoPlano(() -> filtrarCandidatos(brutos, pedido.ownerId)), result -> {
+                        if (!(result instanceof Result.Success)) {
+                            falhaNaCamada(camada, ((Result.Error<List<User>>) result).error);
+                            return;
+                        }
+                        List<User> candidatos = ((Result.Success<List<User>>) result).data;
+                        Log.d(TAG, camada + ": " + candidatos.size() + " de " + brutos.size() + " candidatos após o filtro.");
+                        if (candidatos.isEmpty()) {
+                            camadasConcluidas++;
+                            proximaCamada();
+                            return;
+                        }
+                        pontuar(camada, candidatos);
+                    });
+        }
+
+        private void pontuar(Camada camada, List<User> candidatos) {
+            double lat = pedido.latitude != null ? pedido.latitude : Double.NaN;
+            double lon = pedido.longitude != null ? pedido.longitude : Double.NaN;
+            etapa(Etapa.PONTUAR, "Calculando afinidade de áreas...", PRAZO_CALCULO_MS,
+                    emSegundoPlano(() -> MentorMatchService.pontuar(candidatos, pedido.areas, lat, lon)), result -> {
+                        if (!(result instanceof Result.Success)) {
+                            falhaNaCamada(camada, ((Result.Error<MentorMatchService.Pontuacao>) result).error);
+                            return;
+                        }
+                        ranquear(camada, ((Result.Success<MentorMatchService.Pontuacao>) result).data);
+                    });
+        }
+
+        private void ranquear(Camada camada, MentorMatchService.Pontuacao pontuacao) {
+            etapa(Etapa.RANQUEAR, "Ordenando candidatos...", PRAZO_CALCULO_MS,
+                    emSegundoPlano(() -> MentorMatchService.melhores(pontuacao, 1)), result -> {
+                        if (!(result instanceof Result.Success)) {
+                            falhaNaCamada(camada, ((Result.Error<List<User>>) result).error);
+                            return;
+                        }
+                        escolher(camada, ((Result.Success<List<User>>) result).data);
+                    });
+        }
+
+        private void escolher(Camada camada, List<User> ranking) {
+            if (cancelada) return;
+            if (ranking.isEmpty()) {
+                // Todos os candidatos da camada estão na capacidade máxima.
+                Log.d(TAG, camada + ": nenhum mentor com capacidade.");
+                camadasConcluidas++;
+                proximaCamada();
+                return;
+            }
+            User escolhido = ranking.get(0);
+            ouvinte.onProgresso(Etapa.ESCOLHER, "Mentor encontrado!");
+            Log.d(TAG, camada + ": mentor escolhido -> " + escolhido.getId());
+            ouvinte.onResult(new Result.Success<>(new Decisao(escolhido, camada)));
+        }
+
+        private void falhaNaCamada(Camada camada, @Nullable Exception erro) {
+            Log.w(TAG, camada + ": camada abandonada.", erro);
+            ultimoErro = erro;
+            proximaCamada();
+        }
+
+        private void concluirSemMentor() {
+            if (cancelada) return;
+            if (camadasConcluidas == 0) {
+                ouvinte.onResult(new Result.Error<>(ultimoErro != null ? ultimoErro : new Exception("Falha ao buscar mentores.")));
+                return;
+            }
+            ouvinte.onResult(new Result.Success<>(new Decisao(null, null)));
+        }
+
+        // --- Etapas ---
+
+        /**
+         * Roda uma etapa com prazo: reporta o progresso, dispara a ação e entrega em {@code seguinte}
+         * (na thread de entrega) o que vier primeiro entre a resposta e o estouro do prazo.
+         */
+        private <T> void etapa(Etapa etapa, String mensagem, long prazoMs, Acao<T> acao, ResultCallback<T> seguinte) {
+            if (cancelada) return;
+            int id = ++etapaAtual;
+            ouvinte.onProgresso(etapa, mensagem);
+
+            ScheduledFuture<?> prazo = prazos.schedule(() -> entrega.execute(() -> {
+                if (cancelada || id != etapaAtual) return;
+                etapaAtual++;
+                seguinte.onResult(new Result.Error<>(new TimeoutException(etapa + " excedeu " + prazoMs + " ms.")));
+            }), prazoMs, TimeUnit.MILLISECONDS);
+            prazoAtual = prazo;
+
+            acao.executar(result -> entrega.execute(() -> {
+                if (cancelada || id != etapaAtual) return;
+                etapaAtual++;
+                prazo.cancel(false);
+                seguinte.onResult(result);
+            }));
+        }
+
+        /**
+         * Ação que roda o cálculo no executor de trabalho; exceções viram Result.Error.
+         */
+        private <T> Acao<T> emSegundoPlano(Callable<T> calculo) {
+            return callback -> trabalho.execute(() -> {
+                if (cancelada) return;
+                Result<T> result;
+                try {
+                    result = new Result.Success<>(calculo.call());
+                } catch (Exception e) {
+                    result = new Result.Error<>(e);
+                }
+                callback.onResult(result);
+            });
+        }
+    }
+
+    /**
+     * Candidatos válidos: com ID, com perfil de mentor ativo e público, e que não sejam o dono da ideia.
+     */
+    @NonNull
+    static List<User> filtrarCandidatos(@NonNull List<User> users, @Nullable String ownerId) {
+        List<User> candidatos = new ArrayList<>(users.size());
+        for (User u : users) {
+            if (u == null || u.getId() == null) continue;
+            if (u.getId().equals(ownerId)) continue;
+            Mentor mentorData = u.getMentorData();
+            if (mentorData == null || !mentorData.isActivePublic()) continue;
+            candidatos.add(u);
+        }
+        return candidatos;
+    }
+}
@@ -76,7 +76,7 @@ public class ReadinessCalculator {
 
 
     private static boolean isCanvasPreenchido(Ideia ideia) {
-        Map<String, List<PostIt>> canvas = ideia.getPostIts();
+        Map<String, List<PostIt>> canvas = ideia.getTodosPostIts();
         if (canvas == null) return false;
 
         String[] requiredKeys = {
@@ -32,16 +32,13 @@ import com.example.startuppulse.CanvasPagerAdapter;
 import com.example.startuppulse.LocationService;
 import com.example.startuppulse.R;
 import com.example.startuppulse.data.models.Ideia;
-import com.example.startuppulse.data.models.User;
 import com.example.startuppulse.databinding.FragmentCanvasIdeiaBinding;
 import com.example.startuppulse.ui.match.LocationChoiceDialog;
-import com.example.startuppulse.ui.match.MatchCandidatesDialog;
 import com.example.startuppulse.ui.match.MatchLoadingDialog;
 import com.example.startuppulse.ui.match.ReMatchDialog;
 import com.google.android.material.snackbar.Snackbar;
 import com.google.android.material.tabs.TabLayoutMediator;
 
-import java.util.List;
 import java.util.Locale;
 
 import dagger.hilt.android.AndroidEntryPoint;
@@ -204,20 +201,6 @@ public class CanvasIdeiaFragment extends Fragment {
         });
 
 
-        // ------------------------------
-        // LISTA DE MENTORES
-        // ------------------------------
-        viewModel.matchCandidatesEvent.observe(getViewLifecycleOwner(), event -> {
-            List<User> mentores = event.getContentIfNotHandled();
-            if (mentores != null && !mentores.isEmpty()) {
-                new MatchCandidatesDialog(requireContext(), mentores, mentor ->
-                        viewModel.confirmarEscolhaDeMentor(mentor, false)
-                ).show();
-            } else {
-                Log.w(TAG, "Nenhum mentor disponível encontrado.");
-            }
-        });
-
         // ------------------------------
         // TOASTS
         // ------------------------------
@@ -4,7 +4,6 @@ import android.annotation.SuppressLint;
 import android.content.Context;
 import android.location.Location;
 import android.util.Log;
-import android.util.Pair;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -17,28 +16,29 @@ import com.example.startuppulse.R;
 import com.example.startuppulse.data.models.CanvasEtapa;
 import com.example.startuppulse.data.models.MembroEquipe;
 import com.example.startuppulse.common.ResultCallback;
-import com.example.startuppulse.data.models.Mentor;
-import com.example.startuppulse.MentorMatchService;
 import com.example.startuppulse.common.Result;
 import com.example.startuppulse.data.models.Ideia;
 import com.example.startuppulse.data.repositories.IAuthRepository;
 import com.example.startuppulse.data.repositories.IIdeiaRepository;
-import com.example.startuppulse.data.repositories.IMentorRepository;
 import com.example.startuppulse.data.models.PostIt;
 import com.example.startuppulse.data.models.User;
+import com.example.startuppulse.data.models.VotosComunidade;
 import com.example.startuppulse.data.repositories.IUserRepository;
+import com.example.startuppulse.domain.usercase.MatchEngine;
+import com.example.startuppulse.util.AreaMask;
+import com.example.startuppulse.util.CanvasFingerprint;
 import com.example.startuppulse.util.Event;
-import com.google.firebase.firestore.DocumentSnapshot;
-import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.FieldValue;
 import com.google.firebase.firestore.ListenerRegistration;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
-import java.util.Comparator;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
+import java.util.UUID;
 import java.util.regex.MatchResult;
 
 import javax.inject.Inject;
@@ -51,13 +51,19 @@ public class CanvasIdeiaViewModel extends ViewModel {
 
     // --- Repositórios Injetados ---
     private final IIdeiaRepository ideiaRepository;
-    private final IMentorRepository mentorRepository;
     private final IAuthRepository authRepository;
     private final IUserRepository userRepository;
-    private final FirebaseFirestore firestore;
+    private final MatchEngine matchEngine;
 
     private ListenerRegistration ideiaListener;
+    private ListenerRegistration votosListener;
+    // Match em andamento (publicação ou re-match); cancelado por um novo match ou ao sair da tela.
+    private MatchEngine.Execucao matchEmAndamento;
+    // Último agregado dos shards de votos, reaplicado a cada nova versão da ideia.
+    private VotosComunidade votosComunidade;
     private String ideiaId;
+    // Agrupa as edições do canvas em poucos WriteBatch (criada quando a ideia já existe no Firestore).
+    private CanvasWriteCoalescer writeCoalescer;
 
     // --- LiveData para a UI ---
 
@@ -75,6 +81,8 @@ public class CanvasIdeiaViewModel extends ViewModel {
     public final LiveData<Boolean> isLoading = _isLoading;
     private final MutableLiveData<Boolean> _isIaLoading = new MutableLiveData<>(false);
     public final LiveData<Boolean> isIaLoading = _isIaLoading;
+    // true quando a análise da IA já corresponde ao conteúdo atual do canvas (mesma impressão digital).
+    public final LiveData<Boolean> analiseIAAtualizada;
 
     // --- Eventos para Ações Únicas ---
     private final MutableLiveData<Event<String>> _toastEvent = new MutableLiveData<>();
@@ -111,16 +119,10 @@ public class CanvasIdeiaViewModel extends ViewModel {
     private final MutableLiveData<Event<MatchLocationChoiceRequest>> _matchLocationRequest = new MutableLiveData<>();
     public final LiveData<Event<MatchLocationChoiceRequest>> matchLocationRequest = _matchLocationRequest;
 
-    // Evento: lista de candidatos (para UI exibir uma escolha)
-    private final MutableLiveData<Event<List<User>>> _matchCandidatesEvent = new MutableLiveData<>();
-    public final LiveData<Event<List<User>>> matchCandidatesEvent = _matchCandidatesEvent;
-
     // Evento: resultado do match (sucesso/falha) - UI decide mostrar toast/dialog
     private final MutableLiveData<Event<MatchResult>> _matchResultEvent = new MutableLiveData<>();
     public final LiveData<Event<MatchResult>> matchResultEvent = _matchResultEvent;
 
-    private final android.os.Handler handler = new android.os.Handler(android.os.Looper.getMainLooper());
-
     private final List<String> etapasObrigatorias = Arrays.asList(
             CanvasEtapa.CHAVE_PROPOSTA_VALOR, CanvasEtapa.CHAVE_SEGMENTO_CLIENTES,
             CanvasEtapa.CHAVE_CANAIS, CanvasEtapa.CHAVE_RELACIONAMENTO_CLIENTES,
@@ -162,13 +164,13 @@ public class CanvasIdeiaViewModel extends ViewModel {
     }
 
     @Inject
-    public CanvasIdeiaViewModel(IIdeiaRepository ideiaRepository, IMentorRepository mentorRepository, IAuthRepository authRepository, IUserRepository userRepository, FirebaseFirestore firestore) {
+    public CanvasIdeiaViewModel(IIdeiaRepository ideiaRepository, IAuthRepository authRepository, IUserRepository userRepository, MatchEngine matchEngine) {
         this.ideiaRepository = ideiaRepository;
-        this.mentorRepository = mentorRepository;
         this.authRepository = authRepository;
-        this.firestore = firestore;
         this.userRepository = userRepository;
+        this.matchEngine = matchEngine;
         isPublishEnabled = Transformations.map(_ideia, this::isIdeiaValidaParaPublicar);
+        analiseIAAtualizada = Transformations.map(_ideia, CanvasIdeiaViewModel::isAnaliseIAAtualizada);
         _etapas.setValue(new ArrayList<>());
         _isIaLoading.setValue(false);
         _isVoting.setValue(false);
@@ -183,7 +185,13 @@ public class CanvasIdeiaViewModel extends ViewModel {
 
         if (ideiaListener != null) {
             ideiaListener.remove();
+            ideiaListener = null;
         }
+        if (votosListener != null) {
+            votosListener.remove();
+            votosListener = null;
+        }
+        votosComunidade = null;
         _isLoading.setValue(true);
 
         if (ideiaId == null) {
@@ -232,6 +240,11 @@ public class CanvasIdeiaViewModel extends ViewModel {
                 if (result instanceof Result.Success) {
                     Ideia ideiaAtualizada = ((Result.Success<Ideia>) result).data;
                     Log.d(TAG, "listenToIdeia Callback: Sucesso. Ideia recebida com nome = " + (ideiaAtualizada != null ? ideiaAtualizada.getNome() : "nulo"));
+                    if (ideiaAtualizada != null) {
+                        // Reaplica por cima do servidor as edições locais ainda não confirmadas.
+                        ideiaAtualizada = getWriteCoalescer(ideiaId).reconciliar(ideiaAtualizada);
+                        ideiaAtualizada.setVotosComunidade(votosComunidade);
+                    }
                     _ideia.setValue(ideiaAtualizada);
 
                     if (ideiaAtualizada != null) {
@@ -248,6 +261,18 @@ public class CanvasIdeiaViewModel extends ViewModel {
                     _closeScreenEvent.setValue(new Event<>(true));
                 }
             });
+            votosListener = ideiaRepository.listenToVotosComunidade(ideiaId, result -> {
+                if (!(result instanceof Result.Success)) {
+                    Log.w(TAG, "listenToVotosComunidade: erro ao ler os shards de votos.", ((Result.Error<VotosComunidade>) result).error);
+                    return;
+                }
+                votosComunidade = ((Result.Success<VotosComunidade>) result).data;
+                Ideia ideiaAtual = _ideia.getValue();
+                if (ideiaAtual != null) {
+                    ideiaAtual.setVotosComunidade(votosComunidade);
+                    _ideia.setValue(ideiaAtual);
+                }
+            });
         }
     }
 
@@ -269,27 +294,17 @@ public class CanvasIdeiaViewModel extends ViewModel {
             return;
         }
 
-        // Busca o documento do voto específico deste usuário nesta ideia
-        firestore.collection("ideias").document(ideiaAtual.getId())
-                .collection("votosComunidade").document(currentUserId)
-                .get()
-                .addOnCompleteListener(task -> {
-                    if (task.isSuccessful()) {
-                        DocumentSnapshot document = task.getResult();
-                        if (document != null && document.exists()) {
-                            // Voto encontrado, pega o valor
-                            Double votoDouble = document.getDouble("voto");
-                            _userVote.postValue(votoDouble != null ? votoDouble.floatValue() : 0f);
-                        } else {
-                            // Documento não existe = usuário não votou ainda
-                            _userVote.postValue(0f);
-                        }
-                    } else {
-                        // Erro ao buscar o voto (não crítico, assume que não votou)
-                        Log.w(TAG, "Erro ao buscar voto do usuário.", task.getException());
-                        _userVote.postValue(0f);
-                    }
-                });
+        // Índice em memória dos votos do usuário: sem leitura de rede ao abrir a ideia.
+        String ideiaIdAtual = ideiaAtual.getId();
+        ideiaRepository.getMeuVoto(ideiaIdAtual, result -> {
+            if (!ideiaIdAtual.equals(this.ideiaId)) return; // o usuário já abriu outra ideia
+            if (result instanceof Result.Success) {
+                Float voto = ((Result.Success<Float>) result).data;
+                _userVote.postValue(voto != null ? voto : 0f);
+            } else {
+                _userVote.postValue(0f);
+            }
+        });
     }
 
     public void votarNaComunidade(float voto) {
@@ -317,14 +332,12 @@ public class CanvasIdeiaViewModel extends ViewModel {
         authRepository.getUserProfile(currentUserId, userResult -> {
             if (userResult instanceof Result.Success) {
                 User currentUser = ((Result.Success<User>) userResult).data;
-                List<String> userAreas = (currentUser != null && currentUser.getAreasDeInteresse() != null)
-                        ? currentUser.getAreasDeInteresse() : new ArrayList<>();
-                List<String> ideiaAreas = ideiaAtual.getAreasNecessarias() != null
-                        ? ideiaAtual.getAreasNecessarias() : new ArrayList<>();
+                AreaMask userAreas = currentUser != null ? currentUser.getAreasMask() : AreaMask.VAZIA;
+                AreaMask ideiaAreas = ideiaAtual.getAreasNecessariasMask();
 
                 // 2. Calcular Peso
                 int peso = calcularPesoVoto(userAreas, ideiaAreas);
-                Log.d(TAG, "Calculando peso para voto: UserAreas=" + userAreas.size() + ", IdeiaAreas=" + ideiaAreas.size() + " -> Peso=" + peso);
+                Log.d(TAG, "Calculando peso para voto: UserAreas=" + userAreas.tamanho() + ", IdeiaAreas=" + ideiaAreas.tamanho() + " -> Peso=" + peso);
 
 
                 // 3. Chamar o Repositório para salvar
@@ -333,7 +346,7 @@ public class CanvasIdeiaViewModel extends ViewModel {
                     if (saveResult instanceof Result.Success) {
                         _toastEvent.setValue(new Event<>("Voto registrado!"));
                         _userVote.setValue((float) voto); // <<< Atualiza o LiveData do voto do usuário
-                        // A Cloud Function cuidará da média. O listener da ideia pegará a atualização.
+                        // A média vem dos shards: o listener de votos pegará a atualização.
                     } else {
                         Log.e(TAG, "Erro ao salvar voto", ((Result.Error<Void>)saveResult).error);
                         _toastEvent.setValue(new Event<>("Erro ao registrar voto. Tente novamente."));
@@ -348,16 +361,9 @@ public class CanvasIdeiaViewModel extends ViewModel {
         });
     }
 
-    private int calcularPesoVoto(List<String> userAreas, List<String> ideiaAreas) {
-        if (userAreas == null || ideiaAreas == null || userAreas.isEmpty() || ideiaAreas.isEmpty()) {
-            return 1; // Leigo
-        }
-        // Usa conjuntos para eficiência na interseção
-        java.util.Set<String> userAreaSet = new java.util.HashSet<>(userAreas);
-        java.util.Set<String> ideiaAreaSet = new java.util.HashSet<>(ideiaAreas);
-
-        userAreaSet.retainAll(ideiaAreaSet); // Mantém apenas os elementos comuns
-        long commonAreas = userAreaSet.size();
+    private int calcularPesoVoto(@NonNull AreaMask userAreas, @NonNull AreaMask ideiaAreas) {
+        // Áreas em comum = popcount da interseção das máscaras
+        int commonAreas = userAreas.intersecao(ideiaAreas);
 
         if (commonAreas > 1) {
             return 3; // Especialista
@@ -426,22 +432,12 @@ public class CanvasIdeiaViewModel extends ViewModel {
 
 
         PostIt novoPostIt = new PostIt(texto, cor, new Date());
-        // O ID do PostIt pode ser gerado aqui ou no repositório, se necessário
-        // Se o repo gerar, você pode precisar ajustar a lógica se precisar do ID imediatamente.
-        // novoPostIt.setId(UUID.randomUUID().toString()); // Exemplo se precisar gerar aqui
-
-        // Mostra o loading enquanto salva
-        _isLoading.setValue(true);
+        // O ID é a chave do post-it em "postItsPorId.<etapa>"; gerado aqui para a UI otimista.
+        novoPostIt.setId(UUID.randomUUID().toString());
 
-        ideiaRepository.addPostitToIdeia(ideiaAtual.getId(), etapaChave, novoPostIt, result -> {
-            _isLoading.setValue(false); // Esconde o loading
-            if (result instanceof Result.Error) {
-                _toastEvent.postValue(new Event<>("Erro ao adicionar post-it: " + ((Result.Error<Void>)result).error.getMessage()));
-            }
-            // No sucesso, não fazemos nada aqui. O listener do Firestore (listenToIdeia)
-            // que está ativo deve receber a atualização e atualizar o _ideia LiveData,
-            // que por sua vez atualizará a UI.
-        });
+        enfileirarEdicao(ideiaAtual, CanvasWriteCoalescer.Mutacao.campo(
+                caminhoPostIt(etapaChave, novoPostIt.getId()), novoPostIt,
+                ideia -> colocarPostIt(ideia, etapaChave, novoPostIt)));
     }
 
     public void requestEditPostIt(PostIt postIt) {
@@ -473,6 +469,14 @@ public class CanvasIdeiaViewModel extends ViewModel {
         updatedPostIt.setId(originalPostIt.getId()); // Garante que o ID seja o mesmo
         updatedPostIt.setLastModified(new Date());
 
+        if (originalPostIt.getId() != null) {
+            enfileirarEdicao(currentIdeia, CanvasWriteCoalescer.Mutacao.campo(
+                    caminhoPostIt(etapaChave, updatedPostIt.getId()), updatedPostIt,
+                    ideia -> colocarPostIt(ideia, etapaChave, updatedPostIt)));
+            return;
+        }
+
+        // Post-it legado (sem id, ainda não migrado): vai direto pelo repositório.
         _isLoading.setValue(true);
 
         ideiaRepository.updatePostitInIdeia(currentIdeia.getId(), etapaChave, originalPostIt, updatedPostIt, new ResultCallback<Void>() {
@@ -499,30 +503,66 @@ public class CanvasIdeiaViewModel extends ViewModel {
         }
         // --- FIM DA CORREÇÃO ---
 
-        // Atualiza os campos do objeto de ideia atual
-        ideiaAtual.setNome(nome);
-        ideiaAtual.setDescricao(descricao); // Usando o campo 'bio' do novo modelo Mentor/Ideia
-        ideiaAtual.setAreasNecessarias(areas);
+        // Atualiza os campos da ideia atual (UI otimista) e enfileira a gravação.
+        // Ideia nova (ainda sem documento) é criada por saveIdeia dentro de enfileirarEdicao.
+        List<String> areasCopia = areas != null ? new ArrayList<>(areas) : new ArrayList<>();
+        Map<String, Object> campos = new LinkedHashMap<>();
+        campos.put("nome", nome);
+        campos.put("descricao", descricao);
+        campos.put("areasNecessarias", areasCopia);
+        enfileirarEdicao(ideiaAtual, new CanvasWriteCoalescer.Mutacao(campos, ideia -> {
+            ideia.setNome(nome);
+            ideia.setDescricao(descricao);
+            ideia.setAreasNecessarias(new ArrayList<>(areasCopia));
+        }));
+    }
 
-        // Emite o objeto modificado. O LiveData notificará os observers (UI otimista).
+    /**
+     * Aplica a edição na ideia local e a entrega à fila de escrita. Ideia nova (sem listener) é
+     * criada pela própria fila no primeiro envio.
+     */
+    private void enfileirarEdicao(@NonNull Ideia ideiaAtual, @NonNull CanvasWriteCoalescer.Mutacao mutacao) {
+        if (ideiaAtual.getId() == null) {
+            mutacao.aplicacao.aplicar(ideiaAtual);
+            _ideia.setValue(ideiaAtual);
+            return;
+        }
+        getWriteCoalescer(ideiaAtual.getId()).enfileirar(ideiaAtual, mutacao);
         _ideia.setValue(ideiaAtual);
+    }
 
-        // --- CORREÇÃO PRINCIPAL: SALVAR NO DEBOUNCE ---
-        // Agora, também persiste essa mudança no repositório.
-        // O repositório usará 'set' (saveIdeia), que funciona para CRIAR ou ATUALIZAR.
-        ideiaRepository.saveIdeia(ideiaAtual, result -> {
-            if (result instanceof Result.Error) {
-                // Se falhar, registra o erro. O debounce tentará salvar de novo na próxima.
-                Log.e(TAG, "Falha ao salvar (debounce) updateIdeiaBasics", ((Result.Error<Void>) result).error);
-                // _toastEvent.postValue(new Event<>("Falha ao salvar rascunho.")); // Opcional
-            } else if (result instanceof Result.Success) {
-                // Sucesso.
-                // Se a ideia era NOVA (ideiaListener == null), agora ela existe no banco.
-                // Precisamos iniciar o listener para ela.
-                garantirListenerAtivo();
-            }
-        });
-        // --- FIM DA CORREÇÃO ---
+    @NonNull
+    private CanvasWriteCoalescer getWriteCoalescer(@NonNull String id) {
+        if (writeCoalescer == null || !id.equals(writeCoalescer.getIdeiaId())) {
+            if (writeCoalescer != null) writeCoalescer.flush();
+            writeCoalescer = new CanvasWriteCoalescer(ideiaRepository, id, ideiaListener != null, new CanvasWriteCoalescer.Listener() {
+                @Override
+                public void onRollback(@NonNull Ideia ideiaRestaurada, @NonNull Exception erro) {
+                    _ideia.setValue(ideiaRestaurada);
+                    _toastEvent.setValue(new Event<>("Não foi possível salvar suas últimas alterações."));
+                }
+
+                @Override
+                public void onDocumentoCriado() {
+                    garantirListenerAtivo();
+                }
+            });
+        }
+        return writeCoalescer;
+    }
+
+    private static String caminhoPostIt(@NonNull String etapaChave, @NonNull String postItId) {
+        return "postItsPorId." + etapaChave + "." + postItId;
+    }
+
+    private static void colocarPostIt(@NonNull Ideia ideia, @NonNull String etapaChave, @NonNull PostIt postIt) {
+        if (ideia.getPostItsPorId() == null) ideia.setPostItsPorId(new HashMap<>());
+        Map<String, PostIt> daEtapa = ideia.getPostItsPorId().get(etapaChave);
+        if (daEtapa == null) {
+            daEtapa = new HashMap<>();
+            ideia.getPostItsPorId().put(etapaChave, daEtapa);
+        }
+        daEtapa.put(postIt.getId(), postIt);
     }
 
     private void garantirListenerAtivo() {
@@ -542,13 +582,10 @@ public class CanvasIdeiaViewModel extends ViewModel {
         Ideia ideiaAtual = _ideia.getValue();
         if (ideiaAtual == null) return;
 
-        if (ideiaAtual.getEquipe() == null) {
-            ideiaAtual.setEquipe(new ArrayList<>());
-        }
-        ideiaAtual.getEquipe().add(novoMembro);
-
-        // Notifica os observers que a 'Ideia' (e sua lista interna de equipe) foi modificada.
-        _ideia.setValue(ideiaAtual);
+        List<MembroEquipe> equipe = ideiaAtual.getEquipe() != null ? new ArrayList<>(ideiaAtual.getEquipe()) : new ArrayList<>();
+        equipe.add(novoMembro);
+        enfileirarEdicao(ideiaAtual, CanvasWriteCoalescer.Mutacao.campo("equipe", equipe,
+                ideia -> ideia.setEquipe(new ArrayList<>(equipe))));
     }
 
     public void updateMembroEquipe(@NonNull MembroEquipe membroExistente, @NonNull String novoNome, @NonNull String novaFuncao, @NonNull String novoLinkedin) {
@@ -563,8 +600,9 @@ public class CanvasIdeiaViewModel extends ViewModel {
             membroParaAtualizar.setFuncao(novaFuncao);
             membroParaAtualizar.setLinkedinUrl(novoLinkedin);
 
-            // Notifica os observers da mudança.
-            _ideia.setValue(ideiaAtual);
+            List<MembroEquipe> equipe = new ArrayList<>(ideiaAtual.getEquipe());
+            enfileirarEdicao(ideiaAtual, CanvasWriteCoalescer.Mutacao.campo("equipe", equipe,
+                    ideia -> ideia.setEquipe(new ArrayList<>(equipe))));
         }
     }
 
@@ -654,8 +692,7 @@ public class CanvasIdeiaViewModel extends ViewModel {
         Location ideiaLocation = ideiaAtual.getLocalizacao();
         if (ideiaLocation == null && userLocation == null) {
             Log.d(TAG, "Sem localização disponível — buscando por afinidade de áreas.");
-            _matchLoading.postValue(true);
-            buscarMentoresCompativeis(ideiaAtual, null);
+            iniciarMatch(ideiaAtual, null, false);
             return;
         }
 
@@ -673,288 +710,57 @@ public class CanvasIdeiaViewModel extends ViewModel {
 
         Log.d(TAG, "handleMatchLocationChoice: escolha=" + choice + ", iniciarBusca=" + iniciarBusca);
         if (!iniciarBusca) return;
-        _matchLoading.postValue(true);
-        _matchProgressMessage.postValue("Buscando mentores próximos...");
-        buscarMentoresCompativeis(ideiaAtual, chosenLocation);
+        iniciarMatch(ideiaAtual, chosenLocation, false);
     }
 
-    // closeOnSuccess indica se, ao achar/vincular mentor, a tela deve ser fechada (true para fluxo de publicação normal, false para re-match)
-    private void buscarMentoresPorLocalidadePrimeiro(@NonNull Ideia ideia, @Nullable Location baseLocation, boolean closeOnSuccess) {
-        Log.d(TAG, "buscarMentoresPorLocalidadePrimeiro: iniciando. ideia=" + ideia.getId() + " baseLocation=" + (baseLocation==null?"null":(baseLocation.getLatitude()+","+baseLocation.getLongitude())));
-        _matchProgressMessage.setValue("Buscando mentores próximos...");
-
-        // 1) buscar mentores via userRepository (onde isMentor==true)
-        userRepository.getMentores(result -> {
-            if (!(result instanceof Result.Success)) {
-                Log.e(TAG, "buscarMentoresPorLocalidadePrimeiro: erro ao obter mentores do userRepository.", (result instanceof Result.Error) ? ((Result.Error) result).error : null);
-                _matchLoading.setValue(false);
-                _matchResultEvent.postValue(new Event<>(new MatchResult(false, "Erro ao buscar mentores.")));
-                return;
-            }
-
-            List<User> users = ((Result.Success<List<User>>) result).data;
-            if (users == null || users.isEmpty()) {
-                Log.d(TAG, "buscarMentoresPorLocalidadePrimeiro: nenhum usuário mentor retornado.");
-                _matchLoading.setValue(false);
-                publicarIdeiaSemMentor(ideia); // fallback
-                return;
-            }
-
-            // Filtrar: isMentor==true e excluir autor
-            List<User> mentorsFiltered = new ArrayList<>();
-            for (User u : users) {
-                if (u == null) continue;
-                if (!u.isMentor()) continue;
-                if (ideia.getOwnerId() != null && ideia.getOwnerId().equals(u.getId())) continue; // excluir dono
-                // também opcional: checar status do perfil do mentor (ativoPublic)
-                mentorsFiltered.add(u);
-            }
-
-            Log.d(TAG, "buscarMentoresPorLocalidadePrimeiro: candidatos após filtro inicial = " + mentorsFiltered.size());
-
-            if (mentorsFiltered.isEmpty()) {
-                Log.d(TAG, "buscarMentoresPorLocalidadePrimeiro: 0 candidatos após filtro -> publicar sem mentor");
-                _matchLoading.setValue(false);
-                publicarIdeiaSemMentor(ideia);
-                return;
-            }
-
-            // Se baseLocation não é null, priorizar por proximidade: criar lista com distância calculada
-            final List<Pair<User, Double>> candidatesWithDistance = new ArrayList<>();
-            for (User u : mentorsFiltered) {
-                double distMeters = Double.MAX_VALUE;
-                try {
-                    // assume que o mentorData (Mentor) tem latitude/longitude armazenados no User -> user.getMentorData().getLatitude()
-                    if (u.getMentorData() != null && u.getMentorData().getLatitude() != 0 && u.getMentorData().getLongitude() != 0 && baseLocation != null) {
-                        float[] results = new float[1];
-                        Location.distanceBetween(baseLocation.getLatitude(), baseLocation.getLongitude(),
-                                u.getMentorData().getLatitude(), u.getMentorData().getLongitude(), results);
-                        distMeters = results[0];
-                    }
-                } catch (Exception e) {
-                    Log.w(TAG, "buscarMentoresPorLocalidadePrimeiro: erro ao calcular distancia para userId=" + u.getId() + " -> " + e.getMessage());
-                }
-                candidatesWithDistance.add(new Pair<>(u, distMeters));
-            }
-
-            // Ordena por distância crescente
-            Collections.sort(candidatesWithDistance, Comparator.comparingDouble(p -> p.second));
-
-            // Defina um raio inicial (ex.: 50km = 50_000m). Se nenhum dentro do raio, aumenta para 200km etc.
-            final double INITIAL_RADIUS = 50_000; // metros
-            final double WIDE_RADIUS = 200_000; // metros
-
-            List<User> withinRadius = new ArrayList<>();
-            for (Pair<User, Double> p : candidatesWithDistance) {
-                if (p.second <= INITIAL_RADIUS) withinRadius.add(p.first);
-            }
-            if (withinRadius.isEmpty()) {
-                for (Pair<User, Double> p : candidatesWithDistance) {
-                    if (p.second <= WIDE_RADIUS) withinRadius.add(p.first);
-                }
-            }
-            // Se ainda vazio, considerar todos (busca global)
-            if (withinRadius.isEmpty()) {
-                Log.d(TAG, "buscarMentoresPorLocalidadePrimeiro: nenhum mentor dentro do raio. Considerando todos os candidatos para ordenação por afinidade.");
-                for (Pair<User, Double> p : candidatesWithDistance) withinRadius.add(p.first);
-            } else {
-                Log.d(TAG, "buscarMentoresPorLocalidadePrimeiro: candidatos dentro do raio = " + withinRadius.size());
-            }
+    /**
+     * Roda o match no {@link MatchEngine} e aplica a decisão: vincula o mentor escolhido ou publica
+     * sem mentor. Um novo match cancela o que estiver em andamento; no re-match a tela fica aberta.
+     */
+    private void iniciarMatch(@NonNull Ideia ideia, @Nullable Location location, boolean isRematch) {
+        cancelarMatchEmAndamento();
+        _matchLoading.setValue(true);
 
-            // Agora, se há mais de 1 candidato -> ordenar por afinidade de áreas (intersecção)
-            if (withinRadius.size() > 1) {
-                _matchProgressMessage.postValue("Ordenando por afinidade de áreas...");
-                // calcular afinidade: quantas áreas em comum entre mentor.getAreasDeInteresse() e ideia.getAreasNecessarias()
-                withinRadius.sort((u1, u2) -> {
-                    int score1 = calcularAfinidade(u1.getAreasDeInteresse(), ideia.getAreasNecessarias());
-                    int score2 = calcularAfinidade(u2.getAreasDeInteresse(), ideia.getAreasNecessarias());
-                    // maior afinidade primeiro; se empate, manter ordem anterior (que é por proximidade)
-                    int cmp = Integer.compare(score2, score1);
-                    return (cmp != 0) ? cmp : 0;
-                });
+        Location referencia = location != null ? location : getIdeiaLocation(ideia);
+        MatchEngine.Pedido pedido = new MatchEngine.Pedido(
+                ideia.getAreasNecessarias(),
+                ideia.getOwnerId(),
+                referencia != null ? referencia.getLatitude() : null,
+                referencia != null ? referencia.getLongitude() : null);
 
-                Log.d(TAG, "buscarMentoresPorLocalidadePrimeiro: ordenado por afinidade.");
-                // Se houver mais de um candidato, enviar evento para UI permitir escolher
-                if (withinRadius.size() > 1) {
-                    Log.d(TAG, "buscarMentoresPorLocalidadePrimeiro: disparando evento de escolha com " + withinRadius.size() + " candidatos.");
-                    _matchCandidatesEvent.postValue(new Event<>(withinRadius));
-                    _matchLoading.setValue(false); // UI exibirá escolha e continuará o fluxo
-                    return;
-                }
-            }
-
-            // Se chegou aqui e há exatamente 1 candidato (ou consideramos todos -> 1),
-            // vincular automaticamente.
-            if (!withinRadius.isEmpty()) {
-                User escolhido = withinRadius.get(0);
-                Log.d(TAG, "buscarMentoresPorLocalidadePrimeiro: mentor escolhido automaticamente -> " + escolhido.getId());
-                // chama vincular — passa closeOnSuccess para decidir se fecha a tela
-                vincularMelhorMentor(ideia, escolhido, "Auto-match (localidade primeiro)");
-                return;
+        matchEmAndamento = matchEngine.iniciar(pedido, new MatchEngine.Ouvinte() {
+            @Override
+            public void onProgresso(@NonNull MatchEngine.Etapa etapa, @NonNull String mensagem) {
+                _matchProgressMessage.setValue(mensagem);
+                if (isRematch) _rematchMessage.setValue(mensagem);
             }
 
-            // Safety fallback
-            Log.d(TAG, "buscarMentoresPorLocalidadePrimeiro: fluxo inesperado, publicando sem mentor.");
-            _matchLoading.setValue(false);
-            publicarIdeiaSemMentor(ideia);
-        });
-    }
-
-    // --- Helper: calcular afinidade entre duas listas de areas ---
-    private int calcularAfinidade(@Nullable List<String> mentorAreas, @Nullable List<String> ideiaAreas) {
-        if (mentorAreas == null || ideiaAreas == null || mentorAreas.isEmpty() || ideiaAreas.isEmpty()) return 0;
-        java.util.Set<String> s1 = new java.util.HashSet<>();
-        for (String s : mentorAreas) if (s != null) s1.add(s.trim().toLowerCase());
-        int common = 0;
-        for (String s : ideiaAreas) {
-            if (s != null && s1.contains(s.trim().toLowerCase())) common++;
-        }
-        return common;
-    }
-
-    private void buscarMentoresCompativeis(@NonNull Ideia ideia, @Nullable Location location) {
-        Log.d(TAG, "Iniciando busca de mentores compatíveis...");
-
-        _matchLoading.postValue(true);
-        _matchProgressMessage.postValue("Buscando mentores próximos à localização...");
-
-        List<String> areasDaIdeia = ideia.getAreasNecessarias() != null ?
-                ideia.getAreasNecessarias() : new ArrayList<>();
-
-        // 🔹 1. Busca todos os mentores registrados no Firestore
-        mentorRepository.getAllMentores(new ResultCallback<List<User>>() {
             @Override
-            public void onResult(Result<List<User>> result) {
-                if (result instanceof Result.Success) {
-                    List<User> mentores = ((Result.Success<List<User>>) result).data;
-                    Log.d(TAG, "Total de mentores retornados: " + mentores.size());
-
-                    if (mentores == null || mentores.isEmpty()) {
-                        Log.w(TAG, "Nenhum mentor encontrado no Firestore.");
-                        publicarIdeiaSemMentor(ideia);
-                        return;
-                    }
+            public void onResult(Result<MatchEngine.Decisao> result) {
+                matchEmAndamento = null;
+                if (isRematch) _isRematching.setValue(false);
 
-                    // 🔹 Filtra mentores válidos (ativos, públicos e não o dono da ideia)
-                    List<User> mentoresValidos = new ArrayList<>();
-                    for (User user : mentores) {
-                        if (user == null) continue;
-                        if (!user.isMentor()) continue;
-                        if (ideia.getOwnerId() != null && ideia.getOwnerId().equals(user.getId())) continue;
-
-                        Mentor mentorData = user.getMentorData();
-                        if (mentorData == null) continue;
-                        if (!mentorData.isActivePublic()) continue; // apenas mentores ativos
-
-                        mentoresValidos.add(user);
-                    }
-
-                    if (mentoresValidos.isEmpty()) {
-                        Log.w(TAG, "Nenhum mentor ativo e público disponível.");
-                        publicarIdeiaSemMentor(ideia);
-                        return;
-                    }
-
-                    // 🔹 Ordena por afinidade + proximidade
-                    List<User> ordenados = MentorMatchService.ordenarPorAfinidadeEProximidade(
-                            mentoresValidos,
-                            areasDaIdeia,
-                            location != null ? location : getIdeiaLocation(ideia)
-                    );
-
-                    if (ordenados.isEmpty()) {
-                        Log.w(TAG, "Nenhum mentor qualificado após ordenação.");
-                        publicarIdeiaSemMentor(ideia);
+                if (result instanceof Result.Success) {
+                    MatchEngine.Decisao decisao = ((Result.Success<MatchEngine.Decisao>) result).data;
+                    if (decisao.mentor != null) {
+                        vincularMelhorMentor(ideia, decisao.mentor, decisao.camada.descricao);
                         return;
                     }
-
-                    // 🔹 Escolhe o melhor candidato
-                    User melhor = ordenados.get(0);
-
-                    double distancia = MentorMatchService.calcularDistancia(
-                            melhor,
-                            location != null ? location : getIdeiaLocation(ideia)
-                    );
-
-                    String nomeMentor = (melhor.getNome() != null) ? melhor.getNome() : melhor.getId();
-                    if (distancia == -1) {
-                        Log.d(TAG, "Distância não calculada (mentor ou localização nula).");
-                    } else {
-                        Log.d(TAG, "Melhor mentor: " + nomeMentor + " (distância: " + String.format("%.2f", distancia) + "m)");
-                    }
-
-                    if (distancia < 100000) { // dentro de 100km
-                        vincularMelhorMentor(ideia, melhor, "Mentor encontrado por proximidade.");
-                    } else {
-                        Log.d(TAG, "Nenhum mentor suficientemente próximo. Tentando busca por áreas...");
-                        buscarMentoresPorArea(ideia, areasDaIdeia, location);
-                    }
-
-                } else if (result instanceof Result.Error) {
-                    Exception e = ((Result.Error<?>) result).error;
-                    Log.e(TAG, "Erro ao buscar mentores: " + (e != null ? e.getMessage() : "erro desconhecido"));
-                    publicarIdeiaSemMentor(ideia);
-                }
-            }
-        });
-    }
-
-
-
-    /**
-     * Busca mentores por área (fallback quando não há proximidade).
-     */
-    private void buscarMentoresPorArea(@NonNull Ideia ideia, @NonNull List<String> areas, @Nullable Location location) {
-        _matchProgressMessage.postValue("Buscando mentores por áreas de interesse...");
-
-        mentorRepository.findMentoresByAreas(areas, ideia.getOwnerId(), result -> {
-            if (result instanceof Result.Success && !((Result.Success<List<Mentor>>) result).data.isEmpty()) {
-                List<Mentor> mentores = ((Result.Success<List<Mentor>>) result).data;
-
-                // 🔹 Converte cada Mentor para User (mantendo compatibilidade com o serviço de matching)
-                List<User> users = new ArrayList<>();
-                for (Mentor m : mentores) {
-                    if (m == null) continue;
-
-                    User u = new User();
-                    u.setId(m.getId()); // mesmo ID do mentor
-                    u.setMentorData(m); // anexa dados de localização, disponibilidade etc.
-                    users.add(u);
-                }
-
-                if (users.isEmpty()) {
-                    Log.w(TAG, "Nenhum mentor convertido para usuário. Abortando vinculação.");
-                    publicarIdeiaSemMentor(ideia);
-                    return;
-                }
-
-                // 🔹 Ordena por afinidade + proximidade
-                List<User> ordenados = MentorMatchService.ordenarPorAfinidadeEProximidade(
-                        users, areas, location
-                );
-
-                if (ordenados.isEmpty()) {
-                    Log.w(TAG, "Nenhum mentor qualificado após ordenação. Publicando sem mentor.");
-                    publicarIdeiaSemMentor(ideia);
-                    return;
+                    Log.d(TAG, "iniciarMatch: nenhum mentor disponível.");
+                } else {
+                    Log.e(TAG, "iniciarMatch: erro ao buscar mentores.", ((Result.Error<MatchEngine.Decisao>) result).error);
                 }
-
-                // 🔹 Escolhe o melhor candidato (primeiro da lista)
-                User melhor = ordenados.get(0);
-                String nomeMentor = (melhor.getNome() != null) ? melhor.getNome() : melhor.getId();
-
-                Log.d(TAG, "Mentor selecionado por área: " + nomeMentor);
-
-                // 🔹 Vincula e prossegue com fluxo normal
-                vincularMelhorMentor(ideia, melhor, "Mentor encontrado por área.");
-
-            } else {
-                Log.w(TAG, "Nenhum mentor encontrado por área. Publicando sem mentor.");
                 publicarIdeiaSemMentor(ideia);
             }
         });
     }
 
+    private void cancelarMatchEmAndamento() {
+        if (matchEmAndamento != null) {
+            matchEmAndamento.cancelar();
+            matchEmAndamento = null;
+        }
+    }
 
     /**
      * Recupera a localização armazenada na própria ideia.
@@ -970,141 +776,39 @@ public class CanvasIdeiaViewModel extends ViewModel {
 
 
     /**
-     * Encapsula a busca de mentores compatíveis (versão para re-match ou match inicial)
-     */
-    private void buscarMentoresCompativeis(@Nullable Location location, boolean isRematch) {
-        Ideia ideiaAtual = _ideia.getValue();
-        if (ideiaAtual == null) return;
-
-        _matchProgressMessage.postValue("Buscando mentores...");
-
-        List<String> areasDaIdeia = Objects.requireNonNull(ideia.getValue()).getAreasNecessarias() != null ?
-                ideia.getValue().getAreasNecessarias() : new ArrayList<>();
-
-
-        mentorRepository.getAllMentores(new ResultCallback<List<User>>() {
-            @Override
-            public void onResult(Result<List<User>> result) {
-                if (result instanceof Result.Success) {
-                    List<User> mentores = ((Result.Success<List<User>>) result).data;
-
-                    if (mentores == null || mentores.isEmpty()) {
-                        Log.w(TAG, "Nenhum mentor encontrado no Firestore.");
-                        publicarIdeiaSemMentor(Objects.requireNonNull(ideia.getValue()));
-                        return;
-                    }
-
-                    List<User> ordenados = MentorMatchService.ordenarPorAfinidadeEProximidade(
-                            mentores, areasDaIdeia, location != null ? location : getIdeiaLocation(Objects.requireNonNull(ideia.getValue()))
-                    );
-
-                    if (ordenados.isEmpty()) {
-                        publicarIdeiaSemMentor(Objects.requireNonNull(ideia.getValue()));
-                        return;
-                    }
-
-                    User melhor = ordenados.get(0);
-                    double distancia = MentorMatchService.calcularDistancia(melhor, location);
-
-                    if (distancia < 100000) {
-                        vincularMelhorMentor(ideia.getValue(), melhor, "Mentor encontrado por proximidade.");
-                    } else {
-                        buscarMentoresPorArea(ideia.getValue(), areasDaIdeia, location);
-                    }
-
-                } else if (result instanceof Result.Error) {
-                    Exception e = ((Result.Error<?>) result).error;
-                    Log.e(TAG, "Erro ao buscar mentores: " + (e != null ? e.getMessage() : "erro desconhecido"));
-                    publicarIdeiaSemMentor(Objects.requireNonNull(ideia.getValue()));
-                }
-            }
-        });
-    }
-
-    /**
-     * Salva a ideia com a localização atual (se houver) e inicia o processo de match.
+     * Inicia a publicação com a localização atual (se houver): a ideia não é salva aqui, pois o
+     * commit de publicação (após o match) grava tudo de uma vez. A cota é lida em paralelo ao match.
      */
     public void publicarIdeiaComLocalizacaoAtualizada(@NonNull Context context, @NonNull Ideia ideia, @Nullable Location location) {
         _isLoading.postValue(true);
         _matchProgressMessage.postValue("Publicando ideia...");
 
-        Log.d(TAG, "Salvando ideia com localização antes do match...");
-
-        ideiaRepository.saveIdeia(ideia, result -> {
-            if (result instanceof Result.Success) {
-                Log.d(TAG, "Ideia salva com sucesso. Iniciando busca de mentores...");
-                _matchProgressMessage.postValue("Buscando mentores próximos...");
-
-                _matchProgressMessage.postValue("Selecionando localização...");
-                _matchLocationRequest.postValue(new Event<>(new MatchLocationChoiceRequest(
-                        ideia.getLocalizacao(), // localização da ideia, se houver
-                        location                // localização atual do usuário, se houver
-                )));
-
-            } else {
-                Exception e = ((Result.Error<?>) result).error;
-                Log.e(TAG, "Erro ao salvar ideia: " + (e != null ? e.getMessage() : "erro desconhecido"));
-                _toastEvent.postValue(new Event<>("Falha ao salvar a ideia antes da publicação."));
-                _isLoading.postValue(false);
-            }
-        });
-    }
-
-
-
-    /**
-     * Vincula um mentor à ideia e controla a UI conforme o tipo de match.
-     */
-    private void vincularMentor(Ideia ideia, User mentor, boolean isRematch) {
-        ideia.setMentorId(mentor.getId());
-        ideia.setStatus(Ideia.Status.EM_AVALIACAO);
-
-        ideiaRepository.publicarIdeia(ideia.getId(), mentor.getId(), result -> {
-            _isLoading.postValue(false);
-            _isRematching.postValue(false);
-
-            if (result instanceof Result.Success) {
-                _toastEvent.postValue(new Event<>("Mentor vinculado com sucesso: " + mentor.getNome()));
-
-                if (!isRematch) {
-                    // Match inicial: fecha a tela
-                    _closeScreenEvent.postValue(new Event<>(true));
-                }
-            } else {
-                _toastEvent.postValue(new Event<>("Erro ao vincular o mentor."));
-            }
-        });
+        ideiaRepository.precarregarCotaPublicacao();
+
+        // A localização entra como edição do canvas: sobrevive a eventos do listener durante o match
+        // e vai junto no commit de publicação.
+        Double latitude = ideia.getLatitude();
+        Double longitude = ideia.getLongitude();
+        String localizacaoTexto = ideia.getLocalizacaoTexto();
+        Map<String, Object> campos = new LinkedHashMap<>();
+        campos.put("latitude", latitude);
+        campos.put("longitude", longitude);
+        campos.put("localizacaoTexto", localizacaoTexto);
+        enfileirarEdicao(ideia, new CanvasWriteCoalescer.Mutacao(campos, i -> {
+            i.setLatitude(latitude);
+            i.setLongitude(longitude);
+            i.setLocalizacaoTexto(localizacaoTexto);
+        }));
+
+        Log.d(TAG, "Publicação iniciada. Selecionando localização para o match...");
+        _matchProgressMessage.postValue("Selecionando localização...");
+        _matchLocationRequest.postValue(new Event<>(new MatchLocationChoiceRequest(
+                ideia.getLocalizacao(), // localização da ideia, se houver
+                location                // localização atual do usuário, se houver
+        )));
     }
 
 
-    private void buscarTodosOsMentores(@NonNull Ideia ideia, @Nullable Location location, @NonNull List<String> areasDaIdeia) {
-        _matchProgressMessage.postValue("Buscando mentores disponíveis...");
-        Log.d(TAG, "buscarTodosOsMentores: buscando sem filtro de área...");
-
-        userRepository.getMentores(result -> {
-            if (result instanceof Result.Success) {
-                List<User> mentores = ((Result.Success<List<User>>) result).data;
-                List<User> candidatos = new ArrayList<>();
-
-                for (User u : mentores) {
-                    if (u == null || !u.isMentor()) continue;
-                    if (ideia.getOwnerId() != null && ideia.getOwnerId().equals(u.getId())) continue;
-                    candidatos.add(u);
-                }
-
-                if (!candidatos.isEmpty()) {
-                    List<User> ordenados = MentorMatchService.ordenarPorAfinidadeEProximidade(candidatos, areasDaIdeia, location);
-                    _matchCandidatesEvent.postValue(new Event<>(ordenados));
-                    _matchProgressMessage.postValue("Mentores sugeridos por proximidade.");
-                    _matchLoading.postValue(false);
-                    return;
-                }
-            }
-
-            Log.w(TAG, "Nenhum mentor encontrado. Publicando sem mentor.");
-            publicarIdeiaSemMentor(ideia);
-        });
-    }
 
     private void vincularMelhorMentor(Ideia ideia, @NonNull User userMentor, @NonNull String origemLog) {
         Log.d(TAG, "vincularMelhorMentor: tentativa de vincular userMentorId=" + userMentor.getId() + " origem=" + origemLog);
@@ -1114,14 +818,14 @@ public class CanvasIdeiaViewModel extends ViewModel {
             return;
         }
 
-        ideia.setMentorId(userMentor.getId());
-        ideia.setStatus(Ideia.Status.EM_AVALIACAO);
+        // O status e o mentor locais só mudam quando o commit é confirmado (repositório/listener).
+        boolean rascunho = ideia.getStatus() == Ideia.Status.RASCUNHO;
 
         // show progress
         _matchLoading.setValue(true);
         _matchProgressMessage.setValue("Vinculando mentor...");
 
-        ideiaRepository.publicarIdeia(ideia.getId(), userMentor.getId(), result -> {
+        publicarOuVincularMentor(ideia, rascunho, userMentor.getId(), result -> {
             _matchLoading.postValue(false);
             if (result instanceof Result.Success) {
                 Log.i(TAG, "vincularMelhorMentor: sucesso ao vincular mentor " + userMentor.getId());
@@ -1131,7 +835,7 @@ public class CanvasIdeiaViewModel extends ViewModel {
             } else {
                 Exception e = ((Result.Error<Void>) result).error;
                 Log.e(TAG, "vincularMelhorMentor: erro ao vincular mentor -> " + (e != null ? e.getMessage() : "null"));
-                _matchResultEvent.postValue(new Event<>(new MatchResult(false, "Erro ao vincular mentor.")));
+                _matchResultEvent.postValue(new Event<>(new MatchResult(false, mensagemErroPublicacao(e, "Erro ao vincular mentor."))));
             }
         });
     }
@@ -1141,22 +845,40 @@ public class CanvasIdeiaViewModel extends ViewModel {
      * Isso permite que o usuário procure um mentor mais tarde.
      */
     private void publicarIdeiaSemMentor(Ideia ideia) {
-        ideia.setStatus(Ideia.Status.EM_AVALIACAO);
-        ideia.setMentorId(null);
+        boolean rascunho = ideia.getStatus() == Ideia.Status.RASCUNHO;
 
         _matchProgressMessage.postValue("Publicando ideia sem mentor...");
         Log.d(TAG, "publicarIdeiaSemMentor: Publicando...");
 
-        ideiaRepository.publicarIdeia(ideia.getId(), null, result -> {
+        publicarOuVincularMentor(ideia, rascunho, null, result -> {
             _matchLoading.postValue(false);
             if (result instanceof Result.Success) {
                 _toastEvent.postValue(new Event<>("Ideia publicada! Nenhum mentor encontrado."));
             } else {
-                _toastEvent.postValue(new Event<>("Erro ao publicar ideia."));
+                _toastEvent.postValue(new Event<>(mensagemErroPublicacao(((Result.Error<Void>) result).error, "Erro ao publicar ideia.")));
             }
         });
     }
 
+    /**
+     * Rascunhos passam pelo commit único de publicação (ideia + status + mentor + cota);
+     * ideias já publicadas apenas trocam o mentor, sem consumir a cota.
+     */
+    private void publicarOuVincularMentor(@NonNull Ideia ideia, boolean rascunho, @Nullable String mentorId, @NonNull ResultCallback<Void> callback) {
+        if (rascunho) {
+            ideiaRepository.publicarIdeia(ideia, mentorId, callback);
+        } else {
+            ideiaRepository.vincularMentorIdeiaPublicada(ideia.getId(), mentorId, callback);
+        }
+    }
+
+    /**
+     * O limite de publicação vem como IllegalStateException com a mensagem pronta para o usuário.
+     */
+    private static String mensagemErroPublicacao(@Nullable Exception e, @NonNull String padrao) {
+        return (e instanceof IllegalStateException && e.getMessage() != null) ? e.getMessage() : padrao;
+    }
+
     /**
      * Verifica se o usuário atualmente logado é o mentor designado para a ideia carregada.
      * @return true se o usuário for o mentor, false caso contrário.
@@ -1170,6 +892,7 @@ public class CanvasIdeiaViewModel extends ViewModel {
     // --- Ações de UI ---
 
     public void saveAndFinish() {
+        if (writeCoalescer != null) writeCoalescer.flush();
         Ideia ideiaAtual = _ideia.getValue();
         if (ideiaAtual == null) {
             _closeScreenEvent.setValue(new Event<>(true));
@@ -1227,6 +950,19 @@ public class CanvasIdeiaViewModel extends ViewModel {
             return;
         }
 
+        String postItId = postItToDelete.getId();
+        if (postItId != null) {
+            enfileirarEdicao(currentIdeia, CanvasWriteCoalescer.Mutacao.campo(
+                    caminhoPostIt(etapaChave, postItId), FieldValue.delete(),
+                    ideia -> {
+                        if (ideia.getPostItsPorId() != null && ideia.getPostItsPorId().get(etapaChave) != null) {
+                            ideia.getPostItsPorId().get(etapaChave).remove(postItId);
+                        }
+                    }));
+            return;
+        }
+
+        // Post-it legado (sem id, ainda não migrado): vai direto pelo repositório.
         _isLoading.setValue(true);
 
         ideiaRepository.deletePostitFromIdeia(currentIdeia.getId(), etapaChave, postItToDelete, new ResultCallback<Void>() {
@@ -1273,6 +1009,7 @@ public class CanvasIdeiaViewModel extends ViewModel {
      * Útil antes de ações críticas como 'publicar' ou 'solicitar IA'.
      */
     private void salvarCanvasAtual() {
+        if (writeCoalescer != null) writeCoalescer.flush();
         Ideia ideiaAtual = _ideia.getValue();
         if (ideiaAtual == null) return;
 
@@ -1301,17 +1038,31 @@ public class CanvasIdeiaViewModel extends ViewModel {
             return;
         }
 
+        Ideia ideiaAtual = _ideia.getValue();
+        if (ideiaAtual == null) {
+            _toastEvent.setValue(new Event<>("Erro: ideia ainda não carregada."));
+            return;
+        }
+        if (ideiaAtual.getId() == null) ideiaAtual.setId(this.ideiaId);
+
+        // Canvas igual ao da última análise: nada a salvar nem a pedir.
+        if (isAnaliseIAAtualizada(ideiaAtual)) {
+            _toastEvent.setValue(new Event<>("A análise da IA já está atualizada para este canvas."));
+            return;
+        }
+
         // Garante que os dados mais recentes foram salvos antes de analisar
-        // <<< CORREÇÃO 3 (Continuação): Agora este método existe
         salvarCanvasAtual();
 
         _isIaLoading.setValue(true); // <<< CORREÇÃO 2 (Continuação): Usa o LiveData correto
 
-        ideiaRepository.solicitarAnaliseIA(this.ideiaId, result -> {
+        // O repositório não chama a IA se o canvas não mudou desde a última análise.
+        ideiaRepository.solicitarAnaliseIA(ideiaAtual, result -> {
             _isIaLoading.setValue(false); // <<< CORREÇÃO 2 (Continuação): Usa o LiveData correto
 
             if (result instanceof Result.Success) {
-                _toastEvent.setValue(new Event<>("Análise da IA solicitada! Os resultados aparecerão em breve."));
+                String mensagem = ((Result.Success<String>) result).data;
+                _toastEvent.setValue(new Event<>(mensagem != null ? mensagem : "Análise da IA solicitada! Os resultados aparecerão em breve."));
                 // O listener 'listenToIdeia' (que já existe no seu loadIdeia)
                 // irá automaticamente capturar a atualização no campo 'avaliacaoIA'
                 // e atualizar o LiveData '_ideia'.
@@ -1336,6 +1087,11 @@ public class CanvasIdeiaViewModel extends ViewModel {
         });
     }
 
+    private static boolean isAnaliseIAAtualizada(@Nullable Ideia ideia) {
+        return ideia != null && ideia.getAvaliacaoIA() != null
+                && CanvasFingerprint.of(ideia).equals(ideia.getAvaliacaoIAFingerprint());
+    }
+
     public void confirmarEscolhaDeMentor(@NonNull User userMentor, boolean fecharTela) {
         Ideia ideiaAtual = _ideia.getValue();
         if (ideiaAtual == null) {
@@ -1353,18 +1109,19 @@ public class CanvasIdeiaViewModel extends ViewModel {
             return;
         }
 
-        ideiaAtual.setMentorId(userMentor.getId());
-        ideiaAtual.setStatus(Ideia.Status.EM_AVALIACAO);
+        // O status e o mentor locais só mudam quando o commit é confirmado (repositório/listener).
+        boolean rascunho = ideiaAtual.getStatus() == Ideia.Status.RASCUNHO;
 
-        ideiaRepository.publicarIdeia(ideiaAtual.getId(), userMentor.getId(), result -> {
+        publicarOuVincularMentor(ideiaAtual, rascunho, userMentor.getId(), result -> {
             _matchLoading.postValue(false);
             if (result instanceof Result.Success) {
                 Log.i(TAG, "Mentor vinculado com sucesso: " + userMentor.getNome());
                 _toastEvent.postValue(new Event<>("Mentor encontrado: " + userMentor.getNome()));
                 if (fecharTela) _closeScreenEvent.postValue(new Event<>(true));
             } else {
-                Log.e(TAG, "Erro ao vincular mentor.", ((Result.Error<Void>) result).error);
-                _toastEvent.postValue(new Event<>("Erro ao vincular o mentor. Tente novamente."));
+                Exception e = ((Result.Error<Void>) result).error;
+                Log.e(TAG, "Erro ao vincular mentor.", e);
+                _toastEvent.postValue(new Event<>(mensagemErroPublicacao(e, "Erro ao vincular o mentor. Tente novamente.")));
             }
         });
     }
@@ -1373,17 +1130,15 @@ public class CanvasIdeiaViewModel extends ViewModel {
      * Inicia o processo de re-match de mentor sem fechar a tela.
      */
     public void iniciarReMatch(@NonNull Context context, @Nullable Location location) {
-        Log.d(TAG, "Iniciando re-match...");
-        _isRematching.postValue(true);
-        _rematchMessage.postValue("Buscando novos mentores compatíveis...");
+        Ideia ideiaAtual = _ideia.getValue();
+        if (ideiaAtual == null) return;
 
-        // Simula progressão visual
-        handler.postDelayed(() -> _rematchMessage.postValue("Analisando áreas de atuação..."), 2000);
-        handler.postDelayed(() -> _rematchMessage.postValue("Avaliando proximidade geográfica..."), 4000);
-        handler.postDelayed(() -> _rematchMessage.postValue("Finalizando correspondência..."), 6000);
+        Log.d(TAG, "Iniciando re-match...");
+        _isRematching.setValue(true);
+        _rematchMessage.setValue("Buscando novos mentores compatíveis...");
 
-        // Chama o mesmo método de busca, mas sem fechar a tela no final
-        buscarMentoresCompativeis(location, true);
+        // O progresso de cada etapa do match chega em rematchMessage
+        iniciarMatch(ideiaAtual, location, true);
     }
 
     /**
@@ -1391,6 +1146,8 @@ public class CanvasIdeiaViewModel extends ViewModel {
      */
     public void cancelarReMatch() {
         Log.d(TAG, "Re-match cancelado pelo usuário.");
+        cancelarMatchEmAndamento();
+        _matchLoading.setValue(false);
         _isRematching.postValue(false);
         _rematchMessage.postValue("Busca cancelada.");
     }
@@ -1399,9 +1156,17 @@ public class CanvasIdeiaViewModel extends ViewModel {
     @Override
     protected void onCleared() {
         super.onCleared();
+        cancelarMatchEmAndamento();
+        // Envia o que ainda estiver na fila de escrita antes de sair.
+        if (writeCoalescer != null) {
+            writeCoalescer.flush();
+        }
         // Garante que o listener seja removido para evitar memory leaks
         if (ideiaListener != null) {
             ideiaListener.remove();
         }
+        if (votosListener != null) {
+            votosListener.remove();
+        }
     }
 }
\ No newline at end of file
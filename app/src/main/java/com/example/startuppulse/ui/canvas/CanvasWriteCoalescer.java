@@ -0,0 +1,219 @@
+package com.example.startuppulse.ui.canvas;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.startuppulse.common.Result;
+import com.example.startuppulse.data.models.Ideia;
+import com.example.startuppulse.data.models.IdeiaSummary;
+import com.example.startuppulse.data.repositories.IIdeiaRepository;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fila de escrita das edições do canvas de uma ideia.
+ *
+ * Cada edição (post-it, capa, equipe) vira uma {@link Mutacao}: ela é aplicada na hora sobre a
+ * {@link Ideia} local (UI otimista) e enfileirada. Depois de {@link #DEBOUNCE_MS} sem novas edições,
+ * as mutações pendentes são fundidas por caminho de campo (a última vence) e enviadas num único
+ * WriteBatch via {@link IIdeiaRepository#salvarAlteracoesCanvas}. Há no máximo um envio em andamento.
+ *
+ * Reconciliação: quando chega um evento do listener, {@link #reconciliar} reaplica sobre a ideia do
+ * servidor as mutações que ainda não foram confirmadas. Em caso de falha, as mutações do envio são
+ * descartadas e a ideia é relida do repositório (mais as que continuam pendentes) para desfazer a UI.
+ *
+ * Ideia nova: enquanto o documento não existe não há o que atualizar, então o primeiro envio cria a
+ * ideia inteira com {@link IIdeiaRepository#saveIdeia} (uma única vez) e os seguintes são updates.
+ *
+ * Deve ser usado apenas na main thread.
+ */
+class CanvasWriteCoalescer {
+
+    private static final String TAG = "CanvasWriteCoalescer";
+    static final long DEBOUNCE_MS = 800;
+
+    /**
+     * Uma edição do canvas: os campos a gravar (caminhos com ponto, ex. "postItsPorId.CANAIS.<id>")
+     * e como aplicá-la sobre a ideia local.
+     */
+    static final class Mutacao {
+        interface Aplicacao {
+            void aplicar(@NonNull Ideia ideia);
+        }
+
+        final Map<String, Object> campos;
+        final Aplicacao aplicacao;
+
+        Mutacao(@NonNull Map<String, Object> campos, @NonNull Aplicacao aplicacao) {
+            this.campos = campos;
+            this.aplicacao = aplicacao;
+        }
+
+        static Mutacao campo(@NonNull String caminho, @Nullable Object valor, @NonNull Aplicacao aplicacao) {
+            Map<String, Object> campos = new LinkedHashMap<>();
+            campos.put(caminho, valor);
+            return new Mutacao(campos, aplicacao);
+        }
+    }
+
+    /**
+     * Recebe a ideia a ser exibida após um rollback e o erro que o causou.
+     */
+    interface Listener {
+        void onRollback(@NonNull Ideia ideiaRestaurada, @NonNull Exception erro);
+
+        /** O documento da ideia nova foi criado no Firestore. */
+        void onDocumentoCriado();
+    }
+
+    private final IIdeiaRepository ideiaRepository;
+    private final String ideiaId;
+    private final Listener listener;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable flushRunnable = this::flush;
+
+    private final List<Mutacao> pendentes = new ArrayList<>();
+    private List<Mutacao> emEnvio = new ArrayList<>();
+    private boolean enviando = false;
+    private boolean documentoExiste;
+    // Ideia local da última edição: o textoBusca do resumo é recalculado a partir dela no envio.
+    @Nullable private Ideia ultimaIdeiaLocal;
+
+    // Métricas simples, para acompanhar o ganho do agrupamento em log.
+    private int totalMutacoes = 0;
+    private int totalCommits = 0;
+
+    CanvasWriteCoalescer(@NonNull IIdeiaRepository ideiaRepository, @NonNull String ideiaId, boolean documentoExiste,
+                         @NonNull Listener listener) {
+        this.ideiaRepository = ideiaRepository;
+        this.ideiaId = ideiaId;
+        this.documentoExiste = documentoExiste;
+        this.listener = listener;
+    }
+
+    @NonNull
+    String getIdeiaId() {
+        return ideiaId;
+    }
+
+    /**
+     * Aplica a mutação na ideia local e agenda o envio.
+     */
+    void enfileirar(@NonNull Ideia ideiaLocal, @NonNull Mutacao mutacao) {
+        mutacao.aplicacao.aplicar(ideiaLocal);
+        ultimaIdeiaLocal = ideiaLocal;
+        pendentes.add(mutacao);
+        totalMutacoes++;
+        handler.removeCallbacks(flushRunnable);
+        handler.postDelayed(flushRunnable, DEBOUNCE_MS);
+    }
+
+    /**
+     * Recebe a ideia vinda do listener e devolve a versão a ser exibida: a do servidor com as
+     * mutações ainda não confirmadas reaplicadas por cima.
+     */
+    @NonNull
+    Ideia reconciliar(@NonNull Ideia doServidor) {
+        if (!temAlteracoesNaoConfirmadas()) return doServidor;
+        for (Mutacao m : emEnvio) m.aplicacao.aplicar(doServidor);
+        for (Mutacao m : pendentes) m.aplicacao.aplicar(doServidor);
+        return doServidor;
+    }
+
+    boolean temAlteracoesNaoConfirmadas() {
+        return !pendentes.isEmpty() || !emEnvio.isEmpty();
+    }
+
+    /**
+     * Envia imediatamente o que estiver pendente (ex.: ao sair da tela).
+     */
+    void flush() {
+        handler.removeCallbacks(flushRunnable);
+        if (enviando || pendentes.isEmpty()) return;
+        if (!documentoExiste) {
+            criarDocumento();
+            return;
+        }
+
+        emEnvio = new ArrayList<>(pendentes);
+        pendentes.clear();
+        enviando = true;
+
+        // Funde as mutações por caminho: a edição mais recente de cada campo vence.
+        Map<String, Object> campos = new LinkedHashMap<>();
+        for (Mutacao m : emEnvio) campos.putAll(m.campos);
+        totalCommits++;
+        Log.d(TAG, "Enviando " + emEnvio.size() + " edições em " + campos.size() + " campos ("
+                + totalMutacoes + " edições / " + totalCommits + " commits na sessão)");
+
+        String textoBusca = ultimaIdeiaLocal != null ? IdeiaSummary.textoBuscaDe(ultimaIdeiaLocal) : null;
+        ideiaRepository.salvarAlteracoesCanvas(ideiaId, campos, textoBusca, result -> {
+            enviando = false;
+            List<Mutacao> enviadas = emEnvio;
+            emEnvio = new ArrayList<>();
+
+            if (result instanceof Result.Error) {
+                Exception erro = ((Result.Error<Void>) result).error;
+                Log.e(TAG, "Falha ao gravar " + enviadas.size() + " edições do canvas; desfazendo.", erro);
+                // A ideia local já contém as edições rejeitadas: relê a versão do servidor.
+                ideiaRepository.getIdeiaById(ideiaId, releitura -> {
+                    if (releitura instanceof Result.Success && ((Result.Success<Ideia>) releitura).data != null) {
+                        listener.onRollback(reconciliar(((Result.Success<Ideia>) releitura).data), erro);
+                    }
+                });
+            }
+            agendarRestantes();
+        });
+    }
+
+    /**
+     * Primeiro envio de uma ideia nova: grava o documento inteiro. Em caso de falha as edições voltam
+     * para a frente da fila (não há versão do servidor para restaurar) e seguem na próxima edição ou flush.
+     */
+    private void criarDocumento() {
+        if (ultimaIdeiaLocal == null) return;
+        emEnvio = new ArrayList<>(pendentes);
+        pendentes.clear();
+        enviando = true;
+        totalCommits++;
+        Log.d(TAG, "Criando a ideia " + ideiaId + " com " + emEnvio.size() + " edições");
+
+        ideiaRepository.saveIdeia(ultimaIdeiaLocal, result -> {
+            enviando = false;
+            List<Mutacao> enviadas = emEnvio;
+            emEnvio = new ArrayList<>();
+
+            if (result instanceof Result.Error) {
+                Log.e(TAG, "Falha ao criar a ideia " + ideiaId + "; as edições ficam pendentes.", ((Result.Error<Void>) result).error);
+                pendentes.addAll(0, enviadas);
+                return;
+            }
+            documentoExiste = true;
+            listener.onDocumentoCriado();
+            agendarRestantes();
+        });
+    }
+
+    // Edições feitas durante o envio seguem para o próximo lote.
+    private void agendarRestantes() {
+        if (!pendentes.isEmpty()) {
+            handler.removeCallbacks(flushRunnable);
+            handler.postDelayed(flushRunnable, DEBOUNCE_MS);
+        }
+    }
+
+    /**
+     * Descarta o que não foi enviado e cancela o agendamento.
+     */
+    void cancelar() {
+        handler.removeCallbacks(flushRunnable);
+        pendentes.clear();
+    }
+}
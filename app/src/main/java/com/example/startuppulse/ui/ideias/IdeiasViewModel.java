@@ -9,12 +9,17 @@ import androidx.lifecycle.ViewModel;
 import com.example.startuppulse.LimiteHelper;
 import com.example.startuppulse.common.Result;
 import com.example.startuppulse.data.repositories.AuthRepository;
-import com.example.startuppulse.data.models.Ideia;
+import com.example.startuppulse.data.models.IdeiaSummary;
 import com.example.startuppulse.data.repositories.IIdeiaRepository;
-import com.example.startuppulse.data.repositories.IdeiaRepository;
+import com.example.startuppulse.data.repositories.IdeiaPagingResult;
 import com.example.startuppulse.util.Event;
+import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.ListenerRegistration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import javax.inject.Inject;
 
 import dagger.hilt.android.lifecycle.HiltViewModel;
@@ -29,13 +34,38 @@ public class IdeiasViewModel extends ViewModel {
     private final AuthRepository authRepository;
     private ListenerRegistration publicIdeiasListener;
 
+    // --- Estado da paginação ---
+    // A primeira página é mantida em tempo real; as mais antigas são carregadas sob demanda.
+    private List<IdeiaSummary> firstPage = new ArrayList<>();
+    private final List<IdeiaSummary> olderPages = new ArrayList<>();
+    private DocumentSnapshot firstPageCursor = null;
+    private DocumentSnapshot olderPagesCursor = null;
+    private boolean hasMorePages = false;
+    private boolean isFetchingPage = false;
+    // Incrementada a cada recomeço da paginação (refresh): respostas de uma geração anterior
+    // trazem cursores e ideias do feed antigo e são descartadas.
+    private int geracaoFeed = 0;
+
+    // --- Ordenação ---
+    public enum ModoFeed { RECENTES, EM_ALTA }
+    private final TrendingRanking trending = new TrendingRanking();
+
+    // --- Busca local ---
+    // Com uma consulta ativa, o feed mostra os resultados do índice local em vez das páginas.
+    private static final int LIMITE_RESULTADOS_BUSCA = 50;
+    private String consultaBusca = "";
+    private List<IdeiaSummary> resultadosBusca = new ArrayList<>();
+
     // --- LiveData para a UI ---
-    private final MutableLiveData<Result<List<Ideia>>> _publicIdeias = new MutableLiveData<>();
-    public LiveData<Result<List<Ideia>>> publicIdeias = _publicIdeias;
+    private final MutableLiveData<Result<List<IdeiaSummary>>> _publicIdeias = new MutableLiveData<>();
+    public LiveData<Result<List<IdeiaSummary>>> publicIdeias = _publicIdeias;
 
     private final MutableLiveData<Boolean> _isLoading = new MutableLiveData<>();
     public LiveData<Boolean> isLoading = _isLoading;
 
+    private final MutableLiveData<ModoFeed> _modoFeed = new MutableLiveData<>(ModoFeed.RECENTES);
+    public LiveData<ModoFeed> modoFeed = _modoFeed;
+
     // --- Eventos para Ações Únicas ---
 
     // Evento para navegação, contendo os dados necessários
@@ -62,6 +92,10 @@ public class IdeiasViewModel extends ViewModel {
         this.ideiaRepository = ideiaRepository;
         this.authRepository = authRepository;
         listenToPublicIdeias();
+        // Carrega o índice de votos do usuário enquanto ele navega pelo feed.
+        ideiaRepository.observarMeusVotos();
+        // Traz para o índice de busca local as ideias publicadas/alteradas desde a última sessão.
+        ideiaRepository.sincronizarIndiceBusca();
     }
 
     private void listenToPublicIdeias() {
@@ -70,22 +104,162 @@ public class IdeiasViewModel extends ViewModel {
         if (publicIdeiasListener != null) {
             publicIdeiasListener.remove();
         }
+        firstPage = new ArrayList<>();
+        olderPages.clear();
+        firstPageCursor = null;
+        olderPagesCursor = null;
+        hasMorePages = false;
+        isFetchingPage = false;
+        trending.limpar();
+        int geracao = ++geracaoFeed;
 
-        publicIdeiasListener = ideiaRepository.listenToPublicIdeias(result -> {
-            _publicIdeias.setValue(result);
+        publicIdeiasListener = ideiaRepository.listenToPublicIdeiasFirstPage(IIdeiaRepository.FEED_PAGE_SIZE, result -> {
+            if (geracao != geracaoFeed) return;
             _isLoading.setValue(false);
+            if (result instanceof Result.Error) {
+                _publicIdeias.setValue(new Result.Error<>(((Result.Error<IdeiaPagingResult>) result).error));
+                return;
+            }
+            IdeiaPagingResult page = ((Result.Success<IdeiaPagingResult>) result).data;
+            if (olderPagesCursor != null) {
+                moverEmpurradasParaPaginasAntigas(firstPage, page.getIdeias());
+            }
+            firstPage = page.getIdeias();
+            firstPageCursor = page.getLastVisible();
+            // Enquanto nenhuma página antiga foi carregada, o "ter mais" vem da primeira página.
+            if (olderPagesCursor == null) {
+                hasMorePages = page.hasMore();
+            }
+            publishFeed();
+        });
+    }
+
+    /**
+     * Com páginas antigas já carregadas, uma ideia nova no topo empurra a última da primeira página
+     * para fora do listener, e ela não está em olderPages (que começa depois dela): move-a para lá.
+     * Ideias que saíram por exclusão ou mudança de status não voltam: nesse caso o Firestore completa
+     * a página com uma ideia mais antiga que elas, ou a página encolhe.
+     */
+    private void moverEmpurradasParaPaginasAntigas(List<IdeiaSummary> anterior, List<IdeiaSummary> atual) {
+        if (atual.size() < IIdeiaRepository.FEED_PAGE_SIZE) return;
+        Date limite = atual.get(atual.size() - 1).getTimestamp();
+        if (limite == null) return;
+
+        Set<String> idsAtuais = new HashSet<>();
+        for (IdeiaSummary ideia : atual) idsAtuais.add(ideia.getId());
+
+        List<IdeiaSummary> empurradas = new ArrayList<>();
+        for (IdeiaSummary ideia : anterior) {
+            Date timestamp = ideia.getTimestamp();
+            if (!idsAtuais.contains(ideia.getId()) && timestamp != null && !timestamp.after(limite)) {
+                empurradas.add(ideia);
+            }
+        }
+        olderPages.addAll(0, empurradas);
+    }
+
+    /**
+     * Chamado pelo adapter quando a rolagem se aproxima do fim da lista.
+     * Busca a próxima página mais antiga a partir do último cursor conhecido.
+     */
+    public void loadNextPage() {
+        if (isFetchingPage || !hasMorePages || isBuscando()) return;
+        DocumentSnapshot cursor = (olderPagesCursor != null) ? olderPagesCursor : firstPageCursor;
+        if (cursor == null) return;
+
+        isFetchingPage = true;
+        int geracao = geracaoFeed;
+        ideiaRepository.getPublicIdeiasPage(IIdeiaRepository.FEED_PAGE_SIZE, cursor, result -> {
+            // Página pedida antes de um refresh: o isFetchingPage já foi zerado pelo recomeço.
+            if (geracao != geracaoFeed) return;
+            isFetchingPage = false;
+            if (result instanceof Result.Success) {
+                IdeiaPagingResult page = ((Result.Success<IdeiaPagingResult>) result).data;
+                olderPages.addAll(page.getIdeias());
+                if (page.getLastVisible() != null) {
+                    olderPagesCursor = page.getLastVisible();
+                }
+                hasMorePages = page.hasMore();
+                publishFeed();
+            } else {
+                Log.e(TAG, "Erro ao carregar próxima página do feed.", ((Result.Error<IdeiaPagingResult>) result).error);
+                _toastEvent.setValue(new Event<>("Não foi possível carregar mais ideias."));
+            }
+        });
+    }
+
+    /**
+     * Junta a primeira página (em tempo real) com as páginas antigas, descartando duplicatas
+     * que surgem quando novas ideias empurram itens da primeira página para baixo.
+     */
+    private void publishFeed() {
+        if (isBuscando()) {
+            _publicIdeias.setValue(new Result.Success<>(new ArrayList<>(resultadosBusca)));
+            return;
+        }
+        List<IdeiaSummary> feed = new ArrayList<>(firstPage.size() + olderPages.size());
+        Set<String> ids = new HashSet<>();
+        for (IdeiaSummary ideia : firstPage) {
+            if (ids.add(ideia.getId())) feed.add(ideia);
+        }
+        for (IdeiaSummary ideia : olderPages) {
+            if (ids.add(ideia.getId())) feed.add(ideia);
+        }
+        // O ranking é mantido mesmo no modo cronológico, para a troca de modo ser imediata.
+        trending.atualizar(feed);
+        if (_modoFeed.getValue() == ModoFeed.EM_ALTA) {
+            feed = trending.snapshot();
+        }
+        _publicIdeias.setValue(new Result.Success<>(feed));
+    }
+
+    /**
+     * Alterna entre a ordem cronológica e o ranking "Em alta" sobre as ideias já carregadas, sem nova leitura.
+     */
+    public void setModoFeed(ModoFeed modo) {
+        if (modo == null || modo == _modoFeed.getValue()) return;
+        _modoFeed.setValue(modo);
+        publishFeed();
+    }
+
+    /**
+     * Filtra o feed pela consulta (busca local, sem rede). Consulta vazia volta ao feed paginado.
+     */
+    public void buscar(String consulta) {
+        String normalizada = consulta != null ? consulta.trim() : "";
+        if (normalizada.equals(consultaBusca)) return;
+        consultaBusca = normalizada;
+        if (normalizada.isEmpty()) {
+            resultadosBusca = new ArrayList<>();
+            publishFeed();
+            return;
+        }
+        ideiaRepository.buscarIdeias(normalizada, LIMITE_RESULTADOS_BUSCA, result -> {
+            // Ignora respostas de consultas que já foram substituídas pela digitação.
+            if (!normalizada.equals(consultaBusca)) return;
+            if (result instanceof Result.Success) {
+                resultadosBusca = new ArrayList<>(((Result.Success<List<IdeiaSummary>>) result).data);
+                publishFeed();
+            } else {
+                Log.e(TAG, "Erro na busca local de ideias.", ((Result.Error<List<IdeiaSummary>>) result).error);
+            }
         });
     }
 
+    private boolean isBuscando() {
+        return !consultaBusca.isEmpty();
+    }
+
     public void refresh() {
-        _isLoading.setValue(false);
+        // Recomeça a paginação do zero, reanexando o listener da primeira página.
+        listenToPublicIdeias();
     }
 
     /**
      * Lógica de negócio para decidir o que fazer quando uma ideia é clicada.
      * O ViewModel recebe o contexto apenas para esta operação, não o armazena.
      */
-    public void onIdeiaClicked(Ideia ideia, Context context) {
+    public void onIdeiaClicked(IdeiaSummary ideia, Context context) {
 
         Log.d(TAG, "onIdeiaClicked: Ideia clicada com ID = " + ideia.getId() + " e Nome = " + ideia.getNome());
 
@@ -120,13 +294,28 @@ public class IdeiasViewModel extends ViewModel {
         ideiaRepository.deleteIdeia(ideiaId, result -> {
             if (result instanceof Result.Error) {
                 _toastEvent.postValue(new Event<>("Erro ao excluir ideia."));
+                return;
+            }
+            // Se a ideia estava na primeira página, o listener em tempo real já atualiza a UI.
+            // Páginas antigas não têm listener, então a removemos localmente.
+            boolean removida = false;
+            for (int i = resultadosBusca.size() - 1; i >= 0; i--) {
+                if (ideiaId.equals(resultadosBusca.get(i).getId())) {
+                    resultadosBusca.remove(i);
+                    removida = true;
+                }
+            }
+            for (int i = olderPages.size() - 1; i >= 0; i--) {
+                if (ideiaId.equals(olderPages.get(i).getId())) {
+                    olderPages.remove(i);
+                    removida = true;
+                }
             }
-            // Em caso de sucesso, o listener em tempo real (listenToPublicIdeias)
-            // receberá a lista atualizada do Firestore e a UI será reconstruída automaticamente.
+            if (removida) publishFeed();
         });
     }
 
-    public boolean canDeleteIdeia(Ideia ideia) {
+    public boolean canDeleteIdeia(IdeiaSummary ideia) {
         return authRepository.isCurrentUser(ideia.getOwnerId());
     }
 
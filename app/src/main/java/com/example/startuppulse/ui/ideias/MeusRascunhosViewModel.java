@@ -4,7 +4,7 @@ import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
 import androidx.lifecycle.ViewModel;
 import com.example.startuppulse.common.Result;
-import com.example.startuppulse.data.models.Ideia;
+import com.example.startuppulse.data.models.IdeiaSummary;
 import com.example.startuppulse.data.repositories.IdeiaRepository;
 import com.example.startuppulse.util.Event;
 import com.google.firebase.firestore.ListenerRegistration;
@@ -19,8 +19,8 @@ public class MeusRascunhosViewModel extends ViewModel {
     private ListenerRegistration draftIdeiasListener;
 
     // --- LiveData para a UI ---
-    private final MutableLiveData<Result<List<Ideia>>> _draftIdeiasResult = new MutableLiveData<>();
-    public LiveData<Result<List<Ideia>>> draftIdeiasResult = _draftIdeiasResult;
+    private final MutableLiveData<Result<List<IdeiaSummary>>> _draftIdeiasResult = new MutableLiveData<>();
+    public LiveData<Result<List<IdeiaSummary>>> draftIdeiasResult = _draftIdeiasResult;
 
     private final MutableLiveData<Boolean> _isLoading = new MutableLiveData<>();
     public LiveData<Boolean> isLoading = _isLoading;
@@ -0,0 +1,113 @@
+package com.example.startuppulse.ui.ideias;
+
+import androidx.annotation.NonNull;
+
+import com.example.startuppulse.data.models.Ideia;
+import com.example.startuppulse.data.models.IdeiaSummary;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Ranking "Em alta" do feed, mantido de forma incremental.
+ *
+ * score = qualidade + idadeEmSegundos / {@link #DECAIMENTO_SEGUNDOS}, onde a qualidade combina a média
+ * ponderada dos votos (0 a 5), o número de votos (escala log) e o status da avaliação. Como o termo de
+ * tempo é absoluto (a partir do timestamp da ideia, não de "agora"), o score de uma ideia só muda quando
+ * os dados dela mudam: a passagem do tempo não exige recalcular nada, e ideias novas naturalmente
+ * ultrapassam as antigas (uma ideia {@link #DECAIMENTO_SEGUNDOS} mais velha precisa de um ponto a mais
+ * de qualidade para ficar à frente).
+ *
+ * Os itens ficam numa árvore ordenada por score; a cada evento só os resumos que mudaram (referência
+ * diferente, pois a lista incremental do repositório reaproveita os objetos inalterados) são
+ * reposicionados, em O(log n) cada. Não é thread-safe: usar na main thread.
+ */
+class TrendingRanking {
+
+    // Uma "unidade" de qualidade vale 2 dias de novidade.
+    static final double DECAIMENTO_SEGUNDOS = 2 * 24 * 60 * 60;
+    private static final double MEDIA_MAXIMA = 5.0;
+    private static final double BONUS_APROVADA = 1.0;
+    private static final double PENALIDADE_REPROVADA = -1.0;
+
+    private static final class Item {
+        final IdeiaSummary resumo;
+        final double score;
+
+        Item(IdeiaSummary resumo, double score) {
+            this.resumo = resumo;
+            this.score = score;
+        }
+    }
+
+    private final TreeSet<Item> ordenados = new TreeSet<>((a, b) -> {
+        int cmp = Double.compare(b.score, a.score);
+        return cmp != 0 ? cmp : a.resumo.getId().compareTo(b.resumo.getId());
+    });
+    private final Map<String, Item> porId = new HashMap<>();
+
+    /**
+     * Sincroniza o ranking com a lista atual do feed: insere as novas, reposiciona as alteradas
+     * e remove as que saíram. Itens com a mesma referência de antes não são tocados.
+     */
+    void atualizar(@NonNull Collection<IdeiaSummary> atuais) {
+        Set<String> presentes = new HashSet<>(atuais.size() * 2);
+        for (IdeiaSummary resumo : atuais) {
+            if (resumo == null || resumo.getId() == null || !presentes.add(resumo.getId())) continue;
+            Item anterior = porId.get(resumo.getId());
+            if (anterior != null && anterior.resumo == resumo) continue;
+
+            // A remoção usa o score antigo guardado no item, então localiza o nó certo na árvore.
+            if (anterior != null) ordenados.remove(anterior);
+            Item item = new Item(resumo, score(resumo));
+            ordenados.add(item);
+            porId.put(resumo.getId(), item);
+        }
+
+        if (porId.size() > presentes.size()) {
+            Iterator<Map.Entry<String, Item>> it = porId.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<String, Item> e = it.next();
+                if (!presentes.contains(e.getKey())) {
+                    ordenados.remove(e.getValue());
+                    it.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * Lista na ordem do ranking (percurso da árvore, sem reordenar).
+     */
+    @NonNull
+    List<IdeiaSummary> snapshot() {
+        List<IdeiaSummary> lista = new ArrayList<>(ordenados.size());
+        for (Item item : ordenados) lista.add(item.resumo);
+        return lista;
+    }
+
+    void limpar() {
+        ordenados.clear();
+        porId.clear();
+    }
+
+    static double score(@NonNull IdeiaSummary resumo) {
+        double media = Math.max(0, Math.min(MEDIA_MAXIMA, resumo.getMediaPonderadaVotosComunidade()));
+        int total = Math.max(0, resumo.getTotalVotosComunidade());
+        double qualidade = (media / MEDIA_MAXIMA) * (Math.log(1 + total) / Math.log(2));
+
+        Ideia.Status status = resumo.getStatus();
+        if (status == Ideia.Status.AVALIADA_APROVADA) qualidade += BONUS_APROVADA;
+        else if (status == Ideia.Status.AVALIADA_REPROVADA) qualidade += PENALIDADE_REPROVADA;
+
+        long segundos = resumo.getTimestamp() != null ? resumo.getTimestamp().getTime() / 1000 : 0;
+        return qualidade + segundos / DECAIMENTO_SEGUNDOS;
+    }
+}
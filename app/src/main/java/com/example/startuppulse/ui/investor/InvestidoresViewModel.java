@@ -10,6 +10,7 @@ import com.example.startuppulse.common.Result;
 import com.example.startuppulse.data.models.Investor; // NOVO IMPORT
 import com.example.startuppulse.data.repositories.AuthRepository;
 import com.example.startuppulse.data.models.Ideia;
+import com.example.startuppulse.data.models.IdeiaSummary;
 import com.example.startuppulse.data.repositories.IIdeiaRepository;   // NOVO: Usar interface
 import com.example.startuppulse.data.repositories.IInvestorRepository; // NOVO: Usar interface
 import com.example.startuppulse.data.repositories.InvestorPagingResult; // NOVO IMPORT
@@ -36,8 +37,8 @@ public class InvestidoresViewModel extends ViewModel {
     public LiveData<List<Investor>> investors = _investors;
     private final MutableLiveData<String> _error = new MutableLiveData<>();
     public LiveData<String> error = _error;
-    private final MutableLiveData<List<Ideia>> _userReadyIdeias = new MutableLiveData<>();
-    public LiveData<List<Ideia>> userReadyIdeias = _userReadyIdeias;
+    private final MutableLiveData<List<IdeiaSummary>> _userReadyIdeias = new MutableLiveData<>();
+    public LiveData<List<IdeiaSummary>> userReadyIdeias = _userReadyIdeias;
     private List<String> currentAreaFilter = null;
     private boolean isEntrepreneurReady = false;
     private boolean isInvestorProfileActive = false;
@@ -71,18 +72,18 @@ public class InvestidoresViewModel extends ViewModel {
             _viewState.setValue(ViewState.SHOW_READINESS);
             return;
         }
-        // Verificação 1: Status de Empreendedor
-        ideiaRepository.getIdeiasForOwner(currentUserId, result -> {
+        // Verificação 1: Status de Empreendedor (lê só os resumos; a ideia completa vem depois)
+        ideiaRepository.getIdeiaSummariesForOwner(currentUserId, result -> {
             boolean isEntrepreneurReady = false;
             if (result instanceof Result.Success) {
-                List<Ideia> ideias = ((Result.Success<List<Ideia>>) result).data;
-                Ideia ideiaPrincipal = (ideias != null && !ideias.isEmpty()) ? ideias.get(0) : null;
-                _readinessData.setValue(ReadinessCalculator.calculate(ideiaPrincipal));
+                List<IdeiaSummary> ideias = ((Result.Success<List<IdeiaSummary>>) result).data;
+                IdeiaSummary ideiaPrincipal = (ideias != null && !ideias.isEmpty()) ? ideias.get(0) : null;
+                loadReadiness(ideiaPrincipal);
 
                 // Pega TODAS as ideias prontas para o filtro
-                List<Ideia> readyIdeias = new ArrayList<>();
+                List<IdeiaSummary> readyIdeias = new ArrayList<>();
                 if (ideias != null) {
-                    for (Ideia ideia : ideias) {
+                    for (IdeiaSummary ideia : ideias) {
                         if (ideia.isProntaParaInvestidores()) {
                             isEntrepreneurReady = true;
                             readyIdeias.add(ideia);
@@ -113,6 +114,21 @@ public class InvestidoresViewModel extends ViewModel {
         });
     }
 
+    /**
+     * O cálculo de prontidão precisa da ideia completa (canvas, equipe, métricas),
+     * então apenas a ideia principal é buscada por inteiro.
+     */
+    private void loadReadiness(IdeiaSummary ideiaPrincipal) {
+        if (ideiaPrincipal == null) {
+            _readinessData.setValue(ReadinessCalculator.calculate(null));
+            return;
+        }
+        ideiaRepository.getIdeiaById(ideiaPrincipal.getId(), result -> {
+            Ideia ideia = (result instanceof Result.Success) ? ((Result.Success<Ideia>) result).data : null;
+            _readinessData.setValue(ReadinessCalculator.calculate(ideia));
+        });
+    }
+
     private void tryShowInvestorsOrReadiness(boolean isEntrepreneurReady) {
         if (!hasCheckedIdeias || !hasCheckedInvestorStatus) {
             return; // Esperando as duas verificações
@@ -142,6 +158,14 @@ public class InvestidoresViewModel extends ViewModel {
         }
 
         investorRepository.getInvestidoresPaginados(PAGE_SIZE, lastVisibleInvestor, currentAreaFilter, result -> {
+            // Página vinda do disco: só exibe. A busca continua em andamento (a da rede chega em seguida)
+            // e o cursor não muda, pois o cache não tem DocumentSnapshot.
+            if (result instanceof Result.Success && ((Result.Success<InvestorPagingResult>) result).data.isFromCache()) {
+                List<Investor> cached = ((Result.Success<InvestorPagingResult>) result).data.getInvestors();
+                _investors.setValue(new ArrayList<>(cached));
+                _viewState.setValue(ViewState.SHOW_INVESTORS);
+                return;
+            }
             isFetchingInvestors = false;
 
             if (result instanceof Result.Success) {
@@ -168,14 +192,18 @@ public class InvestidoresViewModel extends ViewModel {
 
             } else {
                 _error.setValue("Falha ao carregar lista de investidores.");
-                _viewState.setValue(ViewState.ERROR);
+                // Se a lista do cache já está em tela, mantém ela em vez da tela de erro.
+                List<Investor> emTela = _investors.getValue();
+                if (emTela == null || emTela.isEmpty()) {
+                    _viewState.setValue(ViewState.ERROR);
+                }
             }
         });
     }
     /**
      * Chamado pelo Fragment quando o usuário seleciona uma ideia no dropdown.
      */
-    public void setFilter(Ideia ideia) {
+    public void setFilter(IdeiaSummary ideia) {
         // Se 'ideia' for nula, o filtro é removido (mostra todos)
         this.currentAreaFilter = (ideia == null || ideia.getAreasNecessarias() == null || ideia.getAreasNecessarias().isEmpty()) ?
                 null :
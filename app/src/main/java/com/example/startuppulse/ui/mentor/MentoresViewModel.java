@@ -6,8 +6,9 @@ import androidx.lifecycle.ViewModel;
 
 import com.example.startuppulse.data.models.User; // MUDADO: de Mentor para User
 import com.example.startuppulse.common.Result;
-import com.example.startuppulse.data.repositories.IUserRepository; // MUDADO: de MentorRepository para IUserRepository
+import com.example.startuppulse.data.repositories.MentorDirectory;
 import com.example.startuppulse.common.ResultCallback;
+import com.google.firebase.firestore.ListenerRegistration;
 
 import java.util.List;
 
@@ -16,22 +17,41 @@ import dagger.hilt.android.lifecycle.HiltViewModel;
 
 @HiltViewModel
 public class MentoresViewModel extends ViewModel {
-    private final IUserRepository userRepository;
+    private final MentorDirectory mentorDirectory;
     private final MutableLiveData<Result<List<User>>> _mentores = new MutableLiveData<>();
     public LiveData<Result<List<User>>> mentores = _mentores;
+    private ListenerRegistration mentoresObservados;
 
     @Inject
-    public MentoresViewModel(IUserRepository userRepository) {
-        this.userRepository = userRepository;
+    public MentoresViewModel(MentorDirectory mentorDirectory) {
+        this.mentorDirectory = mentorDirectory;
     }
 
     public void carregarMentores() {
-        _mentores.setValue(new Result.Loading<>());
-        userRepository.getMentores(new ResultCallback<List<User>>() {
+        ResultCallback<List<User>> publicar = new ResultCallback<List<User>>() {
             @Override
             public void onResult(Result<List<User>> result) {
-                _mentores.postValue(result);
+                // Se a rede falhar depois que uma lista já foi exibida, mantém a lista em tela.
+                if (result instanceof Result.Error && _mentores.getValue() instanceof Result.Success) {
+                    return;
+                }
+                _mentores.setValue(result);
             }
-        });
+        };
+
+        if (mentoresObservados == null) {
+            _mentores.setValue(new Result.Loading<>());
+            // Desenha com o snapshot do diretório (memória ou disco) e depois a cada mudança.
+            mentoresObservados = mentorDirectory.observarMentores(publicar);
+        } else {
+            // Já observando: a lista em tela está atualizada; o snapshot em memória não custa leituras.
+            mentorDirectory.getMentores(publicar);
+        }
+    }
+
+    @Override
+    protected void onCleared() {
+        super.onCleared();
+        if (mentoresObservados != null) mentoresObservados.remove();
     }
-}
\ No newline at end of file
+}
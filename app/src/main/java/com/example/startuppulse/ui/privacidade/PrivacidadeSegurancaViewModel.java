@@ -405,7 +405,11 @@ public class PrivacidadeSegurancaViewModel extends ViewModel {
 
                     Log.d(TAG, "Encontradas " + querySnapshot.size() + " ideias para deletar.");
                     WriteBatch batch = firestore.batch();
-                    querySnapshot.forEach(doc -> batch.delete(doc.getReference()));
+                    querySnapshot.forEach(doc -> {
+                        batch.delete(doc.getReference());
+                        // Remove também o resumo usado pelas listas (ideias_resumo)
+                        batch.delete(firestore.collection("ideias_resumo").document(doc.getId()));
+                    });
                     return batch.commit()
                             .addOnSuccessListener(aVoid -> Log.d(TAG, querySnapshot.size() + " ideias deletadas em batch."))
                             .addOnFailureListener(e -> Log.e(TAG, "Erro ao executar batch de exclusão de ideias", e));
@@ -34,7 +34,7 @@ public class SparkDetailDialog extends BottomSheetDialogFragment {
     public static SparkDetailDialog newInstance(Spark spark) {
         SparkDetailDialog fragment = new SparkDetailDialog();
         Bundle args = new Bundle();
-        args.putSerializable(ARG_SPARK, spark); // Spark precisa de implementar Serializable
+        args.putParcelable(ARG_SPARK, spark);
         fragment.setArguments(args);
         return fragment;
     }
@@ -43,7 +43,7 @@ public class SparkDetailDialog extends BottomSheetDialogFragment {
     public void onCreate(@Nullable Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         if (getArguments() != null) {
-            spark = (Spark) getArguments().getSerializable(ARG_SPARK);
+            spark = getArguments().getParcelable(ARG_SPARK);
         }
     }
 
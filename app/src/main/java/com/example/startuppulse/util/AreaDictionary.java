@@ -0,0 +1,205 @@
+package com.example.startuppulse.util;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.startuppulse.data.local.PortugueseAnalyzer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Taxonomia global de áreas de atuação: cada área canônica recebe um id inteiro pequeno, e
+ * listas de áreas (User.areas, Ideia.areasNecessarias, Investor.areas) viram {@link AreaMask}.
+ *
+ * A chave de comparação é o texto normalizado: minúsculas, sem acentos e só letras/dígitos
+ * ("Educação / Edtech" → "educacao edtech"). Sinônimos e variantes comuns apontam para a área
+ * canônica. Áreas fora da taxonomia (texto livre de versões antigas) são internadas com um id
+ * novo na primeira vez que aparecem, só não têm sinônimos. O dicionário é estático e vive o
+ * processo inteiro, então o texto livre é limitado a {@link #MAX_IDS} ids no total: além disso a
+ * área não entra nas máscaras (id -1), mas continua nas listas e nas consultas pelo texto original.
+ */
+public final class AreaDictionary {
+
+    /** Rótulo dos filtros que não restringem por área. */
+    public static final String TODAS = "Todas as áreas";
+
+    // Ids 0..n-1 na ordem de R.array.areas_atuacao_opcoes (manter em sincronia com areas.xml),
+    // seguidos das áreas de R.array.areas_predefinidas que não são sinônimos das anteriores.
+    private static final String[] CANONICAS = {
+            "Marketing Digital", "Vendas", "Growth", "SEO", "Produto", "UX/UI", "Pesquisa com Usuários",
+            "Tecnologia (Web)", "Tecnologia (Mobile)", "Arquitetura de Software", "Dados & Analytics",
+            "Machine Learning", "IA Generativa", "DevOps / Cloud", "Segurança", "Finanças", "Precificação",
+            "Jurídico", "LGPD", "Operações", "Logística", "People / RH", "OKRs / Gestão",
+            "Pitch & Storytelling", "Captação de Recursos", "Go-to-Market", "Parcerias", "Customer Success",
+            "Educação / Edtech", "Saúde / Healthtech", "Agro / Agritech", "Indústria 4.0",
+            "Sustentabilidade / ESG", "Impacto Social", "Legal Design", "Design de Serviços", "Comunicação",
+            "Comunidade", "MVP & Lean",
+            "Estratégia", "Tecnologia"
+    };
+
+    // Variante -> área canônica (as chaves passam pela mesma normalização).
+    private static final String[][] SINONIMOS = {
+            {"Marketing", "Marketing Digital"},
+            {"UX", "UX/UI"}, {"UI", "UX/UI"}, {"UI/UX", "UX/UI"}, {"Design UX/UI", "UX/UI"},
+            {"Pesquisa de Usuário", "Pesquisa com Usuários"}, {"User Research", "Pesquisa com Usuários"},
+            {"Web", "Tecnologia (Web)"}, {"Desenvolvimento Web", "Tecnologia (Web)"},
+            {"Mobile", "Tecnologia (Mobile)"}, {"Desenvolvimento Mobile", "Tecnologia (Mobile)"},
+            {"Dados", "Dados & Analytics"}, {"Analytics", "Dados & Analytics"}, {"Data Science", "Dados & Analytics"},
+            {"ML", "Machine Learning"}, {"Aprendizado de Máquina", "Machine Learning"},
+            {"IA", "IA Generativa"}, {"Inteligência Artificial", "IA Generativa"}, {"GenAI", "IA Generativa"},
+            {"DevOps", "DevOps / Cloud"}, {"Cloud", "DevOps / Cloud"},
+            {"Cibersegurança", "Segurança"}, {"Segurança da Informação", "Segurança"},
+            {"Financeiro", "Finanças"}, {"Pricing", "Precificação"},
+            {"Direito", "Jurídico"}, {"Legal", "Jurídico"},
+            {"RH", "People / RH"}, {"People", "People / RH"}, {"Recursos Humanos", "People / RH"},
+            {"OKRs", "OKRs / Gestão"}, {"Gestão", "OKRs / Gestão"},
+            {"Pitch", "Pitch & Storytelling"}, {"Storytelling", "Pitch & Storytelling"},
+            {"Captação", "Captação de Recursos"}, {"Fundraising", "Captação de Recursos"},
+            {"GTM", "Go-to-Market"}, {"CS", "Customer Success"}, {"Sucesso do Cliente", "Customer Success"},
+            {"Educação", "Educação / Edtech"}, {"Edtech", "Educação / Edtech"},
+            {"Saúde", "Saúde / Healthtech"}, {"Healthtech", "Saúde / Healthtech"},
+            {"Agro", "Agro / Agritech"}, {"Agritech", "Agro / Agritech"}, {"Agronegócio", "Agro / Agritech"},
+            {"Indústria", "Indústria 4.0"},
+            {"Sustentabilidade", "Sustentabilidade / ESG"}, {"ESG", "Sustentabilidade / ESG"},
+            {"MVP", "MVP & Lean"}, {"Lean", "MVP & Lean"}, {"Lean Startup", "MVP & Lean"},
+            {"Estratégia de Negócios", "Estratégia"}
+    };
+
+    // Limite de ids (canônicas + texto livre): máscaras de no máximo 16 palavras.
+    static final int MAX_IDS = 1024;
+
+    // Chave normalizada -> id; nomes[id] = rótulo canônico (ou o primeiro texto livre visto).
+    private static final Map<String, Integer> IDS = new ConcurrentHashMap<>();
+    private static final List<String> NOMES = new ArrayList<>();
+    // Id canônico -> variantes escritas como nos perfis antigos (textos de SINONIMOS).
+    private static final Map<Integer, List<String>> VARIANTES = new HashMap<>();
+
+    static {
+        for (String canonica : CANONICAS) internar(canonica);
+        for (String[] s : SINONIMOS) {
+            int id = IDS.get(chave(s[1]));
+            IDS.put(chave(s[0]), id);
+            List<String> variantes = VARIANTES.get(id);
+            if (variantes == null) {
+                variantes = new ArrayList<>();
+                VARIANTES.put(id, variantes);
+            }
+            variantes.add(s[0]);
+        }
+    }
+
+    private AreaDictionary() {}
+
+    /**
+     * Id da área (internando-a se for nova), ou -1 para texto vazio ou texto livre além de
+     * {@link #MAX_IDS}.
+     */
+    public static int id(@Nullable String area) {
+        if (area == null) return -1;
+        String chave = chave(area);
+        if (chave.isEmpty()) return -1;
+        Integer id = IDS.get(chave);
+        return id != null ? id : internar(area);
+    }
+
+    /**
+     * Rótulo canônico do id (ex.: "RH" → id de "People / RH" → "People / RH").
+     */
+    @NonNull
+    public static synchronized String nome(int id) {
+        return id >= 0 && id < NOMES.size() ? NOMES.get(id) : "";
+    }
+
+    /**
+     * Rótulo canônico de uma área qualquer; null para texto vazio (ou sem id, ver {@link #id}).
+     */
+    @Nullable
+    public static String canonica(@Nullable String area) {
+        int id = id(area);
+        return id < 0 ? null : nome(id);
+    }
+
+    @NonNull
+    public static AreaMask mascara(@Nullable Collection<String> areas) {
+        if (areas == null || areas.isEmpty()) return AreaMask.VAZIA;
+        long[] palavras = null;
+        for (String area : areas) {
+            int id = id(area);
+            if (id < 0) continue;
+            int w = id >>> 6;
+            if (palavras == null) palavras = new long[w + 1];
+            else if (w >= palavras.length) palavras = Arrays.copyOf(palavras, w + 1);
+            palavras[w] |= 1L << id;
+        }
+        return palavras == null ? AreaMask.VAZIA : new AreaMask(palavras);
+    }
+
+    /**
+     * Valores para um filtro array-contains-any no Firestore, que compara texto exato, sem repetição
+     * e limitados a {@code max}. Em ordem de prioridade: o rótulo canônico de cada área, o texto
+     * original e, enquanto couber, os sinônimos conhecidos (um de cada área por vez), para achar
+     * perfis gravados com "RH" quando se busca "People / RH".
+     */
+    @NonNull
+    public static List<String> valoresConsulta(@NonNull Collection<String> areas, int max) {
+        Set<String> valores = new LinkedHashSet<>();
+        List<List<String>> sinonimos = new ArrayList<>();
+        for (String area : areas) {
+            int id = id(area);
+            if (id < 0) continue;
+            if (valores.size() < max) valores.add(nome(id));
+            List<String> variantes = VARIANTES.get(id);
+            if (variantes != null && !sinonimos.contains(variantes)) sinonimos.add(variantes);
+        }
+        for (String area : areas) {
+            if (area != null && !area.trim().isEmpty() && valores.size() < max) valores.add(area.trim());
+        }
+        for (int i = 0; valores.size() < max; i++) {
+            boolean restam = false;
+            for (List<String> variantes : sinonimos) {
+                if (i >= variantes.size()) continue;
+                restam = true;
+                if (valores.size() < max) valores.add(variantes.get(i));
+            }
+            if (!restam) break;
+        }
+        return new ArrayList<>(valores);
+    }
+
+    private static synchronized int internar(@NonNull String area) {
+        String chave = chave(area);
+        Integer existente = IDS.get(chave);
+        if (existente != null) return existente;
+        if (NOMES.size() >= MAX_IDS) return -1;
+        int id = NOMES.size();
+        NOMES.add(area.trim());
+        IDS.put(chave, id);
+        return id;
+    }
+
+    @NonNull
+    static String chave(@NonNull String area) {
+        String normalizado = PortugueseAnalyzer.normalizar(area);
+        StringBuilder sb = new StringBuilder(normalizado.length());
+        boolean separar = false;
+        for (int i = 0; i < normalizado.length(); i++) {
+            char c = normalizado.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                if (separar && sb.length() > 0) sb.append(' ');
+                sb.append(c);
+                separar = false;
+            } else {
+                separar = true;
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.startuppulse.util;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Conjunto imutável de áreas como bits (bit i = área de id i no {@link AreaDictionary}).
+ *
+ * Com até 64 áreas é uma única palavra long; ids maiores (áreas livres internadas em tempo de
+ * execução) apenas acrescentam palavras. Interseção e teste de pertinência não alocam nada.
+ */
+public final class AreaMask {
+
+    public static final AreaMask VAZIA = new AreaMask(new long[0]);
+
+    private final long[] palavras;
+
+    AreaMask(@NonNull long[] palavras) {
+        this.palavras = palavras;
+    }
+
+    /**
+     * Quantas áreas os dois conjuntos têm em comum (popcount da interseção).
+     */
+    public int intersecao(@NonNull AreaMask outra) {
+        int n = Math.min(palavras.length, outra.palavras.length);
+        int total = 0;
+        for (int i = 0; i < n; i++) total += Long.bitCount(palavras[i] & outra.palavras[i]);
+        return total;
+    }
+
+    public boolean interseca(@NonNull AreaMask outra) {
+        int n = Math.min(palavras.length, outra.palavras.length);
+        for (int i = 0; i < n; i++) {
+            if ((palavras[i] & outra.palavras[i]) != 0) return true;
+        }
+        return false;
+    }
+
+    public boolean contem(int id) {
+        if (id < 0) return false;
+        int palavra = id >>> 6;
+        return palavra < palavras.length && (palavras[palavra] & (1L << id)) != 0;
+    }
+
+    public int tamanho() {
+        int total = 0;
+        for (long p : palavras) total += Long.bitCount(p);
+        return total;
+    }
+
+    public boolean isEmpty() {
+        for (long p : palavras) {
+            if (p != 0) return false;
+        }
+        return true;
+    }
+
+    @NonNull
+    public AreaMask uniao(@NonNull AreaMask outra) {
+        long[] maior = palavras.length >= outra.palavras.length ? palavras : outra.palavras;
+        long[] menor = maior == palavras ? outra.palavras : palavras;
+        long[] r = Arrays.copyOf(maior, maior.length);
+        for (int i = 0; i < menor.length; i++) r[i] |= menor[i];
+        return new AreaMask(r);
+    }
+
+    /**
+     * Ids presentes, em ordem crescente.
+     */
+    @NonNull
+    public int[] ids() {
+        int[] ids = new int[tamanho()];
+        int k = 0;
+        for (int w = 0; w < palavras.length; w++) {
+            long p = palavras[w];
+            while (p != 0) {
+                ids[k++] = (w << 6) + Long.numberOfTrailingZeros(p);
+                p &= p - 1;
+            }
+        }
+        return ids;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof AreaMask)) return false;
+        long[] a = palavras, b = ((AreaMask) o).palavras;
+        int n = Math.max(a.length, b.length);
+        for (int i = 0; i < n; i++) {
+            if ((i < a.length ? a[i] : 0) != (i < b.length ? b[i] : 0)) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int fim = palavras.length;
+        while (fim > 0 && palavras[fim - 1] == 0) fim--;
+        return Arrays.hashCode(Arrays.copyOf(palavras, fim));
+    }
+
+    /**
+     * Máscara calculada sob demanda para a lista de áreas de um modelo. É recalculada quando a
+     * lista muda (outra instância ou conteúdo diferente, detectado pelo hashCode da lista, que só
+     * soma os hashes já cacheados das Strings).
+     */
+    public static final class Cache {
+        private List<String> fonte;
+        private int hashFonte;
+        private AreaMask mascara;
+
+        @NonNull
+        public synchronized AreaMask get(@Nullable List<String> areas) {
+            if (areas == null || areas.isEmpty()) return VAZIA;
+            int hash = areas.hashCode();
+            if (mascara == null || fonte != areas || hashFonte != hash) {
+                mascara = AreaDictionary.mascara(areas);
+                fonte = areas;
+                hashFonte = hash;
+            }
+            return mascara;
+        }
+    }
+}
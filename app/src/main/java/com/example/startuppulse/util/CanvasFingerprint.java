@@ -0,0 +1,55 @@
+package com.example.startuppulse.util;
+
+import androidx.annotation.NonNull;
+
+import com.example.startuppulse.ShaHelper;
+import com.example.startuppulse.data.models.Ideia;
+import com.example.startuppulse.data.models.PostIt;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Impressão digital (SHA-256) do conteúdo do canvas que a análise da IA considera:
+ * nome, descrição e os textos dos post-its de cada etapa.
+ *
+ * A forma canônica é independente da ordem dos post-its e do formato de armazenamento (legado ou por id),
+ * e é espelhada em functions/main.py (fingerprint_canvas): qualquer mudança aqui exige mudar lá
+ * e incrementar a {@link #VERSAO}.
+ *
+ * Forma canônica: linhas "v1", "nome|...", "descricao|..." e, para cada etapa em ordem alfabética,
+ * "ETAPA|texto" com os textos ordenados; "\", quebra de linha e "|" são escapados.
+ */
+public final class CanvasFingerprint {
+
+    private static final String VERSAO = "v1";
+
+    private CanvasFingerprint() {}
+
+    @NonNull
+    public static String of(@NonNull Ideia ideia) {
+        StringBuilder sb = new StringBuilder(VERSAO);
+        sb.append("\nnome|").append(escapar(ideia.getNome()));
+        sb.append("\ndescricao|").append(escapar(ideia.getDescricao()));
+
+        Map<String, List<PostIt>> etapas = new TreeMap<>(ideia.getTodosPostIts());
+        for (Map.Entry<String, List<PostIt>> etapa : etapas.entrySet()) {
+            List<String> textos = new ArrayList<>();
+            for (PostIt postIt : etapa.getValue()) {
+                if (postIt != null) textos.add(escapar(postIt.getTexto()));
+            }
+            textos.sort(null);
+            for (String texto : textos) {
+                sb.append('\n').append(etapa.getKey()).append('|').append(texto);
+            }
+        }
+        return ShaHelper.gerarHash(sb.toString());
+    }
+
+    private static String escapar(String texto) {
+        if (texto == null) return "";
+        return texto.replace("\\", "\\\\").replace("\n", "\\n").replace("|", "\\|");
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.startuppulse.util;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.example.startuppulse.common.Result;
+import com.example.startuppulse.common.ResultCallback;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Executor compartilhado da camada de dados.
+ *
+ * Os repositórios registram nele os callbacks do Firestore (addOnSuccessListener/addSnapshotListener),
+ * de modo que o toObject() (reflexão sobre documentos grandes) roda fora da main thread.
+ * O resultado já mapeado é entregue de volta na main thread com {@link #deliver}, então os
+ * ViewModels continuam podendo usar setValue().
+ *
+ * Usa uma única thread com fila sem limite: os eventos de um mesmo listener são processados
+ * em ordem, o que mantém seguras as listas incrementais (IncrementalDocumentList). Nenhuma tarefa
+ * roda na thread que a enviou (muitas vezes a main thread); uma fila longa só é logada.
+ */
+public class DataExecutor implements Executor {
+
+    private static final String TAG = "DataExecutor";
+    // Profundidade da fila a partir da qual um aviso é logado (a fila em si não tem limite).
+    private static final int QUEUE_WARNING_DEPTH = 256;
+    // Mapeamentos acima disso são logados, para facilitar achar documentos pesados.
+    private static final long SLOW_TASK_MS = 50;
+
+    private final ThreadPoolExecutor pool;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    private final AtomicLong completedTasks = new AtomicLong();
+    private final AtomicLong totalTaskNanos = new AtomicLong();
+    private final AtomicLong maxTaskNanos = new AtomicLong();
+
+    public DataExecutor() {
+        AtomicInteger threadCount = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(
+                1, 1,
+                0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(() -> {
+                        Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                        runnable.run();
+                    }, "data-executor-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @Override
+    public void execute(@NonNull Runnable command) {
+        pool.execute(() -> {
+            long start = System.nanoTime();
+            try {
+                command.run();
+            } finally {
+                record(System.nanoTime() - start);
+            }
+        });
+        if (getQueueDepth() == QUEUE_WARNING_DEPTH) {
+            Log.w(TAG, "Fila do executor de dados com " + QUEUE_WARNING_DEPTH + " tarefas pendentes.");
+        }
+    }
+
+    /**
+     * Entrega o resultado (já mapeado) ao callback na main thread.
+     */
+    public <T> void deliver(@NonNull ResultCallback<T> callback, @NonNull Result<T> result) {
+        mainHandler.post(() -> callback.onResult(result));
+    }
+
+    /**
+     * Executor da main thread, para quem precisa voltar a ela sem um ResultCallback.
+     */
+    @NonNull
+    public Executor mainThread() {
+        return mainHandler::post;
+    }
+
+    // --- Métricas ---
+
+    /**
+     * Quantidade de tarefas aguardando na fila neste momento.
+     */
+    public int getQueueDepth() {
+        return pool.getQueue().size();
+    }
+
+    public long getCompletedTasks() {
+        return completedTasks.get();
+    }
+
+    /**
+     * Tempo médio de execução (mapeamento) por tarefa, em milissegundos.
+     */
+    public double getAverageTaskMillis() {
+        long count = completedTasks.get();
+        return count == 0 ? 0.0 : (totalTaskNanos.get() / (double) count) / 1_000_000.0;
+    }
+
+    public double getMaxTaskMillis() {
+        return maxTaskNanos.get() / 1_000_000.0;
+    }
+
+    private void record(long nanos) {
+        completedTasks.incrementAndGet();
+        totalTaskNanos.addAndGet(nanos);
+        long max;
+        do {
+            max = maxTaskNanos.get();
+        } while (nanos > max && !maxTaskNanos.compareAndSet(max, nanos));
+
+        long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+        if (millis >= SLOW_TASK_MS) {
+            Log.w(TAG, "Mapeamento lento: " + millis + " ms (fila=" + getQueueDepth() + ")");
+        }
+    }
+}
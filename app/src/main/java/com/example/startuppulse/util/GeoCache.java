@@ -3,19 +3,64 @@ package com.example.startuppulse.util;
 import android.content.Context;
 import android.content.SharedPreferences;
 import android.text.TextUtils;
+import android.util.Log;
 
+import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
+import com.example.startuppulse.data.local.PortugueseAnalyzer;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import dagger.hilt.android.qualifiers.ApplicationContext;
+
+/**
+ * Coordenadas geocodificadas de cidades (chave "cidade,estado" normalizada: minúsculas, sem
+ * acentos e com espaços simples), para posicionar os marcadores do mapa de mentores.
+ *
+ * - Em memória: um LRU de até {@link #MAX_ENTRADAS} cidades, carregado em bloco na primeira
+ *   consulta. Depois disso as consultas não tocam o disco.
+ * - Em disco: um arquivo binário onde cada put é anexado (lat, lon e timestamp como primitivos),
+ *   sem reescrever o resto. Quando os registros obsoletos (sobrescritos, expirados ou expulsos do
+ *   LRU) passam dos vivos, o arquivo é compactado (arquivo temporário + rename).
+ * - TTL: entradas com mais de {@link #TTL_MS} são descartadas na carga, na consulta e na compactação.
+ *
+ * Thread-safe; faz I/O de disco, então deve ser usado fora da main thread.
+ */
+@Singleton
 public class GeoCache {
 
-    private static final String PREFS_NAME = "geo_cache_prefs";
-    private static final String KEY_PREFIX = "geo:";
+    private static final String TAG = "GeoCache";
 
-    // 7 dias em ms
-    private static final long DEFAULT_TTL_MS = 7L * 24 * 60 * 60 * 1000;
+    private static final String ARQUIVO = "geo_cache.bin";
+    private static final int MAGIC = 0x47454F31; // "GEO1"
+    private static final int VERSAO = 1;
+    static final int MAX_ENTRADAS = 2048;
+    private static final int MIN_OBSOLETOS_COMPACTACAO = 256;
+    // Força a compactação: o arquivo precisa ser regravado por inteiro.
+    private static final int REGRAVAR = Integer.MAX_VALUE / 2;
+    // 7 dias
+    private static final long TTL_MS = TimeUnit.DAYS.toMillis(7);
 
-    private final SharedPreferences prefs;
-    private final long ttlMs;
+    // Formato anterior (SharedPreferences, "lat|lon|ts"), importado uma vez e apagado.
+    private static final String PREFS_LEGADO = "geo_cache_prefs";
+    private static final String PREFIXO_LEGADO = "geo:";
 
     public static class Entry {
         public final double lat;
@@ -26,56 +71,263 @@ public class GeoCache {
         }
     }
 
-    public GeoCache(Context ctx) {
-        this(ctx, DEFAULT_TTL_MS);
+    /**
+     * Várias cidades gravadas de uma vez com {@link #putAll}: um único append no arquivo.
+     */
+    public static final class Lote {
+        private final Map<String, Entry> entradas = new LinkedHashMap<>();
+
+        public Lote add(String cidade, String estado, double lat, double lon) {
+            if (TextUtils.isEmpty(cidade) || TextUtils.isEmpty(estado)) return this;
+            entradas.put(chave(cidade, estado), new Entry(lat, lon, System.currentTimeMillis()));
+            return this;
+        }
+
+        public boolean isEmpty() {
+            return entradas.isEmpty();
+        }
     }
 
-    public GeoCache(Context ctx, long ttlMs) {
-        this.prefs = ctx.getApplicationContext()
-                .getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
-        this.ttlMs = ttlMs;
+    private final File arquivo;
+    @Nullable
+    private final SharedPreferences legado;
+
+    // Ordem de acesso: a mais antiga sai primeiro quando passa de MAX_ENTRADAS.
+    private final LinkedHashMap<String, Entry> memoria = new LinkedHashMap<String, Entry>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            if (size() <= MAX_ENTRADAS) return false;
+            obsoletos++;
+            return true;
+        }
+    };
+    private int obsoletos = 0; // registros no arquivo que não estão mais em memória
+    private boolean carregado = false;
+
+    @Inject
+    public GeoCache(@ApplicationContext Context context) {
+        this(new File(context.getApplicationContext().getFilesDir(), ARQUIVO),
+                context.getApplicationContext().getSharedPreferences(PREFS_LEGADO, Context.MODE_PRIVATE));
     }
 
-    private String key(String cidade, String estado) {
-        String c = (cidade == null ? "" : cidade.trim().toLowerCase());
-        String e = (estado == null ? "" : estado.trim().toLowerCase());
-        return KEY_PREFIX + c + "," + e;
+    /**
+     * Cache sobre um arquivo qualquer (testes). Sem {@code legado}, nada é importado do formato antigo.
+     */
+    GeoCache(@NonNull File arquivo, @Nullable SharedPreferences legado) {
+        this.arquivo = arquivo;
+        this.legado = legado;
     }
 
     /** Retorna entrada fresca (não expirada) ou null. */
     @Nullable
-    public Entry getFresh(String cidade, String estado) {
-        String k = key(cidade, estado);
-        String v = prefs.getString(k, null);
-        if (v == null) return null;
-        String[] parts = v.split("\\|");
-        if (parts.length != 3) return null;
-        try {
-            double lat = Double.parseDouble(parts[0]);
-            double lon = Double.parseDouble(parts[1]);
-            long   ts  = Long.parseLong(parts[2]);
-            if (System.currentTimeMillis() - ts <= ttlMs) {
-                return new Entry(lat, lon, ts);
-            } else {
-                // expirado — apaga silenciosamente
-                prefs.edit().remove(k).apply();
-                return null;
-            }
-        } catch (NumberFormatException ex) {
+    public synchronized Entry getFresh(String cidade, String estado) {
+        garantirCarregado();
+        String k = chave(cidade, estado);
+        Entry e = memoria.get(k);
+        if (e == null) return null;
+        if (expirada(e, System.currentTimeMillis())) {
+            memoria.remove(k);
+            obsoletos++;
             return null;
         }
+        return e;
     }
 
     /** Salva/atualiza coordenadas da cidade com timestamp atual. */
     public void put(String cidade, String estado, double lat, double lon) {
-        if (TextUtils.isEmpty(cidade) || TextUtils.isEmpty(estado)) return;
-        String k = key(cidade, estado);
-        String v = lat + "|" + lon + "|" + System.currentTimeMillis();
-        prefs.edit().putString(k, v).apply();
+        putAll(new Lote().add(cidade, estado, lat, lon));
+    }
+
+    /** Salva/atualiza todas as cidades do lote, anexando-as ao arquivo de uma vez. */
+    public synchronized void putAll(@NonNull Lote lote) {
+        if (lote.isEmpty()) return;
+        garantirCarregado();
+        for (Map.Entry<String, Entry> e : lote.entradas.entrySet()) {
+            if (memoria.put(e.getKey(), e.getValue()) != null) obsoletos++;
+        }
+        anexar(lote.entradas);
+        compactarSeNecessario();
     }
 
     /** Limpa tudo (opcional). */
-    public void clearAll() {
-        prefs.edit().clear().apply();
+    public synchronized void clearAll() {
+        memoria.clear();
+        obsoletos = 0;
+        carregado = true;
+        arquivo.delete();
+    }
+
+    // ============================================================
+    // PERSISTÊNCIA
+    // ============================================================
+
+    private void garantirCarregado() {
+        if (carregado) return;
+        carregado = true;
+        long inicio = System.currentTimeMillis();
+        try {
+            ler();
+        } catch (IOException | RuntimeException e) {
+            Log.e(TAG, "Cache de coordenadas corrompido; recomeçando do zero.", e);
+            memoria.clear();
+            obsoletos = 0;
+            arquivo.delete();
+        }
+        importarLegado();
+        compactarSeNecessario();
+        Log.d(TAG, "Cache de coordenadas carregado: " + memoria.size() + " cidades em "
+                + (System.currentTimeMillis() - inicio) + " ms");
+    }
+
+    private void ler() throws IOException {
+        if (!arquivo.exists()) return;
+        long agora = System.currentTimeMillis();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(arquivo)))) {
+            try {
+                if (in.readInt() != MAGIC || in.readInt() != VERSAO) throw new IOException("Versão do cache incompatível.");
+            } catch (EOFException vazio) {
+                if (arquivo.length() > 0) obsoletos = REGRAVAR; // cabeçalho incompleto
+                return;
+            }
+            while (in.available() > 0) {
+                String k;
+                Entry e;
+                try {
+                    k = in.readUTF();
+                    e = new Entry(in.readDouble(), in.readDouble(), in.readLong());
+                } catch (EOFException registroIncompleto) {
+                    // O app foi encerrado no meio de uma gravação: descarta o último registro e
+                    // regrava o arquivo, senão os próximos appends ficariam desalinhados.
+                    Log.w(TAG, "Último registro do cache incompleto; ignorado.");
+                    obsoletos = REGRAVAR;
+                    break;
+                }
+                // Registros mais novos vêm depois e substituem os anteriores.
+                if (expirada(e, agora)) {
+                    if (memoria.remove(k) != null) obsoletos++;
+                    obsoletos++;
+                } else if (memoria.put(k, e) != null) {
+                    obsoletos++;
+                }
+            }
+        }
+    }
+
+    private void anexar(Map<String, Entry> entradas) {
+        boolean novo = arquivo.length() == 0;
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(arquivo, true)))) {
+            if (novo) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSAO);
+            }
+            for (Map.Entry<String, Entry> e : entradas.entrySet()) escrever(out, e.getKey(), e.getValue());
+        } catch (IOException e) {
+            // A memória continua válida; a próxima compactação regrava o arquivo inteiro.
+            Log.e(TAG, "Falha ao gravar no cache de coordenadas.", e);
+            obsoletos = REGRAVAR;
+        }
+    }
+
+    private void compactarSeNecessario() {
+        if (obsoletos > Math.max(MIN_OBSOLETOS_COMPACTACAO, memoria.size())) compactar();
+    }
+
+    /**
+     * Regrava o arquivo só com as entradas vivas e não expiradas, da menos para a mais recente
+     * (assim a carga reconstrói a mesma ordem do LRU).
+     */
+    private void compactar() {
+        long agora = System.currentTimeMillis();
+        List<String> expiradas = new ArrayList<>();
+        File tmp = new File(arquivo.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSAO);
+            for (Map.Entry<String, Entry> e : memoria.entrySet()) {
+                if (expirada(e.getValue(), agora)) {
+                    expiradas.add(e.getKey());
+                    continue;
+                }
+                escrever(out, e.getKey(), e.getValue());
+            }
+        } catch (IOException e) {
+            Log.e(TAG, "Falha ao compactar o cache de coordenadas.", e);
+            tmp.delete();
+            return;
+        }
+        if (tmp.renameTo(arquivo)) {
+            for (String k : expiradas) memoria.remove(k);
+            obsoletos = 0;
+        } else {
+            Log.e(TAG, "Falha ao substituir o cache de coordenadas.");
+            tmp.delete();
+        }
+    }
+
+    /**
+     * Traz as entradas do formato antigo (uma string por cidade no SharedPreferences) e apaga-o.
+     */
+    private void importarLegado() {
+        if (legado == null) return;
+        Map<String, ?> antigas = legado.getAll();
+        if (antigas.isEmpty()) return;
+
+        Map<String, Entry> importadas = new LinkedHashMap<>();
+        long agora = System.currentTimeMillis();
+        for (Map.Entry<String, ?> e : antigas.entrySet()) {
+            if (!e.getKey().startsWith(PREFIXO_LEGADO) || !(e.getValue() instanceof String)) continue;
+            String[] partes = ((String) e.getValue()).split("\\|");
+            String[] cidadeEstado = e.getKey().substring(PREFIXO_LEGADO.length()).split(",", 2);
+            if (partes.length != 3 || cidadeEstado.length != 2) continue;
+            try {
+                Entry entrada = new Entry(Double.parseDouble(partes[0]), Double.parseDouble(partes[1]), Long.parseLong(partes[2]));
+                String k = chave(cidadeEstado[0], cidadeEstado[1]);
+                if (!expirada(entrada, agora) && !memoria.containsKey(k)) importadas.put(k, entrada);
+            } catch (NumberFormatException ignored) {
+            }
+        }
+        memoria.putAll(importadas);
+        if (!importadas.isEmpty()) anexar(importadas);
+        legado.edit().clear().apply();
+        Log.d(TAG, "Importadas " + importadas.size() + " cidades do cache antigo.");
+    }
+
+    private static void escrever(DataOutputStream out, String chave, Entry e) throws IOException {
+        out.writeUTF(chave);
+        out.writeDouble(e.lat);
+        out.writeDouble(e.lon);
+        out.writeLong(e.ts);
+    }
+
+    private static boolean expirada(Entry e, long agora) {
+        return agora - e.ts > TTL_MS;
+    }
+
+    @NonNull
+    static String chave(@Nullable String cidade, @Nullable String estado) {
+        return normalizar(cidade) + "," + normalizar(estado);
+    }
+
+    private static String normalizar(@Nullable String texto) {
+        if (texto == null) return "";
+        // O trim vem depois da normalização: remover acentos soltos pode deixar espaço nas pontas ("Rio \u0301").
+        String t = PortugueseAnalyzer.normalizar(texto).trim();
+        StringBuilder sb = null;
+        for (int i = 0; i < t.length(); i++) {
+            char c = t.charAt(i);
+            boolean espaco = Character.isWhitespace(c);
+            if (sb == null) {
+                // Caso comum: já está normalizado e não precisa de cópia.
+                if (!espaco || (c == ' ' && i + 1 < t.length() && !Character.isWhitespace(t.charAt(i + 1)))) continue;
+                sb = new StringBuilder(t.length()).append(t, 0, i);
+            }
+            if (!espaco) sb.append(c);
+            else if (sb.length() > 0 && sb.charAt(sb.length() - 1) != ' ') sb.append(' ');
+        }
+        if (sb == null) return t;
+        // Espaços que o trim não reconhece (ex.: \u2003) ainda podem sobrar no fim.
+        int fim = sb.length();
+        while (fim > 0 && sb.charAt(fim - 1) == ' ') fim--;
+        return sb.substring(0, fim);
     }
-}
\ No newline at end of file
+}
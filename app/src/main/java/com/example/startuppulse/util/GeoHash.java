@@ -0,0 +1,97 @@
+package com.example.startuppulse.util;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Geohash (base32, mesmo formato do GeoFire) para consultas por raio no Firestore.
+ *
+ * Um geohash é o prefixo de uma célula: todos os pontos dentro dela compartilham o prefixo, então
+ * "pontos na célula X" vira uma consulta de intervalo orderBy(geohash).startAt(X).endAt(X + "~").
+ * {@link #celulasDoRaio} devolve as poucas células (no máximo 9) que cobrem um círculo; a distância
+ * exata é filtrada depois, no cliente.
+ */
+public final class GeoHash {
+
+    private static final String BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz";
+    private static final double METROS_POR_GRAU = 111_320.0;
+
+    /** Precisão gravada nos documentos (~5 m). Consultas usam prefixos dela. */
+    public static final int PRECISAO_PADRAO = 9;
+
+    private GeoHash() {}
+
+    @NonNull
+    public static String codificar(double latitude, double longitude, int precisao) {
+        double latMin = -90, latMax = 90, lonMin = -180, lonMax = 180;
+        StringBuilder sb = new StringBuilder(precisao);
+        boolean bitLongitude = true;
+        int bits = 0, valor = 0;
+        while (sb.length() < precisao) {
+            if (bitLongitude) {
+                double meio = (lonMin + lonMax) / 2;
+                if (longitude >= meio) { valor = (valor << 1) | 1; lonMin = meio; } else { valor <<= 1; lonMax = meio; }
+            } else {
+                double meio = (latMin + latMax) / 2;
+                if (latitude >= meio) { valor = (valor << 1) | 1; latMin = meio; } else { valor <<= 1; latMax = meio; }
+            }
+            bitLongitude = !bitLongitude;
+            if (++bits == 5) {
+                sb.append(BASE32.charAt(valor));
+                bits = 0;
+                valor = 0;
+            }
+        }
+        return sb.toString();
+    }
+
+    @NonNull
+    public static String codificar(double latitude, double longitude) {
+        return codificar(latitude, longitude, PRECISAO_PADRAO);
+    }
+
+    /**
+     * Prefixos (sem repetição) das células que cobrem o círculo de raio {@code raioMetros}.
+     *
+     * A precisão escolhida é a maior cuja célula mede pelo menos o raio nos dois eixos; assim,
+     * amostrando o centro, os cantos e os pontos médios das bordas do retângulo envolvente
+     * (espaçados de um raio), toda célula que toca o retângulo contém alguma amostra.
+     */
+    @NonNull
+    public static List<String> celulasDoRaio(double latitude, double longitude, double raioMetros) {
+        double dLat = raioMetros / METROS_POR_GRAU;
+        double latBorda = Math.min(89.9, Math.abs(latitude) + dLat);
+        double dLon = raioMetros / (METROS_POR_GRAU * Math.cos(Math.toRadians(latBorda)));
+        int precisao = precisaoPara(raioMetros, latBorda);
+
+        Set<String> celulas = new LinkedHashSet<>();
+        for (int i = -1; i <= 1; i++) {
+            double lat = Math.max(-90, Math.min(90, latitude + i * dLat));
+            for (int j = -1; j <= 1; j++) {
+                celulas.add(codificar(lat, normalizarLongitude(longitude + j * dLon), precisao));
+            }
+        }
+        return new ArrayList<>(celulas);
+    }
+
+    private static int precisaoPara(double raioMetros, double latBorda) {
+        double cosLat = Math.cos(Math.toRadians(latBorda));
+        for (int p = PRECISAO_PADRAO; p > 1; p--) {
+            int totalBits = 5 * p;
+            double alturaMetros = 180.0 / (1L << (totalBits / 2)) * METROS_POR_GRAU;
+            double larguraMetros = 360.0 / (1L << ((totalBits + 1) / 2)) * METROS_POR_GRAU * cosLat;
+            if (alturaMetros >= raioMetros && larguraMetros >= raioMetros) return p;
+        }
+        return 1;
+    }
+
+    private static double normalizarLongitude(double longitude) {
+        if (longitude < -180) return longitude + 360;
+        if (longitude >= 180) return longitude - 360;
+        return longitude;
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.startuppulse.util;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Distâncias na superfície da Terra (haversine, esfera de raio médio) sem alocar nada por ponto.
+ *
+ * O uso típico é uma {@link Origem} (referência da busca, com seno/cosseno já calculados) contra
+ * N pontos em arrays {@code double[] lat} / {@code double[] lon}. Para checar raio há um
+ * pré-filtro equiretangular: descarta, só com multiplicações, os pontos claramente fora, e o
+ * haversine roda só para os que sobram.
+ *
+ * Comparado ao {@code Location.distanceBetween} (elipsoide WGS84), o erro fica abaixo de 0,6%:
+ * no máximo ~560 m num raio de 100 km, irrelevante para o match. Coordenadas em graus, distâncias
+ * em metros. Pontos com NaN resultam em NaN (e nunca estão dentro de um raio).
+ */
+public final class GeoMath {
+
+    /** Raio médio da Terra (IUGG), em metros. */
+    public static final double RAIO_TERRA_METROS = 6_371_008.8;
+    /** Retorno de {@link Origem#distanciaSeDentro} para pontos fora do raio. */
+    public static final double FORA = Double.POSITIVE_INFINITY;
+
+    private static final double RAD = Math.PI / 180.0;
+    private static final double METROS_POR_RAD = RAIO_TERRA_METROS;
+    // Até algumas centenas de km o erro do equiretangular fica bem abaixo de 2%: só é descartado o
+    // que passa do raio com essa folga.
+    private static final double FOLGA_PRE_FILTRO = 1.02;
+    // Perto dos polos (e em raios muito grandes) o erro passa da folga: com o círculo chegando além
+    // dessa latitude, ou acima desse raio, o pré-filtro não descarta nada e vale só o haversine.
+    // Medido: com raio até 1000 km e o círculo abaixo de 75°, o erro fica abaixo de 1%.
+    private static final double LATITUDE_MAX_PRE_FILTRO = 75.0;
+    private static final double RAIO_MAX_PRE_FILTRO_METROS = 1_000_000;
+
+    private GeoMath() {}
+
+    /**
+     * Distância haversine entre dois pontos, em metros.
+     */
+    public static double distancia(double lat1, double lon1, double lat2, double lon2) {
+        double lat1Rad = lat1 * RAD;
+        double lat2Rad = lat2 * RAD;
+        return haversine(lat1Rad, Math.cos(lat1Rad), lon1, lat2Rad, Math.cos(lat2Rad), lon2);
+    }
+
+    /**
+     * Preenche {@code cosLat[i]} com o cosseno de {@code lat[i]}, para reaproveitar entre buscas
+     * com origens diferentes sobre os mesmos pontos.
+     */
+    public static void cossenos(@NonNull double[] lat, int n, @NonNull double[] cosLat) {
+        for (int i = 0; i < n; i++) cosLat[i] = Math.cos(lat[i] * RAD);
+    }
+
+    /**
+     * Ponto de referência de uma busca, com o que dá para pré-calcular sobre ele.
+     */
+    public static final class Origem {
+        public final double latitude;
+        public final double longitude;
+        private final double latRad;
+        private final double cosLat;
+        private final double sinLat;
+
+        public Origem(double latitude, double longitude) {
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.latRad = latitude * RAD;
+            this.cosLat = Math.cos(latRad);
+            this.sinLat = Math.sin(latRad);
+        }
+
+        /** Distância haversine até o ponto, em metros. */
+        public double distancia(double lat, double lon) {
+            double latRadPonto = lat * RAD;
+            return haversine(latRad, cosLat, longitude, latRadPonto, Math.cos(latRadPonto), lon);
+        }
+
+        /**
+         * Distância até o ponto se ele estiver a até {@code raioMetros}; senão {@link #FORA}.
+         * Pontos claramente fora são descartados pelo pré-filtro, sem trigonometria.
+         */
+        public double distanciaSeDentro(double lat, double lon, double raioMetros) {
+            if (!talvezDentro(lat, lon, raioMetros)) return FORA;
+            double d = distancia(lat, lon);
+            return d <= raioMetros ? d : FORA;
+        }
+
+        /**
+         * Pré-filtro equiretangular: false só quando o ponto está certamente fora do raio.
+         * O cosseno da latitude média vem da expansão de primeira ordem em torno da origem
+         * (cos(φ + δ/2) ≈ cos φ − sen φ·δ/2), então não há trigonometria por ponto.
+         * Círculos que chegam perto de um polo não são filtrados (só pontos NaN são descartados).
+         */
+        public boolean talvezDentro(double lat, double lon, double raioMetros) {
+            if (raioMetros > RAIO_MAX_PRE_FILTRO_METROS
+                    || Math.abs(latitude) + raioMetros / (METROS_POR_RAD * RAD) > LATITUDE_MAX_PRE_FILTRO) {
+                return !Double.isNaN(lat + lon);
+            }
+            double y = (lat - latitude) * RAD;
+            double cosMedio = Math.max(0.0, cosLat - sinLat * y * 0.5);
+            double x = normalizarGraus(lon - longitude) * RAD * cosMedio;
+            double limite = raioMetros * FOLGA_PRE_FILTRO / METROS_POR_RAD;
+            return x * x + y * y <= limite * limite; // NaN -> false
+        }
+
+        /**
+         * {@code saida[i]} = distância até ({@code lat[i]}, {@code lon[i]}) para i em [0, n).
+         */
+        public void distancias(@NonNull double[] lat, @NonNull double[] lon, int n, @NonNull double[] saida) {
+            for (int i = 0; i < n; i++) {
+                double latRadPonto = lat[i] * RAD;
+                saida[i] = haversine(latRad, cosLat, longitude, latRadPonto, Math.cos(latRadPonto), lon[i]);
+            }
+        }
+
+        /**
+         * Como {@link #distancias(double[], double[], int, double[])}, com os cossenos das latitudes
+         * já calculados por {@link GeoMath#cossenos}.
+         */
+        public void distancias(@NonNull double[] lat, @NonNull double[] lon, @NonNull double[] cosLat,
+                               int n, @NonNull double[] saida) {
+            for (int i = 0; i < n; i++) {
+                saida[i] = haversine(latRad, this.cosLat, longitude, lat[i] * RAD, cosLat[i], lon[i]);
+            }
+        }
+
+        /**
+         * Pontos a até {@code raioMetros}, na ordem dos arrays: grava os índices em {@code indices} e
+         * as distâncias em {@code distancias} (ambos com pelo menos n posições) e retorna quantos são.
+         */
+        public int dentroDoRaio(@NonNull double[] lat, @NonNull double[] lon, int n, double raioMetros,
+                                @NonNull int[] indices, @NonNull double[] distancias) {
+            int k = 0;
+            for (int i = 0; i < n; i++) {
+                double d = distanciaSeDentro(lat[i], lon[i], raioMetros);
+                if (d == FORA) continue;
+                indices[k] = i;
+                distancias[k] = d;
+                k++;
+            }
+            return k;
+        }
+    }
+
+    private static double haversine(double lat1Rad, double cosLat1, double lon1,
+                                    double lat2Rad, double cosLat2, double lon2) {
+        double sLat = Math.sin((lat2Rad - lat1Rad) * 0.5);
+        double sLon = Math.sin(normalizarGraus(lon2 - lon1) * RAD * 0.5);
+        double h = sLat * sLat + cosLat1 * cosLat2 * sLon * sLon;
+        return 2 * METROS_POR_RAD * Math.asin(Math.min(1.0, Math.sqrt(h)));
+    }
+
+    // Diferença de longitude em [-180, 180], para pontos dos dois lados do antimeridiano.
+    private static double normalizarGraus(double dLon) {
+        if (dLon > 180) return dLon - 360;
+        if (dLon < -180) return dLon + 360;
+        return dLon;
+    }
+}
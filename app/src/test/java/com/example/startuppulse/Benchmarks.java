@@ -0,0 +1,16 @@
+package com.example.startuppulse;
+
+import org.junit.Assume;
+
+/**
+ * Os benchmarks (classes *Benchmark) ficam fora da suíte normal: só rodam com
+ * {@code ./gradlew testDebugUnitTest -Pbenchmarks}, que liga a propriedade "benchmarks".
+ */
+public final class Benchmarks {
+
+    private Benchmarks() {}
+
+    public static void exigirHabilitados() {
+        Assume.assumeTrue("Benchmark desabilitado; rode com -Pbenchmarks.", Boolean.getBoolean("benchmarks"));
+    }
+}
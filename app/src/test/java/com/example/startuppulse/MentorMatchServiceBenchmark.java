@@ -0,0 +1,147 @@
+package com.example.startuppulse;
+
+import com.example.startuppulse.data.models.Mentor;
+import com.example.startuppulse.data.models.User;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Ranking de mentores antes e depois da pontuação única: o comparador antigo (que recalculava a
+ * afinidade e a distância dos dois lados a cada comparação) contra {@link MentorMatchService#ordenar}
+ * e o top-5 de {@link MentorMatchService#melhores}. O top-5 precisa ser mais rápido que a ordenação
+ * antiga em todos os tamanhos; os números vão para a saída do teste.
+ */
+public class MentorMatchServiceBenchmark {
+
+    private static final String[] AREAS = {
+            "Marketing Digital", "Vendas", "Produto", "Tecnologia (Web)", "Finanças", "Jurídico",
+            "Logística", "Educação / Edtech", "Saúde / Healthtech", "Agro / Agritech"};
+    private static final double LAT = -30.0;
+    private static final double LON = -51.0;
+
+    @Before
+    public void exigirBenchmarks() {
+        Benchmarks.exigirHabilitados();
+    }
+
+    @Test
+    public void comparadorAntigoVsPontuacaoUnica() {
+        Random random = new Random(42);
+        List<String> areasIdeia = Arrays.asList("Produto", "Vendas", "Finanças");
+        for (int n : new int[]{1_000, 10_000, 100_000}) {
+            List<User> users = aleatorios(random, n);
+            int repeticoes = Math.max(3, 200_000 / n);
+            for (int i = 0; i < 2; i++) { // aquecimento
+                ordenarComparadorAntigo(users, areasIdeia);
+                MentorMatchService.ordenar(MentorMatchService.pontuar(users, areasIdeia, LAT, LON));
+                MentorMatchService.melhores(MentorMatchService.pontuar(users, areasIdeia, LAT, LON), 5);
+            }
+
+            int total = 0;
+            long inicio = System.nanoTime();
+            for (int i = 0; i < repeticoes; i++) total += ordenarComparadorAntigo(users, areasIdeia).size();
+            double antigoMs = (System.nanoTime() - inicio) / 1e6 / repeticoes;
+
+            inicio = System.nanoTime();
+            for (int i = 0; i < repeticoes; i++) {
+                total += MentorMatchService.ordenar(MentorMatchService.pontuar(users, areasIdeia, LAT, LON)).size();
+            }
+            double ordenarMs = (System.nanoTime() - inicio) / 1e6 / repeticoes;
+
+            inicio = System.nanoTime();
+            for (int i = 0; i < repeticoes; i++) {
+                total += MentorMatchService.melhores(MentorMatchService.pontuar(users, areasIdeia, LAT, LON), 5).size();
+            }
+            double melhoresMs = (System.nanoTime() - inicio) / 1e6 / repeticoes;
+
+            assertTrue(total > 0);
+            System.out.println(String.format(Locale.ROOT,
+                    "MentorMatchService: %,d mentores  comparador antigo %.2f ms  ordenação %.2f ms  top-5 %.2f ms",
+                    n, antigoMs, ordenarMs, melhoresMs));
+            assertTrue(String.format(Locale.ROOT, "top-5 (%.2f ms) não é mais rápido que o comparador antigo (%.2f ms) com %,d mentores",
+                    melhoresMs, antigoMs, n), melhoresMs < antigoMs);
+        }
+    }
+
+    // --- Ranking anterior, reproduzido para comparação ---
+    // A distância usava Location.distanceTo, indisponível nos testes de JVM; a fórmula de haversine
+    // é mais barata, então o tempo do comparador antigo medido aqui é, no máximo, subestimado.
+
+    private static List<User> ordenarComparadorAntigo(List<User> users, List<String> areasDaIdeia) {
+        List<User> copia = new ArrayList<>(users);
+        Comparator<User> comparador = (u1, u2) -> {
+            int cmpAfinidade = Integer.compare(afinidadeAntiga(u2, areasDaIdeia), afinidadeAntiga(u1, areasDaIdeia));
+            if (cmpAfinidade != 0) return cmpAfinidade;
+            return Double.compare(distanciaAntiga(u1), distanciaAntiga(u2));
+        };
+        Collections.sort(copia, comparador);
+        return copia;
+    }
+
+    private static int afinidadeAntiga(User user, List<String> areasDaIdeia) {
+        List<String> areasUser = user.getAreasDeInteresse();
+        if (areasUser == null || areasUser.isEmpty() || areasDaIdeia == null || areasDaIdeia.isEmpty()) return 0;
+        HashSet<String> setUser = new HashSet<>();
+        for (String area : areasUser) {
+            if (area != null && !area.trim().isEmpty()) setUser.add(area.trim().toLowerCase());
+        }
+        int count = 0;
+        for (String area : areasDaIdeia) {
+            if (area != null && setUser.contains(area.trim().toLowerCase())) count++;
+        }
+        return count;
+    }
+
+    private static double distanciaAntiga(User mentor) {
+        Mentor dados = mentor.getMentorData();
+        if (dados == null) return -1;
+        double lat = dados.getLatitude();
+        double lon = dados.getLongitude();
+        if (lat == 0.0 && lon == 0.0) return -1;
+        double dLat = Math.toRadians(lat - LAT);
+        double dLon = Math.toRadians(lon - LON);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(LAT)) * Math.cos(Math.toRadians(lat)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * 6_371_000 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+    }
+
+    // --- Dados ---
+
+    /**
+     * Mentores aleatórios com muitos empates (mesmo gerador de MentorMatchServiceTest).
+     */
+    private static List<User> aleatorios(Random random, int n) {
+        List<User> users = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            int nAreas = random.nextInt(4);
+            List<String> areas = new ArrayList<>(nAreas);
+            for (int a = 0; a < nAreas; a++) areas.add(AREAS[random.nextInt(AREAS.length)]);
+            boolean semLocal = random.nextInt(10) == 0;
+            boolean mesmoPonto = random.nextInt(5) == 0;
+            Mentor dados = new Mentor();
+            dados.setId("m" + i);
+            dados.setLatitude(semLocal ? 0 : mesmoPonto ? LAT : -34 + random.nextDouble() * 10);
+            dados.setLongitude(semLocal ? 0 : mesmoPonto ? LON : -55 + random.nextDouble() * 10);
+            dados.setIdeiasEmAvaliacao(random.nextInt(7));
+            User user = new User();
+            user.setId("m" + i);
+            user.setNome("m" + i);
+            user.setAreasDeInteresse(areas);
+            user.setMentorData(dados);
+            users.add(user);
+        }
+        return users;
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.startuppulse;
+
+import com.example.startuppulse.data.models.Mentor;
+import com.example.startuppulse.data.models.User;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class MentorMatchServiceTest {
+
+    private static final String[] AREAS = {
+            "Marketing Digital", "Vendas", "Produto", "Tecnologia (Web)", "Finanças", "Jurídico",
+            "Logística", "Educação / Edtech", "Saúde / Healthtech", "Agro / Agritech"};
+
+    private static User mentor(String id, double lat, double lon, int carga, String... areas) {
+        Mentor dados = new Mentor();
+        dados.setId(id);
+        dados.setLatitude(lat);
+        dados.setLongitude(lon);
+        dados.setIdeiasEmAvaliacao(carga);
+        User user = new User();
+        user.setId(id);
+        user.setNome(id);
+        user.setAreasDeInteresse(new ArrayList<>(Arrays.asList(areas)));
+        user.setMentorData(dados);
+        return user;
+    }
+
+    private static List<String> ids(List<User> users) {
+        List<String> ids = new ArrayList<>();
+        for (User user : users) ids.add(user.getId());
+        return ids;
+    }
+
+    /**
+     * Mentores aleatórios com muitos empates: poucas áreas, carga de 0 a 6 (acima da capacidade
+     * inclusive), alguns sem localização (0,0) e vários no mesmo ponto.
+     */
+    private static List<User> aleatorios(Random random, int n) {
+        List<User> users = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            int nAreas = random.nextInt(4);
+            String[] areas = new String[nAreas];
+            for (int a = 0; a < nAreas; a++) areas[a] = AREAS[random.nextInt(AREAS.length)];
+            boolean semLocal = random.nextInt(10) == 0;
+            boolean mesmoPonto = random.nextInt(5) == 0;
+            double lat = semLocal ? 0 : mesmoPonto ? -30.0 : -34 + random.nextDouble() * 10;
+            double lon = semLocal ? 0 : mesmoPonto ? -51.0 : -55 + random.nextDouble() * 10;
+            users.add(mentor("m" + i, lat, lon, random.nextInt(7), areas));
+        }
+        return users;
+    }
+
+    @Test
+    public void ordenar_afinidadeDepoisCargaDepoisDistancia() {
+        List<User> users = Arrays.asList(
+                mentor("longe-afim", -23.5, -46.6, 0, "Produto", "Vendas"),
+                mentor("perto-pouco-afim", -30.03, -51.23, 0, "Produto"),
+                mentor("perto-afim-ocupado", -30.03, -51.23, 3, "Produto", "Vendas"),
+                mentor("perto-afim", -30.04, -51.22, 0, "Produto", "Vendas"),
+                mentor("sem-local-afim", 0, 0, 0, "Produto", "Vendas"));
+
+        List<User> ordenados = MentorMatchService.ordenar(
+                MentorMatchService.pontuar(users, Arrays.asList("Produto", "Vendas"), -30.03, -51.23));
+
+        assertEquals(Arrays.asList("perto-afim", "longe-afim", "sem-local-afim", "perto-afim-ocupado", "perto-pouco-afim"),
+                ids(ordenados));
+    }
+
+    @Test
+    public void ordenar_excluiMentoresNaCapacidade() {
+        List<User> users = Arrays.asList(
+                mentor("cheio", -30, -51, MentorMatchService.CAPACIDADE_MENTOR, "Produto"),
+                mentor("livre", -30, -51, MentorMatchService.CAPACIDADE_MENTOR - 1, "Produto"));
+        MentorMatchService.Pontuacao p = MentorMatchService.pontuar(users, Collections.singletonList("Produto"), -30, -51);
+
+        assertEquals(Collections.singletonList("livre"), ids(MentorMatchService.ordenar(p)));
+        assertEquals(Collections.singletonList("livre"), ids(MentorMatchService.melhores(p, 3)));
+    }
+
+    @Test
+    public void ordenar_empatesMantemOrdemDeEntrada() {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 20; i++) users.add(mentor("m" + i, -30, -51, 1, "Vendas"));
+        MentorMatchService.Pontuacao p = MentorMatchService.pontuar(users, Collections.singletonList("Vendas"), -30, -51);
+
+        assertEquals(ids(users), ids(MentorMatchService.ordenar(p)));
+        assertEquals(ids(users.subList(0, 5)), ids(MentorMatchService.melhores(p, 5)));
+    }
+
+    @Test
+    public void melhores_igualAoPrefixoDaOrdenacaoCompleta() {
+        Random random = new Random(7);
+        for (int rodada = 0; rodada < 200; rodada++) {
+            List<User> users = aleatorios(random, 1 + random.nextInt(300));
+            List<String> areasIdeia = Arrays.asList(AREAS[random.nextInt(AREAS.length)], AREAS[random.nextInt(AREAS.length)]);
+            boolean semReferencia = random.nextInt(4) == 0;
+            MentorMatchService.Pontuacao p = MentorMatchService.pontuar(users, areasIdeia,
+                    semReferencia ? Double.NaN : -30.0, semReferencia ? Double.NaN : -51.0);
+
+            List<String> completa = ids(MentorMatchService.ordenar(p));
+            for (int k : new int[]{1, 2, 5, 20, users.size() + 1}) {
+                List<String> prefixo = completa.subList(0, Math.min(k, completa.size()));
+                assertEquals("rodada " + rodada + ", k=" + k, prefixo, ids(MentorMatchService.melhores(p, k)));
+            }
+        }
+    }
+
+    @Test
+    public void melhores_kZeroOuListaVazia() {
+        assertTrue(MentorMatchService.melhores(
+                MentorMatchService.pontuar(aleatorios(new Random(1), 10), Collections.singletonList("Vendas"), -30, -51), 0).isEmpty());
+        assertTrue(MentorMatchService.melhores(
+                MentorMatchService.pontuar(Collections.emptyList(), Collections.singletonList("Vendas"), -30, -51), 5).isEmpty());
+    }
+}
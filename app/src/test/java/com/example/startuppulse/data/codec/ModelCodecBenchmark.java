@@ -0,0 +1,171 @@
+package com.example.startuppulse.data.codec;
+
+import com.example.startuppulse.Benchmarks;
+import com.example.startuppulse.data.models.Ideia;
+import com.example.startuppulse.data.models.IdeiaSummary;
+import com.google.gson.Gson;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Benchmark do codec contra Serializable e Gson, com os resumos do feed (o que vai para o cache em
+ * disco). O codec precisa gerar menos bytes e fazer a ida e volta em menos tempo que os dois; os
+ * números vão para a saída do teste.
+ */
+public class ModelCodecBenchmark {
+
+    private static final int ITENS = 2_000;
+    private static final int RODADAS = 10;
+
+    /** Mesmos campos do IdeiaSummary, para medir o Serializable (os modelos não o implementam mais). */
+    private static final class ResumoSerializavel implements Serializable {
+        private static final long serialVersionUID = 1L;
+        String id, nome, ownerId, autorNome, mentorId, textoBusca;
+        Ideia.Status status;
+        Date timestamp, ultimaEdicao;
+        ArrayList<String> areasNecessarias;
+        boolean prontaParaInvestidores;
+        double mediaPonderadaVotosComunidade;
+        int totalVotosComunidade;
+
+        ResumoSerializavel(IdeiaSummary r) {
+            id = r.getId();
+            nome = r.getNome();
+            ownerId = r.getOwnerId();
+            autorNome = r.getAutorNome();
+            mentorId = r.getMentorId();
+            textoBusca = r.getTextoBusca();
+            status = r.getStatus();
+            timestamp = r.getTimestamp();
+            ultimaEdicao = r.getUltimaEdicao();
+            areasNecessarias = new ArrayList<>(r.getAreasNecessarias());
+            prontaParaInvestidores = r.isProntaParaInvestidores();
+            mediaPonderadaVotosComunidade = r.getMediaPonderadaVotosComunidade();
+            totalVotosComunidade = r.getTotalVotosComunidade();
+        }
+    }
+
+    /** Bytes de uma rodada e tempo total (codificação + decodificação) das rodadas medidas. */
+    private static final class Medida {
+        final long bytes;
+        final long nanos;
+
+        Medida(long bytes, long nanos) {
+            this.bytes = bytes;
+            this.nanos = nanos;
+        }
+    }
+
+    private interface Formato {
+        byte[] codificar(int i) throws IOException;
+
+        Object decodificar(byte[] bytes) throws IOException, ClassNotFoundException;
+    }
+
+    @Before
+    public void exigirBenchmarks() {
+        Benchmarks.exigirHabilitados();
+    }
+
+    @Test
+    public void codecSerializableGson() throws Exception {
+        List<IdeiaSummary> resumos = new ArrayList<>(ITENS);
+        List<ResumoSerializavel> serializaveis = new ArrayList<>(ITENS);
+        for (int i = 0; i < ITENS; i++) {
+            IdeiaSummary resumo = ModelCodecTest.resumoExemplo(i);
+            resumos.add(resumo);
+            serializaveis.add(new ResumoSerializavel(resumo));
+        }
+        Gson gson = new Gson();
+
+        Medida codec = medir("ModelCodec", new Formato() {
+            public byte[] codificar(int i) {
+                return ModelCodec.encode(resumos.get(i), IdeiaSummary::writeTo);
+            }
+
+            public Object decodificar(byte[] bytes) throws IOException {
+                return ModelCodec.decode(bytes, IdeiaSummary::readFrom);
+            }
+        });
+        Medida serializable = medir("Serializable", new Formato() {
+            public byte[] codificar(int i) throws IOException {
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream(512);
+                try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+                    out.writeObject(serializaveis.get(i));
+                }
+                return bytes.toByteArray();
+            }
+
+            public Object decodificar(byte[] bytes) throws IOException, ClassNotFoundException {
+                try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+                    return in.readObject();
+                }
+            }
+        });
+        Medida json = medir("Gson", new Formato() {
+            public byte[] codificar(int i) {
+                return gson.toJson(resumos.get(i)).getBytes(StandardCharsets.UTF_8);
+            }
+
+            public Object decodificar(byte[] bytes) {
+                return gson.fromJson(new String(bytes, StandardCharsets.UTF_8), IdeiaSummary.class);
+            }
+        });
+
+        assertTrue("bytes: codec " + codec.bytes + ", Gson " + json.bytes, codec.bytes < json.bytes);
+        assertTrue("bytes: codec " + codec.bytes + ", Serializable " + serializable.bytes, codec.bytes < serializable.bytes);
+        assertTrue("tempo: codec " + codec.nanos + " ns, Gson " + json.nanos + " ns", codec.nanos < json.nanos);
+        assertTrue("tempo: codec " + codec.nanos + " ns, Serializable " + serializable.nanos + " ns", codec.nanos < serializable.nanos);
+    }
+
+    /**
+     * Codifica e decodifica todos os itens RODADAS vezes (após uma rodada de aquecimento).
+     *
+     * @return bytes de uma rodada e tempo total medido.
+     */
+    private static Medida medir(String nome, Formato formato) throws Exception {
+        long bytesTotal = 0;
+        long codificacaoNs = 0;
+        long decodificacaoNs = 0;
+        for (int rodada = 0; rodada <= RODADAS; rodada++) {
+            long bytesRodada = 0;
+            long codificacao = 0;
+            long decodificacao = 0;
+            for (int i = 0; i < ITENS; i++) {
+                long inicio = System.nanoTime();
+                byte[] bytes = formato.codificar(i);
+                long meio = System.nanoTime();
+                Object lido = formato.decodificar(bytes);
+                decodificacao += System.nanoTime() - meio;
+                codificacao += meio - inicio;
+                bytesRodada += bytes.length;
+                if (lido == null) throw new AssertionError(nome + " devolveu null");
+            }
+            if (rodada == 0) continue; // aquecimento
+            assertTrue(bytesTotal == 0 || bytesTotal == bytesRodada);
+            bytesTotal = bytesRodada;
+            codificacaoNs += codificacao;
+            decodificacaoNs += decodificacao;
+        }
+        long operacoes = (long) ITENS * RODADAS;
+        System.out.println(String.format(Locale.ROOT,
+                "%-12s %6d bytes/item  codificação %6.2f µs/item  decodificação %6.2f µs/item",
+                nome, bytesTotal / ITENS, codificacaoNs / 1_000.0 / operacoes, decodificacaoNs / 1_000.0 / operacoes));
+        return new Medida(bytesTotal, codificacaoNs + decodificacaoNs);
+    }
+}
@@ -0,0 +1,195 @@
+package com.example.startuppulse.data.codec;
+
+import com.example.startuppulse.data.models.Ideia;
+import com.example.startuppulse.data.models.IdeiaSummary;
+import com.example.startuppulse.data.models.Investor;
+import com.example.startuppulse.data.models.Mentor;
+import com.example.startuppulse.data.models.PostIt;
+import com.example.startuppulse.data.models.User;
+import com.google.firebase.Timestamp;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ModelCodecTest {
+
+    /**
+     * Codifica, decodifica e codifica de novo: os bytes têm que ser idênticos (nenhum campo se perde).
+     */
+    private static <T> T idaEVolta(T modelo, ModelCodec.Writer<T> writer, ModelCodec.Reader<T> reader) throws IOException {
+        byte[] bytes = ModelCodec.encode(modelo, writer);
+        T lido = ModelCodec.decode(bytes, reader);
+        assertArrayEquals(bytes, ModelCodec.encode(lido, writer));
+        return lido;
+    }
+
+    static IdeiaSummary resumoExemplo(int i) {
+        IdeiaSummary resumo = new IdeiaSummary();
+        resumo.setId("ideia" + i);
+        resumo.setNome("Inovação nº " + i + " — energia solar ☀");
+        resumo.setOwnerId("owner" + (i % 50));
+        resumo.setAutorNome("Autora " + i);
+        resumo.setMentorId(i % 3 == 0 ? null : "mentor" + (i % 7));
+        resumo.setStatus(Ideia.Status.EM_AVALIACAO);
+        resumo.setTimestamp(new Date(1_700_000_000_000L + i * 1_000L));
+        resumo.setUltimaEdicao(new Date(1_700_000_500_000L + i * 1_000L));
+        resumo.setAreasNecessarias(Arrays.asList("Tecnologia", "Finanças"));
+        resumo.setProntaParaInvestidores(i % 2 == 0);
+        resumo.setMediaPonderadaVotosComunidade(3.75);
+        resumo.setTotalVotosComunidade(i);
+        resumo.setTextoBusca("Plataforma que conecta condomínios a fornecedores de energia solar. " + i);
+        return resumo;
+    }
+
+    @Test
+    public void ideiaSummary_idaEVolta() throws IOException {
+        IdeiaSummary lido = idaEVolta(resumoExemplo(7), IdeiaSummary::writeTo, IdeiaSummary::readFrom);
+
+        assertEquals("ideia7", lido.getId());
+        assertEquals("Inovação nº 7 — energia solar ☀", lido.getNome());
+        assertEquals(Ideia.Status.EM_AVALIACAO, lido.getStatus());
+        assertEquals(new Date(1_700_000_007_000L), lido.getTimestamp());
+        assertEquals(new Date(1_700_000_507_000L), lido.getUltimaEdicao());
+        assertEquals(Arrays.asList("Tecnologia", "Finanças"), lido.getAreasNecessarias());
+        assertEquals(3.75, lido.getMediaPonderadaVotosComunidade(), 0.0);
+    }
+
+    @Test
+    public void ideiaSummary_camposNulos() throws IOException {
+        IdeiaSummary lido = idaEVolta(new IdeiaSummary(), IdeiaSummary::writeTo, IdeiaSummary::readFrom);
+
+        assertNull(lido.getId());
+        assertNull(lido.getMentorId());
+        assertNull(lido.getTimestamp());
+        assertNull(lido.getTextoBusca());
+    }
+
+    @Test
+    public void user_comMentor_idaEVolta() throws IOException {
+        Mentor mentor = new Mentor();
+        mentor.setId("u1");
+        mentor.setCity("Porto Alegre");
+        mentor.setLatitude(-30.03);
+        mentor.setLongitude(-51.23);
+        mentor.setGeohash("6nxy");
+        mentor.setIdeiasEmAvaliacao(2);
+        User user = new User();
+        user.setId("u1");
+        user.setNome("João");
+        user.setEmail("joao@example.com");
+        user.setUltimoAcesso(new Timestamp(1_700_000_000L, 123_000_000));
+        user.setMentorData(mentor);
+
+        User lido = idaEVolta(user, User::writeTo, User::readFrom);
+
+        assertEquals("João", lido.getNome());
+        assertEquals(new Timestamp(1_700_000_000L, 123_000_000), lido.getUltimoAcesso());
+        assertEquals("Porto Alegre", lido.getMentorData().getCity());
+        assertEquals(2, lido.getMentorData().getIdeiasEmAvaliacao());
+    }
+
+    @Test
+    public void investor_mapaGenerico_idaEVolta() throws IOException {
+        Map<String, Object> verificacao = new LinkedHashMap<>();
+        verificacao.put("situacao", "ATIVA");
+        verificacao.put("capital", 150000.5);
+        verificacao.put("socios", Arrays.asList("A", "B"));
+        verificacao.put("nulo", null);
+        Investor investor = new Investor();
+        investor.setId("inv1");
+        investor.setNome("Fundo Sul");
+        investor.setApiVerificationData(verificacao);
+        investor.setCreatedAt(new Date(1_600_000_000_000L));
+
+        Investor lido = idaEVolta(investor, Investor::writeTo, Investor::readFrom);
+
+        assertEquals("Fundo Sul", lido.getNome());
+        assertEquals(verificacao, lido.getApiVerificationData());
+        assertEquals(new Date(1_600_000_000_000L), lido.getCreatedAt());
+    }
+
+    @Test
+    public void ideia_comPostIts_idaEVolta() throws IOException {
+        Ideia ideia = new Ideia();
+        ideia.setId("i1");
+        ideia.setNome("Canvas");
+        ideia.setLatitude(-23.5);
+        ideia.setUltimaEdicao(new Date(1_700_000_000_000L));
+        PostIt postIt = new PostIt("Clientes: condomínios", "#FFEB3B", new Date(1_700_000_000_000L));
+        postIt.setId("p1");
+        Map<String, PostIt> proposta = new HashMap<>();
+        proposta.put("p1", postIt);
+        Map<String, Map<String, PostIt>> porEtapa = new HashMap<>();
+        porEtapa.put("PROPOSTA_VALOR", proposta);
+        ideia.setPostItsPorId(porEtapa);
+        Map<String, Object> analise = new HashMap<>();
+        analise.put("nota", 8L);
+        analise.put("resumo", "Boa ideia");
+        ideia.setAvaliacaoIA(analise);
+        ideia.setTotalAvaliacoes(2);
+
+        Ideia lida = idaEVolta(ideia, Ideia::writeTo, Ideia::readFrom);
+
+        assertEquals("Clientes: condomínios", lida.getPostItsPorId().get("PROPOSTA_VALOR").get("p1").getTexto());
+        assertEquals(analise, lida.getAvaliacaoIA());
+        assertEquals(new Date(1_700_000_000_000L), lida.getUltimaEdicao());
+        assertEquals(2, lida.getTotalAvaliacoes());
+    }
+
+    @Test
+    public void decode_outraVersao_lancaIOException() throws IOException {
+        byte[] atual = ModelCodec.encode(resumoExemplo(1), IdeiaSummary::writeTo);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        StreamCodecOutput out = new StreamCodecOutput(new DataOutputStream(bytes));
+        out.writeInt(ModelCodec.VERSAO - 1);
+        resumoExemplo(1).writeTo(out);
+        assertFalse(Arrays.equals(atual, bytes.toByteArray()));
+
+        try {
+            ModelCodec.decode(bytes.toByteArray(), IdeiaSummary::readFrom);
+            fail("Versão antiga deveria ser rejeitada.");
+        } catch (IOException esperado) {
+            assertTrue(esperado.getMessage().contains("Versão"));
+        }
+    }
+
+    @Test
+    public void decode_truncado_lancaIOException() {
+        byte[] bytes = ModelCodec.encode(resumoExemplo(1), IdeiaSummary::writeTo);
+        for (int n : new int[]{0, 1, bytes.length / 2, bytes.length - 1}) {
+            try {
+                ModelCodec.decode(Arrays.copyOf(bytes, n), IdeiaSummary::readFrom);
+                fail("Blob truncado em " + n + " bytes deveria ser rejeitado.");
+            } catch (IOException esperado) {
+                // ok
+            }
+        }
+    }
+
+    @Test
+    public void decode_lixo_lancaIOException() {
+        byte[] lixo = new byte[64];
+        Arrays.fill(lixo, (byte) 0xFF);
+        try {
+            ModelCodec.decode(lixo, IdeiaSummary::readFrom);
+            fail("Bytes inválidos deveriam ser rejeitados.");
+        } catch (IOException esperado) {
+            // ok
+        }
+    }
+}
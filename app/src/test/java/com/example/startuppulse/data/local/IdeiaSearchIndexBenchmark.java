@@ -0,0 +1,100 @@
+package com.example.startuppulse.data.local;
+
+import com.example.startuppulse.Benchmarks;
+import com.example.startuppulse.data.models.IdeiaSummary;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Indexação e consulta com 50 mil ideias. A mediana por consulta (top 20, com prefixo) precisa
+ * ficar abaixo de 10 ms; os demais números vão para a saída do teste.
+ */
+public class IdeiaSearchIndexBenchmark {
+
+    private static final int IDEIAS = 50_000;
+    private static final int CONSULTAS = 2_000;
+    private static final double MAX_MEDIANA_CONSULTA_MS = 10.0;
+
+    @Rule
+    public TemporaryFolder pasta = new TemporaryFolder();
+
+    @Before
+    public void exigirBenchmarks() {
+        Benchmarks.exigirHabilitados();
+    }
+
+    @Test
+    public void indexacaoEConsulta() throws IOException {
+        String[] vocabulario = {
+                "energia", "solar", "eolica", "escola", "saude", "mental", "agricultura", "credito", "rural",
+                "logistica", "delivery", "marketplace", "reciclagem", "plastico", "inovacao", "social",
+                "turismo", "financas", "pagamentos", "seguranca", "dados", "mobilidade", "urbana", "moda",
+                "sustentavel", "educacao", "infantil", "biotecnologia", "games", "musica", "varejo", "pets"};
+        Random random = new Random(42);
+
+        List<IdeiaSummary> resumos = new ArrayList<>(IDEIAS);
+        for (int i = 0; i < IDEIAS; i++) {
+            StringBuilder texto = new StringBuilder();
+            for (int t = 0; t < 40; t++) {
+                texto.append(vocabulario[random.nextInt(vocabulario.length)]).append(" termo").append(random.nextInt(5000)).append(' ');
+            }
+            IdeiaSummary resumo = new IdeiaSummary();
+            resumo.setId("ideia" + i);
+            resumo.setNome(vocabulario[random.nextInt(vocabulario.length)] + " " + vocabulario[random.nextInt(vocabulario.length)]);
+            resumo.setTextoBusca(texto.toString());
+            resumo.setAreasNecessarias(Arrays.asList(vocabulario[random.nextInt(vocabulario.length)]));
+            resumos.add(resumo);
+        }
+
+        File diretorio = pasta.newFolder();
+        IdeiaSearchIndex indice = new IdeiaSearchIndex(diretorio);
+        long inicio = System.nanoTime();
+        indice.atualizar(resumos, Collections.emptyList());
+        long indexacaoMs = (System.nanoTime() - inicio) / 1_000_000;
+        assertEquals(IDEIAS, indice.size());
+
+        String[] textosConsulta = new String[CONSULTAS];
+        for (int i = 0; i < CONSULTAS; i++) {
+            String ultimo = vocabulario[random.nextInt(vocabulario.length)];
+            textosConsulta[i] = vocabulario[random.nextInt(vocabulario.length)] + " " + ultimo.substring(0, 3 + random.nextInt(ultimo.length() - 2));
+        }
+        for (int i = 0; i < 200; i++) indice.buscar(textosConsulta[i], 20); // aquecimento
+
+        int encontradas = 0;
+        long[] tempos = new long[CONSULTAS];
+        for (int i = 0; i < CONSULTAS; i++) {
+            long t0 = System.nanoTime();
+            encontradas += indice.buscar(textosConsulta[i], 20).size();
+            tempos[i] = System.nanoTime() - t0;
+        }
+        assertTrue(encontradas > 0);
+        Arrays.sort(tempos);
+        double medianaMs = tempos[CONSULTAS / 2] / 1_000_000.0;
+        double p95Ms = tempos[CONSULTAS * 95 / 100] / 1_000_000.0;
+
+        inicio = System.nanoTime();
+        IdeiaSearchIndex recarregado = new IdeiaSearchIndex(diretorio);
+        assertEquals(IDEIAS, recarregado.size());
+        long carregamentoMs = (System.nanoTime() - inicio) / 1_000_000;
+
+        System.out.println(String.format(Locale.ROOT,
+                "IdeiaSearchIndex: %d ideias indexadas em %d ms, carregadas do disco em %d ms; consulta (top 20): mediana %.2f ms, p95 %.2f ms",
+                IDEIAS, indexacaoMs, carregamentoMs, medianaMs, p95Ms));
+        assertTrue("Mediana por consulta de " + medianaMs + " ms", medianaMs < MAX_MEDIANA_CONSULTA_MS);
+    }
+}
@@ -0,0 +1,188 @@
+package com.example.startuppulse.data.local;
+
+import com.example.startuppulse.data.models.IdeiaSummary;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class IdeiaSearchIndexTest {
+
+    @Rule
+    public TemporaryFolder pasta = new TemporaryFolder();
+
+    private static IdeiaSummary resumo(String id, String nome, String texto, String... areas) {
+        IdeiaSummary resumo = new IdeiaSummary();
+        resumo.setId(id);
+        resumo.setNome(nome);
+        resumo.setTextoBusca(texto);
+        resumo.setAreasNecessarias(Arrays.asList(areas));
+        return resumo;
+    }
+
+    private static List<String> ids(List<IdeiaSummary> resumos) {
+        List<String> ids = new ArrayList<>();
+        for (IdeiaSummary resumo : resumos) ids.add(resumo.getId());
+        return ids;
+    }
+
+    private IdeiaSearchIndex indiceCom(IdeiaSummary... resumos) throws IOException {
+        IdeiaSearchIndex indice = new IdeiaSearchIndex(pasta.newFolder());
+        indice.atualizar(Arrays.asList(resumos), Collections.emptyList());
+        return indice;
+    }
+
+    @Test
+    public void buscar_termoNoNomeVemAntesDoTermoNoTexto() throws IOException {
+        IdeiaSearchIndex indice = indiceCom(
+                resumo("texto", "Aplicativo de receitas", "Receitas que usam energia solar para cozinhar"),
+                resumo("nome", "Energia solar compartilhada", "Marketplace entre vizinhos"),
+                resumo("outra", "Delivery de marmitas", "Entregas por bicicleta"));
+
+        assertEquals(Arrays.asList("nome", "texto"), ids(indice.buscar("energia solar", 10)));
+    }
+
+    @Test
+    public void buscar_maisTermosEncontradosVemPrimeiro() throws IOException {
+        // "um" só tem "energia" no nome (peso 3); "dois" tem os dois termos, mas só no texto (peso 1).
+        IdeiaSearchIndex indice = indiceCom(
+                resumo("um", "Energia para condomínios", "Gestão de consumo"),
+                resumo("dois", "Parques offshore", "Energia eólica em alto mar"));
+
+        assertEquals(Arrays.asList("dois", "um"), ids(indice.buscar("energia eolica", 10)));
+    }
+
+    @Test
+    public void buscar_termoRaroPesaMaisQueTermoComum() throws IOException {
+        List<IdeiaSummary> resumos = new ArrayList<>();
+        for (int i = 0; i < 20; i++) resumos.add(resumo("comum" + i, "Plataforma " + i, "Escolas"));
+        resumos.add(resumo("raro", "Plataforma de biochar", ""));
+        resumos.add(resumo("so-comum", "Plataforma", "Agricultura"));
+        IdeiaSearchIndex indice = new IdeiaSearchIndex(pasta.newFolder());
+        indice.atualizar(resumos, Collections.emptyList());
+
+        List<String> resultado = ids(indice.buscar("biochar plataforma", 3));
+        assertEquals("raro", resultado.get(0));
+        assertEquals(3, resultado.size());
+    }
+
+    @Test
+    public void buscar_ignoraAcentosEMaiusculas() throws IOException {
+        IdeiaSearchIndex indice = indiceCom(
+                resumo("a", "Inovação aberta", ""),
+                resumo("b", "Crédito rural", "", "Finanças"));
+
+        assertEquals(Collections.singletonList("a"), ids(indice.buscar("INOVACAO", 10)));
+        assertEquals(Collections.singletonList("b"), ids(indice.buscar("credito", 10)));
+        assertEquals(Collections.singletonList("b"), ids(indice.buscar("financas", 10)));
+    }
+
+    @Test
+    public void buscar_stopWordsNaoSaoIndexadas() throws IOException {
+        IdeiaSearchIndex indice = indiceCom(resumo("escola", "Escola para todos", ""));
+
+        assertTrue(indice.buscar("para", 10).isEmpty());
+        assertEquals(Collections.singletonList("escola"), ids(indice.buscar("para escola", 10)));
+    }
+
+    @Test
+    public void buscar_ultimoTermoComoPrefixo() throws IOException {
+        IdeiaSearchIndex indice = indiceCom(
+                resumo("exato", "Inov", ""),
+                resumo("prefixo", "Inovação social", ""));
+
+        // O termo exato pontua mais que a expansão do prefixo.
+        assertEquals(Arrays.asList("exato", "prefixo"), ids(indice.buscar("inov", 10)));
+    }
+
+    @Test
+    public void buscar_termosAnterioresAoUltimoSaoExatos() throws IOException {
+        IdeiaSearchIndex indice = indiceCom(
+                resumo("inovacao", "Inovação digital", ""),
+                resumo("rede", "Rede social", ""));
+
+        assertEquals(Collections.singletonList("rede"), ids(indice.buscar("inov social", 10)));
+    }
+
+    @Test
+    public void buscar_respeitaLimite() throws IOException {
+        IdeiaSearchIndex indice = indiceCom(
+                resumo("1", "Saúde digital", ""),
+                resumo("2", "Saúde mental", ""),
+                resumo("3", "Saúde animal", ""));
+
+        assertEquals(2, indice.buscar("saude", 2).size());
+        assertTrue(indice.buscar("saude", 0).isEmpty());
+    }
+
+    @Test
+    public void atualizar_substituiERemoveDocumentos() throws IOException {
+        IdeiaSearchIndex indice = indiceCom(
+                resumo("a", "Energia solar", ""),
+                resumo("b", "Energia eólica", ""));
+
+        indice.atualizar(Collections.singletonList(resumo("a", "Reciclagem de plástico", "")),
+                Collections.singletonList("b"));
+
+        assertEquals(1, indice.size());
+        assertTrue(indice.buscar("energia", 10).isEmpty());
+        assertEquals(Collections.singletonList("a"), ids(indice.buscar("reciclagem", 10)));
+    }
+
+    @Test
+    public void recarregar_reproduzJournal() throws IOException {
+        File diretorio = pasta.newFolder();
+        IdeiaSearchIndex indice = new IdeiaSearchIndex(diretorio);
+        indice.atualizar(Arrays.asList(
+                resumo("a", "Energia solar", ""),
+                resumo("b", "Energia eólica", "")), Collections.emptyList());
+        indice.atualizar(Collections.emptyList(), Collections.singletonList("b"));
+        indice.setUltimaSincronizacao(1234L);
+
+        IdeiaSearchIndex recarregado = new IdeiaSearchIndex(diretorio);
+        assertEquals(1, recarregado.size());
+        assertEquals(1234L, recarregado.getUltimaSincronizacao());
+        assertEquals(Collections.singletonList("a"), ids(recarregado.buscar("energia", 10)));
+    }
+
+    @Test
+    public void recarregar_mantemDatasDeSincronizacaoERemocao() throws IOException {
+        File diretorio = pasta.newFolder();
+        IdeiaSearchIndex indice = new IdeiaSearchIndex(diretorio);
+        indice.atualizar(Collections.singletonList(resumo("a", "Energia solar", "")), Collections.emptyList());
+        indice.setUltimaSincronizacao(1234L);
+        indice.setUltimaRemocao(5678L);
+
+        IdeiaSearchIndex recarregado = new IdeiaSearchIndex(diretorio);
+        assertEquals(1234L, recarregado.getUltimaSincronizacao());
+        assertEquals(5678L, recarregado.getUltimaRemocao());
+    }
+
+    @Test
+    public void reiniciar_descartaDocumentosEDatas() throws IOException {
+        File diretorio = pasta.newFolder();
+        IdeiaSearchIndex indice = new IdeiaSearchIndex(diretorio);
+        indice.atualizar(Collections.singletonList(resumo("a", "Energia solar", "")), Collections.emptyList());
+        indice.setUltimaSincronizacao(1234L);
+        indice.setUltimaRemocao(5678L);
+
+        indice.reiniciar();
+        assertEquals(0, indice.size());
+        assertEquals(0L, indice.getUltimaSincronizacao());
+        assertEquals(0L, indice.getUltimaRemocao());
+
+        IdeiaSearchIndex recarregado = new IdeiaSearchIndex(diretorio);
+        assertEquals(0, recarregado.size());
+        assertEquals(0L, recarregado.getUltimaRemocao());
+    }
+}
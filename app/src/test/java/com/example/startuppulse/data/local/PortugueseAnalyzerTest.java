@@ -0,0 +1,52 @@
+package com.example.startuppulse.data.local;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PortugueseAnalyzerTest {
+
+    @Test
+    public void normalizar_removeAcentosEMaiusculas() {
+        assertEquals("inovacao", PortugueseAnalyzer.normalizar("Inovação"));
+        assertEquals("acai e pao de queijo", PortugueseAnalyzer.normalizar("AÇAÍ É PÃO DE QUEIJO"));
+        assertEquals("", PortugueseAnalyzer.normalizar(null));
+    }
+
+    @Test
+    public void tokenizar_descartaStopWordsEPontuacao() {
+        List<String> tokens = PortugueseAnalyzer.tokenizar("Uma plataforma de gestão para as escolas, com IA!");
+        assertEquals(Arrays.asList("plataforma", "gestao", "escolas", "ia"), tokens);
+    }
+
+    @Test
+    public void tokenizar_mantemRepeticoesNaOrdem() {
+        assertEquals(Arrays.asList("energia", "solar", "energia"),
+                PortugueseAnalyzer.tokenizar("Energia solar, energia."));
+    }
+
+    @Test
+    public void tokenizar_stopWordsComAcentoTambemSaoDescartadas() {
+        // "não", "até" e "são" só viram stop words depois da normalização.
+        assertTrue(PortugueseAnalyzer.tokenizar("Não até são").isEmpty());
+    }
+
+    @Test
+    public void tokenizar_truncaTokensLongos() {
+        String longo = "a1234567890123456789012345678901234567890";
+        List<String> tokens = PortugueseAnalyzer.tokenizar(longo);
+        assertEquals(1, tokens.size());
+        assertEquals(PortugueseAnalyzer.MAX_TOKEN, tokens.get(0).length());
+    }
+
+    @Test
+    public void tokenizarConsulta_mantemUltimoTermoMesmoSeForStopWord() {
+        assertEquals(Arrays.asList("escola", "para"), PortugueseAnalyzer.tokenizarConsulta("escola para"));
+        assertEquals(Collections.singletonList("escola"), PortugueseAnalyzer.tokenizarConsulta("para escola"));
+    }
+}
@@ -0,0 +1,370 @@
+package com.example.startuppulse.domain.usercase;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.startuppulse.MentorMatchService;
+import com.example.startuppulse.common.Result;
+import com.example.startuppulse.common.ResultCallback;
+import com.example.startuppulse.data.models.Mentor;
+import com.example.startuppulse.data.models.User;
+import com.example.startuppulse.data.repositories.IMentorDirectory;
+import com.example.startuppulse.util.AreaDictionary;
+import com.example.startuppulse.util.AreaMask;
+import com.example.startuppulse.util.GeoMath;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class MatchEngineTest {
+
+    // Porto Alegre e São Paulo (~850 km).
+    private static final double POA_LAT = -30.03, POA_LON = -51.23;
+    private static final double SP_LAT = -23.55, SP_LON = -46.63;
+
+    /**
+     * Diretório em memória com os mesmos filtros do real (raio, áreas, ativo, excluído).
+     * Com {@link #segurar}, guarda os callbacks para o teste responder (ou não) depois.
+     */
+    private static final class DiretorioFalso implements IMentorDirectory {
+        final List<User> mentores = new ArrayList<>();
+        final List<String> chamadas = new ArrayList<>();
+        final Deque<Runnable> pendentes = new ArrayDeque<>();
+        @Nullable Exception erro;
+        boolean segurar;
+
+        private void responder(ResultCallback<List<User>> callback, List<User> resultado) {
+            Runnable resposta = () -> callback.onResult(erro != null ? new Result.Error<>(erro) : new Result.Success<>(resultado));
+            if (segurar) pendentes.add(resposta);
+            else resposta.run();
+        }
+
+        private static boolean ativo(User u, @Nullable String excludeId) {
+            return u.getMentorData() != null && u.getMentorData().isActivePublic() && !u.getId().equals(excludeId);
+        }
+
+        @Override
+        public void getMentores(@NonNull ResultCallback<List<User>> callback) {
+            chamadas.add("todos");
+            responder(callback, new ArrayList<>(mentores));
+        }
+
+        @Override
+        public void getMentoresPorAreas(@NonNull List<String> areas, @Nullable String excludeId,
+                                        @NonNull ResultCallback<List<User>> callback) {
+            chamadas.add("areas");
+            AreaMask mascara = AreaDictionary.mascara(areas);
+            List<User> resultado = new ArrayList<>();
+            for (User u : mentores) {
+                if (ativo(u, excludeId) && mascara.intersecao(u.getAreasMask()) > 0) resultado.add(u);
+            }
+            responder(callback, resultado);
+        }
+
+        @Override
+        public void getMentoresProximos(double latitude, double longitude, @NonNull double[] raiosMetros,
+                                        @Nullable String excludeId, @NonNull ResultCallback<List<User>> callback) {
+            chamadas.add("proximos");
+            GeoMath.Origem origem = new GeoMath.Origem(latitude, longitude);
+            List<User> resultado = new ArrayList<>();
+            for (double raio : raiosMetros) {
+                for (User u : mentores) {
+                    Mentor m = u.getMentorData();
+                    if (ativo(u, excludeId) && origem.distanciaSeDentro(m.getLatitude(), m.getLongitude(), raio) != GeoMath.FORA) {
+                        resultado.add(u);
+                    }
+                }
+                if (!resultado.isEmpty()) break;
+            }
+            resultado.sort((a, b) -> Double.compare(
+                    origem.distancia(a.getMentorData().getLatitude(), a.getMentorData().getLongitude()),
+                    origem.distancia(b.getMentorData().getLatitude(), b.getMentorData().getLongitude())));
+            responder(callback, resultado);
+        }
+    }
+
+    private static final class OuvinteFalso implements MatchEngine.Ouvinte {
+        final List<MatchEngine.Etapa> etapas = new ArrayList<>();
+        final List<Result<MatchEngine.Decisao>> resultados = new ArrayList<>();
+
+        @Override
+        public void onProgresso(@NonNull MatchEngine.Etapa etapa, @NonNull String mensagem) {
+            etapas.add(etapa);
+        }
+
+        @Override
+        public void onResult(Result<MatchEngine.Decisao> result) {
+            resultados.add(result);
+        }
+
+        MatchEngine.Decisao decisao() {
+            assertEquals(1, resultados.size());
+            assertTrue(resultados.get(0) instanceof Result.Success);
+            return ((Result.Success<MatchEngine.Decisao>) resultados.get(0)).data;
+        }
+    }
+
+    /**
+     * Timer cujos prazos nunca disparam sozinhos: o teste os dispara com {@link #estourar()}.
+     */
+    private static final class PrazosManuais extends ScheduledThreadPoolExecutor {
+        final List<Runnable> agendados = new ArrayList<>();
+
+        PrazosManuais() {
+            super(1);
+        }
+
+        @Override
+        public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+            agendados.add(command);
+            return super.schedule(() -> { }, 1, TimeUnit.DAYS);
+        }
+
+        void estourar() {
+            agendados.get(agendados.size() - 1).run();
+        }
+    }
+
+    private final Executor sincrono = Runnable::run;
+    private DiretorioFalso diretorio;
+    private PrazosManuais prazos;
+    private MatchEngine engine;
+
+    @Before
+    public void setUp() {
+        diretorio = new DiretorioFalso();
+        prazos = new PrazosManuais();
+        engine = new MatchEngine(diretorio, sincrono, sincrono, prazos);
+    }
+
+    @After
+    public void tearDown() {
+        prazos.shutdownNow();
+    }
+
+    private static User mentor(String id, double lat, double lon, String... areas) {
+        Mentor dados = new Mentor();
+        dados.setId(id);
+        dados.setLatitude(lat);
+        dados.setLongitude(lon);
+        dados.setActivePublic(true);
+        User user = new User();
+        user.setId(id);
+        user.setAreasDeInteresse(new ArrayList<>(Arrays.asList(areas)));
+        user.setMentorData(dados);
+        return user;
+    }
+
+    private static MatchEngine.Pedido pedidoEmPoa(String... areas) {
+        return new MatchEngine.Pedido(Arrays.asList(areas), "dono", POA_LAT, POA_LON);
+    }
+
+    @Test
+    public void proximidade_escolheMentorNoRaio() {
+        User perto = mentor("perto", POA_LAT + 0.1, POA_LON, "Vendas");
+        diretorio.mentores.addAll(Arrays.asList(mentor("longe", SP_LAT, SP_LON, "Vendas"), perto));
+        OuvinteFalso ouvinte = new OuvinteFalso();
+
+        engine.iniciar(pedidoEmPoa("Vendas"), ouvinte);
+
+        MatchEngine.Decisao decisao = ouvinte.decisao();
+        assertSame(perto, decisao.mentor);
+        assertEquals(MatchEngine.Camada.PROXIMIDADE, decisao.camada);
+        assertEquals(Collections.singletonList("proximos"), diretorio.chamadas);
+        assertEquals(Arrays.asList(MatchEngine.Etapa.BUSCAR, MatchEngine.Etapa.FILTRAR, MatchEngine.Etapa.PONTUAR,
+                MatchEngine.Etapa.RANQUEAR, MatchEngine.Etapa.ESCOLHER), ouvinte.etapas);
+    }
+
+    @Test
+    public void proximidade_afinidadeDecideDentroDoRaio() {
+        User pertoSemArea = mentor("perto", POA_LAT + 0.01, POA_LON, "Jurídico");
+        User menosPertoAfim = mentor("afim", POA_LAT + 0.3, POA_LON, "Vendas", "Produto");
+        diretorio.mentores.addAll(Arrays.asList(pertoSemArea, menosPertoAfim));
+        OuvinteFalso ouvinte = new OuvinteFalso();
+
+        engine.iniciar(pedidoEmPoa("Vendas", "Produto"), ouvinte);
+
+        assertSame(menosPertoAfim, ouvinte.decisao().mentor);
+    }
+
+    @Test
+    public void semNinguemNoRaio_caiParaAreas() {
+        User longeAfim = mentor("sp", SP_LAT, SP_LON, "Saúde");
+        diretorio.mentores.addAll(Arrays.asList(mentor("sp-outra-area", SP_LAT, SP_LON, "Logística"), longeAfim));
+        OuvinteFalso ouvinte = new OuvinteFalso();
+
+        engine.iniciar(pedidoEmPoa("Healthtech"), ouvinte); // sinônimo de "Saúde / Healthtech"
+
+        MatchEngine.Decisao decisao = ouvinte.decisao();
+        assertSame(longeAfim, decisao.mentor);
+        assertEquals(MatchEngine.Camada.AREAS, decisao.camada);
+        assertEquals(Arrays.asList("proximos", "areas"), diretorio.chamadas);
+    }
+
+    @Test
+    public void semReferencia_usaTodosOsMentores() {
+        User afim = mentor("afim", SP_LAT, SP_LON, "Finanças");
+        diretorio.mentores.addAll(Arrays.asList(mentor("outro", POA_LAT, POA_LON, "Vendas"), afim));
+        OuvinteFalso ouvinte = new OuvinteFalso();
+
+        engine.iniciar(new MatchEngine.Pedido(Collections.singletonList("Financeiro"), "dono", null, null), ouvinte);
+
+        MatchEngine.Decisao decisao = ouvinte.decisao();
+        assertSame(afim, decisao.mentor);
+        assertEquals(MatchEngine.Camada.TODOS, decisao.camada);
+        assertEquals(Collections.singletonList("todos"), diretorio.chamadas);
+    }
+
+    @Test
+    public void filtro_descartaDonoInativosESemId() {
+        User dono = mentor("dono", POA_LAT, POA_LON, "Vendas");
+        User inativo = mentor("inativo", POA_LAT, POA_LON, "Vendas");
+        inativo.getMentorData().setActivePublic(false);
+        User semPerfil = mentor("sem-perfil", POA_LAT, POA_LON, "Vendas");
+        semPerfil.setMentorData(null);
+        User valido = mentor("valido", POA_LAT, POA_LON);
+
+        List<User> candidatos = MatchEngine.filtrarCandidatos(
+                Arrays.asList(dono, inativo, semPerfil, null, mentor(null, 0, 0), valido), "dono");
+
+        assertEquals(Collections.singletonList(valido), candidatos);
+    }
+
+    @Test
+    public void semReferencia_donoNaoEhEscolhido() {
+        User dono = mentor("dono", POA_LAT, POA_LON, "Vendas", "Produto");
+        User outro = mentor("outro", POA_LAT, POA_LON, "Vendas");
+        diretorio.mentores.addAll(Arrays.asList(dono, outro));
+        OuvinteFalso ouvinte = new OuvinteFalso();
+
+        engine.iniciar(new MatchEngine.Pedido(Arrays.asList("Vendas", "Produto"), "dono", null, null), ouvinte);
+
+        assertSame(outro, ouvinte.decisao().mentor);
+    }
+
+    @Test
+    public void capacidade_mentorCheioPerdeParaOLivre() {
+        User cheio = mentor("cheio", POA_LAT + 0.01, POA_LON, "Vendas");
+        cheio.getMentorData().setIdeiasEmAvaliacao(MentorMatchService.CAPACIDADE_MENTOR);
+        User livre = mentor("livre", POA_LAT + 0.5, POA_LON, "Vendas");
+        livre.getMentorData().setIdeiasEmAvaliacao(MentorMatchService.CAPACIDADE_MENTOR - 1);
+        diretorio.mentores.addAll(Arrays.asList(cheio, livre));
+        OuvinteFalso ouvinte = new OuvinteFalso();
+
+        engine.iniciar(pedidoEmPoa("Vendas"), ouvinte);
+
+        assertSame(livre, ouvinte.decisao().mentor);
+    }
+
+    @Test
+    public void capacidade_todosCheios_publicaSemMentor() {
+        User cheio = mentor("cheio", POA_LAT, POA_LON, "Vendas");
+        cheio.getMentorData().setIdeiasEmAvaliacao(MentorMatchService.CAPACIDADE_MENTOR + 2);
+        diretorio.mentores.add(cheio);
+        OuvinteFalso ouvinte = new OuvinteFalso();
+
+        engine.iniciar(pedidoEmPoa("Vendas"), ouvinte);
+
+        MatchEngine.Decisao decisao = ouvinte.decisao();
+        assertNull(decisao.mentor);
+        assertNull(decisao.camada);
+        assertEquals(Arrays.asList("proximos", "areas"), diretorio.chamadas);
+    }
+
+    @Test
+    public void todasAsCamadasFalham_entregaErro() {
+        diretorio.erro = new IllegalStateException("offline");
+        OuvinteFalso ouvinte = new OuvinteFalso();
+
+        engine.iniciar(pedidoEmPoa("Vendas"), ouvinte);
+
+        assertEquals(1, ouvinte.resultados.size());
+        assertSame(diretorio.erro, ((Result.Error<MatchEngine.Decisao>) ouvinte.resultados.get(0)).error);
+    }
+
+    @Test
+    public void prazoDaBusca_passaParaProximaCamadaEDescartaRespostaAtrasada() {
+        User perto = mentor("perto", POA_LAT, POA_LON, "Vendas");
+        diretorio.mentores.add(perto);
+        diretorio.segurar = true;
+        OuvinteFalso ouvinte = new OuvinteFalso();
+
+        engine.iniciar(pedidoEmPoa("Vendas"), ouvinte);
+        Runnable proximosAtrasado = diretorio.pendentes.poll();
+        prazos.estourar(); // a busca por proximidade estoura: segue para a camada de áreas
+        assertEquals(Arrays.asList("proximos", "areas"), diretorio.chamadas);
+
+        proximosAtrasado.run(); // resposta da camada já abandonada: ignorada
+        assertTrue(ouvinte.resultados.isEmpty());
+
+        diretorio.pendentes.poll().run();
+        MatchEngine.Decisao decisao = ouvinte.decisao();
+        assertSame(perto, decisao.mentor);
+        assertEquals(MatchEngine.Camada.AREAS, decisao.camada);
+    }
+
+    @Test
+    public void prazoEmTodasAsCamadas_entregaTimeout() {
+        diretorio.mentores.add(mentor("perto", POA_LAT, POA_LON, "Vendas"));
+        diretorio.segurar = true;
+        OuvinteFalso ouvinte = new OuvinteFalso();
+
+        engine.iniciar(pedidoEmPoa("Vendas"), ouvinte);
+        prazos.estourar();
+        prazos.estourar();
+
+        assertEquals(1, ouvinte.resultados.size());
+        assertTrue(((Result.Error<MatchEngine.Decisao>) ouvinte.resultados.get(0)).error instanceof TimeoutException);
+    }
+
+    @Test
+    public void cancelarDuranteABusca_naoChamaMaisOOuvinte() {
+        diretorio.mentores.add(mentor("perto", POA_LAT, POA_LON, "Vendas"));
+        diretorio.segurar = true;
+        OuvinteFalso ouvinte = new OuvinteFalso();
+
+        MatchEngine.Execucao execucao = engine.iniciar(pedidoEmPoa("Vendas"), ouvinte);
+        execucao.cancelar();
+        diretorio.pendentes.poll().run();
+        prazos.estourar();
+
+        assertTrue(execucao.isCancelada());
+        assertEquals(Collections.singletonList(MatchEngine.Etapa.BUSCAR), ouvinte.etapas);
+        assertTrue(ouvinte.resultados.isEmpty());
+        assertEquals(Collections.singletonList("proximos"), diretorio.chamadas);
+    }
+
+    @Test
+    public void cancelarDuranteOCalculo_descartaOTrabalhoPendente() {
+        Deque<Runnable> trabalho = new ArrayDeque<>();
+        engine = new MatchEngine(diretorio, trabalho::add, sincrono, prazos);
+        diretorio.mentores.add(mentor("perto", POA_LAT, POA_LON, "Vendas"));
+        OuvinteFalso ouvinte = new OuvinteFalso();
+
+        MatchEngine.Execucao execucao = engine.iniciar(pedidoEmPoa("Vendas"), ouvinte);
+        assertEquals(MatchEngine.Etapa.FILTRAR, ouvinte.etapas.get(ouvinte.etapas.size() - 1));
+        execucao.cancelar();
+        while (!trabalho.isEmpty()) trabalho.poll().run();
+
+        assertEquals(Arrays.asList(MatchEngine.Etapa.BUSCAR, MatchEngine.Etapa.FILTRAR), ouvinte.etapas);
+        assertTrue(ouvinte.resultados.isEmpty());
+    }
+}
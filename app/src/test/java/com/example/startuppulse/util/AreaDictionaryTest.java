@@ -0,0 +1,41 @@
+package com.example.startuppulse.util;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class AreaDictionaryTest {
+
+    @Test
+    public void valoresConsulta_incluiSinonimosDaAreaCanonica() {
+        List<String> valores = AreaDictionary.valoresConsulta(Collections.singletonList("RH"), 30);
+
+        assertEquals("People / RH", valores.get(0));
+        assertEquals("RH", valores.get(1));
+        assertTrue(valores.containsAll(Arrays.asList("People", "Recursos Humanos")));
+        assertEquals(valores.size(), new HashSet<>(valores).size());
+    }
+
+    @Test
+    public void valoresConsulta_canonicasEOriginaisAntesDosSinonimos() {
+        List<String> valores = AreaDictionary.valoresConsulta(Arrays.asList("UX", "Dados", "ML"), 7);
+
+        assertEquals(7, valores.size());
+        assertEquals(Arrays.asList("UX/UI", "Dados & Analytics", "Machine Learning", "UX", "Dados", "ML"),
+                valores.subList(0, 6));
+        // Os sinônimos entram um de cada área por vez: o primeiro de UX/UI que ainda não está na lista.
+        assertEquals("UI", valores.get(6));
+    }
+
+    @Test
+    public void valoresConsulta_semSinonimosFicaNoTextoOriginal() {
+        assertEquals(Arrays.asList("Vendas", "vendas"),
+                AreaDictionary.valoresConsulta(Collections.singletonList("vendas "), 30));
+    }
+}
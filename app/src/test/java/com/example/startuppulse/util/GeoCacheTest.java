@@ -0,0 +1,218 @@
+package com.example.startuppulse.util;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class GeoCacheTest {
+
+    // MAGIC + VERSAO
+    private static final int CABECALHO = 8;
+
+    @Rule
+    public TemporaryFolder pasta = new TemporaryFolder();
+
+    private File arquivo;
+
+    @Before
+    public void setUp() throws IOException {
+        arquivo = new File(pasta.newFolder(), "geo_cache.bin");
+    }
+
+    private GeoCache novoCache() {
+        return new GeoCache(arquivo, null);
+    }
+
+    // writeUTF (2 bytes de tamanho + texto) + lat + lon + ts
+    private static long tamanhoRegistro(String cidade, String estado) {
+        return 2 + GeoCache.chave(cidade, estado).getBytes(StandardCharsets.UTF_8).length + 24;
+    }
+
+    private static void assertCoordenadas(GeoCache cache, String cidade, double lat, double lon) {
+        GeoCache.Entry entrada = cache.getFresh(cidade, "SP");
+        assertNotNull(cidade, entrada);
+        assertEquals(lat, entrada.lat, 0.0);
+        assertEquals(lon, entrada.lon, 0.0);
+    }
+
+    @Test
+    public void getFresh_chaveIgnoraAcentosCaixaEEspacos() {
+        GeoCache cache = novoCache();
+        cache.put("São  Paulo ", "SP", -23.55, -46.63);
+
+        assertCoordenadas(cache, "sao paulo", -23.55, -46.63);
+        assertNull(cache.getFresh("Santos", "SP"));
+    }
+
+    @Test
+    public void chave_espacoNasPontasDepoisDeRemoverAcentos() {
+        // O acento solto some na normalização e deixa o espaço no fim (antes: StringIndexOutOfBoundsException).
+        assertEquals(GeoCache.chave("Rio", "RJ"), GeoCache.chave("Rio \u0301", "RJ"));
+        assertEquals(GeoCache.chave("Rio", "RJ"), GeoCache.chave("\u0301 Rio", "RJ"));
+        assertEquals(GeoCache.chave("Rio Claro", "SP"), GeoCache.chave("\u2003Rio\u2003\u2003Claro\u2003", "SP"));
+        assertEquals(GeoCache.chave("", "SP"), GeoCache.chave(" \u0301 ", "SP"));
+    }
+
+    @Test
+    public void lru_expulsaACidadeMenosUsadaRecentemente() {
+        GeoCache cache = novoCache();
+        GeoCache.Lote lote = new GeoCache.Lote();
+        for (int i = 0; i < GeoCache.MAX_ENTRADAS; i++) lote.add("Cidade " + i, "SP", i, i);
+        cache.putAll(lote);
+
+        // A consulta renova a cidade 0; a 1 passa a ser a menos usada.
+        assertNotNull(cache.getFresh("Cidade 0", "SP"));
+        cache.put("Cidade nova", "SP", 1, 1);
+
+        assertNull(cache.getFresh("Cidade 1", "SP"));
+        assertNotNull(cache.getFresh("Cidade 0", "SP"));
+        assertNotNull(cache.getFresh("Cidade 2", "SP"));
+        assertNotNull(cache.getFresh("Cidade nova", "SP"));
+    }
+
+    @Test
+    public void recarga_reproduzOArquivoComOsValoresMaisNovos() {
+        GeoCache cache = novoCache();
+        cache.put("Campinas", "SP", 1, 1);
+        cache.put("Santos", "SP", 2, 2);
+        cache.put("Campinas", "SP", 3, 3);
+
+        GeoCache recarregado = novoCache();
+        assertCoordenadas(recarregado, "Campinas", 3, 3);
+        assertCoordenadas(recarregado, "Santos", 2, 2);
+    }
+
+    @Test
+    public void recarga_respeitaOLimiteDoLru() {
+        GeoCache cache = novoCache();
+        int extras = 10;
+        for (int i = 0; i < GeoCache.MAX_ENTRADAS + extras; i++) cache.put("Cidade " + i, "SP", i, i);
+
+        // O arquivo ainda tem as expulsas (poucas para compactar), mas a carga as expulsa de novo.
+        GeoCache recarregado = novoCache();
+        for (int i = 0; i < extras; i++) assertNull(recarregado.getFresh("Cidade " + i, "SP"));
+        for (int i = extras; i < GeoCache.MAX_ENTRADAS + extras; i++) {
+            assertCoordenadas(recarregado, "Cidade " + i, i, i);
+        }
+    }
+
+    @Test
+    public void compactacao_descartaRegistrosSobrescritos() {
+        GeoCache cache = novoCache();
+        for (int i = 0; i < 300; i++) {
+            cache.put("Campinas", "SP", i, i);
+            cache.put("Santos", "SP", -i, -i);
+        }
+
+        long esperado = CABECALHO + tamanhoRegistro("Campinas", "SP") + tamanhoRegistro("Santos", "SP");
+        long maximo = esperado + 300 * tamanhoRegistro("Campinas", "SP");
+        // Compactou ao menos uma vez: bem abaixo dos 600 registros anexados.
+        assertTrue(arquivo.length() <= maximo);
+
+        GeoCache recarregado = novoCache();
+        assertCoordenadas(recarregado, "Campinas", 299, 299);
+        assertCoordenadas(recarregado, "Santos", -299, -299);
+    }
+
+    @Test
+    public void arquivoTruncadoNoMeioDoRegistro_descartaSoOUltimo() throws IOException {
+        GeoCache cache = novoCache();
+        cache.put("Campinas", "SP", 1, 1);
+        cache.put("Santos", "SP", 2, 2);
+        cache.put("Sorocaba", "SP", 3, 3);
+        try (RandomAccessFile raf = new RandomAccessFile(arquivo, "rw")) {
+            raf.setLength(raf.length() - 5);
+        }
+
+        GeoCache recarregado = novoCache();
+        assertCoordenadas(recarregado, "Campinas", 1, 1);
+        assertCoordenadas(recarregado, "Santos", 2, 2);
+        assertNull(recarregado.getFresh("Sorocaba", "SP"));
+
+        // O arquivo foi regravado sem o registro incompleto.
+        assertEquals(CABECALHO + tamanhoRegistro("Campinas", "SP") + tamanhoRegistro("Santos", "SP"),
+                arquivo.length());
+
+        // E os próximos appends ficam alinhados.
+        recarregado.put("Jundiaí", "SP", 4, 4);
+        GeoCache denovo = novoCache();
+        assertCoordenadas(denovo, "Campinas", 1, 1);
+        assertCoordenadas(denovo, "Santos", 2, 2);
+        assertCoordenadas(denovo, "Jundiai", 4, 4);
+    }
+
+    @Test
+    public void arquivoTruncadoNoCabecalho_recomecaVazio() throws IOException {
+        GeoCache cache = novoCache();
+        cache.put("Campinas", "SP", 1, 1);
+        try (RandomAccessFile raf = new RandomAccessFile(arquivo, "rw")) {
+            raf.setLength(3);
+        }
+
+        GeoCache recarregado = novoCache();
+        assertNull(recarregado.getFresh("Campinas", "SP"));
+        recarregado.put("Santos", "SP", 2, 2);
+
+        assertCoordenadas(novoCache(), "Santos", 2, 2);
+    }
+
+    @Test
+    public void arquivoDeOutroFormato_recomecaVazio() throws IOException {
+        try (FileOutputStream out = new FileOutputStream(arquivo)) {
+            out.write("lixo que não é um cache".getBytes(StandardCharsets.UTF_8));
+        }
+
+        GeoCache cache = novoCache();
+        assertNull(cache.getFresh("Campinas", "SP"));
+        cache.put("Campinas", "SP", 1, 1);
+
+        assertCoordenadas(novoCache(), "Campinas", 1, 1);
+    }
+
+    @Test
+    public void recarga_descartaEntradasExpiradas() throws IOException {
+        long agora = System.currentTimeMillis();
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(arquivo))) {
+            out.writeInt(0x47454F31);
+            out.writeInt(1);
+            out.writeUTF(GeoCache.chave("Campinas", "SP"));
+            out.writeDouble(1);
+            out.writeDouble(1);
+            out.writeLong(agora - TimeUnit.DAYS.toMillis(8));
+            out.writeUTF(GeoCache.chave("Santos", "SP"));
+            out.writeDouble(2);
+            out.writeDouble(2);
+            out.writeLong(agora - TimeUnit.DAYS.toMillis(1));
+        }
+
+        GeoCache cache = novoCache();
+        assertNull(cache.getFresh("Campinas", "SP"));
+        assertCoordenadas(cache, "Santos", 2, 2);
+    }
+
+    @Test
+    public void clearAll_apagaMemoriaEArquivo() {
+        GeoCache cache = novoCache();
+        cache.put("Campinas", "SP", 1, 1);
+        cache.clearAll();
+
+        assertNull(cache.getFresh("Campinas", "SP"));
+        assertFalse(arquivo.exists());
+        assertNull(novoCache().getFresh("Campinas", "SP"));
+    }
+}
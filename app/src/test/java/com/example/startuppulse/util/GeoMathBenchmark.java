@@ -0,0 +1,76 @@
+package com.example.startuppulse.util;
+
+import com.example.startuppulse.Benchmarks;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Busca por raio em 100 mil pontos: haversine em todos contra o pré-filtro do GeoMath. O pré-filtro
+ * precisa ser mais rápido e achar os mesmos pontos; os números vão para a saída do teste.
+ */
+public class GeoMathBenchmark {
+
+    private static double haversine(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double h = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * GeoMath.RAIO_TERRA_METROS * Math.asin(Math.min(1.0, Math.sqrt(h)));
+    }
+
+    @Before
+    public void exigirBenchmarks() {
+        Benchmarks.exigirHabilitados();
+    }
+
+    @Test
+    public void raioComPreFiltroVsHaversine() {
+        Random random = new Random(42);
+        int n = 100_000;
+        double[] lat = new double[n], lon = new double[n];
+        for (int i = 0; i < n; i++) {
+            // Espalhados pelo Brasil.
+            lat[i] = -33 + random.nextDouble() * 38;
+            lon[i] = -73 + random.nextDouble() * 39;
+        }
+        double raio = 100_000;
+        GeoMath.Origem origem = new GeoMath.Origem(-30.03, -51.23);
+        int[] indices = new int[n];
+        double[] distancias = new double[n];
+        int repeticoes = 50;
+
+        int esperado = 0;
+        for (int i = 0; i < n; i++) if (haversine(-30.03, -51.23, lat[i], lon[i]) <= raio) esperado++;
+        for (int r = 0; r < 5; r++) { // aquecimento
+            origem.dentroDoRaio(lat, lon, n, raio, indices, distancias);
+            for (int i = 0; i < n; i++) haversine(-30.03, -51.23, lat[i], lon[i]);
+        }
+
+        long inicio = System.nanoTime();
+        int contagem = 0;
+        for (int r = 0; r < repeticoes; r++) {
+            for (int i = 0; i < n; i++) if (haversine(-30.03, -51.23, lat[i], lon[i]) <= raio) contagem++;
+        }
+        double haversineMs = (System.nanoTime() - inicio) / 1e6 / repeticoes;
+
+        inicio = System.nanoTime();
+        int encontrados = 0;
+        for (int r = 0; r < repeticoes; r++) encontrados = origem.dentroDoRaio(lat, lon, n, raio, indices, distancias);
+        double geoMathMs = (System.nanoTime() - inicio) / 1e6 / repeticoes;
+
+        assertEquals(esperado * repeticoes, contagem);
+        assertEquals(esperado, encontrados);
+        System.out.println(String.format(Locale.ROOT,
+                "GeoMath: %,d pontos, raio 100 km (%d dentro)  haversine %.2f ms  pré-filtro + haversine %.2f ms",
+                n, esperado, haversineMs, geoMathMs));
+        assertTrue(String.format(Locale.ROOT, "pré-filtro (%.2f ms) não é mais rápido que o haversine (%.2f ms)",
+                geoMathMs, haversineMs), geoMathMs < haversineMs);
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.startuppulse.util;
+
+import org.junit.Test;
+
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class GeoMathTest {
+
+    /** Haversine direto, sem pré-cálculo nem pré-filtro: a referência dos testes. */
+    private static double haversine(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double h = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * GeoMath.RAIO_TERRA_METROS * Math.asin(Math.min(1.0, Math.sqrt(h)));
+    }
+
+    private static final double TOLERANCIA_METROS = 1e-3;
+
+    @Test
+    public void distancia_igualAoHaversine() {
+        Random random = new Random(1);
+        for (int i = 0; i < 10_000; i++) {
+            double lat1 = random.nextDouble() * 180 - 90, lon1 = random.nextDouble() * 360 - 180;
+            double lat2 = random.nextDouble() * 180 - 90, lon2 = random.nextDouble() * 360 - 180;
+            double esperada = haversine(lat1, lon1, lat2, lon2);
+            assertEquals(esperada, GeoMath.distancia(lat1, lon1, lat2, lon2), TOLERANCIA_METROS);
+            assertEquals(esperada, new GeoMath.Origem(lat1, lon1).distancia(lat2, lon2), TOLERANCIA_METROS);
+        }
+    }
+
+    @Test
+    public void distancia_valoresConhecidos() {
+        assertEquals(0.0, GeoMath.distancia(-30.03, -51.23, -30.03, -51.23), 0.0);
+        // Um grau de latitude no raio médio: 2πR / 360.
+        assertEquals(2 * Math.PI * GeoMath.RAIO_TERRA_METROS / 360, GeoMath.distancia(0, 0, 1, 0), TOLERANCIA_METROS);
+        // Porto Alegre -> São Paulo, ~850 km.
+        assertEquals(852_000, GeoMath.distancia(-30.03, -51.23, -23.55, -46.63), 5_000);
+    }
+
+    @Test
+    public void distanciaSeDentro_igualAoHaversineComRaio() {
+        Random random = new Random(2);
+        double[] raios = {1_000, 50_000, 100_000, 500_000, 2_000_000};
+        int dentro = 0, fora = 0;
+        for (int i = 0; i < 200_000; i++) {
+            double lat0 = random.nextDouble() * 178 - 89, lon0 = random.nextDouble() * 360 - 180;
+            double raio = raios[random.nextInt(raios.length)];
+            // Pontos espalhados até ~3 raios da origem, para exercitar a borda do pré-filtro.
+            double graus = raio * 3 / 111_000;
+            double lat = Math.max(-90, Math.min(90, lat0 + (random.nextDouble() * 2 - 1) * graus));
+            double lon = lon0 + (random.nextDouble() * 2 - 1) * graus / Math.max(0.05, Math.cos(Math.toRadians(lat0)));
+            if (lon > 180) lon -= 360;
+            if (lon < -180) lon += 360;
+
+            double esperada = haversine(lat0, lon0, lat, lon);
+            double obtida = new GeoMath.Origem(lat0, lon0).distanciaSeDentro(lat, lon, raio);
+            String caso = String.format(Locale.ROOT, "origem (%f, %f), ponto (%f, %f), raio %.0f", lat0, lon0, lat, lon, raio);
+            if (esperada <= raio) {
+                assertEquals(caso, esperada, obtida, TOLERANCIA_METROS);
+                dentro++;
+            } else {
+                assertEquals(caso, GeoMath.FORA, obtida, 0.0);
+                fora++;
+            }
+        }
+        assertTrue(dentro > 10_000 && fora > 10_000);
+    }
+
+    @Test
+    public void pertoDoPolo_preFiltroNaoDescartaPontosDentro() {
+        // O equiretangular superestima distâncias que passam perto do polo.
+        GeoMath.Origem origem = new GeoMath.Origem(84.596063, -106.423606);
+        double esperada = haversine(84.596063, -106.423606, 88.727960, -144.023094);
+        assertTrue(esperada < 500_000);
+        assertEquals(esperada, origem.distanciaSeDentro(88.727960, -144.023094, 500_000), TOLERANCIA_METROS);
+
+        // Do outro lado do polo sul.
+        GeoMath.Origem sul = new GeoMath.Origem(-89.5, 0);
+        assertEquals(haversine(-89.5, 0, -89.5, 180), sul.distanciaSeDentro(-89.5, 180, 200_000), TOLERANCIA_METROS);
+    }
+
+    @Test
+    public void antimeridiano_distanciaCurta() {
+        // Fiji: 179,9° L e 179,9° O ficam a ~22 km, não a meia volta do planeta.
+        double esperada = haversine(-17.8, 179.9, -17.8, -179.9);
+        assertTrue(esperada < 25_000);
+        GeoMath.Origem origem = new GeoMath.Origem(-17.8, 179.9);
+        assertEquals(esperada, origem.distancia(-17.8, -179.9), TOLERANCIA_METROS);
+        assertEquals(esperada, GeoMath.distancia(-17.8, -179.9, -17.8, 179.9), TOLERANCIA_METROS);
+        assertEquals(esperada, origem.distanciaSeDentro(-17.8, -179.9, 50_000), TOLERANCIA_METROS);
+        assertTrue(origem.talvezDentro(-17.8, -179.9, 50_000));
+        assertEquals(GeoMath.FORA, origem.distanciaSeDentro(-17.8, -179.9, 10_000), 0.0);
+    }
+
+    @Test
+    public void antimeridiano_dentroDoRaio() {
+        GeoMath.Origem origem = new GeoMath.Origem(65.0, -179.95);
+        double[] lat = {65.0, 65.0, 65.0};
+        double[] lon = {179.95, -179.0, 0.0};
+        int[] indices = new int[3];
+        double[] distancias = new double[3];
+
+        int n = origem.dentroDoRaio(lat, lon, 3, 100_000, indices, distancias);
+
+        assertEquals(2, n);
+        assertEquals(0, indices[0]);
+        assertEquals(1, indices[1]);
+        assertEquals(haversine(65.0, -179.95, 65.0, 179.95), distancias[0], TOLERANCIA_METROS);
+    }
+
+    @Test
+    public void nan_resultaEmNaNENuncaEstaDentro() {
+        GeoMath.Origem origem = new GeoMath.Origem(-30.0, -51.0);
+        assertTrue(Double.isNaN(origem.distancia(Double.NaN, -51.0)));
+        assertTrue(Double.isNaN(origem.distancia(-30.0, Double.NaN)));
+        assertTrue(Double.isNaN(GeoMath.distancia(Double.NaN, 0, 0, 0)));
+        assertFalse(origem.talvezDentro(Double.NaN, -51.0, 1e9));
+        assertFalse(origem.talvezDentro(-30.0, Double.NaN, 1e9));
+        assertEquals(GeoMath.FORA, origem.distanciaSeDentro(Double.NaN, Double.NaN, 1e9), 0.0);
+
+        GeoMath.Origem semReferencia = new GeoMath.Origem(Double.NaN, Double.NaN);
+        assertEquals(GeoMath.FORA, semReferencia.distanciaSeDentro(-30.0, -51.0, 1e9), 0.0);
+        double[] saida = new double[1];
+        semReferencia.distancias(new double[]{-30.0}, new double[]{-51.0}, 1, saida);
+        assertTrue(Double.isNaN(saida[0]));
+    }
+
+    @Test
+    public void distancias_comCossenosPreCalculadosIguaisASemCossenos() {
+        Random random = new Random(3);
+        int n = 1_000;
+        double[] lat = new double[n], lon = new double[n], cos = new double[n];
+        for (int i = 0; i < n; i++) {
+            lat[i] = random.nextDouble() * 180 - 90;
+            lon[i] = random.nextDouble() * 360 - 180;
+        }
+        GeoMath.cossenos(lat, n, cos);
+        GeoMath.Origem origem = new GeoMath.Origem(-30.0, -51.0);
+        double[] a = new double[n], b = new double[n];
+        origem.distancias(lat, lon, n, a);
+        origem.distancias(lat, lon, cos, n, b);
+        for (int i = 0; i < n; i++) {
+            assertEquals(haversine(-30.0, -51.0, lat[i], lon[i]), a[i], TOLERANCIA_METROS);
+            assertEquals(a[i], b[i], 0.0);
+        }
+    }
+}
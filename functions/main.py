@@ -1,11 +1,11 @@
 # main.py
 import os
-from firebase_functions import https_fn, options, pubsub_fn, firestore_fn
+from firebase_functions import https_fn, options, pubsub_fn, firestore_fn, scheduler_fn
 from firebase_admin import initialize_app, firestore
 from google.auth import default as get_credentials
 from google.auth.transport.requests import Request
 from googleapiclient.discovery import build
-from google.api_core.exceptions import InvalidArgument
+from google.api_core.exceptions import AlreadyExists, InvalidArgument
 import google.generativeai as genai
 from google.generativeai.types import GenerationConfig, HarmCategory, HarmBlockThreshold
 from firebase_admin import messaging
@@ -15,6 +15,8 @@ import re
 import unicodedata
 
 import base64
+from datetime import datetime, timedelta, timezone
+import hashlib
 import json
 
 
@@ -213,6 +215,11 @@ def gerar_pre_analise_ia(req: https_fn.CallableRequest) -> dict:
         ideia_data = ideia_doc.to_dict()
         if ideia_data.get("ownerId") != uid:
             raise https_fn.HttpsError(code="permission-denied", message="Você não é o dono desta ideia.")
+        # 4a. Se o canvas não mudou desde a última análise, reaproveita o resultado sem chamar a IA.
+        fingerprint = fingerprint_canvas(ideia_data)
+        if ideia_data.get("avaliacaoIA") and ideia_data.get("avaliacaoIAFingerprint") == fingerprint:
+            print(f"Canvas inalterado desde a última análise da ideia {ideia_id}; IA não chamada.")
+            return {"status": "success", "message": "A análise da IA já está atualizada para este canvas.", "cached": True}
         print("Dados da ideia recuperados. Construindo prompt...")
 
         # 4. Construir o Prompt Especialista (sem mudanças)
@@ -235,7 +242,7 @@ def gerar_pre_analise_ia(req: https_fn.CallableRequest) -> dict:
         }
 
         # 7. Salvar a análise no documento da ideia (sem mudanças)
-        ideia_ref.update({"avaliacaoIA": ai_feedback})
+        ideia_ref.update({"avaliacaoIA": ai_feedback, "avaliacaoIAFingerprint": fingerprint})
         print(f"Sucesso! Análise salva na ideia: {ideia_id}")
         return {"status": "success", "message": "Análise da IA concluída!"}
 
@@ -246,13 +253,51 @@ def gerar_pre_analise_ia(req: https_fn.CallableRequest) -> dict:
         print(f"Erro inesperado ao gerar análise de IA: {e}")
         raise https_fn.HttpsError(code="internal", message=f"Erro interno: {e}")
 
+def juntar_postits(ideia_data: dict) -> dict:
+    """
+    Junta os post-its do formato atual ("postItsPorId": etapa -> {id: postit}) com os do
+    formato legado ("postIts": etapa -> [postit]) ainda não migrados, em ordem de criação.
+    """
+    etapas = {}
+    for etapa, por_id in (ideia_data.get("postItsPorId") or {}).items():
+        if isinstance(por_id, dict):
+            etapas[etapa] = sorted(
+                (p for p in por_id.values() if isinstance(p, dict)),
+                key=lambda p: str(p.get("timestamp") or ""),
+            )
+    for etapa, lista in (ideia_data.get("postIts") or {}).items():
+        if isinstance(lista, list):
+            etapas.setdefault(etapa, []).extend(lista)
+    return etapas
+
+def _escapar_fingerprint(texto) -> str:
+    if texto is None:
+        return ""
+    return str(texto).replace("\\", "\\\\").replace("\n", "\\n").replace("|", "\\|")
+
+def fingerprint_canvas(ideia_data: dict) -> str:
+    """
+    Impressão digital (SHA-256) do conteúdo que a IA analisa: nome, descrição e textos dos post-its.
+    Espelha CanvasFingerprint.java no app; as duas implementações precisam gerar o mesmo hash.
+    """
+    linhas = ["v1",
+              "nome|" + _escapar_fingerprint(ideia_data.get("nome")),
+              "descricao|" + _escapar_fingerprint(ideia_data.get("descricao"))]
+    etapas = juntar_postits(ideia_data)
+    for etapa in sorted(etapas.keys()):
+        textos = sorted(
+            _escapar_fingerprint(p.get("texto")) for p in etapas[etapa] if isinstance(p, dict)
+        )
+        linhas.extend(f"{etapa}|{texto}" for texto in textos)
+    return hashlib.sha256("\n".join(linhas).encode("utf-8")).hexdigest()
+
 def construir_prompt_especialista(ideia_data: dict) -> str:
     """
     Cria o prompt que "ensina" a IA a ser um mentor.
     """
     nome = ideia_data.get("nome", "N/A")
     descricao = ideia_data.get("descricao", "N/A")
-    postits_map = ideia_data.get("postIts", {})
+    postits_map = juntar_postits(ideia_data)
 
     postits_str = ""
     for etapa, lista_postits in postits_map.items():
@@ -338,64 +383,412 @@ def construir_prompt_especialista(ideia_data: dict) -> str:
     """
     return prompt
 
-# Gatilho: Acionado sempre que um documento em 'votosComunidade' for escrito (criado, atualizado, deletado)
+# Votos da comunidade: o app grava cada voto junto com o delta (somaPonderada, somaPesos, total)
+# num dos VOTOS_SHARDS documentos de ideias/{ideiaId}/votosShards e lê a média direto dos shards.
+# A cópia consolidada no documento da ideia e no resumo (usada nas listas e no "Em alta") é só
+# um cache: o gatilho de voto apenas marca a ideia em votos_pendentes e a consolidação agendada
+# grava no máximo uma vez por minuto por ideia, por mais votos que a ideia receba.
+VOTOS_SHARDS = 10  # Deve ser igual a VOTOS_SHARDS em IdeiaRepository.java
+VOTOS_PENDENTES_COLLECTION = "votos_pendentes"
+LOTE_CONSOLIDACAO_VOTOS = 200
+
+def _media_ponderada(soma_ponderada: float, soma_pesos: float) -> float:
+    return round(soma_ponderada / soma_pesos, 2) if soma_pesos > 0 else 0.0
+
+@firestore.transactional
+def _inicializar_shards_votos(transaction, ideia_ref) -> bool:
+    """
+    Executado uma única vez por ideia: soma os votos existentes (anteriores aos shards) e
+    grava o total no shard "0", zerando os demais. Os shards são lidos na transação para que
+    incrementos concorrentes do app forcem uma nova tentativa em vez de se perderem.
+    """
+    ideia_doc = ideia_ref.get(transaction=transaction)
+    if not ideia_doc.exists or (ideia_doc.to_dict() or {}).get("votosShardsInicializados"):
+        return False
+
+    shards_ref = ideia_ref.collection("votosShards")
+    shards = list(shards_ref.stream(transaction=transaction))
+    votos = list(ideia_ref.collection("votosComunidade").stream(transaction=transaction))
+
+    soma_ponderada = 0.0
+    soma_pesos = 0.0
+    for voto_doc in votos:
+        voto_data = voto_doc.to_dict() or {}
+        voto = float(voto_data.get("voto", 0.0))
+        peso = float(voto_data.get("peso", 1.0))
+        soma_ponderada += voto * peso
+        soma_pesos += peso
+
+    for shard in shards:
+        if shard.id != "0":
+            transaction.delete(shard.reference)
+    transaction.set(shards_ref.document("0"), {
+        "somaPonderada": soma_ponderada,
+        "somaPesos": soma_pesos,
+        "total": len(votos),
+    })
+    transaction.update(ideia_ref, {
+        "votosShardsInicializados": True,
+        "mediaPonderadaVotosComunidade": _media_ponderada(soma_ponderada, soma_pesos),
+        "totalVotosComunidade": len(votos),
+        "ultimaConsolidacaoVotos": firestore.SERVER_TIMESTAMP,
+    })
+    return True
+
 @firestore_fn.on_document_written(document="ideias/{ideiaId}/votosComunidade/{userId}")
 def calcular_media_votos_comunidade(event: firestore_fn.Event[firestore_fn.Change]) -> None:
     """
-    Calcula a média ponderada dos votos da comunidade e atualiza o documento da ideia principal.
+    Marca a ideia para a próxima consolidação. create() falha se a marca já existe, então uma
+    rajada de votos na mesma ideia gera uma única gravação até a consolidação seguinte.
     """
-    # Obtém o ID da ideia a partir do caminho do documento que disparou o evento
     ideia_id = event.params["ideiaId"]
-    print(f"Evento de escrita detectado para votos da ideia: {ideia_id}")
+    marca_ref = firestore.client().collection(VOTOS_PENDENTES_COLLECTION).document(ideia_id)
+    try:
+        marca_ref.create({"marcadaEm": firestore.SERVER_TIMESTAMP})
+    except AlreadyExists:
+        pass
+    except Exception:
+        logging.error(f"Erro ao marcar votos pendentes da ideia {ideia_id}", exc_info=True)
+        raise
+
+def _consolidar_votos(db, ideia_id: str) -> None:
+    ideia_ref = db.collection("ideias").document(ideia_id)
+    if _inicializar_shards_votos(db.transaction(), ideia_ref):
+        print(f"Shards de votos inicializados para a ideia {ideia_id}.")
+        return
+
+    if not ideia_ref.get().exists:
+        return
+
+    soma_ponderada = 0.0
+    soma_pesos = 0.0
+    total_votos = 0
+    for shard in ideia_ref.collection("votosShards").stream():
+        shard_data = shard.to_dict() or {}
+        soma_ponderada += float(shard_data.get("somaPonderada", 0.0))
+        soma_pesos += float(shard_data.get("somaPesos", 0.0))
+        total_votos += int(shard_data.get("total", 0))
+
+    media_ponderada = _media_ponderada(soma_ponderada, soma_pesos)
+    print(f"Cálculo para {ideia_id}: Média={media_ponderada}, Total Votos={total_votos}, Soma Pesos={soma_pesos}")
+
+    batch = db.batch()
+    batch.update(ideia_ref, {
+        "mediaPonderadaVotosComunidade": media_ponderada,
+        "totalVotosComunidade": total_votos,
+        "ultimaConsolidacaoVotos": firestore.SERVER_TIMESTAMP,
+    })
+    batch.set(db.collection("ideias_resumo").document(ideia_id), {
+        "mediaPonderadaVotosComunidade": media_ponderada,
+        "totalVotosComunidade": total_votos,
+    }, merge=True)
+    batch.commit()
+
+@scheduler_fn.on_schedule(schedule="every 1 minutes", timeout_sec=300)
+def consolidar_votos_pendentes(event: scheduler_fn.ScheduledEvent) -> None:
+    """
+    Consolida a média ponderada das ideias marcadas somando os shards (VOTOS_SHARDS leituras por
+    ideia). A marca é apagada antes da soma: um voto que chegar durante a consolidação marca a
+    ideia de novo e entra na execução seguinte. Se a consolidação falhar, a marca é recriada.
+    """
+    db = firestore.client()
+    marcas = list(db.collection(VOTOS_PENDENTES_COLLECTION).limit(LOTE_CONSOLIDACAO_VOTOS).stream())
+    falhas = 0
+    for marca in marcas:
+        ideia_id = marca.id
+        try:
+            marca.reference.delete()
+            _consolidar_votos(db, ideia_id)
+        except Exception:
+            falhas += 1
+            logging.error(f"Erro ao consolidar os votos da ideia {ideia_id}", exc_info=True)
+            try:
+                marca.reference.set({"marcadaEm": firestore.SERVER_TIMESTAMP})
+            except Exception:
+                logging.error(f"Erro ao remarcar votos pendentes da ideia {ideia_id}", exc_info=True)
+    if marcas:
+        print(f"Votos consolidados: {len(marcas) - falhas} ideias, {falhas} falhas.")
+
+# Resumos (ideias_resumo) das ideias criadas antes da projeção. O app lê config/migracoes e, enquanto
+# "ideiasResumo" não for true, monta as listas a partir da coleção "ideias" (MigracaoResumos.java).
+LOTE_BACKFILL_RESUMOS = 300
+MAX_TEXTO_BUSCA = 1500  # Deve ser igual a IdeiaSummary.MAX_TEXTO_BUSCA
+
+def _resumo_da_ideia(ideia_data: dict) -> dict:
+    """
+    Espelha IdeiaSummary.from(ideia) no app.
+    """
+    texto = ideia_data.get("descricao") or ""
+    for postits in juntar_postits(ideia_data).values():
+        for postit in postits:
+            if len(texto) >= MAX_TEXTO_BUSCA:
+                break
+            if isinstance(postit, dict) and postit.get("texto"):
+                texto += "\n" + str(postit["texto"])
+    return {
+        "nome": ideia_data.get("nome"),
+        "ownerId": ideia_data.get("ownerId"),
+        "autorNome": ideia_data.get("autorNome"),
+        "mentorId": ideia_data.get("mentorId"),
+        "status": ideia_data.get("status") or "RASCUNHO",
+        "timestamp": ideia_data.get("timestamp"),
+        "ultimaEdicao": ideia_data.get("ultimaEdicao"),
+        "areasNecessarias": ideia_data.get("areasNecessarias") or [],
+        "prontaParaInvestidores": bool(ideia_data.get("prontaParaInvestidores", False)),
+        "mediaPonderadaVotosComunidade": float(ideia_data.get("mediaPonderadaVotosComunidade") or 0.0),
+        "totalVotosComunidade": int(ideia_data.get("totalVotosComunidade") or 0),
+        "textoBusca": texto[:MAX_TEXTO_BUSCA],
+    }
 
+@scheduler_fn.on_schedule(schedule="every 1 hours", timeout_sec=540)
+def backfill_ideias_resumo(event: scheduler_fn.ScheduledEvent) -> None:
+    """
+    Grava o resumo de cada documento de "ideias", em lotes, e marca config/migracoes.ideiasResumo ao
+    terminar; depois disso cada execução custa uma leitura. O cursor fica salvo a cada lote, então
+    uma execução interrompida continua de onde parou na próxima.
+
+    Regrava também os resumos existentes (merge): uma edição de ideia antiga feita antes do backfill
+    cria um resumo só com os campos alterados.
+    """
     db = firestore.client()
-    # Referência para a subcoleção de votos da ideia específica
-    votos_ref = db.collection("ideias").document(ideia_id).collection("votosComunidade")
+    migracao_ref = db.collection("config").document("migracoes")
+    migracao = migracao_ref.get().to_dict() or {}
+    if migracao.get("ideiasResumo"):
+        return
+
+    ideias_ref = db.collection("ideias")
+    cursor = None
+    if migracao.get("ideiasResumoCursor"):
+        cursor = ideias_ref.document(migracao["ideiasResumoCursor"]).get()
+    total = 0
+    while True:
+        query = ideias_ref.order_by("__name__").limit(LOTE_BACKFILL_RESUMOS)
+        if cursor is not None and cursor.exists:
+            query = query.start_after(cursor)
+        docs = list(query.stream())
+
+        batch = db.batch()
+        for doc in docs:
+            batch.set(db.collection("ideias_resumo").document(doc.id), _resumo_da_ideia(doc.to_dict() or {}), merge=True)
+        if docs:
+            batch.set(migracao_ref, {"ideiasResumoCursor": docs[-1].id}, merge=True)
+            batch.commit()
+        total += len(docs)
+
+        if len(docs) < LOTE_BACKFILL_RESUMOS:
+            migracao_ref.set({"ideiasResumo": True}, merge=True)
+            print(f"Backfill de ideias_resumo concluído: {total} resumos gravados nesta execução.")
+            return
+        cursor = docs[-1]
+
+# Tombstones da busca local do app (IdeiaRepository.sincronizarRemocoesBusca): quando um resumo deixa de
+# ser público (despublicado ou excluído), o app precisa saber para tirá-lo do índice, mesmo que a
+# alteração tenha sido feita por outro usuário. Os tombstones ficam RETENCAO_REMOCOES_DIAS; um app sem
+# sincronizar há mais tempo que isso reconstrói o índice do zero.
+REMOCOES_BUSCA_COLLECTION = "ideias_resumo_removidas"
+STATUS_PUBLICOS = ("EM_AVALIACAO", "AVALIADA_APROVADA", "AVALIADA_REPROVADA")  # Iguais a publicIdeiasQuery
+RETENCAO_REMOCOES_DIAS = 30  # Deve ser igual a RETENCAO_REMOCOES_BUSCA_MS em IdeiaRepository.java
+LOTE_LIMPEZA_REMOCOES = 300
+
+def _resumo_publico(snapshot) -> bool:
+    return snapshot is not None and snapshot.exists and (snapshot.to_dict() or {}).get("status") in STATUS_PUBLICOS
+
+@firestore_fn.on_document_written(document="ideias_resumo/{ideiaId}")
+def registrar_remocao_busca(event: firestore_fn.Event[firestore_fn.Change]) -> None:
+    """
+    Grava o tombstone quando o resumo sai dos status públicos e o apaga quando ele volta.
+    """
+    antes_publico = _resumo_publico(event.data.before)
+    depois_publico = _resumo_publico(event.data.after)
+    if antes_publico == depois_publico:
+        return
+    ideia_id = event.params["ideiaId"]
+    tombstone_ref = firestore.client().collection(REMOCOES_BUSCA_COLLECTION).document(ideia_id)
+    try:
+        if depois_publico:
+            tombstone_ref.delete()
+        else:
+            tombstone_ref.set({"removidaEm": firestore.SERVER_TIMESTAMP})
+    except Exception:
+        logging.error(f"Erro ao atualizar o tombstone de busca da ideia {ideia_id}", exc_info=True)
+        raise
 
+@scheduler_fn.on_schedule(schedule="every 24 hours", timeout_sec=540)
+def limpar_remocoes_busca(event: scheduler_fn.ScheduledEvent) -> None:
+    """
+    Apaga os tombstones mais antigos que a retenção.
+    """
+    db = firestore.client()
+    limite = datetime.now(timezone.utc) - timedelta(days=RETENCAO_REMOCOES_DIAS)
+    total = 0
+    while True:
+        docs = list(db.collection(REMOCOES_BUSCA_COLLECTION)
+                    .where("removidaEm", "<", limite)
+                    .limit(LOTE_LIMPEZA_REMOCOES)
+                    .stream())
+        if not docs:
+            break
+        batch = db.batch()
+        for doc in docs:
+            batch.delete(doc.reference)
+        batch.commit()
+        total += len(docs)
+    print(f"Tombstones de busca apagados: {total}.")
+
+# Geohash dos mentores (busca por raio em MentorRepository.findMentoresProximos). O app grava o campo ao
+# salvar o perfil; o gatilho cobre gravações que não passam por ele (versões antigas do app, console)
+# e o backfill preenche os perfis gravados antes do campo existir.
+GEOHASH_BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz"
+GEOHASH_PRECISAO = 9  # Deve ser igual a GeoHash.PRECISAO_PADRAO
+LOTE_BACKFILL_GEOHASH = 300
+
+def _codificar_geohash(latitude: float, longitude: float, precisao: int = GEOHASH_PRECISAO) -> str:
+    """
+    Espelha GeoHash.codificar no app.
+    """
+    lat_min, lat_max, lon_min, lon_max = -90.0, 90.0, -180.0, 180.0
+    geohash = []
+    bit_longitude = True
+    bits = 0
+    valor = 0
+    while len(geohash) < precisao:
+        if bit_longitude:
+            meio = (lon_min + lon_max) / 2
+            if longitude >= meio:
+                valor = (valor << 1) | 1
+                lon_min = meio
+            else:
+                valor <<= 1
+                lon_max = meio
+        else:
+            meio = (lat_min + lat_max) / 2
+            if latitude >= meio:
+                valor = (valor << 1) | 1
+                lat_min = meio
+            else:
+                valor <<= 1
+                lat_max = meio
+        bit_longitude = not bit_longitude
+        bits += 1
+        if bits == 5:
+            geohash.append(GEOHASH_BASE32[valor])
+            bits = 0
+            valor = 0
+    return "".join(geohash)
+
+def _geohash_do_mentor(mentor_data: dict):
+    """
+    Espelha MentorRepository.preencherGeohash: sem coordenadas (0, 0), o mentor fica sem geohash.
+    """
+    latitude = float(mentor_data.get("latitude") or 0.0)
+    longitude = float(mentor_data.get("longitude") or 0.0)
+    if latitude == 0.0 and longitude == 0.0:
+        return None
+    return _codificar_geohash(latitude, longitude)
+
+@firestore_fn.on_document_written(document="mentores/{mentorId}")
+def sincronizar_geohash_mentor(event: firestore_fn.Event[firestore_fn.Change]) -> None:
+    """
+    Recalcula o geohash quando latitude/longitude mudam. Só grava se o valor for diferente, então a
+    própria atualização não dispara outra.
+    """
+    depois = event.data.after
+    if depois is None or not depois.exists:
+        return
+    mentor_data = depois.to_dict() or {}
+    geohash = _geohash_do_mentor(mentor_data)
+    if mentor_data.get("geohash") == geohash:
+        return
     try:
-        # Lê todos os documentos (votos) da subcoleção
-        votos_snapshot = list(votos_ref.stream()) # Converte para lista para poder contar
-
-        soma_votos_ponderados = 0.0
-        soma_pesos = 0.0
-        total_votos = len(votos_snapshot) # Conta quantos votos existem
-
-        # Itera sobre cada voto para calcular as somas
-        for voto_doc in votos_snapshot:
-            voto_data = voto_doc.to_dict()
-            voto = float(voto_data.get("voto", 0.0)) # Pega o valor do voto (default 0 se não existir)
-            peso = float(voto_data.get("peso", 1.0)) # Pega o peso (default 1 se não existir)
-
-            soma_votos_ponderados += voto * peso
-            soma_pesos += peso
-
-        # Calcula a média ponderada, tratando divisão por zero
-        media_ponderada = 0.0
-        if soma_pesos > 0:
-            media_ponderada = soma_votos_ponderados / soma_pesos
-            # Arredonda para 2 casas decimais (opcional)
-            media_ponderada = round(media_ponderada, 2)
-
-        print(f"Cálculo para {ideia_id}: Média={media_ponderada}, Total Votos={total_votos}, Soma Pesos={soma_pesos}")
-
-        # Prepara os dados para atualizar o documento principal da ideia
-        dados_atualizacao = {
-            "mediaPonderadaVotosComunidade": media_ponderada,
-            "totalVotosComunidade": total_votos
-        }
+        depois.reference.update({"geohash": geohash})
+    except Exception:
+        logging.error(f"Erro ao atualizar o geohash do mentor {event.params['mentorId']}", exc_info=True)
+        raise
+
+@scheduler_fn.on_schedule(schedule="every 1 hours", timeout_sec=540)
+def backfill_geohash_mentores(event: scheduler_fn.ScheduledEvent) -> None:
+    """
+    Grava o geohash de cada documento de "mentores", em lotes, e marca config/migracoes.mentoresGeohash
+    ao terminar (mesmo esquema de cursor de backfill_ideias_resumo).
+    """
+    db = firestore.client()
+    migracao_ref = db.collection("config").document("migracoes")
+    migracao = migracao_ref.get().to_dict() or {}
+    if migracao.get("mentoresGeohash"):
+        return
 
-        # Referência para o documento principal da ideia
-        ideia_ref = db.collection("ideias").document(ideia_id)
-        # Atualiza os campos no documento da ideia
-        ideia_ref.update(dados_atualizacao)
+    mentores_ref = db.collection("mentores")
+    cursor = None
+    if migracao.get("mentoresGeohashCursor"):
+        cursor = mentores_ref.document(migracao["mentoresGeohashCursor"]).get()
+    total = 0
+    while True:
+        query = mentores_ref.order_by("__name__").limit(LOTE_BACKFILL_GEOHASH)
+        if cursor is not None and cursor.exists:
+            query = query.start_after(cursor)
+        docs = list(query.stream())
+
+        batch = db.batch()
+        for doc in docs:
+            mentor_data = doc.to_dict() or {}
+            geohash = _geohash_do_mentor(mentor_data)
+            if mentor_data.get("geohash") != geohash:
+                batch.update(doc.reference, {"geohash": geohash})
+                total += 1
+        if docs:
+            batch.set(migracao_ref, {"mentoresGeohashCursor": docs[-1].id}, merge=True)
+            batch.commit()
+
+        if len(docs) < LOTE_BACKFILL_GEOHASH:
+            migracao_ref.set({"mentoresGeohash": True}, merge=True)
+            print(f"Backfill de geohash concluído: {total} mentores atualizados nesta execução.")
+            return
+        cursor = docs[-1]
 
-        print(f"Documento da ideia {ideia_id} atualizado com sucesso.")
+# Campo numérico "totalAvaliacoes" (somado no perfil com sum()) das ideias avaliadas antes de ele
+# existir. O app o grava junto com "avaliacoes" (IdeiaRepository.salvarAvaliacao).
+LOTE_BACKFILL_AVALIACOES = 300
 
-    except Exception as e:
-        print(f"Erro ao calcular média de votos para a ideia {ideia_id}: {e}")
-        # É importante não relançar o erro aqui para evitar retentativas infinitas do gatilho
+@scheduler_fn.on_schedule(schedule="every 1 hours", timeout_sec=540)
+def backfill_total_avaliacoes(event: scheduler_fn.ScheduledEvent) -> None:
+    """
+    Grava totalAvaliacoes = len(avaliacoes) em cada documento de "ideias", em lotes, e marca
+    config/migracoes.ideiasTotalAvaliacoes ao terminar (mesmo esquema de cursor de backfill_ideias_resumo).
+    """
+    db = firestore.client()
+    migracao_ref = db.collection("config").document("migracoes")
+    migracao = migracao_ref.get().to_dict() or {}
+    if migracao.get("ideiasTotalAvaliacoes"):
+        return
 
-        # Gatilho: Acionado quando um documento 'ideia' é ATUALIZADO
+    ideias_ref = db.collection("ideias")
+    cursor = None
+    if migracao.get("ideiasTotalAvaliacoesCursor"):
+        cursor = ideias_ref.document(migracao["ideiasTotalAvaliacoesCursor"]).get()
+    total = 0
+    while True:
+        query = ideias_ref.order_by("__name__").limit(LOTE_BACKFILL_AVALIACOES)
+        if cursor is not None and cursor.exists:
+            query = query.start_after(cursor)
+        docs = list(query.stream())
+
+        batch = db.batch()
+        for doc in docs:
+            ideia_data = doc.to_dict() or {}
+            avaliacoes = ideia_data.get("avaliacoes")
+            quantidade = len(avaliacoes) if isinstance(avaliacoes, list) else 0
+            if ideia_data.get("totalAvaliacoes") != quantidade:
+                batch.update(doc.reference, {"totalAvaliacoes": quantidade})
+                total += 1
+        if docs:
+            batch.set(migracao_ref, {"ideiasTotalAvaliacoesCursor": docs[-1].id}, merge=True)
+            batch.commit()
+
+        if len(docs) < LOTE_BACKFILL_AVALIACOES:
+            migracao_ref.set({"ideiasTotalAvaliacoes": True}, merge=True)
+            print(f"Backfill de totalAvaliacoes concluído: {total} ideias atualizadas nesta execução.")
+            return
+        cursor = docs[-1]
 
 @firestore_fn.on_document_updated(document="ideias/{ideiaId}")
 def notificar_avaliacao_mentor(event: firestore_fn.Event[firestore_fn.Change]) -> None: